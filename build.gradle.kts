@@ -17,4 +17,132 @@ dependencies {
 
 tasks.test {
     useJUnitPlatform()
-}
\ No newline at end of file
+    // Test JVMs have no console, which would otherwise disable styling
+    systemProperty("stylr.output", "always")
+    systemProperty("stylr.metrics", "true")
+}
+
+// Benchmarks: `gradle jmh` runs them, `gradle jmhCheck` compares the results with the
+// committed baseline and `gradle jmhBaseline` merges the last results into the baseline.
+val jmh: SourceSet by sourceSets.creating {
+    compileClasspath += sourceSets.main.get().output
+    runtimeClasspath += sourceSets.main.get().output
+}
+
+dependencies {
+    "jmhImplementation"("org.openjdk.jmh:jmh-core:1.37")
+    "jmhAnnotationProcessor"("org.openjdk.jmh:jmh-generator-annprocess:1.37")
+}
+
+val jmhResults = layout.buildDirectory.file("reports/jmh/results.json")
+val jmhBaselineFile = layout.projectDirectory.file("src/jmh/baseline.json")
+
+/** Score and error of the primary metric and, if profiled, of allocation per operation. */
+data class JmhResult(val score: Double, val error: Double, val allocated: Double?, val allocatedError: Double?)
+
+/** Reads JMH JSON results, or a baseline written by jmhBaseline, keyed by benchmark and parameters. */
+fun loadJmhResults(file: File): Map<String, JmhResult> {
+    fun number(value: Any?): Double? = (value as Number?)?.toDouble()?.takeUnless { it.isNaN() }
+
+    @Suppress("UNCHECKED_CAST")
+    val runs = groovy.json.JsonSlurper().parse(file) as List<Map<String, Any?>>
+    return runs.associate { run ->
+        val params = (run["params"] as Map<*, *>?)?.entries?.joinToString(",", "(", ")") { "${it.key}=${it.value}" } ?: ""
+        val primary = run["primaryMetric"] as Map<*, *>
+        val secondary = run["secondaryMetrics"] as Map<*, *>? ?: emptyMap<String, Any?>()
+        val allocation = (secondary["gc.alloc.rate.norm"] ?: secondary["·gc.alloc.rate.norm"]) as Map<*, *>?
+        "${run["benchmark"]}$params" to JmhResult(
+            number(primary["score"])!!, number(primary["scoreError"]) ?: 0.0,
+            number(allocation?.get("score")), number(allocation?.get("scoreError")))
+    }
+}
+
+tasks.register<JavaExec>("jmh") {
+    group = "verification"
+    description = "Runs the JMH benchmarks with allocation profiling."
+    classpath = jmh.runtimeClasspath
+    mainClass.set("org.openjdk.jmh.Main")
+    outputs.file(jmhResults)
+    outputs.upToDateWhen { false }
+
+    val include = providers.gradleProperty("jmh.include").getOrElse(".*")
+    args(include, "-prof", "gc", "-rf", "json", "-rff", jmhResults.get().asFile.path)
+    // Overrides of the annotations, for recording a steadier baseline
+    providers.gradleProperty("jmh.forks").orNull?.let { args("-f", it) }
+    providers.gradleProperty("jmh.warmupIterations").orNull?.let { args("-wi", it) }
+    providers.gradleProperty("jmh.iterations").orNull?.let { args("-i", it) }
+    doFirst { jmhResults.get().asFile.parentFile.mkdirs() }
+}
+
+tasks.register("jmhCheck") {
+    group = "verification"
+    description = "Fails if throughput or allocation per operation regressed against the JMH baseline."
+    dependsOn("jmh")
+    inputs.file(jmhBaselineFile)
+
+    val throughputTolerance = providers.gradleProperty("jmh.throughputTolerance").getOrElse("0.15").toDouble()
+    val allocationTolerance = providers.gradleProperty("jmh.allocationTolerance").getOrElse("0.10").toDouble()
+    val results = jmhResults
+    val baseline = jmhBaselineFile
+
+    doLast {
+        val expected = loadJmhResults(baseline.asFile)
+        val actual = loadJmhResults(results.get().asFile)
+        val failures = mutableListOf<String>()
+
+        for ((name, result) in actual) {
+            val reference = expected[name]
+            if (reference == null) {
+                failures += "$name: no baseline, run `gradle jmhBaseline` to record one"
+                continue
+            }
+
+            // Only a drop beyond both confidence intervals counts, so noisy benchmarks cannot flap
+            val best = result.score + result.error
+            val worstReference = (reference.score - reference.error) * (1 - throughputTolerance)
+            if (best < worstReference) {
+                failures += "%s: throughput %.1f ± %.1f is below baseline %.1f ± %.1f".format(
+                    name, result.score, result.error, reference.score, reference.error)
+            }
+            if (result.allocated != null && reference.allocated != null
+                    && result.allocated > reference.allocated * (1 + allocationTolerance) + 8) {
+                failures += "%s: %.1f B/op allocated, baseline %.1f B/op".format(name, result.allocated, reference.allocated)
+            }
+        }
+
+        if (failures.isNotEmpty()) {
+            throw GradleException("Benchmark regressions:\n  " + failures.joinToString("\n  "))
+        }
+        logger.lifecycle("${actual.size} benchmarks within tolerance of the baseline")
+    }
+}
+
+tasks.register("jmhBaseline") {
+    group = "verification"
+    description = "Merges the results of the last run into the committed JMH baseline."
+    val results = jmhResults
+    val baseline = jmhBaselineFile
+
+    doLast {
+        val merged = sortedMapOf<String, JmhResult>()
+        if (baseline.asFile.exists()) merged.putAll(loadJmhResults(baseline.asFile))
+        merged.putAll(loadJmhResults(results.get().asFile))
+
+        // Only the scores are kept; JVM paths and versions of the recording host are left out
+        val runs = merged.map { (name, result) ->
+            val benchmark = name.substringBefore('(')
+            val params = name.substringAfter('(', "").removeSuffix(")").split(',').filter { it.isNotEmpty() }
+                .associate { it.substringBefore('=') to it.substringAfter('=') }
+            val run = linkedMapOf<String, Any>("benchmark" to benchmark)
+            if (params.isNotEmpty()) run["params"] = params
+            run["primaryMetric"] = mapOf("score" to result.score, "scoreError" to result.error)
+            if (result.allocated != null) {
+                run["secondaryMetrics"] = mapOf("gc.alloc.rate.norm" to
+                        mapOf("score" to result.allocated, "scoreError" to (result.allocatedError ?: 0.0)))
+            }
+            run
+        }
+        baseline.asFile.writeText(groovy.json.JsonOutput.prettyPrint(groovy.json.JsonOutput.toJson(runs)) + "\n")
+        logger.lifecycle("${runs.size} benchmarks in ${baseline.asFile.name}")
+    }
+}
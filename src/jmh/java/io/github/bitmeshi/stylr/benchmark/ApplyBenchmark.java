@@ -0,0 +1,81 @@
+package io.github.bitmeshi.stylr.benchmark;
+
+import io.github.bitmeshi.stylr.BasicColor;
+import io.github.bitmeshi.stylr.Markup;
+import io.github.bitmeshi.stylr.Style;
+import io.github.bitmeshi.stylr.StyledTemplate;
+import io.github.bitmeshi.stylr.Stylr;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Applying prebuilt styles to short and long texts, on one thread and on several.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Dstylr.output=always")
+@State(Scope.Benchmark)
+public class ApplyBenchmark {
+    @Param({"8", "1024"})
+    private int length;
+
+    private Style style;
+    private StyledTemplate template;
+    private String text;
+
+    @Setup
+    public void setup() {
+        style = Stylr.style().color(BasicColor.CYAN).bold().underlined().build();
+        template = StyledTemplate.compile("{level} {logger}: {msg}", Map.of("level", style));
+        text = "x".repeat(length);
+    }
+
+    @Benchmark
+    public String apply() {
+        return style.apply(text);
+    }
+
+    @Benchmark
+    public StringBuilder appendTo(Buffer buffer) throws IOException {
+        buffer.sb.setLength(0);
+        return style.appendTo(buffer.sb, text);
+    }
+
+    @Benchmark
+    public String template() {
+        return template.render("INFO", "bench", text);
+    }
+
+    @Benchmark
+    public String markup() {
+        return Markup.render("[bold red]Error[/] at [#888]Main.java[/]");
+    }
+
+    @Benchmark
+    @Threads(4)
+    public String applyConcurrently() {
+        return style.apply(text);
+    }
+
+    /** A reusable output buffer per thread. */
+    @State(Scope.Thread)
+    public static class Buffer {
+        private final StringBuilder sb = new StringBuilder(2048);
+    }
+}
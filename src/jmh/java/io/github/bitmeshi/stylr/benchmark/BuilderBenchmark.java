@@ -0,0 +1,44 @@
+package io.github.bitmeshi.stylr.benchmark;
+
+import io.github.bitmeshi.stylr.BasicColor;
+import io.github.bitmeshi.stylr.Style;
+import io.github.bitmeshi.stylr.Stylr;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Creating styles with the builders, including the interning style cache.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Dstylr.output=always")
+@State(Scope.Thread)
+public class BuilderBenchmark {
+    private String text = "Hello";
+
+    @Benchmark
+    public Style buildBasic() {
+        return Stylr.style().color(BasicColor.RED).bold().build();
+    }
+
+    @Benchmark
+    public Style buildRgb() {
+        return Stylr.style().color(255, 128, 0).bgColor(BasicColor.BLUE).italic().underlined().build();
+    }
+
+    @Benchmark
+    public String textStylerRender() {
+        return Stylr.of(text).color(BasicColor.GREEN).bold().render();
+    }
+}
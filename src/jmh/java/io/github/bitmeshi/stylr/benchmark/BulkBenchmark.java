@@ -0,0 +1,86 @@
+package io.github.bitmeshi.stylr.benchmark;
+
+import io.github.bitmeshi.stylr.BasicColor;
+import io.github.bitmeshi.stylr.Style;
+import io.github.bitmeshi.stylr.Stylr;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Styling a column of texts, one by one and with the bulk methods.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Dstylr.output=always")
+@State(Scope.Thread)
+public class BulkBenchmark {
+    @Param({"100", "10000"})
+    private int rows;
+
+    private Style style;
+    private String[] texts;
+    private String[] out;
+
+    @Setup
+    public void setup() {
+        style = Stylr.style().color(BasicColor.CYAN).bold().build();
+        texts = new String[rows];
+        for (int i = 0; i < rows; i++) {
+            texts[i] = "row-" + i;
+        }
+        out = new String[rows];
+    }
+
+    @Benchmark
+    public String[] applyLoop() {
+        for (int i = 0; i < texts.length; i++) {
+            out[i] = style.apply(texts[i]);
+        }
+        return out;
+    }
+
+    @Benchmark
+    public String[] applyAll() {
+        return style.applyAll(texts, out);
+    }
+
+    @Benchmark
+    public String[] parallelApplyAll() {
+        return style.parallelApplyAll(texts, out);
+    }
+
+    @Benchmark
+    public String joinLoop() {
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < texts.length; i++) {
+            if (i > 0) sb.append(", ");
+            sb.append(style.apply(texts[i]));
+        }
+        return sb.toString();
+    }
+
+    @Benchmark
+    public String joinCollectors() {
+        return Arrays.stream(texts).map(style::apply).collect(Collectors.joining(", "));
+    }
+
+    @Benchmark
+    public String joining() {
+        return Arrays.stream(texts).collect(style.joining(", "));
+    }
+}
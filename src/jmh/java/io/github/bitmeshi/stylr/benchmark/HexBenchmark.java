@@ -0,0 +1,43 @@
+package io.github.bitmeshi.stylr.benchmark;
+
+import io.github.bitmeshi.stylr.internal.color.Rgb;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Parsing hex color strings.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Dstylr.output=always")
+@State(Scope.Thread)
+public class HexBenchmark {
+    private String longForm = "#FF8800";
+    private String shortForm = "f80";
+
+    @Benchmark
+    public Rgb fromHexLong() {
+        return Rgb.fromHex(longForm);
+    }
+
+    @Benchmark
+    public Rgb fromHexShort() {
+        return Rgb.fromHex(shortForm);
+    }
+
+    @Benchmark
+    public int parseHex() {
+        return Rgb.parseHex(longForm);
+    }
+}
@@ -0,0 +1,48 @@
+package io.github.bitmeshi.stylr.benchmark;
+
+import io.github.bitmeshi.stylr.internal.AnsiCodeGenerator;
+import io.github.bitmeshi.stylr.internal.SgrEncoder;
+import io.github.bitmeshi.stylr.internal.StyleConfig;
+import io.github.bitmeshi.stylr.internal.color.PackedColor;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Encoding style configurations into SGR prefixes.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Dstylr.output=always")
+@State(Scope.Thread)
+public class PrefixBenchmark {
+    private StyleConfig basic = new StyleConfig(PackedColor.basic(1), PackedColor.NONE, StyleConfig.BOLD);
+    private StyleConfig rgb = new StyleConfig(PackedColor.rgb(255, 128, 0), PackedColor.rgb(0, 0, 64),
+            StyleConfig.BOLD | StyleConfig.ITALIC | StyleConfig.UNDERLINED);
+    private final char[] buffer = new char[SgrEncoder.MAX_LENGTH];
+
+    @Benchmark
+    public String prefixBasic() {
+        return AnsiCodeGenerator.getAnsiPrefix(basic);
+    }
+
+    @Benchmark
+    public String prefixRgb() {
+        return AnsiCodeGenerator.getAnsiPrefix(rgb);
+    }
+
+    @Benchmark
+    public int encodeRgbIntoBuffer() {
+        return SgrEncoder.encode(rgb, buffer, 0);
+    }
+}
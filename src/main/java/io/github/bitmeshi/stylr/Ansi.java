@@ -0,0 +1,597 @@
+package io.github.bitmeshi.stylr;
+
+import io.github.bitmeshi.stylr.internal.AnsiScanner;
+import io.github.bitmeshi.stylr.internal.CharWidth;
+import io.github.bitmeshi.stylr.internal.Metrics;
+import io.github.bitmeshi.stylr.internal.SgrEncoder;
+import io.github.bitmeshi.stylr.internal.SgrState;
+
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.Objects;
+
+/**
+ * Utilities for text that already contains ANSI escape sequences.
+ * <p>
+ * The {@code strip} methods remove SGR codes and every other CSI sequence, OSC strings
+ * (such as hyperlinks and window titles) and the remaining ECMA-48 escape sequences in
+ * a single pass, without regular expressions. Input without an ESC character is
+ * returned as the same instance, so stripping plain text does not allocate.
+ * <p>
+ * The overloads that take a destination buffer write the stripped text into it and
+ * return the index just past the last written element. Stripped output is never longer
+ * than the input, so a destination as large as the input always suffices, and the
+ * source array may also be passed as the destination to strip in place.
+ * <p>
+ * {@link #displayWidth(CharSequence)} measures the columns a styled text occupies,
+ * skipping escape sequences and counting wide chars such as CJK and emoji as two.
+ * The same width rules drive {@code truncate}, the {@code pad} methods and
+ * {@code visibleSubstring}, which cut and align styled text without breaking escape
+ * sequences or leaking a style past the cut.
+ *
+ * <h2>Usage Example</h2>
+ * <pre>{@code
+ * String styled = Stylr.of("Error").color(BasicColor.RED).render();
+ * String plain = Ansi.strip(styled);    // "Error"
+ * int width = Ansi.displayWidth(styled); // 5
+ *
+ * // Strip UTF-8 log lines before indexing them
+ * byte[] line = ...;
+ * int end = Ansi.strip(line, 0, line.length, line, 0);
+ * }</pre>
+ *
+ * @since 1.0
+ */
+public final class Ansi {
+    private static final int ZERO_WIDTH_JOINER = 0x200D;
+    private static final String ANSI_RESET = "\u001b[0m";
+
+    private Ansi() {
+        throw new IllegalStateException("Utility class cannot be instantiated");
+    }
+
+    /**
+     * Removes all ANSI escape sequences from a string.
+     *
+     * @param text the text to strip, must not be null
+     * @return the text without escape sequences; the same instance if it contains none
+     * @throws NullPointerException if text is null
+     */
+    public static String strip(String text) {
+        Objects.requireNonNull(text, "Text cannot be null");
+
+        int esc = text.indexOf(AnsiScanner.ESC);
+        if (esc < 0) return text;
+
+        return strip(text, esc, new StringBuilder(text.length())).toString();
+    }
+
+    /**
+     * Removes all ANSI escape sequences from a character sequence.
+     *
+     * @param text the text to strip, must not be null
+     * @return the text without escape sequences; the same instance if it contains none
+     * @throws NullPointerException if text is null
+     */
+    public static CharSequence strip(CharSequence text) {
+        Objects.requireNonNull(text, "Text cannot be null");
+
+        int esc = AnsiScanner.indexOfEscape(text, 0, text.length());
+        if (esc < 0) return text;
+
+        return strip(text, esc, new StringBuilder(text.length())).toString();
+    }
+
+    /**
+     * Appends a character sequence without its ANSI escape sequences to a {@link StringBuilder}.
+     *
+     * @param text the text to strip, must not be null
+     * @param dst the builder to append to, must not be null
+     * @return the given builder
+     * @throws NullPointerException if text or dst is null
+     */
+    public static StringBuilder strip(CharSequence text, StringBuilder dst) {
+        Objects.requireNonNull(text, "Text cannot be null");
+        Objects.requireNonNull(dst, "StringBuilder cannot be null");
+
+        int esc = AnsiScanner.indexOfEscape(text, 0, text.length());
+        if (esc < 0) return dst.append(text);
+
+        return strip(text, esc, dst);
+    }
+
+    /**
+     * Writes a range of a character sequence without its ANSI escape sequences into a char array.
+     *
+     * @param text the text to strip, must not be null
+     * @param start the index of the first char to strip
+     * @param end the index after the last char to strip
+     * @param dst the destination array, must not be null
+     * @param offset the index at which to start writing
+     * @return the index just past the last written char
+     * @throws NullPointerException if text or dst is null
+     * @throws IndexOutOfBoundsException if a range is out of bounds or dst is too small
+     */
+    public static int strip(CharSequence text, int start, int end, char[] dst, int offset) {
+        Objects.requireNonNull(text, "Text cannot be null");
+        Objects.requireNonNull(dst, "Destination cannot be null");
+        Objects.checkFromToIndex(start, end, text.length());
+
+        int length = end - start;
+        int pos = offset;
+        int esc = AnsiScanner.indexOfEscape(text, start, end);
+
+        while (esc >= 0) {
+            pos = copy(text, start, esc, dst, pos);
+            start = AnsiScanner.sequenceEnd(text, esc, end);
+            esc = AnsiScanner.indexOfEscape(text, start, end);
+        }
+
+        pos = copy(text, start, end, dst, pos);
+        Metrics.stripped(length - (pos - offset));
+        return pos;
+    }
+
+    /**
+     * Removes all ANSI escape sequences from a char array.
+     *
+     * @param text the chars to strip, must not be null
+     * @return the chars without escape sequences; the same array if it contains none
+     * @throws NullPointerException if text is null
+     */
+    public static char[] strip(char[] text) {
+        Objects.requireNonNull(text, "Text cannot be null");
+
+        if (AnsiScanner.indexOfEscape(text, 0, text.length) < 0) return text;
+
+        char[] stripped = new char[text.length];
+        int end = strip(text, 0, text.length, stripped, 0);
+        return Arrays.copyOf(stripped, end);
+    }
+
+    /**
+     * Writes a range of a char array without its ANSI escape sequences into a char array.
+     * <p>
+     * {@code dst} may be the source array as long as {@code offset <= off}.
+     *
+     * @param text the chars to strip, must not be null
+     * @param off the index of the first char to strip
+     * @param len the number of chars to strip
+     * @param dst the destination array, must not be null
+     * @param offset the index at which to start writing
+     * @return the index just past the last written char
+     * @throws NullPointerException if text or dst is null
+     * @throws IndexOutOfBoundsException if a range is out of bounds or dst is too small
+     */
+    public static int strip(char[] text, int off, int len, char[] dst, int offset) {
+        Objects.requireNonNull(text, "Text cannot be null");
+        Objects.requireNonNull(dst, "Destination cannot be null");
+        Objects.checkFromIndexSize(off, len, text.length);
+
+        int end = off + len;
+        int pos = offset;
+        int esc = AnsiScanner.indexOfEscape(text, off, end);
+
+        while (esc >= 0) {
+            System.arraycopy(text, off, dst, pos, esc - off);
+            pos += esc - off;
+            off = AnsiScanner.sequenceEnd(text, esc, end);
+            esc = AnsiScanner.indexOfEscape(text, off, end);
+        }
+
+        System.arraycopy(text, off, dst, pos, end - off);
+        pos += end - off;
+        Metrics.stripped(len - (pos - offset));
+        return pos;
+    }
+
+    /**
+     * Removes all ANSI escape sequences from UTF-8 encoded text.
+     *
+     * @param utf8 the bytes to strip, must not be null
+     * @return the bytes without escape sequences; the same array if it contains none
+     * @throws NullPointerException if utf8 is null
+     */
+    public static byte[] strip(byte[] utf8) {
+        Objects.requireNonNull(utf8, "Text cannot be null");
+
+        if (AnsiScanner.indexOfEscape(utf8, 0, utf8.length) < 0) return utf8;
+
+        byte[] stripped = new byte[utf8.length];
+        int end = strip(utf8, 0, utf8.length, stripped, 0);
+        return Arrays.copyOf(stripped, end);
+    }
+
+    /**
+     * Writes a range of UTF-8 encoded text without its ANSI escape sequences into a byte array.
+     * <p>
+     * {@code dst} may be the source array as long as {@code offset <= off}.
+     *
+     * @param utf8 the bytes to strip, must not be null
+     * @param off the index of the first byte to strip
+     * @param len the number of bytes to strip
+     * @param dst the destination array, must not be null
+     * @param offset the index at which to start writing
+     * @return the index just past the last written byte
+     * @throws NullPointerException if utf8 or dst is null
+     * @throws IndexOutOfBoundsException if a range is out of bounds or dst is too small
+     */
+    public static int strip(byte[] utf8, int off, int len, byte[] dst, int offset) {
+        Objects.requireNonNull(utf8, "Text cannot be null");
+        Objects.requireNonNull(dst, "Destination cannot be null");
+        Objects.checkFromIndexSize(off, len, utf8.length);
+
+        int end = off + len;
+        int pos = offset;
+        int esc = AnsiScanner.indexOfEscape(utf8, off, end);
+
+        while (esc >= 0) {
+            System.arraycopy(utf8, off, dst, pos, esc - off);
+            pos += esc - off;
+            off = AnsiScanner.sequenceEnd(utf8, esc, end);
+            esc = AnsiScanner.indexOfEscape(utf8, off, end);
+        }
+
+        System.arraycopy(utf8, off, dst, pos, end - off);
+        pos += end - off;
+        Metrics.stripped(len - (pos - offset));
+        return pos;
+    }
+
+    /**
+     * Removes all ANSI escape sequences from the remaining bytes of a UTF-8 buffer.
+     * <p>
+     * The position of {@code src} is not changed.
+     *
+     * @param src the bytes to strip, must not be null
+     * @return the stripped bytes as a new buffer; {@code src} itself if it contains no ESC
+     * @throws NullPointerException if src is null
+     */
+    public static ByteBuffer strip(ByteBuffer src) {
+        Objects.requireNonNull(src, "ByteBuffer cannot be null");
+
+        if (!containsEscape(src)) return src;
+
+        ByteBuffer stripped = ByteBuffer.allocate(src.remaining());
+        strip(src.duplicate(), stripped);
+        return stripped.flip();
+    }
+
+    /**
+     * Writes the remaining bytes of a UTF-8 buffer without ANSI escape sequences into another buffer.
+     * <p>
+     * {@code src} is consumed and {@code dst} is advanced past the written bytes. Either all
+     * of {@code src} is processed or, if {@code dst} has less room than {@code src} has
+     * remaining bytes, nothing is.
+     *
+     * @param src the bytes to strip, must not be null
+     * @param dst the destination buffer, must not be null
+     * @return the given destination buffer
+     * @throws BufferOverflowException if dst has less space remaining than src has bytes
+     * @throws java.nio.ReadOnlyBufferException if dst is read-only
+     * @throws NullPointerException if src or dst is null
+     */
+    public static ByteBuffer strip(ByteBuffer src, ByteBuffer dst) {
+        Objects.requireNonNull(src, "ByteBuffer cannot be null");
+        Objects.requireNonNull(dst, "Destination cannot be null");
+        if (dst.remaining() < src.remaining()) throw new BufferOverflowException();
+
+        if (src.hasArray() && dst.hasArray()) {
+            int dstStart = dst.arrayOffset() + dst.position();
+            int dstEnd = strip(src.array(), src.arrayOffset() + src.position(), src.remaining(), dst.array(), dstStart);
+            src.position(src.limit());
+            dst.position(dst.position() + dstEnd - dstStart);
+            return dst;
+        }
+
+        // Direct or read-only buffers: strip a heap copy
+        byte[] bytes = new byte[src.remaining()];
+        src.get(bytes);
+        int end = strip(bytes, 0, bytes.length, bytes, 0);
+        return dst.put(bytes, 0, end);
+    }
+
+    /**
+     * Returns the number of terminal columns a text occupies when printed.
+     * <p>
+     * Escape sequences take no space. East Asian wide chars and emoji take two
+     * columns; combining marks, zero-width chars and code points joined to the
+     * previous one by a zero-width joiner take none. Control chars are not counted.
+     *
+     * @param text the text to measure, may contain escape sequences; must not be null
+     * @return the display width in columns
+     * @throws NullPointerException if text is null
+     */
+    public static int displayWidth(CharSequence text) {
+        Objects.requireNonNull(text, "Text cannot be null");
+        return displayWidth(text, 0, text.length());
+    }
+
+    /**
+     * Returns the number of terminal columns a range of text occupies when printed.
+     *
+     * @param text the text to measure, may contain escape sequences; must not be null
+     * @param start the index of the first char to measure
+     * @param end the index after the last char to measure
+     * @return the display width in columns
+     * @throws NullPointerException if text is null
+     * @throws IndexOutOfBoundsException if the range is out of bounds
+     * @see #displayWidth(CharSequence)
+     */
+    public static int displayWidth(CharSequence text, int start, int end) {
+        Objects.requireNonNull(text, "Text cannot be null");
+        Objects.checkFromToIndex(start, end, text.length());
+
+        int width = 0;
+        int i = start;
+        boolean joined = false;
+
+        while (i < end) {
+            char c = text.charAt(i);
+
+            // Printable ASCII needs no table lookup
+            if (c >= 0x20 && c < 0x7F) {
+                width++;
+                i++;
+                joined = false;
+                continue;
+            }
+            if (c == AnsiScanner.ESC) {
+                i = AnsiScanner.sequenceEnd(text, i, end);
+                continue;
+            }
+
+            int codePoint = c;
+            i++;
+            if (Character.isHighSurrogate(c) && i < end && Character.isLowSurrogate(text.charAt(i))) {
+                codePoint = Character.toCodePoint(c, text.charAt(i++));
+            }
+
+            if (joined) {
+                // Drawn as part of the code point before the zero-width joiner
+                joined = false;
+            } else if (codePoint == ZERO_WIDTH_JOINER) {
+                joined = true;
+            } else {
+                width += CharWidth.of(codePoint);
+            }
+        }
+
+        return width;
+    }
+
+    /**
+     * Shortens a styled text to fit into the given number of columns.
+     * <p>
+     * If the text is wider than {@code columns}, it is cut so that the visible part and
+     * the ellipsis fit, the ellipsis is written in the style active at the cut, and the
+     * style is then reset. Wide chars are never split; a cut that would fall inside one
+     * leaves a column empty instead.
+     *
+     * @param text the text to truncate, may contain escape sequences; must not be null
+     * @param columns the maximum display width, must not be negative
+     * @param ellipsis the text to put at the cut, such as {@code "…"}; may be empty, must not be null
+     * @return the truncated text; the same instance if it already fits
+     * @throws NullPointerException if text or ellipsis is null
+     * @throws IllegalArgumentException if columns is negative
+     */
+    public static String truncate(String text, int columns, String ellipsis) {
+        Objects.requireNonNull(text, "Text cannot be null");
+        Objects.requireNonNull(ellipsis, "Ellipsis cannot be null");
+        if (columns < 0) {
+            throw new IllegalArgumentException("Columns cannot be negative");
+        }
+
+        if (displayWidth(text) <= columns) return text;
+
+        int ellipsisWidth = displayWidth(ellipsis);
+        if (ellipsisWidth > columns) {
+            ellipsis = truncate(ellipsis, columns, "");
+            ellipsisWidth = displayWidth(ellipsis);
+        }
+
+        return slice(text, 0, columns - ellipsisWidth, ellipsis, new StringBuilder(text.length() + ellipsis.length()))
+                .toString();
+    }
+
+    /**
+     * Pads a styled text with spaces on the right to the given display width.
+     *
+     * @param text the text to pad, may contain escape sequences; must not be null
+     * @param columns the display width to pad to
+     * @return the padded text; the same instance if it is already at least that wide
+     * @throws NullPointerException if text is null
+     */
+    public static String padRight(String text, int columns) {
+        return pad(text, columns, 0);
+    }
+
+    /**
+     * Pads a styled text with spaces on the left to the given display width.
+     *
+     * @param text the text to pad, may contain escape sequences; must not be null
+     * @param columns the display width to pad to
+     * @return the padded text; the same instance if it is already at least that wide
+     * @throws NullPointerException if text is null
+     */
+    public static String padLeft(String text, int columns) {
+        return pad(text, columns, Integer.MAX_VALUE);
+    }
+
+    /**
+     * Centers a styled text within the given display width by padding it with spaces.
+     * <p>
+     * If the padding cannot be split evenly, the extra space goes to the right.
+     *
+     * @param text the text to center, may contain escape sequences; must not be null
+     * @param columns the display width to pad to
+     * @return the padded text; the same instance if it is already at least that wide
+     * @throws NullPointerException if text is null
+     */
+    public static String center(String text, int columns) {
+        return pad(text, columns, -1);
+    }
+
+    /**
+     * Returns the part of a styled text between two display columns.
+     * <p>
+     * The result starts with the SGR codes of the style active at {@code start}, keeps
+     * the escape sequences inside the range, and is reset at the end if a style is still
+     * active. Wide chars that would be split by either bound are left out; zero-width
+     * chars stay with the char they follow.
+     *
+     * @param text the text to cut, may contain escape sequences; must not be null
+     * @param start the first column to include
+     * @param end the column after the last column to include
+     * @return the visible substring; the same instance if it covers the whole text
+     * @throws NullPointerException if text is null
+     * @throws IllegalArgumentException if start is negative or end is less than start
+     */
+    public static String visibleSubstring(String text, int start, int end) {
+        Objects.requireNonNull(text, "Text cannot be null");
+        if (start < 0 || end < start) {
+            throw new IllegalArgumentException("Invalid column range: " + start + " to " + end);
+        }
+
+        if (start == 0 && displayWidth(text) <= end) return text;
+
+        return slice(text, start, end, "", new StringBuilder(text.length())).toString();
+    }
+
+    private static String pad(String text, int columns, int leftShare) {
+        Objects.requireNonNull(text, "Text cannot be null");
+
+        int padding = columns - displayWidth(text);
+        if (padding <= 0) return text;
+
+        int left = leftShare < 0 ? padding / 2 : Math.min(padding, leftShare);
+        StringBuilder sb = new StringBuilder(text.length() + padding);
+        appendSpaces(sb, left).append(text);
+        return appendSpaces(sb, padding - left).toString();
+    }
+
+    private static StringBuilder appendSpaces(StringBuilder sb, int count) {
+        for (int i = 0; i < count; i++) {
+            sb.append(' ');
+        }
+        return sb;
+    }
+
+    /**
+     * Appends the code points between two columns, re-emitting the style active at
+     * {@code startColumn} and resetting it after {@code suffix}.
+     */
+    private static StringBuilder slice(CharSequence text, int startColumn, int endColumn, String suffix, StringBuilder out) {
+        SgrState sgr = new SgrState();
+        int length = text.length();
+        int column = 0;
+        int i = 0;
+        boolean started = false;
+        boolean styled = false;
+        boolean included = startColumn == 0;
+        boolean joined = false;
+
+        while (i < length) {
+            char c = text.charAt(i);
+
+            if (c == AnsiScanner.ESC) {
+                int sequenceEnd = AnsiScanner.sequenceEnd(text, i, length);
+                boolean isSgr = sgr.applySequence(text, i, sequenceEnd);
+                if (started && column < endColumn) {
+                    out.append(text, i, sequenceEnd);
+                    if (isSgr) styled = !sgr.isEmpty();
+                }
+                i = sequenceEnd;
+                continue;
+            }
+
+            int codePointStart = i++;
+            int codePoint = c;
+            if (Character.isHighSurrogate(c) && i < length && Character.isLowSurrogate(text.charAt(i))) {
+                codePoint = Character.toCodePoint(c, text.charAt(i++));
+            }
+
+            int width;
+            if (c >= 0x20 && c < 0x7F) {
+                // Printable ASCII is never joined, as in displayWidth
+                width = 1;
+                joined = false;
+            } else if (joined) {
+                width = 0;
+                joined = false;
+            } else if (codePoint == ZERO_WIDTH_JOINER) {
+                width = 0;
+                joined = true;
+            } else {
+                width = CharWidth.of(codePoint);
+            }
+
+            if (width > 0) {
+                if (column + width > endColumn) break;
+                included = column >= startColumn;
+                column += width;
+            }
+
+            if (included) {
+                if (!started) {
+                    started = true;
+                    styled = !sgr.isEmpty();
+                    SgrEncoder.encode(sgr.toConfig(), out);
+                }
+                out.append(text, codePointStart, i);
+            }
+        }
+
+        if (!suffix.isEmpty()) {
+            if (!started) {
+                styled = !sgr.isEmpty();
+                SgrEncoder.encode(sgr.toConfig(), out);
+            }
+            out.append(suffix);
+        }
+        if (styled) out.append(ANSI_RESET);
+        return out;
+    }
+
+    private static StringBuilder strip(CharSequence text, int esc, StringBuilder dst) {
+        int start = 0;
+        int end = text.length();
+        int removed = 0;
+
+        while (esc >= 0) {
+            dst.append(text, start, esc);
+            start = AnsiScanner.sequenceEnd(text, esc, end);
+            removed += start - esc;
+            esc = AnsiScanner.indexOfEscape(text, start, end);
+        }
+
+        Metrics.stripped(removed);
+        return dst.append(text, start, end);
+    }
+
+    private static int copy(CharSequence text, int start, int end, char[] dst, int pos) {
+        if (text instanceof String string) {
+            string.getChars(start, end, dst, pos);
+            return pos + end - start;
+        }
+
+        Objects.checkFromIndexSize(pos, end - start, dst.length);
+        for (int i = start; i < end; i++) {
+            dst[pos++] = text.charAt(i);
+        }
+        return pos;
+    }
+
+    private static boolean containsEscape(ByteBuffer src) {
+        if (src.hasArray()) {
+            int start = src.arrayOffset() + src.position();
+            return AnsiScanner.indexOfEscape(src.array(), start, start + src.remaining()) >= 0;
+        }
+
+        for (int i = src.position(); i < src.limit(); i++) {
+            if (src.get(i) == AnsiScanner.ESC) return true;
+        }
+        return false;
+    }
+}
@@ -0,0 +1,517 @@
+package io.github.bitmeshi.stylr;
+
+import io.github.bitmeshi.stylr.internal.AnsiScanner;
+import io.github.bitmeshi.stylr.internal.SgrState;
+import io.github.bitmeshi.stylr.internal.StyleConfig;
+
+import java.io.IOException;
+import java.util.Objects;
+
+/**
+ * A push-based tokenizer for terminal output that contains ANSI escape sequences.
+ * <p>
+ * Input is fed in chunks of any size, as chars or as UTF-8 bytes, and the tokenizer
+ * reports text runs and parsed escape sequences to a {@link Handler}. It is a state
+ * machine modeled on the VT500 parser, so a sequence or a UTF-8 character split across
+ * two chunks is parsed as if it had arrived at once, without buffering the stream.
+ * Memory use is constant: parameters, intermediates and OSC strings are kept in
+ * fixed-size buffers, and longer sequences are truncated.
+ * <p>
+ * SGR sequences ({@code ESC [ ... m}) are decoded into the style model used by the
+ * rest of the library. The tokenizer tracks the style in effect and reports it as a
+ * {@link Style} after every SGR sequence, so a handler can re-style, downsample or drop
+ * colors without parsing parameters itself. Other CSI sequences, OSC strings and
+ * escape sequences are reported with their parsed parts; DCS, SOS, PM and APC strings
+ * are consumed silently.
+ * <p>
+ * Sequences are recognized with the same rules as {@link Ansi#strip(String)}: a CSI
+ * sequence is cut short by any char outside its grammar, which is then treated as
+ * text, and a lone ESC is dropped.
+ * <p>
+ * Arrays and sequences passed to the handler are only valid during the call. This
+ * class is not thread-safe.
+ *
+ * <h2>Usage Example</h2>
+ * <pre>{@code
+ * StyledWriter out = ...;
+ * AnsiTokenizer tokenizer = new AnsiTokenizer(new AnsiTokenizer.Handler() {
+ *     private Style style = Stylr.style().build();
+ *
+ *     public void text(char[] chars, int offset, int length) throws IOException {
+ *         out.append(style, CharBuffer.wrap(chars, offset, length));
+ *     }
+ *
+ *     public void style(Style style) {
+ *         this.style = style;
+ *     }
+ * });
+ *
+ * byte[] chunk = new byte[8192];
+ * for (int n; (n = process.getInputStream().read(chunk)) > 0; ) {
+ *     tokenizer.feed(chunk, 0, n);
+ * }
+ * tokenizer.finish();
+ * }</pre>
+ *
+ * @since 1.0
+ */
+public final class AnsiTokenizer {
+    /** The maximum number of CSI parameters that are kept; further ones are ignored. */
+    public static final int MAX_PARAMS = 32;
+
+    /** The maximum length of an OSC string that is kept; further chars are ignored. */
+    public static final int MAX_STRING_LENGTH = 4096;
+
+    private static final int MAX_INTERMEDIATES = 4;
+    private static final int MAX_PARAM_VALUE = 0xFFFF;
+    private static final int DECODE_BUFFER_SIZE = 1024;
+    private static final char BEL = '\u0007';
+    private static final char REPLACEMENT = '\uFFFD';
+
+    private static final int GROUND = 0;
+    private static final int ESCAPE = 1;
+    private static final int ESCAPE_INTERMEDIATE = 2;
+    private static final int CSI_PARAM = 3;
+    private static final int CSI_INTERMEDIATE = 4;
+    private static final int OSC_STRING = 5;
+    private static final int IGNORED_STRING = 6;
+    private static final int OSC_ESCAPE = 7;
+    private static final int IGNORED_STRING_ESCAPE = 8;
+
+    /** The style reported after a reset. */
+    private static final Style DEFAULT_STYLE = new Style(StyleConfig.EMPTY);
+
+    /** Number of decoded styles each tokenizer remembers; a power of two. */
+    private static final int STYLE_SLOTS = 32;
+
+    /**
+     * Receives the tokens of a stream.
+     * <p>
+     * Only {@link #text} must be implemented; the other events are ignored by default.
+     * Events may throw {@link IOException}, which is passed on to the caller of
+     * {@code feed}.
+     */
+    public interface Handler {
+        /**
+         * Receives a run of text between escape sequences.
+         * <p>
+         * A run may be split into several calls, for example at chunk boundaries.
+         *
+         * @param chars the array holding the text
+         * @param offset the index of the first char
+         * @param length the number of chars
+         * @throws IOException if the handler fails to process the text
+         */
+        void text(char[] chars, int offset, int length) throws IOException;
+
+        /**
+         * Receives the style in effect after an SGR sequence.
+         *
+         * @param style the style in effect, a style without codes after a reset
+         * @throws IOException if the handler fails to process the event
+         */
+        default void style(Style style) throws IOException {
+        }
+
+        /**
+         * Receives a CSI sequence other than SGR.
+         *
+         * @param intermediates the private marker (such as {@code ?}) and intermediate chars, usually empty
+         * @param params the parameter values; missing values are 0
+         * @param count the number of parameters, 0 if there are none
+         * @param finalChar the final char that selects the function, e.g. {@code 'H'}
+         * @throws IOException if the handler fails to process the event
+         */
+        default void csi(CharSequence intermediates, int[] params, int count, char finalChar) throws IOException {
+        }
+
+        /**
+         * Receives an OSC string such as a window title or hyperlink.
+         *
+         * @param data the string between {@code ESC ]} and its terminator, e.g. {@code "8;;https://example.com"}
+         * @throws IOException if the handler fails to process the event
+         */
+        default void osc(CharSequence data) throws IOException {
+        }
+
+        /**
+         * Receives an escape sequence that is not CSI or a control string, such as {@code ESC ( B}.
+         *
+         * @param intermediates the intermediate chars, usually empty
+         * @param finalChar the final char
+         * @throws IOException if the handler fails to process the event
+         */
+        default void escape(CharSequence intermediates, char finalChar) throws IOException {
+        }
+    }
+
+    private final Handler handler;
+    private final SgrState sgr = new SgrState();
+    private final int[] params = new int[MAX_PARAMS];
+    private final StringBuilder intermediates = new StringBuilder(MAX_INTERMEDIATES);
+    private final StringBuilder string = new StringBuilder();
+    private final char[] decoded = new char[DECODE_BUFFER_SIZE];
+
+    private int state = GROUND;
+    private int paramCount;
+    private int colonMask;
+    private boolean overflow;
+
+    /** UTF-8 decoder state: the bits decoded so far, the bytes still expected and the smallest valid value. */
+    private int codePoint;
+    private int pendingBytes;
+    private int minCodePoint;
+
+    private Style style = DEFAULT_STYLE;
+
+    /**
+     * Styles decoded from the stream, direct-mapped by packed configuration. They are kept
+     * here rather than in the shared style cache, so a stream with many distinct colors
+     * cannot evict the application's styles or skew the cache statistics.
+     */
+    private final long[] styleKeys = new long[STYLE_SLOTS];
+    private final Style[] styles = new Style[STYLE_SLOTS];
+
+    /**
+     * Creates a tokenizer that reports to the given handler.
+     *
+     * @param handler the handler to receive tokens, must not be null
+     * @throws NullPointerException if handler is null
+     */
+    public AnsiTokenizer(Handler handler) {
+        this.handler = Objects.requireNonNull(handler, "Handler cannot be null");
+    }
+
+    /**
+     * Feeds a chunk of chars.
+     *
+     * @param chars the chars to tokenize, must not be null
+     * @param offset the index of the first char
+     * @param length the number of chars
+     * @throws IOException if the handler throws
+     * @throws NullPointerException if chars is null
+     * @throws IndexOutOfBoundsException if the range is out of bounds
+     */
+    public void feed(char[] chars, int offset, int length) throws IOException {
+        Objects.requireNonNull(chars, "Text cannot be null");
+        Objects.checkFromIndexSize(offset, length, chars.length);
+        if (pendingBytes > 0) abortCharacter();
+
+        tokenize(chars, offset, offset + length);
+    }
+
+    /**
+     * Feeds a chunk of text.
+     *
+     * @param text the text to tokenize, must not be null
+     * @throws IOException if the handler throws
+     * @throws NullPointerException if text is null
+     */
+    public void feed(CharSequence text) throws IOException {
+        Objects.requireNonNull(text, "Text cannot be null");
+        if (pendingBytes > 0) abortCharacter();
+
+        int length = text.length();
+        for (int start = 0; start < length; ) {
+            int end = Math.min(length, start + decoded.length);
+            if (text instanceof String s) {
+                s.getChars(start, end, decoded, 0);
+            } else {
+                for (int i = start; i < end; i++) {
+                    decoded[i - start] = text.charAt(i);
+                }
+            }
+            tokenize(decoded, 0, end - start);
+            start = end;
+        }
+    }
+
+    /**
+     * Feeds a chunk of UTF-8 encoded bytes.
+     * <p>
+     * A character whose bytes are split across chunks is decoded once its last byte
+     * arrives. Malformed input is decoded as U+FFFD.
+     *
+     * @param utf8 the bytes to tokenize, must not be null
+     * @param offset the index of the first byte
+     * @param length the number of bytes
+     * @throws IOException if the handler throws
+     * @throws NullPointerException if utf8 is null
+     * @throws IndexOutOfBoundsException if the range is out of bounds
+     */
+    public void feed(byte[] utf8, int offset, int length) throws IOException {
+        Objects.requireNonNull(utf8, "Text cannot be null");
+        Objects.checkFromIndexSize(offset, length, utf8.length);
+
+        char[] buffer = decoded;
+        int count = 0;
+        int end = offset + length;
+
+        for (int i = offset; i < end; i++) {
+            if (count > buffer.length - 2) {
+                tokenize(buffer, 0, count);
+                count = 0;
+            }
+
+            int b = utf8[i];
+            if (pendingBytes == 0) {
+                if (b >= 0) {
+                    buffer[count++] = (char) b;
+                } else {
+                    count = startCharacter(b & 0xFF, buffer, count);
+                }
+            } else if ((b & 0xC0) == 0x80) {
+                codePoint = codePoint << 6 | (b & 0x3F);
+                if (--pendingBytes == 0) count = endCharacter(buffer, count);
+            } else {
+                // Truncated character: replace it and decode this byte again
+                buffer[count++] = REPLACEMENT;
+                pendingBytes = 0;
+                i--;
+            }
+        }
+
+        tokenize(buffer, 0, count);
+    }
+
+    /**
+     * Signals the end of the stream.
+     * <p>
+     * An incomplete UTF-8 character is reported as U+FFFD and an incomplete escape
+     * sequence is dropped. The style in effect is kept, so the tokenizer can continue
+     * with another stream that shares the terminal state.
+     *
+     * @throws IOException if the handler throws
+     */
+    public void finish() throws IOException {
+        if (pendingBytes > 0) abortCharacter();
+        state = GROUND;
+    }
+
+    /**
+     * Returns the style in effect after the input fed so far.
+     *
+     * @return the current style, a style without codes if none
+     */
+    public Style currentStyle() {
+        return style;
+    }
+
+    /**
+     * Discards any partial input and returns to the default style.
+     */
+    public void reset() {
+        state = GROUND;
+        pendingBytes = 0;
+        sgr.reset();
+        style = DEFAULT_STYLE;
+    }
+
+    private void tokenize(char[] chars, int from, int to) throws IOException {
+        int i = from;
+
+        while (i < to) {
+            if (state == GROUND) {
+                int esc = AnsiScanner.indexOfEscape(chars, i, to);
+                int textEnd = esc < 0 ? to : esc;
+                if (textEnd > i) handler.text(chars, i, textEnd - i);
+                if (esc < 0) return;
+
+                state = ESCAPE;
+                intermediates.setLength(0);
+                i = esc + 1;
+                continue;
+            }
+
+            char c = chars[i];
+            if (!consume(c)) {
+                // The char is not part of the sequence; handle it again as text
+                state = GROUND;
+                continue;
+            }
+            i++;
+        }
+    }
+
+    /**
+     * Advances the state machine by one char outside the ground state.
+     *
+     * @return false if the char aborted the sequence and must be handled as text
+     */
+    private boolean consume(char c) throws IOException {
+        switch (state) {
+            case ESCAPE -> {
+                if (c == '[') {
+                    state = CSI_PARAM;
+                    paramCount = 0;
+                    colonMask = 0;
+                    overflow = false;
+                    params[0] = 0;
+                } else if (c == ']') {
+                    state = OSC_STRING;
+                    string.setLength(0);
+                } else if (c == 'P' || c == 'X' || c == '^' || c == '_') {
+                    state = IGNORED_STRING;
+                } else if (c >= 0x20 && c <= 0x2F) {
+                    state = ESCAPE_INTERMEDIATE;
+                    addIntermediate(c);
+                } else if (c >= 0x30 && c <= 0x7E) {
+                    state = GROUND;
+                    handler.escape(intermediates, c);
+                } else {
+                    return c == AnsiScanner.ESC;
+                }
+            }
+            case ESCAPE_INTERMEDIATE -> {
+                if (c >= 0x20 && c <= 0x2F) {
+                    addIntermediate(c);
+                } else if (c >= 0x30 && c <= 0x7E) {
+                    state = GROUND;
+                    handler.escape(intermediates, c);
+                } else {
+                    return restartOnEscape(c);
+                }
+            }
+            case CSI_PARAM -> {
+                if (c >= '0' && c <= '9') {
+                    if (paramCount == 0) paramCount = 1;
+                    int index = paramCount - 1;
+                    if (index < MAX_PARAMS) params[index] = Math.min(MAX_PARAM_VALUE, params[index] * 10 + (c - '0'));
+                } else if (c == ';' || c == ':') {
+                    if (paramCount == 0) paramCount = 1;
+                    if (paramCount < MAX_PARAMS) {
+                        params[paramCount] = 0;
+                        if (c == ':') colonMask |= 1 << paramCount;
+                    }
+                    paramCount++;
+                } else if (c >= 0x3C && c <= 0x3F) {
+                    // Private markers are only valid before the first parameter
+                    if (paramCount > 0 || intermediates.length() > 0) overflow = true;
+                    addIntermediate(c);
+                } else if (c >= 0x20 && c <= 0x2F) {
+                    state = CSI_INTERMEDIATE;
+                    addIntermediate(c);
+                } else if (c >= 0x40 && c <= 0x7E) {
+                    dispatchCsi(c);
+                } else {
+                    return restartOnEscape(c);
+                }
+            }
+            case CSI_INTERMEDIATE -> {
+                if (c >= 0x20 && c <= 0x2F) {
+                    addIntermediate(c);
+                } else if (c >= 0x30 && c <= 0x3F) {
+                    overflow = true;
+                } else if (c >= 0x40 && c <= 0x7E) {
+                    dispatchCsi(c);
+                } else {
+                    return restartOnEscape(c);
+                }
+            }
+            case OSC_STRING, IGNORED_STRING -> {
+                if (c == BEL) {
+                    endString();
+                } else if (c == AnsiScanner.ESC) {
+                    state = state == OSC_STRING ? OSC_ESCAPE : IGNORED_STRING_ESCAPE;
+                } else if (state == OSC_STRING && string.length() < MAX_STRING_LENGTH) {
+                    string.append(c);
+                }
+            }
+            case OSC_ESCAPE, IGNORED_STRING_ESCAPE -> {
+                // Any ESC ends the string; only ESC \ is consumed with it
+                endString();
+                if (c == '\\') return true;
+
+                state = ESCAPE;
+                intermediates.setLength(0);
+                return consume(c);
+            }
+            default -> throw new IllegalStateException("Unknown tokenizer state: " + state);
+        }
+        return true;
+    }
+
+    private boolean restartOnEscape(char c) {
+        if (c != AnsiScanner.ESC) return false;
+
+        state = ESCAPE;
+        intermediates.setLength(0);
+        return true;
+    }
+
+    private void addIntermediate(char c) {
+        if (intermediates.length() < MAX_INTERMEDIATES) {
+            intermediates.append(c);
+        } else {
+            overflow = true;
+        }
+    }
+
+    private void dispatchCsi(char finalChar) throws IOException {
+        state = GROUND;
+        if (overflow) return;
+
+        int count = Math.min(paramCount, MAX_PARAMS);
+        if (finalChar == 'm' && intermediates.length() == 0) {
+            sgr.apply(params, count, colonMask);
+            style = resolveStyle();
+            handler.style(style);
+        } else {
+            handler.csi(intermediates, params, count, finalChar);
+        }
+    }
+
+    private Style resolveStyle() {
+        if (sgr.isEmpty()) return DEFAULT_STYLE;
+
+        long key = sgr.packed();
+        int slot = (int) ((key * 0x9E3779B97F4A7C15L) >>> (Long.SIZE - Integer.numberOfTrailingZeros(STYLE_SLOTS)));
+        Style cached = styles[slot];
+        if (cached != null && styleKeys[slot] == key) return cached;
+
+        Style created = new Style(sgr.toConfig());
+        styleKeys[slot] = key;
+        styles[slot] = created;
+        return created;
+    }
+
+    private void endString() throws IOException {
+        boolean osc = state == OSC_STRING || state == OSC_ESCAPE;
+        state = GROUND;
+        if (osc) handler.osc(string);
+    }
+
+    private int startCharacter(int b, char[] buffer, int count) {
+        if (b >= 0xC2 && b <= 0xDF) {
+            codePoint = b & 0x1F;
+            pendingBytes = 1;
+            minCodePoint = 0x80;
+        } else if (b >= 0xE0 && b <= 0xEF) {
+            codePoint = b & 0x0F;
+            pendingBytes = 2;
+            minCodePoint = 0x800;
+        } else if (b >= 0xF0 && b <= 0xF4) {
+            codePoint = b & 0x07;
+            pendingBytes = 3;
+            minCodePoint = 0x10000;
+        } else {
+            buffer[count++] = REPLACEMENT;
+        }
+        return count;
+    }
+
+    private int endCharacter(char[] buffer, int count) {
+        if (codePoint < minCodePoint || codePoint > Character.MAX_CODE_POINT
+                || (codePoint >= Character.MIN_SURROGATE && codePoint <= Character.MAX_SURROGATE)) {
+            buffer[count++] = REPLACEMENT;
+            return count;
+        }
+        return count + Character.toChars(codePoint, buffer, count);
+    }
+
+    private void abortCharacter() throws IOException {
+        pendingBytes = 0;
+        decoded[0] = REPLACEMENT;
+        tokenize(decoded, 0, 1);
+    }
+}
@@ -68,20 +68,24 @@ public enum BasicColor {
     /** Bright white color */
     BRIGHT_WHITE(67);
 
-    private final int ansiCodeOffset;
+    private final String foregroundCode;
+    private final String backgroundCode;
 
     BasicColor(int ansiCodeOffset) {
-        this.ansiCodeOffset = ansiCodeOffset;
+        this.foregroundCode = Integer.toString(30 + ansiCodeOffset);
+        this.backgroundCode = Integer.toString(40 + ansiCodeOffset);
     }
 
     /**
      * Returns the ANSI escape code for this color.
+     * <p>
+     * The codes are computed once when the enum is initialized, so this method
+     * does not allocate.
      *
      * @param isBackground if true, returns the background color code; otherwise, foreground
      * @return the ANSI color code as a string
      */
     public String getAnsiCode(boolean isBackground) {
-        int baseCode = isBackground ? 40 : 30;
-        return String.format("%d", baseCode + this.ansiCodeOffset);
+        return isBackground ? backgroundCode : foregroundCode;
     }
 }
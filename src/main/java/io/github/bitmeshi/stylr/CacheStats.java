@@ -0,0 +1,40 @@
+package io.github.bitmeshi.stylr;
+
+/**
+ * Point-in-time snapshot of a Stylr cache's counters.
+ * <p>
+ * Counters are cumulative since the cache was created and are read without
+ * synchronization, so a snapshot taken under concurrent use is approximate.
+ *
+ * <h2>Usage Example</h2>
+ * <pre>{@code
+ * CacheStats stats = Stylr.styleCacheStats();
+ * System.out.printf("style cache hit rate: %.2f%n", stats.hitRate());
+ * }</pre>
+ *
+ * @param hits the number of lookups answered from the cache
+ * @param misses the number of lookups that had to compute a new value
+ * @param evictions the number of entries removed to respect the cache bounds
+ * @since 1.0
+ * @see Stylr#styleCacheStats()
+ */
+public record CacheStats(long hits, long misses, long evictions) {
+    /**
+     * Returns the total number of lookups.
+     *
+     * @return hits plus misses
+     */
+    public long requests() {
+        return hits + misses;
+    }
+
+    /**
+     * Returns the fraction of lookups answered from the cache.
+     *
+     * @return the hit rate between 0.0 and 1.0, or 0.0 if there were no lookups
+     */
+    public double hitRate() {
+        long requests = requests();
+        return requests == 0 ? 0.0 : (double) hits / requests;
+    }
+}
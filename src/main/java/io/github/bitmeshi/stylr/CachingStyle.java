@@ -0,0 +1,100 @@
+package io.github.bitmeshi.stylr;
+
+import io.github.bitmeshi.stylr.internal.Metrics;
+import io.github.bitmeshi.stylr.internal.OutputGate;
+import io.github.bitmeshi.stylr.internal.RenderCache;
+
+import java.util.Objects;
+
+/**
+ * A view of a {@link Style} that caches rendered results for repeated texts.
+ * <p>
+ * Useful when the same short labels ({@code "[ OK ]"}, {@code "WARN"}, status tags) are
+ * styled over and over: a cache hit returns the previously rendered {@link String}
+ * instance instead of concatenating a new one. The cache is bounded both by the number
+ * of entries and by the total number of chars it holds, and evicts least recently used
+ * entries first.
+ * <p>
+ * Instances are thread-safe. The cache is segmented with one lock per segment, so
+ * concurrent callers do not serialize on a global lock.
+ *
+ * <h2>Usage Example</h2>
+ * <pre>{@code
+ * CachingStyle ok = Stylr.style()
+ *     .color(BasicColor.GREEN)
+ *     .build()
+ *     .cachingView(64);
+ *
+ * String first = ok.apply("[ OK ]");
+ * String second = ok.apply("[ OK ]");   // same instance as first
+ *
+ * System.out.println(ok.stats().hitRate());
+ * }</pre>
+ *
+ * @since 1.0
+ * @see Style#cachingView(int)
+ * @see Style#cachingView(int, long)
+ */
+public final class CachingStyle {
+    private final Style style;
+    private final RenderCache cache;
+
+    CachingStyle(Style style, int maxEntries, long maxChars) {
+        this.style = style;
+        this.cache = new RenderCache(maxEntries, maxChars, style::render);
+    }
+
+    /**
+     * Applies the underlying style to the given text, reusing a cached result if possible.
+     * <p>
+     * Produces the same output as {@link Style#apply(String)}; if styling is disabled,
+     * the text itself is returned and the cache is not consulted.
+     *
+     * @param text the text to style, must not be null
+     * @return the styled text, or empty string if text is empty
+     * @throws NullPointerException if text is null
+     */
+    public String apply(String text) {
+        Objects.requireNonNull(text, "Text cannot be null");
+
+        if (!OutputGate.ENABLED || text.isEmpty()) return text;
+
+        String styled = cache.get(text);
+        Metrics.rendered(styled.length() - text.length(), text.length());
+        return styled;
+    }
+
+    /**
+     * Returns the style this view caches results for.
+     *
+     * @return the underlying style
+     */
+    public Style style() {
+        return style;
+    }
+
+    /**
+     * Returns the current number of cached results.
+     *
+     * @return the entry count
+     */
+    public int size() {
+        return cache.size();
+    }
+
+    /**
+     * Removes every cached result. Counters are not reset.
+     */
+    public void clear() {
+        cache.clear();
+    }
+
+    /**
+     * Returns the counters of this view's cache.
+     *
+     * @return a snapshot of hits, misses and evictions
+     */
+    public CacheStats stats() {
+        return new CacheStats(cache.hits(), cache.misses(), cache.evictions());
+    }
+}
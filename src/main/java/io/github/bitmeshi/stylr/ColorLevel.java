@@ -0,0 +1,31 @@
+package io.github.bitmeshi.stylr;
+
+/**
+ * The color depth a terminal supports, used to downsample colors before they are emitted.
+ * <p>
+ * Colors deeper than the selected level are mapped to the nearest color the level can
+ * show: 24-bit colors become an xterm 256-color palette index or a {@link BasicColor},
+ * and at {@link #NONE} colors are dropped while text attributes are kept. The mapping
+ * uses precomputed tables, so downsampling a color costs a single array load.
+ *
+ * <h2>Usage Example</h2>
+ * <pre>{@code
+ * Style orange = Stylr.style().color("#FF8000").build();
+ *
+ * orange.apply("x");                                   // "\u001b[38;2;255;128;0mx\u001b[0m"
+ * orange.withColorLevel(ColorLevel.ANSI_256).apply("x"); // "\u001b[38;5;208mx\u001b[0m"
+ * orange.withColorLevel(ColorLevel.ANSI_16).apply("x");  // "\u001b[33mx\u001b[0m"
+ * }</pre>
+ *
+ * @since 1.0
+ */
+public enum ColorLevel {
+    /** 24-bit colors ({@code 38;2;r;g;b}); nothing is downsampled. */
+    TRUECOLOR,
+    /** The xterm 256-color palette ({@code 38;5;n}); RGB colors are mapped to the nearest palette entry. */
+    ANSI_256,
+    /** The 16 {@link BasicColor}s; RGB and palette colors are mapped to the nearest basic color. */
+    ANSI_16,
+    /** No colors; only text attributes such as bold or underline are emitted. */
+    NONE
+}
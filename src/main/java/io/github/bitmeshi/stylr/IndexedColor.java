@@ -0,0 +1,116 @@
+package io.github.bitmeshi.stylr;
+
+import io.github.bitmeshi.stylr.internal.color.ColorQuantizer;
+import io.github.bitmeshi.stylr.internal.color.IndexedColorCodes;
+
+/**
+ * A color from the xterm 256-color palette.
+ * <p>
+ * The palette is made of three ranges:
+ * <ul>
+ *   <li><b>0-15:</b> the 16 basic colors, in {@link BasicColor} order</li>
+ *   <li><b>16-231:</b> a 6x6x6 color cube</li>
+ *   <li><b>232-255:</b> a 24-step gray ramp</li>
+ * </ul>
+ * Palette colors are emitted as {@code 38;5;n} / {@code 48;5;n}, which is understood by
+ * 256-color terminals and multiplexers and is shorter than a truecolor sequence.
+ * <p>
+ * All 256 instances are created once and shared, together with their precomputed ANSI
+ * codes; {@link #of(int)} never allocates and instances can be compared with {@code ==}.
+ *
+ * <h2>Usage Example</h2>
+ * <pre>{@code
+ * String orange = Stylr.of("Warning")
+ *     .color(IndexedColor.of(208))
+ *     .bgColor(IndexedColor.nearest(0x202020))
+ *     .render();
+ * }</pre>
+ *
+ * @since 1.0
+ */
+public final class IndexedColor {
+    private static final IndexedColor[] PALETTE = new IndexedColor[IndexedColorCodes.COUNT];
+
+    static {
+        for (int index = 0; index < PALETTE.length; index++) {
+            PALETTE[index] = new IndexedColor(index);
+        }
+    }
+
+    private final int index;
+    private final int rgb;
+
+    private IndexedColor(int index) {
+        this.index = index;
+        this.rgb = ColorQuantizer.indexedToRgb(index);
+    }
+
+    /**
+     * Returns the palette color with the given index.
+     *
+     * @param index the palette index (0-255)
+     * @return the shared instance for the index
+     * @throws IllegalArgumentException if the index is outside the range 0-255
+     */
+    public static IndexedColor of(int index) {
+        if (index >>> 8 != 0) {
+            throw new IllegalArgumentException("Color index must be between 0 and 255");
+        }
+        return PALETTE[index];
+    }
+
+    /**
+     * Returns the palette color closest to a 24-bit RGB color.
+     * <p>
+     * Only the color cube and gray ramp (16-255) are considered, since terminals let
+     * users redefine the first 16 entries.
+     *
+     * @param rgb24 the color as {@code 0xRRGGBB}
+     * @return the nearest palette color
+     * @throws IllegalArgumentException if the value is outside the range 0x000000-0xFFFFFF
+     */
+    public static IndexedColor nearest(int rgb24) {
+        if ((rgb24 & ~0xFFFFFF) != 0) {
+            throw new IllegalArgumentException("RGB value must be between 0x000000 and 0xFFFFFF");
+        }
+        return PALETTE[ColorQuantizer.toIndexed(rgb24)];
+    }
+
+    /**
+     * Returns the palette index of this color.
+     *
+     * @return the index (0-255)
+     */
+    public int index() {
+        return index;
+    }
+
+    /**
+     * Returns the RGB value of this color.
+     * <p>
+     * Entries 0-15 use the default xterm colors; actual terminals may show them differently.
+     *
+     * @return the color as {@code 0xRRGGBB}
+     */
+    public int toRgb() {
+        return rgb;
+    }
+
+    /**
+     * Returns the ANSI escape code parameters for this color.
+     * <p>
+     * The codes are computed once when the palette is initialized, so this method
+     * does not allocate.
+     *
+     * @param isBackground if true, returns the background color code; otherwise, foreground
+     * @return the ANSI color code as a string, e.g. {@code "38;5;208"}
+     */
+    public String getAnsiCode(boolean isBackground) {
+        return IndexedColorCodes.code(index, isBackground);
+    }
+
+    @Override
+    public String toString() {
+        return "IndexedColor[" + index + "]";
+    }
+}
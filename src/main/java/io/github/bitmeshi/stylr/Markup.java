@@ -0,0 +1,284 @@
+package io.github.bitmeshi.stylr;
+
+import io.github.bitmeshi.stylr.internal.AnsiScanner;
+import io.github.bitmeshi.stylr.internal.Metrics;
+import io.github.bitmeshi.stylr.internal.OutputGate;
+import io.github.bitmeshi.stylr.internal.RenderCache;
+import io.github.bitmeshi.stylr.internal.SgrEncoder;
+import io.github.bitmeshi.stylr.internal.StyleConfig;
+import io.github.bitmeshi.stylr.internal.StyleSpec;
+import io.github.bitmeshi.stylr.internal.jfr.MarkupCompileEvent;
+import io.github.bitmeshi.stylr.internal.jfr.SlowRenderEvent;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Styled text written in an inline markup language, compiled once and rendered many times.
+ * <p>
+ * Tags in square brackets style the text up to the matching closing tag:
+ * <pre>{@code
+ * [bold red]Error[/] at [#888]src/Main.java[/]
+ * [white on blue] INFO [/] [italic]started in [bold]42[/] ms[/]
+ * }</pre>
+ * A tag lists attributes and colors separated by spaces, as accepted by
+ * {@code Stylr.style()}: {@code bold}, {@code dim}, {@code italic}, {@code underline},
+ * {@code blink}, {@code rapid_blink}, {@code reverse}, {@code hidden}, basic color names such
+ * as {@code red} or {@code bright_cyan}, hex colors such as {@code #888}, {@code rgb(r,g,b)} and
+ * palette colors {@code color(n)}. {@code on} makes the next color the background color.
+ * <p>
+ * Tags nest: an inner tag adds its attributes to the outer ones and replaces only the
+ * colors it sets. {@code [/]} closes the innermost tag and {@code [/spec]} closes it by
+ * name; tags still open at the end are closed automatically. {@code [[} is a literal
+ * {@code [}.
+ * <p>
+ * Compiling resolves every tag into a sequence of styled text segments and encodes them
+ * with minimal SGR transitions between neighbors, so nested tags do not repeat codes.
+ * The result is precomputed, which makes {@link #render()} free. {@link #render(String)}
+ * keeps a bounded concurrent cache of rendered markup, so ad-hoc markup strings are
+ * parsed only once.
+ * <p>
+ * Instances are immutable and thread-safe.
+ *
+ * <h2>Usage Example</h2>
+ * <pre>{@code
+ * Markup banner = Markup.compile("[bold green]✓[/] all [underline]42[/] tests passed");
+ * System.out.println(banner.render());
+ *
+ * System.out.println(Markup.render("[bold red]Error[/] see log"));
+ * }</pre>
+ *
+ * @since 1.0
+ */
+public final class Markup {
+    private static final String ANSI_RESET = "\u001b[0m";
+    private static final int CACHE_ENTRIES = 1024;
+    private static final long CACHE_CHARS = 1L << 20;
+
+    /** Rendered markup by source; the loader does not count renders, {@link #render(String)} counts every call. */
+    private static final RenderCache CACHE = new RenderCache(CACHE_ENTRIES, CACHE_CHARS, markup -> {
+        Markup compiled = compile(markup);
+        return OutputGate.ENABLED ? compiled.rendered : compiled.plain;
+    });
+
+    private final StyleConfig[] styles;
+    private final String[] texts;
+    private final String rendered;
+    private final String plain;
+
+    private Markup(StyleConfig[] styles, String[] texts) {
+        this.styles = styles;
+        this.texts = texts;
+        this.plain = String.join("", texts);
+        this.rendered = encode(ColorLevel.TRUECOLOR);
+    }
+
+    /**
+     * Parses markup into a reusable plan.
+     *
+     * @param markup the markup to compile, must not be null
+     * @return the compiled markup
+     * @throws NullPointerException if markup is null
+     * @throws IllegalArgumentException if the markup contains an unknown style, an unterminated
+     *         tag or a closing tag that does not match an open tag
+     */
+    public static Markup compile(String markup) {
+        Objects.requireNonNull(markup, "Markup cannot be null");
+
+        MarkupCompileEvent event = new MarkupCompileEvent();
+        event.begin();
+
+        List<StyleConfig> styles = new ArrayList<>();
+        List<String> texts = new ArrayList<>();
+        Deque<String> openTags = new ArrayDeque<>();
+        Deque<StyleConfig> openStyles = new ArrayDeque<>();
+
+        StyleConfig current = StyleConfig.EMPTY;
+        StringBuilder text = new StringBuilder();
+        int length = markup.length();
+        int i = 0;
+
+        while (i < length) {
+            char c = markup.charAt(i);
+            if (c != '[') {
+                text.append(c);
+                i++;
+                continue;
+            }
+            if (i + 1 < length && markup.charAt(i + 1) == '[') {
+                text.append('[');
+                i += 2;
+                continue;
+            }
+
+            int close = markup.indexOf(']', i + 1);
+            if (close < 0) {
+                throw new IllegalArgumentException("Unterminated tag at index " + i + ": " + markup);
+            }
+            String tag = markup.substring(i + 1, close).trim();
+
+            StyleConfig next;
+            if (tag.startsWith("/")) {
+                String name = tag.substring(1).trim();
+                if (openTags.isEmpty()) {
+                    throw new IllegalArgumentException("Closing tag [" + tag + "] at index " + i + " has no open tag: " + markup);
+                }
+                if (!name.isEmpty() && !name.equalsIgnoreCase(openTags.peek())) {
+                    throw new IllegalArgumentException("Closing tag [" + tag + "] at index " + i
+                            + " does not match [" + openTags.peek() + "]: " + markup);
+                }
+                openTags.pop();
+                next = openStyles.pop();
+            } else {
+                openTags.push(tag);
+                openStyles.push(current);
+                next = current.overlay(StyleSpec.parse(tag));
+            }
+
+            if (!next.equals(current)) {
+                addSegment(styles, texts, current, text);
+                current = next;
+            }
+            i = close + 1;
+        }
+
+        addSegment(styles, texts, current, text);
+        Markup compiled = new Markup(styles.toArray(new StyleConfig[0]), texts.toArray(new String[0]));
+
+        Metrics.markupCompiled();
+        if (event.shouldCommit()) {
+            event.markupLength = markup.length();
+            event.segments = texts.size();
+            event.commit();
+        }
+        return compiled;
+    }
+
+    /**
+     * Renders markup, compiling it on first use.
+     * <p>
+     * Rendered markup is kept in a bounded cache shared by all threads, so repeated calls
+     * with the same string neither parse nor allocate.
+     *
+     * @param markup the markup to render, must not be null
+     * @return the styled text
+     * @throws NullPointerException if markup is null
+     * @throws IllegalArgumentException if the markup is invalid, see {@link #compile(String)}
+     */
+    public static String render(String markup) {
+        Objects.requireNonNull(markup, "Markup cannot be null");
+
+        String rendered = CACHE.get(markup);
+        if (Metrics.ENABLED && OutputGate.ENABLED) {
+            int escapeChars = escapeChars(rendered);
+            Metrics.rendered(escapeChars, rendered.length() - escapeChars);
+        }
+        return rendered;
+    }
+
+    /** Returns the number of chars of escape sequences in a rendered text. */
+    private static int escapeChars(String text) {
+        int length = text.length();
+        int chars = 0;
+        int esc = AnsiScanner.indexOfEscape(text, 0, length);
+
+        while (esc >= 0) {
+            int end = AnsiScanner.sequenceEnd(text, esc, length);
+            chars += end - esc;
+            esc = AnsiScanner.indexOfEscape(text, end, length);
+        }
+        return chars;
+    }
+
+    /** Returns the counters of the {@link #render(String)} cache. */
+    static CacheStats cacheStats() {
+        return new CacheStats(CACHE.hits(), CACHE.misses(), CACHE.evictions());
+    }
+
+    /**
+     * Returns the styled text.
+     * <p>
+     * The text is computed when the markup is compiled; every call returns the same
+     * instance. When styling is disabled by the {@link OutputPolicy}, the plain text is
+     * returned instead.
+     *
+     * @return the styled text
+     */
+    public String render() {
+        if (!OutputGate.ENABLED) return plain;
+
+        Metrics.rendered(rendered.length() - plain.length(), plain.length());
+        return rendered;
+    }
+
+    /**
+     * Returns the styled text with colors downsampled to the given color level.
+     *
+     * @param colorLevel the color depth of the output, must not be null
+     * @return the styled text
+     * @throws NullPointerException if colorLevel is null
+     */
+    public String render(ColorLevel colorLevel) {
+        Objects.requireNonNull(colorLevel, "Color level cannot be null");
+
+        if (!OutputGate.ENABLED) return plain;
+        if (colorLevel == ColorLevel.TRUECOLOR) return render();
+
+        SlowRenderEvent event = new SlowRenderEvent();
+        event.begin();
+        String encoded = encode(colorLevel);
+        Metrics.rendered(encoded.length() - plain.length(), plain.length());
+
+        if (event.shouldCommit()) {
+            event.operation = "Markup.render";
+            event.outputLength = encoded.length();
+            event.commit();
+        }
+        return encoded;
+    }
+
+    /**
+     * Returns the text without any styling.
+     *
+     * @return the plain text
+     */
+    public String plainText() {
+        return plain;
+    }
+
+    /**
+     * Returns the styled text, as {@link #render()} does.
+     *
+     * @return the styled text
+     */
+    @Override
+    public String toString() {
+        return render();
+    }
+
+    private String encode(ColorLevel colorLevel) {
+        StringBuilder sb = new StringBuilder(plain.length() + styles.length * SgrEncoder.MAX_LENGTH);
+        StyleConfig state = StyleConfig.EMPTY;
+
+        for (int i = 0; i < texts.length; i++) {
+            StyleConfig style = styles[i].withColorLevel(colorLevel);
+            SgrEncoder.encodeTransition(state, style, sb);
+            sb.append(texts[i]);
+            state = style;
+        }
+
+        if (!state.isEmpty()) sb.append(ANSI_RESET);
+        return sb.toString();
+    }
+
+    private static void addSegment(List<StyleConfig> styles, List<String> texts, StyleConfig style, StringBuilder text) {
+        if (text.length() == 0) return;
+
+        styles.add(style);
+        texts.add(text.toString());
+        text.setLength(0);
+    }
+}
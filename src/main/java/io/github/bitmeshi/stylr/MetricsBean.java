@@ -0,0 +1,95 @@
+package io.github.bitmeshi.stylr;
+
+import io.github.bitmeshi.stylr.internal.Metrics;
+
+/**
+ * The {@link StylrMetrics} instance, reading the internal counters on every call.
+ */
+final class MetricsBean implements StylrMetrics {
+    static final MetricsBean INSTANCE = new MetricsBean();
+
+    private MetricsBean() {
+    }
+
+    @Override
+    public boolean isCountingEnabled() {
+        return Metrics.ENABLED;
+    }
+
+    @Override
+    public long getStylesBuilt() {
+        return Metrics.stylesBuilt();
+    }
+
+    @Override
+    public long getRenders() {
+        return Metrics.renders();
+    }
+
+    @Override
+    public long getEscapeChars() {
+        return Metrics.escapeChars();
+    }
+
+    @Override
+    public long getTextChars() {
+        return Metrics.textChars();
+    }
+
+    @Override
+    public double getEscapeOverhead() {
+        long escape = Metrics.escapeChars();
+        long total = escape + Metrics.textChars();
+        return total == 0 ? 0.0 : (double) escape / total;
+    }
+
+    @Override
+    public long getStrippedChars() {
+        return Metrics.strippedChars();
+    }
+
+    @Override
+    public long getMarkupCompiles() {
+        return Metrics.markupCompiles();
+    }
+
+    @Override
+    public long getSinkFlushes() {
+        return Metrics.sinkFlushes();
+    }
+
+    @Override
+    public long getStyleCacheHits() {
+        return Stylr.styleCacheStats().hits();
+    }
+
+    @Override
+    public long getStyleCacheMisses() {
+        return Stylr.styleCacheStats().misses();
+    }
+
+    @Override
+    public double getStyleCacheHitRate() {
+        return Stylr.styleCacheStats().hitRate();
+    }
+
+    @Override
+    public long getMarkupCacheHits() {
+        return Markup.cacheStats().hits();
+    }
+
+    @Override
+    public long getMarkupCacheMisses() {
+        return Markup.cacheStats().misses();
+    }
+
+    @Override
+    public double getMarkupCacheHitRate() {
+        return Markup.cacheStats().hitRate();
+    }
+
+    @Override
+    public void reset() {
+        Metrics.reset();
+    }
+}
@@ -0,0 +1,50 @@
+package io.github.bitmeshi.stylr;
+
+import io.github.bitmeshi.stylr.internal.OutputGate;
+
+/**
+ * Decides whether styled output contains ANSI escape codes.
+ * <p>
+ * {@link #AUTO} is the global default used by {@link Style#apply(String)},
+ * {@link io.github.bitmeshi.stylr.builder.TextStyler#render()} and every other styling
+ * method. It is resolved once per JVM, from the following inputs in order of precedence:
+ * <ol>
+ *   <li>the {@code stylr.output} system property: {@code always}, {@code never} or {@code auto}</li>
+ *   <li>the {@code FORCE_COLOR} environment variable: styling is on if it is set and not empty</li>
+ *   <li>the {@code NO_COLOR} environment variable: styling is off if it is set and not empty</li>
+ *   <li>whether the JVM is attached to an interactive console</li>
+ * </ol>
+ * When styling is off, {@code apply} and {@code render} return the input string itself.
+ * The decision is held in a constant, so the check costs nothing on the hot path; the
+ * system property must therefore be set on the command line, not at runtime.
+ * <p>
+ * Sinks such as {@link StyledWriter}, {@link StyledPrintStream} and {@link StyledLine}
+ * accept an explicit policy, which overrides the global decision for that sink only.
+ *
+ * <h2>Usage Example</h2>
+ * <pre>{@code
+ * // java -Dstylr.output=never ...   disables styling globally
+ *
+ * // Always style output going to a terminal-bound log, whatever the global decision
+ * StyledPrintStream out = new StyledPrintStream(System.err, OutputPolicy.ALWAYS);
+ * }</pre>
+ *
+ * @since 1.0
+ */
+public enum OutputPolicy {
+    /** Always emit ANSI escape codes. */
+    ALWAYS,
+    /** Never emit ANSI escape codes; styled text is written as plain text. */
+    NEVER,
+    /** Emit ANSI escape codes if the global decision enables styling. */
+    AUTO;
+
+    /**
+     * Returns whether styled output is produced under this policy.
+     *
+     * @return true if ANSI escape codes are emitted
+     */
+    public boolean isEnabled() {
+        return OutputGate.isEnabled(this);
+    }
+}
@@ -1,6 +1,24 @@
 package io.github.bitmeshi.stylr;
 
+import io.github.bitmeshi.stylr.internal.AnsiCodeGenerator;
+import io.github.bitmeshi.stylr.internal.Metrics;
+import io.github.bitmeshi.stylr.internal.OutputGate;
+import io.github.bitmeshi.stylr.internal.StyleCache;
+import io.github.bitmeshi.stylr.internal.StyleConfig;
+import io.github.bitmeshi.stylr.internal.StyleFactory;
+import io.github.bitmeshi.stylr.internal.Utf8;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.Writer;
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
 import java.util.Objects;
+import java.util.stream.Collector;
 
 /**
  * Represents a reusable style definition that can be applied to multiple texts.
@@ -10,6 +28,9 @@ import java.util.Objects;
  * applied to different text strings without rebuilding the style configuration.
  * <p>
  * Instances are immutable and thread-safe.
+ * <p>
+ * If styling is disabled for the process (see {@link OutputPolicy}), every method
+ * produces the plain text, and {@link #apply(String)} returns its argument unchanged.
  *
  * <h2>Usage Example</h2>
  * <pre>{@code
@@ -21,6 +42,10 @@ import java.util.Objects;
  * String error1 = errorStyle.apply("Connection failed");
  * String error2 = errorStyle.apply("File not found");
  * String error3 = errorStyle.apply("Access denied");
+ *
+ * // Append straight into an existing buffer
+ * StringBuilder line = new StringBuilder("[");
+ * errorStyle.appendTo(line, "ERROR").append("] Disk full");
  * }</pre>
  *
  * @since 1.0
@@ -28,7 +53,15 @@ import java.util.Objects;
  */
 public final class Style {
     private static final String ANSI_RESET = "\u001b[0m";
+    private static final byte[] ANSI_RESET_BYTES = ANSI_RESET.getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] EMPTY_BYTES = new byte[0];
     private final String ansiPrefix;
+    private final byte[] ansiPrefixBytes;
+    private final StyleConfig config;
+
+    static {
+        StyleFactory.register(Style::new);
+    }
 
     /**
      * Constructs a new Style with the given ANSI prefix.
@@ -40,6 +73,24 @@ public final class Style {
      */
     public Style(String ansiPrefix) {
         this.ansiPrefix = ansiPrefix;
+        this.ansiPrefixBytes = ansiPrefix.getBytes(StandardCharsets.UTF_8);
+        this.config = null;
+    }
+
+    /**
+     * Constructs a new Style from a style configuration.
+     * <p>
+     * The ANSI prefix is encoded once here and reused by every call to {@link #apply(String)}.
+     * Styles are created from configurations by the internal style cache, through
+     * {@link StyleFactory}.
+     *
+     * @param config the style configuration, must not be null
+     * @throws NullPointerException if config is null
+     */
+    Style(StyleConfig config) {
+        this.config = Objects.requireNonNull(config, "config cannot be null");
+        this.ansiPrefix = AnsiCodeGenerator.getAnsiPrefix(config);
+        this.ansiPrefixBytes = ansiPrefix.getBytes(StandardCharsets.US_ASCII);
     }
 
     /**
@@ -49,6 +100,7 @@ public final class Style {
      * automatically appends a reset sequence to restore default terminal styling.
      * <p>
      * If the text is empty, an empty string is returned without any ANSI codes.
+     * If styling is disabled, the text itself is returned.
      *
      * @param text the text to style, must not be null
      * @return the styled text with ANSI codes, or empty string if text is empty
@@ -57,8 +109,395 @@ public final class Style {
     public String apply(String text) {
         Objects.requireNonNull(text, "Text cannot be null");
 
-        if (text.isEmpty()) return "";
+        if (!OutputGate.ENABLED || text.isEmpty()) return text;
 
+        Metrics.rendered(ansiPrefix.length() + ANSI_RESET.length(), text.length());
         return ansiPrefix + text + ANSI_RESET;
     }
+
+    /**
+     * Wraps non-empty text in the escape codes of this style without counting a render.
+     * <p>
+     * Used by caches that count every lookup themselves.
+     *
+     * @param text the text to style, must not be empty
+     * @return the styled text
+     */
+    String render(String text) {
+        return ansiPrefix + text + ANSI_RESET;
+    }
+
+    /**
+     * Appends this style applied to the given text to a {@link StringBuilder}.
+     * <p>
+     * Equivalent to {@code sb.append(apply(text))} without creating the intermediate string.
+     * If the text is empty, nothing is appended.
+     *
+     * @param sb the builder to append to, must not be null
+     * @param text the text to style, must not be null
+     * @return the given builder
+     * @throws NullPointerException if sb or text is null
+     */
+    public StringBuilder appendTo(StringBuilder sb, CharSequence text) {
+        Objects.requireNonNull(text, "Text cannot be null");
+        return appendTo(sb, text, 0, text.length());
+    }
+
+    /**
+     * Appends this style applied to a slice of the given text to a {@link StringBuilder}.
+     * <p>
+     * Equivalent to {@code sb.append(apply(text.substring(start, end)))} without creating
+     * either intermediate string. If the slice is empty, nothing is appended.
+     *
+     * @param sb the builder to append to, must not be null
+     * @param text the text to style, must not be null
+     * @param start the index of the first char to style
+     * @param end the index after the last char to style
+     * @return the given builder
+     * @throws NullPointerException if sb or text is null
+     * @throws IndexOutOfBoundsException if the slice is out of bounds
+     */
+    public StringBuilder appendTo(StringBuilder sb, CharSequence text, int start, int end) {
+        Objects.requireNonNull(sb, "StringBuilder cannot be null");
+        Objects.requireNonNull(text, "Text cannot be null");
+        Objects.checkFromToIndex(start, end, text.length());
+
+        if (start == end) return sb;
+        if (!OutputGate.ENABLED) return sb.append(text, start, end);
+
+        Metrics.rendered(ansiPrefix.length() + ANSI_RESET.length(), end - start);
+        return sb.append(ansiPrefix).append(text, start, end).append(ANSI_RESET);
+    }
+
+    /**
+     * Appends this style applied to a slice of the given text to any {@link Appendable}.
+     * <p>
+     * The prefix, the slice and the reset sequence are appended directly to the destination.
+     * If the slice is empty, nothing is appended.
+     *
+     * @param out the destination, must not be null
+     * @param text the text to style, must not be null
+     * @param start the index of the first char to style
+     * @param end the index after the last char to style
+     * @param <A> the type of the destination
+     * @return the given destination
+     * @throws IOException if the destination throws
+     * @throws NullPointerException if out or text is null
+     * @throws IndexOutOfBoundsException if the slice is out of bounds
+     */
+    public <A extends Appendable> A appendTo(A out, CharSequence text, int start, int end) throws IOException {
+        Objects.requireNonNull(out, "Appendable cannot be null");
+        Objects.requireNonNull(text, "Text cannot be null");
+        Objects.checkFromToIndex(start, end, text.length());
+
+        if (start == end) return out;
+        if (!OutputGate.ENABLED) {
+            out.append(text, start, end);
+            return out;
+        }
+
+        Metrics.rendered(ansiPrefix.length() + ANSI_RESET.length(), end - start);
+        out.append(ansiPrefix).append(text, start, end).append(ANSI_RESET);
+        return out;
+    }
+
+    /**
+     * Writes this style applied to the given text to a {@link Writer}.
+     * <p>
+     * If the text is empty, nothing is written.
+     *
+     * @param writer the writer, must not be null
+     * @param text the text to style, must not be null
+     * @throws IOException if the writer throws
+     * @throws NullPointerException if writer or text is null
+     */
+    public void writeTo(Writer writer, CharSequence text) throws IOException {
+        Objects.requireNonNull(writer, "Writer cannot be null");
+        Objects.requireNonNull(text, "Text cannot be null");
+
+        if (text.length() == 0) return;
+
+        if (OutputGate.ENABLED) {
+            Metrics.rendered(ansiPrefix.length() + ANSI_RESET.length(), text.length());
+            writer.write(ansiPrefix);
+        }
+        if (text instanceof String string) {
+            writer.write(string);
+        } else {
+            writer.append(text);
+        }
+        if (OutputGate.ENABLED) writer.write(ANSI_RESET);
+    }
+
+    /**
+     * Writes this style applied to a range of a char array to a {@link Writer}.
+     * <p>
+     * If the range is empty, nothing is written.
+     *
+     * @param writer the writer, must not be null
+     * @param text the chars to style, must not be null
+     * @param offset the index of the first char to style
+     * @param length the number of chars to style
+     * @throws IOException if the writer throws
+     * @throws NullPointerException if writer or text is null
+     * @throws IndexOutOfBoundsException if the range is out of bounds
+     */
+    public void writeTo(Writer writer, char[] text, int offset, int length) throws IOException {
+        Objects.requireNonNull(writer, "Writer cannot be null");
+        Objects.requireNonNull(text, "Text cannot be null");
+        Objects.checkFromIndexSize(offset, length, text.length);
+
+        if (length == 0) return;
+        if (!OutputGate.ENABLED) {
+            writer.write(text, offset, length);
+            return;
+        }
+
+        Metrics.rendered(ansiPrefix.length() + ANSI_RESET.length(), length);
+        writer.write(ansiPrefix);
+        writer.write(text, offset, length);
+        writer.write(ANSI_RESET);
+    }
+
+    /**
+     * Writes this style applied to the given text into a {@link ByteBuffer} as UTF-8.
+     * <p>
+     * The ANSI prefix and reset sequence are copied from pre-encoded byte arrays and the
+     * text is encoded directly into the buffer, with no intermediate string or byte array.
+     * Either the whole styled text is written or, if it does not fit, nothing is.
+     * If the text is empty, nothing is written.
+     *
+     * @param dst the destination buffer, advanced past the written bytes; must not be null
+     * @param text the text to style, must not be null
+     * @return the given buffer
+     * @throws java.nio.BufferOverflowException if the buffer has insufficient space remaining
+     * @throws java.nio.ReadOnlyBufferException if the buffer is read-only
+     * @throws NullPointerException if dst or text is null
+     */
+    public ByteBuffer writeTo(ByteBuffer dst, CharSequence text) {
+        Objects.requireNonNull(dst, "ByteBuffer cannot be null");
+        Objects.requireNonNull(text, "Text cannot be null");
+
+        int length = text.length();
+        if (length == 0) return dst;
+
+        byte[] prefix = OutputGate.ENABLED ? ansiPrefixBytes : EMPTY_BYTES;
+        byte[] reset = OutputGate.ENABLED ? ANSI_RESET_BYTES : EMPTY_BYTES;
+
+        int required = prefix.length + Utf8.encodedLength(text, 0, length) + reset.length;
+        if (dst.remaining() < required) throw new BufferOverflowException();
+
+        if (OutputGate.ENABLED) Metrics.rendered(prefix.length + reset.length, length);
+        dst.put(prefix);
+        Utf8.encode(text, 0, length, dst);
+        dst.put(reset);
+        return dst;
+    }
+
+    /**
+     * Writes this style applied to already UTF-8 encoded text to an {@link OutputStream}.
+     * <p>
+     * The payload bytes are passed through untouched, wrapped in the pre-encoded prefix and
+     * reset sequence. This issues three writes, so unbuffered streams should be wrapped in a
+     * {@link java.io.BufferedOutputStream}. If the range is empty, nothing is written.
+     *
+     * @param out the destination stream, must not be null
+     * @param utf8Text the UTF-8 encoded text, must not be null
+     * @param offset the index of the first byte to style
+     * @param length the number of bytes to style
+     * @throws IOException if the stream throws
+     * @throws NullPointerException if out or utf8Text is null
+     * @throws IndexOutOfBoundsException if the range is out of bounds
+     */
+    public void writeTo(OutputStream out, byte[] utf8Text, int offset, int length) throws IOException {
+        Objects.requireNonNull(out, "OutputStream cannot be null");
+        Objects.requireNonNull(utf8Text, "Text cannot be null");
+        Objects.checkFromIndexSize(offset, length, utf8Text.length);
+
+        if (length == 0) return;
+        if (!OutputGate.ENABLED) {
+            out.write(utf8Text, offset, length);
+            return;
+        }
+
+        Metrics.rendered(ansiPrefixBytes.length + ANSI_RESET_BYTES.length, length);
+        out.write(ansiPrefixBytes);
+        out.write(utf8Text, offset, length);
+        out.write(ANSI_RESET_BYTES);
+    }
+
+    /**
+     * Applies this style to every text of an array, storing the results in another array.
+     * <p>
+     * Equivalent to {@code out[i] = apply(in[i])} for every index; each result is built with
+     * one exact-size copy. The output array may be the input array, styling it in place.
+     *
+     * @param in the texts to style, must not be null and must not contain null
+     * @param out the array receiving the results, of the same length as {@code in}
+     * @return the output array
+     * @throws NullPointerException if an array or a text is null
+     * @throws IllegalArgumentException if the arrays differ in length
+     */
+    public String[] applyAll(String[] in, String[] out) {
+        checkBulkArrays(in, out);
+        StyleBatch.applyRange(this, in, out, 0, in.length);
+        return out;
+    }
+
+    /**
+     * Applies this style to every text of an array in parallel, storing the results in another array.
+     * <p>
+     * Produces the same results as {@link #applyAll(String[], String[])}. Arrays of several
+     * thousand texts or more are split into ranges styled on the common
+     * {@link java.util.concurrent.ForkJoinPool}; smaller arrays are styled on the calling thread,
+     * where splitting would cost more than it saves.
+     *
+     * @param in the texts to style, must not be null and must not contain null
+     * @param out the array receiving the results, of the same length as {@code in}
+     * @return the output array
+     * @throws NullPointerException if an array or a text is null
+     * @throws IllegalArgumentException if the arrays differ in length
+     */
+    public String[] parallelApplyAll(String[] in, String[] out) {
+        checkBulkArrays(in, out);
+        StyleBatch.applyParallel(this, in, out);
+        return out;
+    }
+
+    /**
+     * Applies this style to every text of a list.
+     * <p>
+     * The texts are copied to an array once and styled in place, so no list grows while
+     * the results are added.
+     *
+     * @param texts the texts to style, must not be null and must not contain null
+     * @return an unmodifiable list of the styled texts, in the same order
+     * @throws NullPointerException if the list or a text is null
+     */
+    public List<String> applyTo(List<String> texts) {
+        Objects.requireNonNull(texts, "Texts cannot be null");
+
+        String[] results = texts.toArray(new String[0]);
+        StyleBatch.applyRange(this, results, results, 0, results.length);
+        return Collections.unmodifiableList(Arrays.asList(results));
+    }
+
+    /**
+     * Returns a {@link Collector} that applies this style to each text and joins the results.
+     * <p>
+     * Equivalent to {@code map(style::apply).collect(Collectors.joining(delimiter))}, except that
+     * the joined length is computed from the collected texts first and the result is written into
+     * a single buffer of exactly that size. The delimiter is not styled.
+     *
+     * <pre>{@code
+     * String row = cells.stream().collect(style.joining(" | "));
+     * }</pre>
+     *
+     * @param delimiter the text between styled elements, must not be null
+     * @return a collector producing the joined styled text
+     * @throws NullPointerException if delimiter is null, or when collecting, if a text is null
+     */
+    public Collector<CharSequence, ?, String> joining(CharSequence delimiter) {
+        String separator = Objects.requireNonNull(delimiter, "Delimiter cannot be null").toString();
+        return Collector.of(
+                () -> new StyleBatch.Joiner(this, separator),
+                StyleBatch.Joiner::add,
+                StyleBatch.Joiner::merge,
+                StyleBatch.Joiner::finish);
+    }
+
+    private static void checkBulkArrays(String[] in, String[] out) {
+        Objects.requireNonNull(in, "Input array cannot be null");
+        Objects.requireNonNull(out, "Output array cannot be null");
+        if (in.length != out.length) {
+            throw new IllegalArgumentException("Output array length " + out.length
+                    + " does not match input array length " + in.length);
+        }
+    }
+
+    /**
+     * Returns this style with its colors downsampled to the given color level.
+     * <p>
+     * RGB colors are mapped to the nearest xterm 256-color palette entry or basic color
+     * through a precomputed table; at {@link ColorLevel#NONE} colors are dropped and only
+     * text attributes remain. Styles created from a raw ANSI prefix are returned unchanged.
+     *
+     * @param level the color level of the output, must not be null
+     * @return a style the given level can display, possibly this style
+     * @throws NullPointerException if level is null
+     */
+    public Style withColorLevel(ColorLevel level) {
+        Objects.requireNonNull(level, "Color level cannot be null");
+        if (config == null) return this;
+
+        StyleConfig downsampled = config.withColorLevel(level);
+        return downsampled == config ? this : StyleCache.intern(downsampled);
+    }
+
+    /**
+     * Returns a view of this style that caches rendered results, bounded by entry count.
+     * <p>
+     * The total size of cached results is bounded to {@code maxEntries * 256} chars.
+     *
+     * @param maxEntries the maximum number of cached results, at least 1
+     * @return a new caching view with its own cache
+     * @throws IllegalArgumentException if maxEntries is not positive
+     * @see CachingStyle
+     */
+    public CachingStyle cachingView(int maxEntries) {
+        return cachingView(maxEntries, maxEntries * 256L);
+    }
+
+    /**
+     * Returns a view of this style that caches rendered results, bounded by entry count
+     * and total size.
+     * <p>
+     * Results longer than the cache's per-segment share of {@code maxChars} are rendered
+     * but not cached.
+     *
+     * @param maxEntries the maximum number of cached results, at least 1
+     * @param maxChars the maximum total length of cached results, at least 1
+     * @return a new caching view with its own cache
+     * @throws IllegalArgumentException if a bound is not positive
+     * @see CachingStyle
+     */
+    public CachingStyle cachingView(int maxEntries, long maxChars) {
+        return new CachingStyle(this, maxEntries, maxChars);
+    }
+
+    /**
+     * Returns the ANSI escape sequence this style writes before the text.
+     *
+     * @return the ANSI prefix, possibly empty
+     */
+    String prefix() {
+        return ansiPrefix;
+    }
+
+    /**
+     * Returns the length of the ANSI reset sequence written after the text.
+     *
+     * @return the reset sequence length in chars
+     */
+    static int resetLength() {
+        return ANSI_RESET.length();
+    }
+
+    /**
+     * Returns the UTF-8 bytes of the ANSI prefix. The array must not be modified.
+     *
+     * @return the encoded ANSI prefix, possibly empty
+     */
+    byte[] prefixBytes() {
+        return ansiPrefixBytes;
+    }
+
+    /**
+     * Returns the configuration this style was built from.
+     *
+     * @return the style configuration, or null if this style was created from a raw ANSI prefix
+     */
+    StyleConfig config() {
+        return config;
+    }
 }
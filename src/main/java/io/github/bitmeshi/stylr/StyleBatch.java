@@ -0,0 +1,138 @@
+package io.github.bitmeshi.stylr;
+
+import io.github.bitmeshi.stylr.internal.OutputGate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Helpers behind the bulk methods of {@link Style}.
+ * <p>
+ * Arrays are styled element by element into a separate output array; each result is built
+ * with a single exact-size concatenation by {@link Style#apply(String)}. Arrays of at least
+ * {@link #PARALLEL_THRESHOLD} elements can be halved until each range is shorter than that,
+ * and the ranges styled on the common fork-join pool. Joined output is sized exactly from
+ * the collected lengths before a single buffer is filled.
+ */
+final class StyleBatch {
+    /** Number of elements below which an array is styled on the calling thread. */
+    static final int PARALLEL_THRESHOLD = 8192;
+
+    private StyleBatch() {
+        throw new IllegalStateException("Utility class cannot be instantiated");
+    }
+
+    /**
+     * Styles a range of an array into the same range of another array.
+     *
+     * @param style the style to apply
+     * @param in the texts to style
+     * @param out the array receiving the results, may be the same as {@code in}
+     * @param from the first index to style
+     * @param to the index after the last to style
+     */
+    static void applyRange(Style style, String[] in, String[] out, int from, int to) {
+        for (int i = from; i < to; i++) {
+            out[i] = style.apply(in[i]);
+        }
+    }
+
+    /**
+     * Styles a whole array, splitting it across the common fork-join pool if it is large.
+     *
+     * @param style the style to apply
+     * @param in the texts to style
+     * @param out the array receiving the results, of the same length as {@code in}
+     */
+    static void applyParallel(Style style, String[] in, String[] out) {
+        if (in.length < PARALLEL_THRESHOLD) {
+            applyRange(style, in, out, 0, in.length);
+        } else {
+            new ApplyTask(style, in, out, 0, in.length).invoke();
+        }
+    }
+
+    /**
+     * Fork-join task that halves its range until it is shorter than the threshold.
+     */
+    private static final class ApplyTask extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        // The task is never serialized; its state is transient since Style is not serializable
+        private final transient Style style;
+        private final transient String[] in;
+        private final transient String[] out;
+        private final transient int from;
+        private final transient int to;
+
+        ApplyTask(Style style, String[] in, String[] out, int from, int to) {
+            this.style = style;
+            this.in = in;
+            this.out = out;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from < PARALLEL_THRESHOLD) {
+                applyRange(style, in, out, from, to);
+                return;
+            }
+
+            int middle = (from + to) >>> 1;
+            invokeAll(new ApplyTask(style, in, out, from, middle), new ApplyTask(style, in, out, middle, to));
+        }
+    }
+
+    /**
+     * Mutable accumulation of the {@link Style#joining(CharSequence)} collector.
+     * <p>
+     * Texts are kept until the end so that the joined length is known before anything
+     * is copied.
+     */
+    static final class Joiner {
+        private final Style style;
+        private final String delimiter;
+        private final List<String> texts = new ArrayList<>();
+        private long textChars;
+        private int styled;
+
+        Joiner(Style style, String delimiter) {
+            this.style = style;
+            this.delimiter = delimiter;
+        }
+
+        void add(CharSequence text) {
+            String string = Objects.requireNonNull(text, "Text cannot be null").toString();
+            texts.add(string);
+            textChars += string.length();
+            if (!string.isEmpty()) styled++;
+        }
+
+        Joiner merge(Joiner other) {
+            texts.addAll(other.texts);
+            textChars += other.textChars;
+            styled += other.styled;
+            return this;
+        }
+
+        String finish() {
+            int count = texts.size();
+            if (count == 0) return "";
+
+            long length = textChars + (long) delimiter.length() * (count - 1);
+            if (OutputGate.ENABLED) length += (long) styled * (style.prefix().length() + Style.resetLength());
+            if (length > Integer.MAX_VALUE) throw new OutOfMemoryError("Joined text is too long");
+
+            StringBuilder sb = new StringBuilder((int) length);
+            style.appendTo(sb, texts.get(0));
+            for (int i = 1; i < count; i++) {
+                style.appendTo(sb.append(delimiter), texts.get(i));
+            }
+            return sb.toString();
+        }
+    }
+}
@@ -0,0 +1,111 @@
+package io.github.bitmeshi.stylr;
+
+import io.github.bitmeshi.stylr.internal.StyleConfig;
+
+/**
+ * Tracks the style in effect in a styled sink and decides which escape codes move it to the next one.
+ * <p>
+ * Styles built from a configuration are diffed against the configuration in effect, after
+ * downsampling to the sink's color level. Styles created from a raw ANSI prefix cannot be
+ * diffed; they are preceded by a full reset, and the next configured style starts from a
+ * reset as well. Subclasses only write the codes chosen here, into whatever buffer the sink
+ * uses. Nothing is written if the sink's output policy disables styling.
+ *
+ * @param <X> the exception the sink throws when writing
+ * @see StyledLine
+ * @see StyledWriter
+ * @see StyledPrintStream
+ */
+abstract class StyleTracker<X extends Exception> {
+    private final ColorLevel colorLevel;
+    private final boolean styled;
+
+    /** The configuration in effect, or null if a raw-prefix style is in effect. */
+    private StyleConfig state = StyleConfig.EMPTY;
+
+    /** The raw-prefix style in effect, if any. */
+    private Style rawStyle;
+
+    StyleTracker(ColorLevel colorLevel, boolean styled) {
+        this.colorLevel = colorLevel;
+        this.styled = styled;
+    }
+
+    /**
+     * Writes the full reset sequence.
+     *
+     * @throws X if the sink fails
+     */
+    abstract void writeReset() throws X;
+
+    /**
+     * Writes the raw ANSI prefix of a style.
+     *
+     * @param style the raw-prefix style
+     * @throws X if the sink fails
+     */
+    abstract void writePrefix(Style style) throws X;
+
+    /**
+     * Writes the codes that move the terminal from one configuration to a different one.
+     *
+     * @param from the configuration in effect
+     * @param to the configuration to switch to
+     * @throws X if the sink fails
+     */
+    abstract void writeTransition(StyleConfig from, StyleConfig to) throws X;
+
+    /**
+     * Switches to the given style.
+     *
+     * @param style the style of the next text
+     * @throws X if the sink fails
+     */
+    final void switchTo(Style style) throws X {
+        if (!styled) return;
+
+        StyleConfig config = style.config();
+
+        if (config != null) {
+            switchTo(config.withColorLevel(colorLevel));
+            return;
+        }
+
+        if (style == rawStyle) return;
+
+        if (!isDefault()) writeReset();
+        writePrefix(style);
+        state = null;
+        rawStyle = style;
+    }
+
+    /**
+     * Switches to the given configuration, which is already downsampled.
+     *
+     * @param config the configuration of the next text
+     * @throws X if the sink fails
+     */
+    final void switchTo(StyleConfig config) throws X {
+        if (!styled) return;
+
+        if (state == null) {
+            writeReset();
+            state = StyleConfig.EMPTY;
+            rawStyle = null;
+        }
+
+        if (state.equals(config)) return;
+
+        writeTransition(state, config);
+        state = config;
+    }
+
+    /**
+     * Returns whether the terminal is in the default style.
+     *
+     * @return true if no style is in effect
+     */
+    final boolean isDefault() {
+        return state != null && state.isEmpty();
+    }
+}
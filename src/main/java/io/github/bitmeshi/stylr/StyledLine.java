@@ -0,0 +1,179 @@
+package io.github.bitmeshi.stylr;
+
+import io.github.bitmeshi.stylr.internal.SgrEncoder;
+import io.github.bitmeshi.stylr.internal.StyleConfig;
+
+import java.util.Objects;
+
+/**
+ * Builds a single line out of several styled segments with minimal escape codes.
+ * <p>
+ * Concatenating {@link Style#apply(String)} results emits a full prefix and a reset
+ * for every segment. A {@code StyledLine} instead tracks the style in effect and, for
+ * each new segment, writes only the codes needed to get from the previous style to
+ * the next one:
+ * <ul>
+ *   <li>only colors and attributes that change are written</li>
+ *   <li>removed attributes and colors use targeted resets such as {@code 22}, {@code 39} or {@code 49}</li>
+ *   <li>adjacent segments with the same style are merged</li>
+ *   <li>a single reset is written at the end</li>
+ * </ul>
+ * Styles created from a raw ANSI prefix ({@link Style#Style(String)}) cannot be diffed;
+ * they are preceded by a full reset instead.
+ * <p>
+ * Escape codes are only written if the line's {@link OutputPolicy} enables styling;
+ * by default it follows the global decision.
+ * <p>
+ * Instances are mutable and not thread-safe.
+ *
+ * <h2>Usage Example</h2>
+ * <pre>{@code
+ * Style label = Stylr.style().color(BasicColor.CYAN).bold().build();
+ * Style value = Stylr.style().color(BasicColor.CYAN).build();
+ *
+ * String line = Stylr.line()
+ *     .append(label, "cpu ")
+ *     .append(value, "42%")
+ *     .append("  ")
+ *     .append(label, "mem ")
+ *     .append(value, "1.2G")
+ *     .render();
+ * }</pre>
+ *
+ * @since 1.0
+ * @see Stylr#line()
+ */
+public final class StyledLine {
+    private static final String ANSI_RESET = "\u001b[0m";
+
+    private final StringBuilder buffer = new StringBuilder();
+
+    /** The style in effect and the codes that switch it. */
+    private final StyleTracker<RuntimeException> tracker;
+
+    /**
+     * Creates an empty line.
+     * <p>
+     * This constructor is typically called by {@link Stylr#line()}.
+     */
+    public StyledLine() {
+        this(ColorLevel.TRUECOLOR);
+    }
+
+    /**
+     * Creates an empty line that downsamples colors to the given color level.
+     * <p>
+     * This constructor is typically called by {@link Stylr#line(ColorLevel)}.
+     *
+     * @param colorLevel the color depth of the output, must not be null
+     * @throws NullPointerException if colorLevel is null
+     */
+    public StyledLine(ColorLevel colorLevel) {
+        this(colorLevel, OutputPolicy.AUTO);
+    }
+
+    /**
+     * Creates an empty line with its own output policy.
+     *
+     * @param colorLevel the color depth of the output, must not be null
+     * @param outputPolicy whether escape codes are written, overriding the global decision; must not be null
+     * @throws NullPointerException if colorLevel or outputPolicy is null
+     */
+    public StyledLine(ColorLevel colorLevel, OutputPolicy outputPolicy) {
+        this.tracker = new StyleTracker<>(
+                Objects.requireNonNull(colorLevel, "Color level cannot be null"),
+                Objects.requireNonNull(outputPolicy, "Output policy cannot be null").isEnabled()) {
+            @Override
+            void writeReset() {
+                buffer.append(ANSI_RESET);
+            }
+
+            @Override
+            void writePrefix(Style style) {
+                buffer.append(style.prefix());
+            }
+
+            @Override
+            void writeTransition(StyleConfig from, StyleConfig to) {
+                SgrEncoder.encodeTransition(from, to, buffer);
+            }
+        };
+    }
+
+    /**
+     * Appends a segment of text with the given style.
+     * <p>
+     * Empty text is ignored and does not affect the style in effect.
+     *
+     * @param style the style of the segment, must not be null
+     * @param text the text of the segment, must not be null
+     * @return this line for method chaining
+     * @throws NullPointerException if style or text is null
+     */
+    public StyledLine append(Style style, CharSequence text) {
+        Objects.requireNonNull(style, "Style cannot be null");
+        Objects.requireNonNull(text, "Text cannot be null");
+
+        if (text.length() == 0) return this;
+
+        tracker.switchTo(style);
+        buffer.append(text);
+        return this;
+    }
+
+    /**
+     * Appends a segment of unstyled text.
+     * <p>
+     * Empty text is ignored and does not affect the style in effect.
+     *
+     * @param text the text of the segment, must not be null
+     * @return this line for method chaining
+     * @throws NullPointerException if text is null
+     */
+    public StyledLine append(CharSequence text) {
+        Objects.requireNonNull(text, "Text cannot be null");
+
+        if (text.length() == 0) return this;
+
+        tracker.switchTo(StyleConfig.EMPTY);
+        buffer.append(text);
+        return this;
+    }
+
+    /**
+     * Renders the line, ending with a single reset if any style is still in effect.
+     * <p>
+     * The line can still be appended to after rendering.
+     *
+     * @return the styled line
+     */
+    public String render() {
+        if (tracker.isDefault()) return buffer.toString();
+
+        int length = buffer.length();
+        String rendered = buffer.append(ANSI_RESET).toString();
+        buffer.setLength(length);
+        return rendered;
+    }
+
+    /**
+     * Appends the rendered line to a {@link StringBuilder}.
+     *
+     * @param sb the builder to append to, must not be null
+     * @return the given builder
+     * @throws NullPointerException if sb is null
+     */
+    public StringBuilder appendTo(StringBuilder sb) {
+        Objects.requireNonNull(sb, "StringBuilder cannot be null");
+
+        sb.append(buffer);
+        if (!tracker.isDefault()) sb.append(ANSI_RESET);
+        return sb;
+    }
+
+    @Override
+    public String toString() {
+        return render();
+    }
+
+}
@@ -0,0 +1,394 @@
+package io.github.bitmeshi.stylr;
+
+import io.github.bitmeshi.stylr.internal.Metrics;
+import io.github.bitmeshi.stylr.internal.SgrEncoder;
+import io.github.bitmeshi.stylr.internal.StyleConfig;
+import io.github.bitmeshi.stylr.internal.Utf8;
+import io.github.bitmeshi.stylr.internal.jfr.SinkFlushEvent;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Objects;
+
+/**
+ * A buffered UTF-8 {@link PrintStream} that tracks the terminal's active style across writes.
+ * <p>
+ * This is the byte-oriented counterpart of {@link StyledWriter}, meant to wrap
+ * {@code System.out} or another terminal stream. Styled writes only send the codes needed
+ * to move from the style currently in effect to the requested one, and text is encoded
+ * straight into a reusable byte buffer. Everything written through the inherited
+ * {@code PrintStream} methods is treated as plain text and first returns the terminal to
+ * the default style.
+ * <p>
+ * The buffer is written to the underlying stream when it fills up and, unless disabled,
+ * whenever a newline is written, so each line costs a single write call. Like any
+ * {@code PrintStream}, this class never throws {@link IOException}; use
+ * {@link #checkError()} to detect failures.
+ * <p>
+ * Escape codes are only written if the stream's {@link OutputPolicy} enables styling;
+ * by default it follows the global decision.
+ *
+ * <h2>Usage Example</h2>
+ * <pre>{@code
+ * StyledPrintStream out = new StyledPrintStream(System.out);
+ * Style key = Stylr.style().color(BasicColor.CYAN).build();
+ *
+ * out.print(key, "user");
+ * out.print("=");
+ * out.println(key, "alice");
+ * }</pre>
+ *
+ * @since 1.0
+ * @see StyledWriter
+ */
+public final class StyledPrintStream extends PrintStream {
+    private static final int DEFAULT_BUFFER_SIZE = 8192;
+    private static final byte[] ANSI_RESET_BYTES = "\u001b[0m".getBytes(StandardCharsets.US_ASCII);
+
+    /** Minimum free space before encoding a chunk of chars, so a surrogate pair always fits. */
+    private static final int MIN_CHUNK_BYTES = 16;
+
+    private final byte[] buffer;
+    private final boolean flushOnNewline;
+    private int count;
+    private boolean closing;
+    private boolean closed;
+
+    /** The style in effect and the codes that switch it. */
+    private final StyleTracker<IOException> tracker;
+
+    /**
+     * Creates a styled print stream with a default buffer that flushes on every newline.
+     *
+     * @param out the stream to send output to, must not be null
+     * @throws NullPointerException if out is null
+     */
+    public StyledPrintStream(OutputStream out) {
+        this(out, DEFAULT_BUFFER_SIZE, true);
+    }
+
+    /**
+     * Creates a styled print stream with a default buffer and its own output policy.
+     *
+     * @param out the stream to send output to, must not be null
+     * @param outputPolicy whether escape codes are written, overriding the global decision; must not be null
+     * @throws NullPointerException if out or outputPolicy is null
+     */
+    public StyledPrintStream(OutputStream out, OutputPolicy outputPolicy) {
+        this(out, DEFAULT_BUFFER_SIZE, true, ColorLevel.TRUECOLOR, outputPolicy);
+    }
+
+    /**
+     * Creates a styled print stream.
+     *
+     * @param out the stream to send output to, must not be null
+     * @param bufferSize the size of the output buffer in bytes, must be positive
+     * @param flushOnNewline true to flush the buffer and the underlying stream whenever a newline is written
+     * @throws NullPointerException if out is null
+     * @throws IllegalArgumentException if bufferSize is not positive
+     */
+    public StyledPrintStream(OutputStream out, int bufferSize, boolean flushOnNewline) {
+        this(out, bufferSize, flushOnNewline, ColorLevel.TRUECOLOR);
+    }
+
+    /**
+     * Creates a styled print stream that downsamples colors to the given color level.
+     *
+     * @param out the stream to send output to, must not be null
+     * @param bufferSize the size of the output buffer in bytes, must be positive
+     * @param flushOnNewline true to flush the buffer and the underlying stream whenever a newline is written
+     * @param colorLevel the color depth of the output, must not be null
+     * @throws NullPointerException if out or colorLevel is null
+     * @throws IllegalArgumentException if bufferSize is not positive
+     */
+    public StyledPrintStream(OutputStream out, int bufferSize, boolean flushOnNewline, ColorLevel colorLevel) {
+        this(out, bufferSize, flushOnNewline, colorLevel, OutputPolicy.AUTO);
+    }
+
+    /**
+     * Creates a styled print stream with its own output policy.
+     *
+     * @param out the stream to send output to, must not be null
+     * @param bufferSize the size of the output buffer in bytes, must be positive
+     * @param flushOnNewline true to flush the buffer and the underlying stream whenever a newline is written
+     * @param colorLevel the color depth of the output, must not be null
+     * @param outputPolicy whether escape codes are written, overriding the global decision; must not be null
+     * @throws NullPointerException if out, colorLevel or outputPolicy is null
+     * @throws IllegalArgumentException if bufferSize is not positive
+     */
+    public StyledPrintStream(OutputStream out, int bufferSize, boolean flushOnNewline, ColorLevel colorLevel, OutputPolicy outputPolicy) {
+        super(Objects.requireNonNull(out, "OutputStream cannot be null"), false, StandardCharsets.UTF_8);
+        if (bufferSize <= 0) {
+            throw new IllegalArgumentException("Buffer size must be positive");
+        }
+        this.buffer = new byte[Math.max(bufferSize, SgrEncoder.MAX_LENGTH)];
+        this.flushOnNewline = flushOnNewline;
+        this.tracker = new StyleTracker<>(
+                Objects.requireNonNull(colorLevel, "Color level cannot be null"),
+                Objects.requireNonNull(outputPolicy, "Output policy cannot be null").isEnabled()) {
+            @Override
+            void writeReset() throws IOException {
+                writeEscape(ANSI_RESET_BYTES);
+            }
+
+            @Override
+            void writePrefix(Style style) throws IOException {
+                writeEscape(style.prefixBytes());
+            }
+
+            @Override
+            void writeTransition(StyleConfig from, StyleConfig to) throws IOException {
+                if (buffer.length - count < SgrEncoder.MAX_LENGTH) flushBuffer();
+                count = SgrEncoder.encodeTransition(from, to, buffer, count);
+            }
+        };
+    }
+
+    /**
+     * Writes text with the given style, switching from the style currently in effect.
+     * <p>
+     * Empty text is ignored and does not change the style in effect. The style stays
+     * in effect after the call; it is only switched when the next write needs a
+     * different one.
+     *
+     * @param style the style of the text, must not be null
+     * @param text the text to write, must not be null
+     * @return this stream for method chaining
+     * @throws NullPointerException if style or text is null
+     */
+    public StyledPrintStream append(Style style, CharSequence text) {
+        Objects.requireNonNull(style, "Style cannot be null");
+        Objects.requireNonNull(text, "Text cannot be null");
+
+        synchronized (this) {
+            try {
+                ensureOpen();
+                if (text.length() == 0) return this;
+
+                tracker.switchTo(style);
+                writeText(text);
+            } catch (IOException e) {
+                handle(e);
+            }
+        }
+        return this;
+    }
+
+    /**
+     * Prints text with the given style.
+     *
+     * @param style the style of the text, must not be null
+     * @param text the text to print, must not be null
+     * @throws NullPointerException if style or text is null
+     * @see #append(Style, CharSequence)
+     */
+    public void print(Style style, String text) {
+        append(style, text);
+    }
+
+    /**
+     * Prints text with the given style, then returns to the default style and terminates the line.
+     * <p>
+     * The style is switched off before the line separator, so background colors do not
+     * bleed into the next line.
+     *
+     * @param style the style of the text, must not be null
+     * @param text the text to print, must not be null
+     * @throws NullPointerException if style or text is null
+     */
+    public void println(Style style, String text) {
+        synchronized (this) {
+            append(style, text);
+            println();
+        }
+    }
+
+    /**
+     * Returns the terminal to the default style if any style is in effect.
+     */
+    public void resetStyle() {
+        synchronized (this) {
+            try {
+                ensureOpen();
+                tracker.switchTo(StyleConfig.EMPTY);
+            } catch (IOException e) {
+                handle(e);
+            }
+        }
+    }
+
+    @Override
+    public void print(String s) {
+        String text = String.valueOf(s);
+
+        synchronized (this) {
+            try {
+                ensureOpen();
+                if (text.isEmpty()) return;
+
+                tracker.switchTo(StyleConfig.EMPTY);
+                writeText(text);
+            } catch (IOException e) {
+                handle(e);
+            }
+        }
+    }
+
+    @Override
+    public void write(int b) {
+        synchronized (this) {
+            try {
+                ensureOpen();
+                tracker.switchTo(StyleConfig.EMPTY);
+
+                if (count == buffer.length) flushBuffer();
+                buffer[count++] = (byte) b;
+                if (b == '\n' && flushOnNewline) flushLine();
+            } catch (IOException e) {
+                handle(e);
+            }
+        }
+    }
+
+    @Override
+    public void write(byte[] buf, int off, int len) {
+        Objects.checkFromIndexSize(off, len, buf.length);
+
+        synchronized (this) {
+            try {
+                ensureOpen();
+                if (len == 0) return;
+
+                tracker.switchTo(StyleConfig.EMPTY);
+                boolean newline = false;
+
+                if (len >= buffer.length) {
+                    // Too large to be worth copying
+                    flushBuffer();
+                    out.write(buf, off, len);
+                    newline = contains(buf, off, off + len);
+                } else {
+                    if (buffer.length - count < len) flushBuffer();
+                    System.arraycopy(buf, off, buffer, count, len);
+                    newline = contains(buffer, count, count + len);
+                    count += len;
+                }
+
+                if (newline && flushOnNewline) flushLine();
+            } catch (IOException e) {
+                handle(e);
+            }
+        }
+    }
+
+    @Override
+    public void flush() {
+        synchronized (this) {
+            try {
+                ensureOpen();
+                flushBuffer();
+                out.flush();
+            } catch (IOException e) {
+                handle(e);
+            }
+        }
+    }
+
+    /**
+     * Resets the style if one is in effect, flushes and closes the underlying stream.
+     */
+    @Override
+    public void close() {
+        synchronized (this) {
+            if (closing) return;
+            closing = true;
+
+            try {
+                tracker.switchTo(StyleConfig.EMPTY);
+                flushBuffer();
+                out.flush();
+            } catch (IOException e) {
+                handle(e);
+            } finally {
+                // Closes the underlying stream and detaches it, so checkError() no longer flushes;
+                // the encoder it closes flushes this stream, which must still be open then
+                super.close();
+                closed = true;
+            }
+        }
+    }
+
+    private void writeText(CharSequence text) throws IOException {
+        int start = 0;
+        int end = text.length();
+        boolean newline = false;
+
+        while (start < end) {
+            if (buffer.length - count < MIN_CHUNK_BYTES) flushBuffer();
+
+            // Every char encodes to at most three bytes; never split a surrogate pair
+            int chunkEnd = Math.min(end, start + (buffer.length - count) / 3);
+            if (chunkEnd < end && Character.isHighSurrogate(text.charAt(chunkEnd - 1))) chunkEnd--;
+
+            int from = count;
+            count = Utf8.encode(text, start, chunkEnd, buffer, count);
+            newline |= contains(buffer, from, count);
+            start = chunkEnd;
+        }
+
+        if (newline && flushOnNewline) flushLine();
+    }
+
+    private static boolean contains(byte[] bytes, int from, int to) {
+        for (int i = from; i < to; i++) {
+            if (bytes[i] == '\n') return true;
+        }
+        return false;
+    }
+
+    private void writeEscape(byte[] sequence) throws IOException {
+        if (buffer.length - count < sequence.length) flushBuffer();
+
+        if (sequence.length > buffer.length) {
+            out.write(sequence);
+        } else {
+            System.arraycopy(sequence, 0, buffer, count, sequence.length);
+            count += sequence.length;
+        }
+    }
+
+    private void flushLine() throws IOException {
+        flushBuffer();
+        out.flush();
+    }
+
+    private void flushBuffer() throws IOException {
+        if (count > 0) {
+            SinkFlushEvent event = new SinkFlushEvent();
+            event.begin();
+            out.write(buffer, 0, count);
+            Metrics.sinkFlushed();
+
+            if (event.shouldCommit()) {
+                event.sink = "StyledPrintStream";
+                event.length = count;
+                event.commit();
+            }
+            count = 0;
+        }
+    }
+
+    private void ensureOpen() throws IOException {
+        if (closed) throw new IOException("Stream closed");
+    }
+
+    private void handle(IOException e) {
+        if (e instanceof InterruptedIOException) {
+            Thread.currentThread().interrupt();
+        }
+        setError();
+    }
+}
@@ -0,0 +1,324 @@
+package io.github.bitmeshi.stylr;
+
+import io.github.bitmeshi.stylr.internal.Metrics;
+import io.github.bitmeshi.stylr.internal.OutputGate;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * A text pattern with styled placeholders, compiled once and rendered many times.
+ * <p>
+ * Placeholders are written in braces and filled with arguments in this order:
+ * <ul>
+ *   <li>{@code {name}}: a named slot; every distinct name takes the next argument, and a
+ *       name used again refers to the same argument</li>
+ *   <li>{@code {}}: an anonymous slot that takes the next argument</li>
+ *   <li>{@code {0}}, {@code {1}}, ...: the argument at that index</li>
+ * </ul>
+ * Named and anonymous slots can be combined, but indexed slots cannot be mixed with
+ * either, as in {@link java.text.MessageFormat} and SLF4J patterns: {@code "{0} {}"} is
+ * rejected instead of silently reading argument 0 twice.
+ * Each slot is styled with the style registered under its name or index, if any.
+ * {@code {{} and {@code }}} are literal braces.
+ * <p>
+ * Compiling splits the pattern into literal and slot segments and resolves the escape
+ * codes of every slot. Rendering converts each argument to a string once, computes the
+ * exact length of the output and fills a single pre-sized buffer, so a call costs no
+ * {@link java.util.Formatter} parsing, no intermediate strings per slot and no resizing.
+ * Empty values are written without escape codes, the same as {@link Style#apply(String)}.
+ * <p>
+ * Instances are immutable and thread-safe.
+ *
+ * <h2>Usage Example</h2>
+ * <pre>{@code
+ * StyledTemplate line = StyledTemplate.compile("{level} {logger}: {msg}", Map.of(
+ *         "level", Stylr.style().color(BasicColor.RED).bold().build(),
+ *         "logger", Stylr.style().dim().build()));
+ *
+ * String text = line.render("ERROR", "db.Pool", "connection refused");
+ * line.appendTo(System.out, "WARN", "http", "slow response");
+ * }</pre>
+ *
+ * @since 1.0
+ */
+public final class StyledTemplate {
+    private static final String ANSI_RESET = "\u001b[0m";
+
+    /**
+     * The pattern split at slots: {@code literals[i]} comes before slot {@code i}, and
+     * the last literal comes after the last slot.
+     */
+    private final String[] literals;
+    private final int[] slotArguments;
+    private final String[] slotPrefixes;
+    private final String[] slotResets;
+    private final String[] names;
+    private final int argumentCount;
+    private final int literalLength;
+
+    private StyledTemplate(List<String> literals, List<Integer> slotArguments, List<String> slotPrefixes,
+                           List<String> slotResets, String[] names, int argumentCount) {
+        this.literals = literals.toArray(new String[0]);
+        this.slotArguments = slotArguments.stream().mapToInt(Integer::intValue).toArray();
+        this.slotPrefixes = slotPrefixes.toArray(new String[0]);
+        this.slotResets = slotResets.toArray(new String[0]);
+        this.names = names;
+        this.argumentCount = argumentCount;
+
+        int length = 0;
+        for (String literal : this.literals) {
+            length += literal.length();
+        }
+        this.literalLength = length;
+    }
+
+    /**
+     * Compiles a pattern without styles.
+     *
+     * @param pattern the pattern, must not be null
+     * @return the compiled template
+     * @throws NullPointerException if pattern is null
+     * @throws IllegalArgumentException if the pattern has an unterminated placeholder or a stray {@code }},
+     *         or mixes indexed slots with named or anonymous ones
+     */
+    public static StyledTemplate compile(String pattern) {
+        return compile(pattern, Map.of());
+    }
+
+    /**
+     * Compiles a pattern with styles for its slots.
+     *
+     * @param pattern the pattern, must not be null
+     * @param styles the style of each slot by name, or by index for {@code {0}}-style slots;
+     *        slots without an entry are not styled. Must not be null
+     * @return the compiled template
+     * @throws NullPointerException if pattern or styles is null
+     * @throws IllegalArgumentException if the pattern has an unterminated placeholder or a stray {@code }},
+     *         or mixes indexed slots with named or anonymous ones
+     */
+    public static StyledTemplate compile(String pattern, Map<String, Style> styles) {
+        Objects.requireNonNull(pattern, "Pattern cannot be null");
+        Objects.requireNonNull(styles, "Styles cannot be null");
+
+        List<String> literals = new ArrayList<>();
+        List<Integer> slotArguments = new ArrayList<>();
+        List<String> slotPrefixes = new ArrayList<>();
+        List<String> slotResets = new ArrayList<>();
+        Map<String, Integer> namedArguments = new LinkedHashMap<>();
+
+        StringBuilder literal = new StringBuilder();
+        int nextArgument = 0;
+        int argumentCount = 0;
+        boolean indexed = false;
+        int length = pattern.length();
+        int i = 0;
+
+        while (i < length) {
+            char c = pattern.charAt(i);
+
+            if ((c == '{' || c == '}') && i + 1 < length && pattern.charAt(i + 1) == c) {
+                literal.append(c);
+                i += 2;
+                continue;
+            }
+            if (c == '}') {
+                throw new IllegalArgumentException("Unmatched '}' at index " + i + ": " + pattern);
+            }
+            if (c != '{') {
+                literal.append(c);
+                i++;
+                continue;
+            }
+
+            int close = pattern.indexOf('}', i + 1);
+            if (close < 0) {
+                throw new IllegalArgumentException("Unterminated placeholder at index " + i + ": " + pattern);
+            }
+            String name = pattern.substring(i + 1, close).trim();
+
+            int argument;
+            if (name.isEmpty()) {
+                argument = nextArgument++;
+            } else if (isIndex(name)) {
+                argument = Integer.parseInt(name);
+                indexed = true;
+            } else {
+                Integer known = namedArguments.get(name);
+                if (known == null) {
+                    known = nextArgument++;
+                    namedArguments.put(name, known);
+                }
+                argument = known;
+            }
+            if (indexed && nextArgument > 0) {
+                throw new IllegalArgumentException(
+                        "Cannot mix indexed slots with named or anonymous slots at index " + i + ": " + pattern);
+            }
+            argumentCount = Math.max(argumentCount, argument + 1);
+
+            Style style = styles.get(name);
+            String prefix = style != null ? style.prefix() : "";
+            literals.add(literal.toString());
+            literal.setLength(0);
+            slotArguments.add(argument);
+            slotPrefixes.add(prefix);
+            slotResets.add(prefix.isEmpty() ? "" : ANSI_RESET);
+            i = close + 1;
+        }
+        literals.add(literal.toString());
+
+        String[] names = new String[argumentCount];
+        namedArguments.forEach((name, argument) -> names[argument] = name);
+        return new StyledTemplate(literals, slotArguments, slotPrefixes, slotResets, names, argumentCount);
+    }
+
+    /**
+     * Returns the number of arguments the template expects.
+     *
+     * @return the argument count
+     */
+    public int argumentCount() {
+        return argumentCount;
+    }
+
+    /**
+     * Renders the template with positional arguments.
+     * <p>
+     * Arguments are converted with {@link String#valueOf(Object)}, so {@code null} is
+     * written as {@code "null"}.
+     *
+     * @param args the values for the slots, at least {@link #argumentCount()} of them
+     * @return the rendered text
+     * @throws IllegalArgumentException if fewer arguments than slots are given
+     */
+    public String render(Object... args) {
+        String[] values = values(args);
+        count(values);
+        return fill(new StringBuilder(length(values)), values).toString();
+    }
+
+    /**
+     * Renders the template with values looked up by slot name.
+     * <p>
+     * Slots without a name, such as {@code {}} and {@code {0}}, are looked up by their
+     * argument index as a string. Missing values are written as {@code "null"}.
+     *
+     * @param values the values by slot name, must not be null
+     * @return the rendered text
+     * @throws NullPointerException if values is null
+     */
+    public String render(Map<String, ?> values) {
+        Objects.requireNonNull(values, "Values cannot be null");
+
+        Object[] args = new Object[argumentCount];
+        for (int i = 0; i < argumentCount; i++) {
+            args[i] = values.get(names[i] != null ? names[i] : Integer.toString(i));
+        }
+        return render(args);
+    }
+
+    /**
+     * Renders the template with positional arguments and appends the result.
+     *
+     * @param out where to append the rendered text, must not be null
+     * @param args the values for the slots, at least {@link #argumentCount()} of them
+     * @param <A> the type of the appendable
+     * @return the given appendable
+     * @throws IOException if appending fails
+     * @throws NullPointerException if out is null
+     * @throws IllegalArgumentException if fewer arguments than slots are given
+     */
+    public <A extends Appendable> A appendTo(A out, Object... args) throws IOException {
+        Objects.requireNonNull(out, "Appendable cannot be null");
+
+        String[] values = values(args);
+        count(values);
+        if (out instanceof StringBuilder sb) {
+            sb.ensureCapacity(sb.length() + length(values));
+            fill(sb, values);
+            return out;
+        }
+
+        boolean styled = OutputGate.ENABLED;
+        for (int i = 0; i < slotArguments.length; i++) {
+            out.append(literals[i]);
+            String value = values[slotArguments[i]];
+            boolean codes = styled && !value.isEmpty();
+            if (codes) out.append(slotPrefixes[i]);
+            out.append(value);
+            if (codes) out.append(slotResets[i]);
+        }
+        out.append(literals[literals.length - 1]);
+        return out;
+    }
+
+    private String[] values(Object[] args) {
+        if (args.length < argumentCount) {
+            throw new IllegalArgumentException("Expected " + argumentCount + " arguments but got " + args.length);
+        }
+
+        String[] values = new String[argumentCount];
+        for (int i = 0; i < argumentCount; i++) {
+            values[i] = String.valueOf(args[i]);
+        }
+        return values;
+    }
+
+    /** Returns the exact length of the output for the given values. */
+    private int length(String[] values) {
+        boolean styled = OutputGate.ENABLED;
+        int length = literalLength;
+
+        for (int i = 0; i < slotArguments.length; i++) {
+            String value = values[slotArguments[i]];
+            length += value.length();
+            if (styled && !value.isEmpty()) {
+                length += slotPrefixes[i].length() + slotResets[i].length();
+            }
+        }
+        return length;
+    }
+
+    private void count(String[] values) {
+        if (!Metrics.ENABLED || !OutputGate.ENABLED) return;
+
+        int escapeChars = 0;
+        int textChars = literalLength;
+        for (int i = 0; i < slotArguments.length; i++) {
+            String value = values[slotArguments[i]];
+            textChars += value.length();
+            if (!value.isEmpty()) escapeChars += slotPrefixes[i].length() + slotResets[i].length();
+        }
+        Metrics.rendered(escapeChars, textChars);
+    }
+
+    private StringBuilder fill(StringBuilder sb, String[] values) {
+        boolean styled = OutputGate.ENABLED;
+
+        for (int i = 0; i < slotArguments.length; i++) {
+            sb.append(literals[i]);
+            String value = values[slotArguments[i]];
+            if (styled && !value.isEmpty()) {
+                sb.append(slotPrefixes[i]).append(value).append(slotResets[i]);
+            } else {
+                sb.append(value);
+            }
+        }
+        return sb.append(literals[literals.length - 1]);
+    }
+
+    private static boolean isIndex(String name) {
+        if (name.length() > 4) return false;
+
+        for (int i = 0; i < name.length(); i++) {
+            char c = name.charAt(i);
+            if (c < '0' || c > '9') return false;
+        }
+        return true;
+    }
+}
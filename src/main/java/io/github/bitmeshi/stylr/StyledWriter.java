@@ -0,0 +1,330 @@
+package io.github.bitmeshi.stylr;
+
+import io.github.bitmeshi.stylr.internal.Metrics;
+import io.github.bitmeshi.stylr.internal.SgrEncoder;
+import io.github.bitmeshi.stylr.internal.StyleConfig;
+import io.github.bitmeshi.stylr.internal.jfr.SinkFlushEvent;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.Objects;
+
+/**
+ * A buffered {@link Writer} that tracks the terminal's active style across writes.
+ * <p>
+ * Every styled write only sends the codes needed to move from the style currently in
+ * effect to the requested one, the same way {@link StyledLine} does for a single line.
+ * Consecutive fragments with the same style share one prefix, and no reset is written
+ * between them. Plain writes through the regular {@code Writer} methods first return
+ * the terminal to the default style.
+ * <p>
+ * Output is collected in a reusable buffer that is handed to the underlying writer when
+ * it fills up and, unless disabled, whenever a newline is written. Closing the writer
+ * resets the style if one is still in effect.
+ * <p>
+ * Styles created from a raw ANSI prefix ({@link Style#Style(String)}) cannot be diffed;
+ * they are preceded by a full reset instead.
+ * <p>
+ * Escape codes are only written if the writer's {@link OutputPolicy} enables styling;
+ * by default it follows the global decision.
+ *
+ * <h2>Usage Example</h2>
+ * <pre>{@code
+ * Style ok = Stylr.style().color(BasicColor.GREEN).build();
+ * Style failed = Stylr.style().color(BasicColor.RED).bold().build();
+ *
+ * try (StyledWriter out = new StyledWriter(new OutputStreamWriter(System.out, StandardCharsets.UTF_8))) {
+ *     out.append(ok, "passed ").append(ok, "12").write(" / ");
+ *     out.append(failed, "failed 1");
+ *     out.write('\n');
+ * }
+ * }</pre>
+ *
+ * @since 1.0
+ * @see StyledPrintStream
+ */
+public final class StyledWriter extends Writer {
+    private static final int DEFAULT_BUFFER_SIZE = 8192;
+    private static final String ANSI_RESET = "\u001b[0m";
+
+    private final Writer out;
+    private final char[] buffer;
+    private final boolean flushOnNewline;
+    private int count;
+    private boolean closed;
+
+    /** The style in effect and the codes that switch it. */
+    private final StyleTracker<IOException> tracker;
+
+    /**
+     * Creates a styled writer with a default buffer that flushes on every newline.
+     *
+     * @param out the writer to send output to, must not be null
+     * @throws NullPointerException if out is null
+     */
+    public StyledWriter(Writer out) {
+        this(out, DEFAULT_BUFFER_SIZE, true);
+    }
+
+    /**
+     * Creates a styled writer with a default buffer and its own output policy.
+     *
+     * @param out the writer to send output to, must not be null
+     * @param outputPolicy whether escape codes are written, overriding the global decision; must not be null
+     * @throws NullPointerException if out or outputPolicy is null
+     */
+    public StyledWriter(Writer out, OutputPolicy outputPolicy) {
+        this(out, DEFAULT_BUFFER_SIZE, true, ColorLevel.TRUECOLOR, outputPolicy);
+    }
+
+    /**
+     * Creates a styled writer.
+     *
+     * @param out the writer to send output to, must not be null
+     * @param bufferSize the size of the output buffer in chars, must be positive
+     * @param flushOnNewline true to flush the buffer and the underlying writer whenever a newline is written
+     * @throws NullPointerException if out is null
+     * @throws IllegalArgumentException if bufferSize is not positive
+     */
+    public StyledWriter(Writer out, int bufferSize, boolean flushOnNewline) {
+        this(out, bufferSize, flushOnNewline, ColorLevel.TRUECOLOR);
+    }
+
+    /**
+     * Creates a styled writer that downsamples colors to the given color level.
+     *
+     * @param out the writer to send output to, must not be null
+     * @param bufferSize the size of the output buffer in chars, must be positive
+     * @param flushOnNewline true to flush the buffer and the underlying writer whenever a newline is written
+     * @param colorLevel the color depth of the output, must not be null
+     * @throws NullPointerException if out or colorLevel is null
+     * @throws IllegalArgumentException if bufferSize is not positive
+     */
+    public StyledWriter(Writer out, int bufferSize, boolean flushOnNewline, ColorLevel colorLevel) {
+        this(out, bufferSize, flushOnNewline, colorLevel, OutputPolicy.AUTO);
+    }
+
+    /**
+     * Creates a styled writer with its own output policy.
+     *
+     * @param out the writer to send output to, must not be null
+     * @param bufferSize the size of the output buffer in chars, must be positive
+     * @param flushOnNewline true to flush the buffer and the underlying writer whenever a newline is written
+     * @param colorLevel the color depth of the output, must not be null
+     * @param outputPolicy whether escape codes are written, overriding the global decision; must not be null
+     * @throws NullPointerException if out, colorLevel or outputPolicy is null
+     * @throws IllegalArgumentException if bufferSize is not positive
+     */
+    public StyledWriter(Writer out, int bufferSize, boolean flushOnNewline, ColorLevel colorLevel, OutputPolicy outputPolicy) {
+        this.out = Objects.requireNonNull(out, "Writer cannot be null");
+        if (bufferSize <= 0) {
+            throw new IllegalArgumentException("Buffer size must be positive");
+        }
+        this.buffer = new char[Math.max(bufferSize, SgrEncoder.MAX_LENGTH)];
+        this.flushOnNewline = flushOnNewline;
+        this.tracker = new StyleTracker<>(
+                Objects.requireNonNull(colorLevel, "Color level cannot be null"),
+                Objects.requireNonNull(outputPolicy, "Output policy cannot be null").isEnabled()) {
+            @Override
+            void writeReset() throws IOException {
+                writeEscape(ANSI_RESET);
+            }
+
+            @Override
+            void writePrefix(Style style) throws IOException {
+                writeEscape(style.prefix());
+            }
+
+            @Override
+            void writeTransition(StyleConfig from, StyleConfig to) throws IOException {
+                if (buffer.length - count < SgrEncoder.MAX_LENGTH) flushBuffer();
+                count = SgrEncoder.encodeTransition(from, to, buffer, count);
+            }
+        };
+    }
+
+    /**
+     * Writes text with the given style, switching from the style currently in effect.
+     * <p>
+     * Empty text is ignored and does not change the style in effect. The style stays
+     * in effect after the call; it is only switched when the next write needs a
+     * different one.
+     *
+     * @param style the style of the text, must not be null
+     * @param text the text to write, must not be null
+     * @return this writer for method chaining
+     * @throws NullPointerException if style or text is null
+     * @throws IOException if an I/O error occurs
+     */
+    public StyledWriter append(Style style, CharSequence text) throws IOException {
+        Objects.requireNonNull(style, "Style cannot be null");
+        Objects.requireNonNull(text, "Text cannot be null");
+
+        synchronized (lock) {
+            ensureOpen();
+            if (text.length() == 0) return this;
+
+            tracker.switchTo(style);
+            writeText(text, 0, text.length());
+        }
+        return this;
+    }
+
+    /**
+     * Returns the terminal to the default style if any style is in effect.
+     *
+     * @throws IOException if an I/O error occurs
+     */
+    public void resetStyle() throws IOException {
+        synchronized (lock) {
+            ensureOpen();
+            tracker.switchTo(StyleConfig.EMPTY);
+        }
+    }
+
+    @Override
+    public void write(int c) throws IOException {
+        synchronized (lock) {
+            ensureOpen();
+            tracker.switchTo(StyleConfig.EMPTY);
+
+            if (count == buffer.length) flushBuffer();
+            buffer[count++] = (char) c;
+            if (c == '\n' && flushOnNewline) flushLine();
+        }
+    }
+
+    @Override
+    public void write(char[] cbuf, int off, int len) throws IOException {
+        Objects.checkFromIndexSize(off, len, cbuf.length);
+
+        synchronized (lock) {
+            ensureOpen();
+            if (len == 0) return;
+
+            tracker.switchTo(StyleConfig.EMPTY);
+            boolean newline = false;
+            int end = off + len;
+
+            while (off < end) {
+                if (count == buffer.length) flushBuffer();
+                int n = Math.min(end - off, buffer.length - count);
+                System.arraycopy(cbuf, off, buffer, count, n);
+                newline |= containsNewline(count, count + n);
+                count += n;
+                off += n;
+            }
+
+            if (newline && flushOnNewline) flushLine();
+        }
+    }
+
+    @Override
+    public void write(String str, int off, int len) throws IOException {
+        Objects.checkFromIndexSize(off, len, str.length());
+
+        synchronized (lock) {
+            ensureOpen();
+            if (len == 0) return;
+
+            tracker.switchTo(StyleConfig.EMPTY);
+            writeText(str, off, off + len);
+        }
+    }
+
+    @Override
+    public void flush() throws IOException {
+        synchronized (lock) {
+            ensureOpen();
+            flushBuffer();
+            out.flush();
+        }
+    }
+
+    /**
+     * Resets the style if one is in effect, flushes and closes the underlying writer.
+     *
+     * @throws IOException if an I/O error occurs
+     */
+    @Override
+    public void close() throws IOException {
+        synchronized (lock) {
+            if (closed) return;
+
+            try {
+                tracker.switchTo(StyleConfig.EMPTY);
+                flushBuffer();
+            } finally {
+                closed = true;
+                out.close();
+            }
+        }
+    }
+
+    private void writeText(CharSequence text, int start, int end) throws IOException {
+        boolean newline = false;
+
+        while (start < end) {
+            if (count == buffer.length) flushBuffer();
+            int n = Math.min(end - start, buffer.length - count);
+
+            if (text instanceof String s) {
+                s.getChars(start, start + n, buffer, count);
+            } else {
+                for (int i = 0; i < n; i++) {
+                    buffer[count + i] = text.charAt(start + i);
+                }
+            }
+
+            newline |= containsNewline(count, count + n);
+            count += n;
+            start += n;
+        }
+
+        if (newline && flushOnNewline) flushLine();
+    }
+
+    private boolean containsNewline(int from, int to) {
+        for (int i = from; i < to; i++) {
+            if (buffer[i] == '\n') return true;
+        }
+        return false;
+    }
+
+    private void writeEscape(String sequence) throws IOException {
+        int length = sequence.length();
+        if (buffer.length - count < length) flushBuffer();
+
+        if (length > buffer.length) {
+            out.write(sequence);
+        } else {
+            sequence.getChars(0, length, buffer, count);
+            count += length;
+        }
+    }
+
+    private void flushLine() throws IOException {
+        flushBuffer();
+        out.flush();
+    }
+
+    private void flushBuffer() throws IOException {
+        if (count > 0) {
+            SinkFlushEvent event = new SinkFlushEvent();
+            event.begin();
+            out.write(buffer, 0, count);
+            Metrics.sinkFlushed();
+
+            if (event.shouldCommit()) {
+                event.sink = "StyledWriter";
+                event.length = count;
+                event.commit();
+            }
+            count = 0;
+        }
+    }
+
+    private void ensureOpen() throws IOException {
+        if (closed) throw new IOException("Stream closed");
+    }
+}
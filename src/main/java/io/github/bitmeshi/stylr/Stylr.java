@@ -1,8 +1,14 @@
 package io.github.bitmeshi.stylr;
 
+import io.github.bitmeshi.stylr.builder.ReusableStyler;
 import io.github.bitmeshi.stylr.builder.StyleDefinitionBuilder;
 import io.github.bitmeshi.stylr.builder.TextStyler;
+import io.github.bitmeshi.stylr.internal.StyleCache;
 
+import javax.management.InstanceAlreadyExistsException;
+import javax.management.JMException;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
 import java.util.Objects;
 
 /**
@@ -68,4 +74,102 @@ public final class Stylr {
     public static StyleDefinitionBuilder style() {
         return new StyleDefinitionBuilder();
     }
+
+    /**
+     * Creates a {@link ReusableStyler} for styling many texts with one builder.
+     * <p>
+     * Use this method in loops that style a text per iteration, such as table cells.
+     * The styler is reset and reconfigured for every text, so no builder is created per
+     * text. It is not thread-safe; keep each instance on a single thread.
+     *
+     * @return a new {@link ReusableStyler} instance
+     * @see ReusableStyler
+     */
+    public static ReusableStyler reusable() {
+        return new ReusableStyler();
+    }
+
+    /**
+     * Creates an empty {@link StyledLine} for building multi-segment lines.
+     * <p>
+     * Use this method when several differently styled segments end up on the same line;
+     * the line only writes the escape codes that change between segments.
+     *
+     * @return a new, empty {@link StyledLine}
+     * @see StyledLine
+     */
+    public static StyledLine line() {
+        return new StyledLine();
+    }
+
+    /**
+     * Creates an empty {@link StyledLine} that downsamples colors to the given color level.
+     *
+     * @param colorLevel the color depth of the output, must not be null
+     * @return a new, empty {@link StyledLine}
+     * @throws NullPointerException if colorLevel is null
+     * @see ColorLevel
+     */
+    public static StyledLine line(ColorLevel colorLevel) {
+        return new StyledLine(colorLevel);
+    }
+
+    /**
+     * Returns whether styled output is produced by default in this JVM.
+     * <p>
+     * The decision is made once at startup; see {@link OutputPolicy} for its inputs.
+     *
+     * @return true if styling methods emit ANSI escape codes
+     */
+    public static boolean isStylingEnabled() {
+        return OutputPolicy.AUTO.isEnabled();
+    }
+
+    /**
+     * Returns the counters of the shared style cache.
+     * <p>
+     * Every {@link StyleDefinitionBuilder#build()} and {@link TextStyler#render()} looks its
+     * configuration up in this cache, so a high hit rate means ANSI prefixes are being
+     * reused rather than re-encoded. The cache has a fixed capacity; evictions only
+     * happen when a program uses thousands of distinct styles.
+     *
+     * @return a snapshot of the style cache counters
+     */
+    public static CacheStats styleCacheStats() {
+        return new CacheStats(StyleCache.hits(), StyleCache.misses(), StyleCache.evictions());
+    }
+
+    /**
+     * Returns the library's metrics.
+     * <p>
+     * See {@link StylrMetrics} for which counters are kept and when.
+     *
+     * @return the metrics, the same instance on every call
+     */
+    public static StylrMetrics metrics() {
+        return MetricsBean.INSTANCE;
+    }
+
+    /**
+     * Registers the library's metrics with the platform MBean server.
+     * <p>
+     * The metrics are registered as an MXBean under {@value StylrMetrics#OBJECT_NAME}.
+     * Calling this method again has no effect.
+     *
+     * @return the name under which the metrics are registered
+     * @throws IllegalStateException if the MBean server rejects the registration
+     */
+    public static ObjectName registerMetrics() {
+        try {
+            ObjectName name = new ObjectName(StylrMetrics.OBJECT_NAME);
+            try {
+                ManagementFactory.getPlatformMBeanServer().registerMBean(MetricsBean.INSTANCE, name);
+            } catch (InstanceAlreadyExistsException e) {
+                // Registered by an earlier call
+            }
+            return name;
+        } catch (JMException e) {
+            throw new IllegalStateException("Cannot register Stylr metrics", e);
+        }
+    }
 }
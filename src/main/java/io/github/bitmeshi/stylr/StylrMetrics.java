@@ -0,0 +1,146 @@
+package io.github.bitmeshi.stylr;
+
+import javax.management.MXBean;
+
+/**
+ * Management interface with counters of the work done by Stylr.
+ * <p>
+ * Obtain the instance with {@link Stylr#metrics()}, or call {@link Stylr#registerMetrics()}
+ * to publish it on the platform MBean server under {@value #OBJECT_NAME}, where JConsole,
+ * JMX exporters and JDK Flight Recorder's MBean sampling can read it.
+ * <p>
+ * Cache counters are always kept. The other counters are updated on every styling call,
+ * so they are only kept when the JVM is started with {@code -Dstylr.metrics=true}; without
+ * it they stay at zero and cost nothing. Lengths are counted in chars; escape sequences
+ * are ASCII, so their char count is also their size in bytes.
+ * <p>
+ * Stylr also emits JDK Flight Recorder events for cache misses, slow renders, stream
+ * flushes and markup compiles in the {@code Stylr} category. They are disabled by default
+ * and can be enabled per recording.
+ *
+ * <h2>Usage Example</h2>
+ * <pre>{@code
+ * Stylr.registerMetrics();
+ *
+ * StylrMetrics metrics = Stylr.metrics();
+ * System.out.printf("%d renders, %.1f%% escape overhead%n",
+ *         metrics.getRenders(), metrics.getEscapeOverhead() * 100);
+ * }</pre>
+ *
+ * @since 1.0
+ */
+@MXBean
+public interface StylrMetrics {
+    /** The object name under which {@link Stylr#registerMetrics()} registers the metrics. */
+    String OBJECT_NAME = "io.github.bitmeshi.stylr:type=StylrMetrics";
+
+    /**
+     * Returns whether per-call counters are kept.
+     *
+     * @return true if the JVM was started with {@code -Dstylr.metrics=true}
+     */
+    boolean isCountingEnabled();
+
+    /**
+     * Returns the number of styles returned by {@code build()}.
+     *
+     * @return the count
+     */
+    long getStylesBuilt();
+
+    /**
+     * Returns the number of texts styled by {@link Style}, {@link Markup} and {@link StyledTemplate}.
+     *
+     * @return the count
+     */
+    long getRenders();
+
+    /**
+     * Returns the number of escape sequence chars in styled output.
+     *
+     * @return the count
+     */
+    long getEscapeChars();
+
+    /**
+     * Returns the number of text chars in styled output.
+     *
+     * @return the count
+     */
+    long getTextChars();
+
+    /**
+     * Returns the share of escape sequences in styled output.
+     *
+     * @return escape chars divided by all chars, between 0.0 and 1.0, or 0.0 if nothing was styled
+     */
+    double getEscapeOverhead();
+
+    /**
+     * Returns the number of escape sequence chars removed by {@link Ansi#strip(String)} and its variants.
+     *
+     * @return the count
+     */
+    long getStrippedChars();
+
+    /**
+     * Returns the number of compiled markup strings.
+     *
+     * @return the count
+     */
+    long getMarkupCompiles();
+
+    /**
+     * Returns the number of buffers written out by {@link StyledWriter} and {@link StyledPrintStream}.
+     *
+     * @return the count
+     */
+    long getSinkFlushes();
+
+    /**
+     * Returns the number of shared style cache lookups answered from the cache.
+     *
+     * @return the count
+     */
+    long getStyleCacheHits();
+
+    /**
+     * Returns the number of shared style cache lookups that encoded a new style.
+     *
+     * @return the count
+     */
+    long getStyleCacheMisses();
+
+    /**
+     * Returns the hit rate of the shared style cache.
+     *
+     * @return the hit rate between 0.0 and 1.0
+     */
+    double getStyleCacheHitRate();
+
+    /**
+     * Returns the number of {@link Markup#render(String)} calls answered from its cache.
+     *
+     * @return the count
+     */
+    long getMarkupCacheHits();
+
+    /**
+     * Returns the number of {@link Markup#render(String)} calls that compiled the markup.
+     *
+     * @return the count
+     */
+    long getMarkupCacheMisses();
+
+    /**
+     * Returns the hit rate of the {@link Markup#render(String)} cache.
+     *
+     * @return the hit rate between 0.0 and 1.0
+     */
+    double getMarkupCacheHitRate();
+
+    /**
+     * Sets the per-call counters back to zero. Cache counters are not affected.
+     */
+    void reset();
+}
@@ -0,0 +1,368 @@
+package io.github.bitmeshi.stylr;
+
+import io.github.bitmeshi.stylr.internal.CharWidth;
+import io.github.bitmeshi.stylr.internal.SgrEncoder;
+import io.github.bitmeshi.stylr.internal.StyleConfig;
+import io.github.bitmeshi.stylr.internal.jfr.SlowRenderEvent;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.util.Iterator;
+import java.util.Objects;
+
+/**
+ * Reflows styled text to a fixed display width.
+ * <p>
+ * Words are separated by spaces and tabs and placed greedily; a word wider than a whole
+ * line is broken at the line width. Newlines in the input start a new line, so
+ * paragraphs and blank lines are kept. Widths follow {@link Ansi#displayWidth(CharSequence)}:
+ * escape sequences take no space and wide chars take two columns and are never split.
+ * <p>
+ * Styling carries across line breaks: every line ends with a reset if a style is active,
+ * and the next line opens with the codes of that style again, so each line can be printed
+ * or cleared on its own. SGR sequences and OSC strings such as hyperlinks are kept; other
+ * escape sequences (cursor movement, erasing) are dropped because they do not survive
+ * reflowing.
+ * <p>
+ * Input is processed as a stream with {@link AnsiTokenizer}. Memory use is bounded by the
+ * length of one output line, so large texts can be wrapped from a {@link Reader} or from
+ * chunks without reading them fully. Runs of printable ASCII are copied in bulk.
+ * <p>
+ * A wrapper holds only its width; it is immutable and can be shared between threads.
+ *
+ * <h2>Usage Example</h2>
+ * <pre>{@code
+ * Wrapper wrapper = new Wrapper(40);
+ *
+ * String help = Stylr.of("Usage:").bold().render() + " stylr [options] <file> ...";
+ * System.out.println(wrapper.wrap(help));
+ *
+ * try (Reader in = Files.newBufferedReader(path)) {
+ *     wrapper.wrap(in, System.out);
+ * }
+ * }</pre>
+ *
+ * @since 1.0
+ */
+public final class Wrapper {
+    private static final int READ_BUFFER_SIZE = 8192;
+    private static final String ANSI_RESET = "\u001b[0m";
+
+    private final int width;
+
+    /**
+     * Creates a wrapper for the given line width.
+     *
+     * @param width the maximum display width of a line, must be positive
+     * @throws IllegalArgumentException if width is not positive
+     */
+    public Wrapper(int width) {
+        if (width <= 0) {
+            throw new IllegalArgumentException("Width must be positive");
+        }
+        this.width = width;
+    }
+
+    /**
+     * Returns the maximum display width of a line.
+     *
+     * @return the line width
+     */
+    public int width() {
+        return width;
+    }
+
+    /**
+     * Wraps a text.
+     * <p>
+     * Lines are separated by {@code '\n'}; the result ends with a newline only if the
+     * input does.
+     *
+     * @param text the text to wrap, may contain escape sequences; must not be null
+     * @return the wrapped text
+     * @throws NullPointerException if text is null
+     */
+    public String wrap(String text) {
+        Objects.requireNonNull(text, "Text cannot be null");
+
+        SlowRenderEvent event = new SlowRenderEvent();
+        event.begin();
+
+        StringBuilder out = new StringBuilder(text.length() + text.length() / width + 16);
+        try {
+            Session session = new Session(out);
+            session.tokenizer.feed(text);
+            session.finish();
+        } catch (IOException e) {
+            // A StringBuilder never throws
+            throw new UncheckedIOException(e);
+        }
+
+        commit(event, out.length());
+        return out.toString();
+    }
+
+    /**
+     * Wraps all text read from a reader and appends it to the output line by line.
+     *
+     * @param in the reader to wrap, must not be null; it is not closed
+     * @param out where to append the wrapped lines, must not be null
+     * @throws IOException if reading or appending fails
+     * @throws NullPointerException if in or out is null
+     */
+    public void wrap(Reader in, Appendable out) throws IOException {
+        Objects.requireNonNull(in, "Reader cannot be null");
+        Objects.requireNonNull(out, "Appendable cannot be null");
+
+        SlowRenderEvent event = new SlowRenderEvent();
+        event.begin();
+
+        Session session = new Session(out);
+        char[] buffer = new char[READ_BUFFER_SIZE];
+        for (int n; (n = in.read(buffer)) >= 0; ) {
+            session.tokenizer.feed(buffer, 0, n);
+        }
+        session.finish();
+        commit(event, -1);
+    }
+
+    /**
+     * Wraps text given as consecutive chunks and appends it to the output line by line.
+     * <p>
+     * Chunks are joined without separators; words, escape sequences and surrogate pairs
+     * may span chunks.
+     *
+     * @param chunks the text to wrap, must not be null and must not contain null
+     * @param out where to append the wrapped lines, must not be null
+     * @throws IOException if appending fails
+     * @throws NullPointerException if chunks, a chunk or out is null
+     */
+    public void wrap(Iterator<? extends CharSequence> chunks, Appendable out) throws IOException {
+        Objects.requireNonNull(chunks, "Chunks cannot be null");
+        Objects.requireNonNull(out, "Appendable cannot be null");
+
+        SlowRenderEvent event = new SlowRenderEvent();
+        event.begin();
+
+        Session session = new Session(out);
+        while (chunks.hasNext()) {
+            session.tokenizer.feed(chunks.next());
+        }
+        session.finish();
+        commit(event, -1);
+    }
+
+    private static void commit(SlowRenderEvent event, long outputLength) {
+        if (event.shouldCommit()) {
+            event.operation = "Wrapper.wrap";
+            event.outputLength = outputLength;
+            event.commit();
+        }
+    }
+
+    /** The state of one wrapping run: the current line, the pending word and the active style. */
+    private final class Session implements AnsiTokenizer.Handler {
+        private final Appendable out;
+        private final AnsiTokenizer tokenizer = new AnsiTokenizer(this);
+        private final StringBuilder line = new StringBuilder();
+        private final StringBuilder word = new StringBuilder();
+
+        private int lineWidth;
+        private int wordWidth;
+
+        /** Spaces between the line and the pending word, written only if the word stays on the line. */
+        private int gap;
+
+        /** The style in effect after the pending word, and after the committed part of the line. */
+        private StyleConfig style = StyleConfig.EMPTY;
+        private StyleConfig lineStyle = StyleConfig.EMPTY;
+
+        /** A high surrogate at the end of a text run, waiting for its low surrogate. */
+        private char highSurrogate;
+        private boolean joined;
+
+        Session(Appendable out) {
+            this.out = out;
+        }
+
+        @Override
+        public void text(char[] chars, int offset, int length) throws IOException {
+            int i = offset;
+            int end = offset + length;
+
+            if (highSurrogate != 0 && i < end) {
+                char high = highSurrogate;
+                highSurrogate = 0;
+                if (Character.isLowSurrogate(chars[i])) {
+                    addCodePoint(Character.toCodePoint(high, chars[i]), chars, i, 1, high);
+                    i++;
+                } else {
+                    addCodePoint(high, chars, i, 0, high);
+                }
+            }
+
+            while (i < end) {
+                char c = chars[i];
+
+                if (c > ' ' && c < 0x7F) {
+                    int runEnd = i + 1;
+                    while (runEnd < end && chars[runEnd] > ' ' && chars[runEnd] < 0x7F) {
+                        runEnd++;
+                    }
+                    addAscii(chars, i, runEnd);
+                    i = runEnd;
+                } else if (c == ' ' || c == '\t') {
+                    commitWord();
+                    gap = Math.min(gap + 1, width);
+                    i++;
+                } else if (c == '\n') {
+                    commitWord();
+                    breakLine();
+                    i++;
+                } else if (c == '\r') {
+                    i++;
+                } else if (Character.isHighSurrogate(c)) {
+                    if (i + 1 == end) {
+                        highSurrogate = c;
+                        return;
+                    }
+                    if (Character.isLowSurrogate(chars[i + 1])) {
+                        addCodePoint(Character.toCodePoint(c, chars[i + 1]), chars, i, 2, (char) 0);
+                        i += 2;
+                    } else {
+                        addCodePoint(c, chars, i, 1, (char) 0);
+                        i++;
+                    }
+                } else {
+                    addCodePoint(c, chars, i, 1, (char) 0);
+                    i++;
+                }
+            }
+        }
+
+        @Override
+        public void style(Style style) throws IOException {
+            flushSurrogate();
+            StyleConfig config = style.config();
+            SgrEncoder.encodeTransition(this.style, config, word);
+            this.style = config;
+        }
+
+        @Override
+        public void osc(CharSequence data) throws IOException {
+            flushSurrogate();
+            word.append("\u001b]").append(data).append("\u001b\\");
+        }
+
+        void finish() throws IOException {
+            tokenizer.finish();
+            flushSurrogate();
+            commitWord();
+
+            if (lineWidth > 0) {
+                if (!lineStyle.isEmpty()) line.append(ANSI_RESET);
+                out.append(line);
+            }
+        }
+
+        private void addAscii(char[] chars, int start, int end) throws IOException {
+            joined = false;
+
+            while (start < end) {
+                if (wordWidth >= width) breakWord();
+
+                int take = Math.min(end - start, width - wordWidth);
+                word.append(chars, start, take);
+                wordWidth += take;
+                start += take;
+            }
+        }
+
+        /**
+         * Adds one code point to the pending word. {@code high} is a high surrogate left over
+         * from the previous run that precedes the {@code length} chars at {@code start}.
+         */
+        private void addCodePoint(int codePoint, char[] chars, int start, int length, char high) throws IOException {
+            int charWidth;
+            if (joined) {
+                // Drawn as part of the code point before the zero-width joiner
+                charWidth = 0;
+                joined = false;
+            } else if (codePoint == 0x200D) {
+                charWidth = 0;
+                joined = true;
+            } else {
+                charWidth = CharWidth.of(codePoint);
+            }
+
+            if (charWidth > 0 && wordWidth > 0 && wordWidth + charWidth > width) breakWord();
+
+            if (high != 0) word.append(high);
+            word.append(chars, start, length);
+            wordWidth += charWidth;
+        }
+
+        private void flushSurrogate() throws IOException {
+            if (highSurrogate != 0) {
+                char[] lone = {highSurrogate};
+                highSurrogate = 0;
+                addCodePoint(lone[0], lone, 0, 1, (char) 0);
+            }
+        }
+
+        /** Moves the pending word onto the line, breaking the line first if the word does not fit. */
+        private void commitWord() throws IOException {
+            if (word.isEmpty()) return;
+
+            if (wordWidth == 0) {
+                // Only escape sequences; keep the gap in front of the next word if it does not fit
+                if (lineWidth + gap <= width) {
+                    appendGap();
+                }
+            } else {
+                if (lineWidth + gap + wordWidth > width) {
+                    if (lineWidth > 0) breakLine();
+                    gap = 0;
+                }
+                appendGap();
+                lineWidth += wordWidth;
+            }
+
+            line.append(word);
+            word.setLength(0);
+            wordWidth = 0;
+            lineStyle = style;
+        }
+
+        /** Puts a word that is wider than a line on lines of its own. */
+        private void breakWord() throws IOException {
+            if (lineWidth > 0) breakLine();
+
+            line.append(word);
+            lineWidth = wordWidth;
+            lineStyle = style;
+            word.setLength(0);
+            wordWidth = 0;
+            breakLine();
+        }
+
+        private void appendGap() {
+            for (int i = 0; i < gap; i++) {
+                line.append(' ');
+            }
+            lineWidth += gap;
+            gap = 0;
+        }
+
+        private void breakLine() throws IOException {
+            if (!lineStyle.isEmpty()) line.append(ANSI_RESET);
+            out.append(line.append('\n'));
+
+            line.setLength(0);
+            SgrEncoder.encode(lineStyle, line);
+            lineWidth = 0;
+            gap = 0;
+        }
+    }
+}
@@ -1,7 +1,9 @@
 package io.github.bitmeshi.stylr.builder;
 
 import io.github.bitmeshi.stylr.BasicColor;
+import io.github.bitmeshi.stylr.IndexedColor;
 import io.github.bitmeshi.stylr.internal.StyleConfig;
+import io.github.bitmeshi.stylr.internal.color.PackedColor;
 import io.github.bitmeshi.stylr.internal.color.Rgb;
 
 import java.util.Objects;
@@ -11,30 +13,23 @@ import java.util.Objects;
  * <p>
  * This sealed class contains shared logic for configuring text styles including:
  * <ul>
- *   <li>Foreground and background colors (basic and RGB)</li>
+ *   <li>Foreground and background colors (basic, 256-color palette and RGB)</li>
  *   <li>Text attributes (bold, italic, underline, etc.)</li>
  *   <li>Fluent API implementation using self-returning methods</li>
  * </ul>
  * <p>
- * This class is sealed and can only be extended by {@link TextStyler} and
- * {@link StyleDefinitionBuilder} within the same package.
+ * This class is sealed and can only be extended by {@link TextStyler},
+ * {@link StyleDefinitionBuilder} and {@link ReusableStyler} within the same package.
  *
  * @param <T> the concrete builder type for self-returning methods
  * @since 1.0
  */
-abstract sealed class BaseStyleBuilder<T extends BaseStyleBuilder<T>> permits StyleDefinitionBuilder, TextStyler {
-    protected BasicColor basicColor;
-    protected BasicColor bgBasicColor;
-    protected Rgb rgbColor;
-    protected Rgb bgRgbColor;
-    protected boolean isBold;
-    protected boolean isDim;
-    protected boolean isItalic;
-    protected boolean isUnderlined;
-    protected boolean isSlowBlink;
-    protected boolean isRapidBlink;
-    protected boolean isReverse;
-    protected boolean isHide;
+abstract sealed class BaseStyleBuilder<T extends BaseStyleBuilder<T>> permits ReusableStyler, StyleDefinitionBuilder, TextStyler {
+    // Primitive state only, so configuring a builder never allocates:
+    // colors are packed ints (see PackedColor) and attributes a StyleConfig bit set.
+    protected int color = PackedColor.NONE;
+    protected int bgColor = PackedColor.NONE;
+    protected int attributes;
 
     /**
      * Returns the concrete builder instance for method chaining.
@@ -54,8 +49,22 @@ abstract sealed class BaseStyleBuilder<T extends BaseStyleBuilder<T>> permits St
      */
     public T color(BasicColor basicColor) {
         Objects.requireNonNull(basicColor, "color cannot be null");
-        this.basicColor = basicColor;
-        rgbColor = null;
+        color = PackedColor.basic(basicColor);
+        return self();
+    }
+
+    /**
+     * Sets the foreground text color using an xterm 256-color palette entry.
+     * <p>
+     * Setting this will override any previously set basic, RGB or hex color.
+     *
+     * @param indexedColor the palette color to use, must not be null
+     * @return this builder for method chaining
+     * @throws NullPointerException if indexedColor is null
+     */
+    public T color(IndexedColor indexedColor) {
+        Objects.requireNonNull(indexedColor, "color cannot be null");
+        color = PackedColor.indexed(indexedColor.index());
         return self();
     }
 
@@ -71,15 +80,30 @@ abstract sealed class BaseStyleBuilder<T extends BaseStyleBuilder<T>> permits St
      * @throws IllegalArgumentException if any RGB value is outside the range 0-255
      */
     public T color(int r, int g, int b) {
-        rgbColor = new Rgb(r, g, b);
-        basicColor = null;
+        color = PackedColor.rgb(r, g, b);
+        return self();
+    }
+
+    /**
+     * Sets the foreground text color using a packed 24-bit RGB value.
+     * <p>
+     * Equivalent to {@code color(rgb24 >> 16 & 0xFF, rgb24 >> 8 & 0xFF, rgb24 & 0xFF)}.
+     * Setting this will override any previously set basic or hex color.
+     *
+     * @param rgb24 the color as {@code 0xRRGGBB}
+     * @return this builder for method chaining
+     * @throws IllegalArgumentException if the value is outside the range 0x000000-0xFFFFFF
+     */
+    public T color(int rgb24) {
+        color = PackedColor.rgb(rgb24);
         return self();
     }
 
     /**
      * Sets the foreground text color using a hexadecimal color code.
      * <p>
-     * Supports both 3-digit and 6-digit formats (e.g., "#RGB" or "#RRGGBB").
+     * Supports 3-, 6- and 8-digit formats (e.g., "#RGB", "#RRGGBB" or "#RRGGBBAA"),
+     * with or without the leading {@code #}. The alpha component is ignored.
      * Setting this will override any previously set basic or RGB color.
      *
      * @param hexadecimal the hex color code, must not be null
@@ -89,8 +113,7 @@ abstract sealed class BaseStyleBuilder<T extends BaseStyleBuilder<T>> permits St
      */
     public T color(String hexadecimal) {
         Objects.requireNonNull(hexadecimal, "color cannot be null");
-        rgbColor = Rgb.fromHex(hexadecimal);
-        basicColor = null;
+        color = PackedColor.rgb(Rgb.parseHex(hexadecimal) & 0xFFFFFF);
         return self();
     }
 
@@ -105,8 +128,22 @@ abstract sealed class BaseStyleBuilder<T extends BaseStyleBuilder<T>> permits St
      */
     public T bgColor(BasicColor basicColor) {
         Objects.requireNonNull(basicColor, "bgColor cannot be null");
-        bgBasicColor = basicColor;
-        bgRgbColor = null;
+        bgColor = PackedColor.basic(basicColor);
+        return self();
+    }
+
+    /**
+     * Sets the background color using an xterm 256-color palette entry.
+     * <p>
+     * Setting this will override any previously set basic, RGB or hex background color.
+     *
+     * @param indexedColor the palette background color to use, must not be null
+     * @return this builder for method chaining
+     * @throws NullPointerException if indexedColor is null
+     */
+    public T bgColor(IndexedColor indexedColor) {
+        Objects.requireNonNull(indexedColor, "bgColor cannot be null");
+        bgColor = PackedColor.indexed(indexedColor.index());
         return self();
     }
 
@@ -122,15 +159,30 @@ abstract sealed class BaseStyleBuilder<T extends BaseStyleBuilder<T>> permits St
      * @throws IllegalArgumentException if any RGB value is outside the range 0-255
      */
     public T bgColor(int r, int g, int b) {
-        bgRgbColor = new Rgb(r, g, b);
-        bgBasicColor = null;
+        bgColor = PackedColor.rgb(r, g, b);
+        return self();
+    }
+
+    /**
+     * Sets the background color using a packed 24-bit RGB value.
+     * <p>
+     * Equivalent to {@code bgColor(rgb24 >> 16 & 0xFF, rgb24 >> 8 & 0xFF, rgb24 & 0xFF)}.
+     * Setting this will override any previously set basic or hex background color.
+     *
+     * @param rgb24 the color as {@code 0xRRGGBB}
+     * @return this builder for method chaining
+     * @throws IllegalArgumentException if the value is outside the range 0x000000-0xFFFFFF
+     */
+    public T bgColor(int rgb24) {
+        bgColor = PackedColor.rgb(rgb24);
         return self();
     }
 
     /**
      * Sets the background color using a hexadecimal color code.
      * <p>
-     * Supports both 3-digit and 6-digit formats (e.g., "#RGB" or "#RRGGBB").
+     * Supports 3-, 6- and 8-digit formats (e.g., "#RGB", "#RRGGBB" or "#RRGGBBAA"),
+     * with or without the leading {@code #}. The alpha component is ignored.
      * Setting this will override any previously set basic or RGB background color.
      *
      * @param hexadecimal the hex color code, must not be null
@@ -140,8 +192,7 @@ abstract sealed class BaseStyleBuilder<T extends BaseStyleBuilder<T>> permits St
      */
     public T bgColor(String hexadecimal) {
         Objects.requireNonNull(hexadecimal, "bgColor cannot be null");
-        bgRgbColor = Rgb.fromHex(hexadecimal);
-        bgBasicColor = null;
+        bgColor = PackedColor.rgb(Rgb.parseHex(hexadecimal) & 0xFFFFFF);
         return self();
     }
 
@@ -151,7 +202,7 @@ abstract sealed class BaseStyleBuilder<T extends BaseStyleBuilder<T>> permits St
      * @return this builder for method chaining
      */
     public T bold() {
-        isBold = true;
+        attributes |= StyleConfig.BOLD;
         return self();
     }
 
@@ -161,7 +212,7 @@ abstract sealed class BaseStyleBuilder<T extends BaseStyleBuilder<T>> permits St
      * @return this builder for method chaining
      */
     public T dim() {
-        isDim = true;
+        attributes |= StyleConfig.DIM;
         return self();
     }
 
@@ -171,7 +222,7 @@ abstract sealed class BaseStyleBuilder<T extends BaseStyleBuilder<T>> permits St
      * @return this builder for method chaining
      */
     public T italic() {
-        isItalic = true;
+        attributes |= StyleConfig.ITALIC;
         return self();
     }
 
@@ -181,7 +232,7 @@ abstract sealed class BaseStyleBuilder<T extends BaseStyleBuilder<T>> permits St
      * @return this builder for method chaining
      */
     public T underlined() {
-        isUnderlined = true;
+        attributes |= StyleConfig.UNDERLINED;
         return self();
     }
 
@@ -191,7 +242,7 @@ abstract sealed class BaseStyleBuilder<T extends BaseStyleBuilder<T>> permits St
      * @return this builder for method chaining
      */
     public T slowBlink() {
-        isSlowBlink = true;
+        attributes |= StyleConfig.SLOW_BLINK;
         return self();
     }
 
@@ -201,7 +252,7 @@ abstract sealed class BaseStyleBuilder<T extends BaseStyleBuilder<T>> permits St
      * @return this builder for method chaining
      */
     public T rapidBlink() {
-        isRapidBlink = true;
+        attributes |= StyleConfig.RAPID_BLINK;
         return self();
     }
 
@@ -211,7 +262,7 @@ abstract sealed class BaseStyleBuilder<T extends BaseStyleBuilder<T>> permits St
      * @return this builder for method chaining
      */
     public T reverse() {
-        isReverse = true;
+        attributes |= StyleConfig.REVERSE;
         return self();
     }
 
@@ -221,7 +272,7 @@ abstract sealed class BaseStyleBuilder<T extends BaseStyleBuilder<T>> permits St
      * @return this builder for method chaining
      */
     public T hide() {
-        isHide = true;
+        attributes |= StyleConfig.HIDE;
         return self();
     }
 
@@ -231,19 +282,6 @@ abstract sealed class BaseStyleBuilder<T extends BaseStyleBuilder<T>> permits St
      * @return a {@link StyleConfig} with all configured settings
      */
     protected StyleConfig buildStyleConfig() {
-        return new StyleConfig(
-            basicColor,
-            bgBasicColor,
-            rgbColor,
-            bgRgbColor,
-            isBold,
-            isDim,
-            isItalic,
-            isUnderlined,
-            isSlowBlink,
-            isRapidBlink,
-            isReverse,
-            isHide
-        );
+        return new StyleConfig(color, bgColor, attributes);
     }
 }
@@ -0,0 +1,145 @@
+package io.github.bitmeshi.stylr.builder;
+
+import io.github.bitmeshi.stylr.Style;
+import io.github.bitmeshi.stylr.internal.OutputGate;
+import io.github.bitmeshi.stylr.internal.StyleCache;
+import io.github.bitmeshi.stylr.internal.StyleConfig;
+import io.github.bitmeshi.stylr.internal.color.PackedColor;
+
+import java.io.IOException;
+import java.util.Objects;
+
+/**
+ * Mutable builder for styling many texts in a loop without creating a builder per text.
+ * <p>
+ * A reusable styler has the same fluent color and attribute methods as {@link TextStyler},
+ * plus {@link #reset()} to clear them and {@link #text(String)} to set the next text.
+ * Rendering into a {@link StringBuilder} with {@link #renderTo(StringBuilder)} allocates
+ * nothing. The resolved {@link Style} is remembered, so as long as the configuration is the
+ * same as at the previous render, not even the shared style cache is consulted.
+ * <p>
+ * All state is primitive and every method returns this styler, so a chain of calls on a
+ * styler held in a local variable is easy for the JIT to inline.
+ * <p>
+ * Instances are not thread-safe. Confine each one to a single thread, for example by
+ * creating it in the method that renders the loop or by keeping one per thread.
+ *
+ * <h2>Usage Example</h2>
+ * <pre>{@code
+ * ReusableStyler styler = Stylr.reusable();
+ * StringBuilder row = new StringBuilder();
+ *
+ * for (Cell cell : cells) {
+ *     styler.reset().text(cell.text()).color(cell.color());
+ *     if (cell.highlighted()) styler.bold();
+ *     styler.renderTo(row);
+ * }
+ * }</pre>
+ *
+ * @since 1.0
+ * @see io.github.bitmeshi.stylr.Stylr#reusable()
+ * @see TextStyler
+ */
+public final class ReusableStyler extends BaseStyleBuilder<ReusableStyler> {
+    /** Packed configuration of {@link #cachedStyle}; never a valid packed value before the first render. */
+    private long cachedKey = -1;
+    private Style cachedStyle;
+    private String text = "";
+
+    /**
+     * Constructs a new reusable styler with no styling and an empty text.
+     * <p>
+     * This constructor is typically called by {@link io.github.bitmeshi.stylr.Stylr#reusable()}.
+     */
+    public ReusableStyler() {
+    }
+
+    @Override
+    protected ReusableStyler self() {
+        return this;
+    }
+
+    /**
+     * Clears the colors, the attributes and the text.
+     * <p>
+     * The remembered style is kept, so resetting and configuring the same styling again
+     * still reuses it.
+     *
+     * @return this styler for method chaining
+     */
+    public ReusableStyler reset() {
+        color = PackedColor.NONE;
+        bgColor = PackedColor.NONE;
+        attributes = 0;
+        text = "";
+        return this;
+    }
+
+    /**
+     * Sets the text to style.
+     *
+     * @param text the text, must not be null
+     * @return this styler for method chaining
+     * @throws NullPointerException if text is null
+     */
+    public ReusableStyler text(String text) {
+        this.text = Objects.requireNonNull(text, "Text cannot be null");
+        return this;
+    }
+
+    /**
+     * Returns the style for the current configuration.
+     *
+     * @return the shared style for the configured colors and attributes
+     */
+    public Style style() {
+        long key = StyleConfig.pack(color, bgColor, attributes);
+        if (key != cachedKey) {
+            cachedStyle = StyleCache.intern(color, bgColor, attributes);
+            cachedKey = key;
+        }
+        return cachedStyle;
+    }
+
+    /**
+     * Renders the current text with the current styling.
+     * <p>
+     * The result is the same as {@link TextStyler#render()} for the same text and styling.
+     *
+     * @return the styled text, or the text itself if it is empty or styling is disabled
+     */
+    public String render() {
+        if (!OutputGate.ENABLED || text.isEmpty()) return text;
+
+        return style().apply(text);
+    }
+
+    /**
+     * Appends the current text with the current styling to a {@link StringBuilder}.
+     * <p>
+     * Nothing is allocated unless the builder has to grow. If the text is empty,
+     * nothing is appended.
+     *
+     * @param sb the builder to append to, must not be null
+     * @return the given builder
+     * @throws NullPointerException if sb is null
+     */
+    public StringBuilder renderTo(StringBuilder sb) {
+        return style().appendTo(sb, text);
+    }
+
+    /**
+     * Appends the current text with the current styling to any {@link Appendable}.
+     * <p>
+     * If the text is empty, nothing is appended.
+     *
+     * @param out the destination, must not be null
+     * @param <A> the type of the destination
+     * @return the given destination
+     * @throws IOException if the destination throws
+     * @throws NullPointerException if out is null
+     */
+    public <A extends Appendable> A renderTo(A out) throws IOException {
+        return style().appendTo(out, text, 0, text.length());
+    }
+}
@@ -1,7 +1,8 @@
 package io.github.bitmeshi.stylr.builder;
 
 import io.github.bitmeshi.stylr.Style;
-import io.github.bitmeshi.stylr.internal.AnsiCodeGenerator;
+import io.github.bitmeshi.stylr.internal.Metrics;
+import io.github.bitmeshi.stylr.internal.StyleCache;
 
 /**
  * Builder for creating reusable {@link Style} definitions.
@@ -45,13 +46,14 @@ public final class StyleDefinitionBuilder extends BaseStyleBuilder<StyleDefiniti
      * background, and text attributes. The returned style can be applied to
      * multiple different texts without rebuilding the configuration.
      * <p>
-     * Internally uses {@link io.github.bitmeshi.stylr.internal.AnsiCodeGenerator}
-     * to convert the style configuration into ANSI escape codes.
+     * Styles are interned through {@link io.github.bitmeshi.stylr.internal.StyleCache},
+     * so building the same configuration twice returns the same shared instance and
+     * the ANSI prefix is only encoded once.
      *
-     * @return a new {@link Style} instance with the configured styling
+     * @return a {@link Style} instance with the configured styling
      */
     public Style build() {
-        String ansiPrefix = AnsiCodeGenerator.getAnsiPrefix(buildStyleConfig());
-        return new Style(ansiPrefix);
+        Metrics.styleBuilt();
+        return StyleCache.intern(color, bgColor, attributes);
     }
 }
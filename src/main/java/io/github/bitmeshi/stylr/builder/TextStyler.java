@@ -1,6 +1,10 @@
 package io.github.bitmeshi.stylr.builder;
 
-import io.github.bitmeshi.stylr.internal.AnsiCodeGenerator;
+import io.github.bitmeshi.stylr.internal.OutputGate;
+import io.github.bitmeshi.stylr.internal.StyleCache;
+
+import java.io.IOException;
+import java.io.Writer;
 
 /**
  * Builder for styling text directly without creating a reusable style definition.
@@ -61,18 +65,59 @@ public final class TextStyler extends BaseStyleBuilder<TextStyler> {
      * background, and text attributes. The result includes a reset sequence
      * at the end to restore default terminal styling.
      * <p>
-     * If the text is empty, returns an empty string without any ANSI codes.
+     * If the text is empty, returns an empty string without any ANSI codes. If styling
+     * is disabled (see {@link io.github.bitmeshi.stylr.OutputPolicy}), returns the text itself.
      * <p>
-     * Internally uses {@link io.github.bitmeshi.stylr.internal.AnsiCodeGenerator}
-     * to convert the style configuration into ANSI escape codes.
+     * The configuration is looked up in {@link io.github.bitmeshi.stylr.internal.StyleCache},
+     * so repeated renders of the same styling reuse a precomputed ANSI prefix.
      *
      * @return the styled text with ANSI escape codes, or empty string if text is empty
      */
     public String render() {
-        String ansiPrefix = AnsiCodeGenerator.getAnsiPrefix(buildStyleConfig());
+        if (!OutputGate.ENABLED || text.isEmpty()) return text;
+
+        return StyleCache.intern(color, bgColor, attributes).apply(text);
+    }
+
+    /**
+     * Appends the styled text to a {@link StringBuilder}.
+     * <p>
+     * Equivalent to {@code sb.append(render())} without creating the intermediate string.
+     * If the text is empty, nothing is appended.
+     *
+     * @param sb the builder to append to, must not be null
+     * @return the given builder
+     * @throws NullPointerException if sb is null
+     */
+    public StringBuilder appendTo(StringBuilder sb) {
+        return StyleCache.intern(color, bgColor, attributes).appendTo(sb, text);
+    }
 
-        if (text.isEmpty()) return "";
+    /**
+     * Appends the styled text to any {@link Appendable}.
+     * <p>
+     * If the text is empty, nothing is appended.
+     *
+     * @param out the destination, must not be null
+     * @param <A> the type of the destination
+     * @return the given destination
+     * @throws IOException if the destination throws
+     * @throws NullPointerException if out is null
+     */
+    public <A extends Appendable> A appendTo(A out) throws IOException {
+        return StyleCache.intern(color, bgColor, attributes).appendTo(out, text, 0, text.length());
+    }
 
-        return ansiPrefix + text + "\u001b[0m";
+    /**
+     * Writes the styled text to a {@link Writer}.
+     * <p>
+     * If the text is empty, nothing is written.
+     *
+     * @param writer the writer, must not be null
+     * @throws IOException if the writer throws
+     * @throws NullPointerException if writer is null
+     */
+    public void writeTo(Writer writer) throws IOException {
+        StyleCache.intern(color, bgColor, attributes).writeTo(writer, text);
     }
 }
@@ -1,6 +1,6 @@
 package io.github.bitmeshi.stylr.internal;
 
-import java.util.StringJoiner;
+import java.nio.charset.StandardCharsets;
 
 /**
  * Internal utility class for generating ANSI escape sequences from style configurations.
@@ -12,6 +12,9 @@ import java.util.StringJoiner;
  * The generated ANSI codes follow the standard format: {@code \u001b[<codes>m}
  * where codes are semicolon-separated numeric values.
  * <p>
+ * Encoding is delegated to {@link SgrEncoder}, which writes the whole sequence
+ * in a single pass; callers that own a reusable buffer should use it directly.
+ * <p>
  * This class is part of the internal API and should not be used directly
  * by library consumers.
  *
@@ -29,83 +32,14 @@ public final class AnsiCodeGenerator {
      * @return the ANSI escape sequence, or empty string if no styling is configured
      */
     public static String getAnsiPrefix(StyleConfig config) {
-        StringJoiner ansiPrefix = new StringJoiner(";", "\u001b[", "m");
-
-        String colorPrefix = getColorTextPrefix(config);
-        String bgColorPrefix = getColorBackgroundPrefix(config);
-        String attributePrefix = getAttributePrefix(config);
-
-        if (colorPrefix.isEmpty() && bgColorPrefix.isEmpty() && attributePrefix.isEmpty()) {
-            return "";
-        }
-
-        if (!colorPrefix.isEmpty()) ansiPrefix.add(colorPrefix);
-        if (!bgColorPrefix.isEmpty()) ansiPrefix.add(bgColorPrefix);
-        if (!attributePrefix.isEmpty()) ansiPrefix.add(attributePrefix);
-
-        return ansiPrefix.toString();
-    }
+        if (config.isEmpty()) return "";
 
-    /**
-     * Generates the ANSI code for foreground text color.
-     *
-     * @param config the style configuration
-     * @return the ANSI color code, or empty string if no color is set
-     */
-    private static String getColorTextPrefix(StyleConfig config) {
-        if (config.rgbColor() != null) {
-            return  "38;2;" +
-                    config.rgbColor().r() + ";" +
-                    config.rgbColor().g() + ";" +
-                    config.rgbColor().b();
-        }
-
-        if (config.basicColor() != null) {
-            return config.basicColor().getAnsiCode(false);
-        }
-
-        return "";
-    }
-
-    /**
-     * Generates the ANSI code for background color.
-     *
-     * @param config the style configuration
-     * @return the ANSI background color code, or empty string if no background is set
-     */
-    private static String getColorBackgroundPrefix(StyleConfig config) {
-        if (config.bgRgbColor() != null) {
-            return  "48;2;" +
-                    config.bgRgbColor().r() + ";" +
-                    config.bgRgbColor().g() + ";" +
-                    config.bgRgbColor().b();
-        }
-
-        if (config.bgBasicColor() != null) {
-            return config.bgBasicColor().getAnsiCode(true);
-        }
-
-        return "";
-    }
-
-    /**
-     * Generates the ANSI codes for text attributes (bold, italic, etc.).
-     *
-     * @param config the style configuration
-     * @return semicolon-separated ANSI attribute codes, or empty string if no attributes are set
-     */
-    private static String getAttributePrefix(StyleConfig config) {
-        StringJoiner prefix = new StringJoiner(";");
+        // Escape sequences are ASCII, so a byte buffer is half the size and copies straight into a Latin-1 string
+        byte[] buffer = new byte[SgrEncoder.MAX_LENGTH];
+        int length = SgrEncoder.encode(config, buffer, 0);
 
-        if (config.isBold()) prefix.add("1");
-        if (config.isDim()) prefix.add("2");
-        if (config.isItalic()) prefix.add("3");
-        if (config.isUnderlined()) prefix.add("4");
-        if (config.isSlowBlink()) prefix.add("5");
-        if (config.isRapidBlink()) prefix.add("6");
-        if (config.isReverse()) prefix.add("7");
-        if (config.isHide()) prefix.add("8");
+        if (length == 0) return "";
 
-        return prefix.toString();
+        return new String(buffer, 0, length, StandardCharsets.ISO_8859_1);
     }
 }
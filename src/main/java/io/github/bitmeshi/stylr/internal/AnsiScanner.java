@@ -0,0 +1,230 @@
+package io.github.bitmeshi.stylr.internal;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteOrder;
+
+/**
+ * Internal single-pass scanner that locates ANSI escape sequences.
+ * <p>
+ * {@code indexOfEscape} finds the next ESC and {@code sequenceEnd} runs a small state
+ * machine from an ESC to the end of its sequence. The recognized forms follow ECMA-48:
+ * <ul>
+ *   <li>CSI: {@code ESC [}, parameter and intermediate bytes, then a final byte (SGR, cursor movement, ...)</li>
+ *   <li>OSC, DCS, SOS, PM and APC strings: {@code ESC ]}, {@code ESC P}, {@code ESC X}, {@code ESC ^}
+ *       or {@code ESC _}, terminated by BEL or {@code ESC \}</li>
+ *   <li>nF escapes such as {@code ESC ( B}, and two-char escapes such as {@code ESC 7}</li>
+ * </ul>
+ * A CSI sequence is cut short by any char outside its grammar, which is then kept as
+ * text; this way a malformed sequence never swallows non-ASCII text. A lone ESC is
+ * dropped, and a sequence truncated by the end of input extends to the end.
+ * <p>
+ * On {@code byte[]} input the search for ESC reads eight bytes at a time and tests them
+ * with a SWAR (SIMD within a register) zero-byte check. On {@link String} input it uses
+ * {@link String#indexOf(int, int)}, which the JVM already vectorizes.
+ * <p>
+ * This class is part of the internal API and should not be used directly
+ * by library consumers.
+ *
+ * @since 1.0
+ */
+public final class AnsiScanner {
+    /** The escape character that starts every sequence. */
+    public static final char ESC = '\u001b';
+
+    private static final char BEL = '\u0007';
+
+    private static final VarHandle LONGS = MethodHandles.byteArrayViewVarHandle(long[].class, ByteOrder.LITTLE_ENDIAN);
+    private static final long ESC_BYTES = 0x1B1B1B1B1B1B1B1BL;
+    private static final long LOW_BITS = 0x0101010101010101L;
+    private static final long HIGH_BITS = 0x8080808080808080L;
+
+    private AnsiScanner() {
+        throw new IllegalStateException("Utility class cannot be instantiated");
+    }
+
+    /**
+     * Returns the index of the first ESC in a range of chars.
+     *
+     * @param text the chars to search
+     * @param from the index to start at
+     * @param to the index to stop before
+     * @return the index of the first ESC, or -1 if there is none
+     */
+    public static int indexOfEscape(CharSequence text, int from, int to) {
+        if (to == text.length() && text instanceof String string) {
+            return string.indexOf(ESC, from);
+        }
+
+        for (int i = from; i < to; i++) {
+            if (text.charAt(i) == ESC) return i;
+        }
+        return -1;
+    }
+
+    /**
+     * Returns the index of the first ESC in a range of a char array.
+     *
+     * @param text the chars to search
+     * @param from the index to start at
+     * @param to the index to stop before
+     * @return the index of the first ESC, or -1 if there is none
+     */
+    public static int indexOfEscape(char[] text, int from, int to) {
+        for (int i = from; i < to; i++) {
+            if (text[i] == ESC) return i;
+        }
+        return -1;
+    }
+
+    /**
+     * Returns the index of the first ESC byte in a range of a byte array.
+     *
+     * @param bytes the bytes to search
+     * @param from the index to start at
+     * @param to the index to stop before
+     * @return the index of the first ESC, or -1 if there is none
+     */
+    public static int indexOfEscape(byte[] bytes, int from, int to) {
+        int i = from;
+
+        for (; i + Long.BYTES <= to; i += Long.BYTES) {
+            long word = (long) LONGS.get(bytes, i) ^ ESC_BYTES;
+            long zeros = (word - LOW_BITS) & ~word & HIGH_BITS;
+            // Borrows only produce false positives above the lowest zero byte
+            if (zeros != 0) return i + (Long.numberOfTrailingZeros(zeros) >>> 3);
+        }
+
+        for (; i < to; i++) {
+            if (bytes[i] == ESC) return i;
+        }
+        return -1;
+    }
+
+    /**
+     * Returns the end of the escape sequence starting at the given ESC.
+     *
+     * @param text the chars being scanned
+     * @param esc the index of the ESC
+     * @param to the end of the input
+     * @return the index just past the sequence
+     */
+    public static int sequenceEnd(CharSequence text, int esc, int to) {
+        int i = esc + 1;
+        if (i == to) return to;
+
+        char c = text.charAt(i++);
+        if (c == '[') {
+            for (; i < to; i++) {
+                c = text.charAt(i);
+                if (c >= 0x40 && c <= 0x7E) return i + 1;
+                if (c < 0x20 || c > 0x3F) return i;
+            }
+            return to;
+        }
+        if (isStringIntroducer(c)) {
+            for (; i < to; i++) {
+                c = text.charAt(i);
+                if (c == BEL) return i + 1;
+                if (c == ESC) return i + 1 < to && text.charAt(i + 1) == '\\' ? i + 2 : i;
+            }
+            return to;
+        }
+        if (c >= 0x20 && c <= 0x2F) {
+            for (; i < to; i++) {
+                c = text.charAt(i);
+                if (c >= 0x30 && c <= 0x7E) return i + 1;
+                if (c < 0x20 || c > 0x2F) return i;
+            }
+            return to;
+        }
+        return c >= 0x30 && c <= 0x7E ? i : esc + 1;
+    }
+
+    /**
+     * Returns the end of the escape sequence starting at the given ESC.
+     *
+     * @param text the chars being scanned
+     * @param esc the index of the ESC
+     * @param to the end of the input
+     * @return the index just past the sequence
+     */
+    public static int sequenceEnd(char[] text, int esc, int to) {
+        int i = esc + 1;
+        if (i == to) return to;
+
+        char c = text[i++];
+        if (c == '[') {
+            for (; i < to; i++) {
+                c = text[i];
+                if (c >= 0x40 && c <= 0x7E) return i + 1;
+                if (c < 0x20 || c > 0x3F) return i;
+            }
+            return to;
+        }
+        if (isStringIntroducer(c)) {
+            for (; i < to; i++) {
+                c = text[i];
+                if (c == BEL) return i + 1;
+                if (c == ESC) return i + 1 < to && text[i + 1] == '\\' ? i + 2 : i;
+            }
+            return to;
+        }
+        if (c >= 0x20 && c <= 0x2F) {
+            for (; i < to; i++) {
+                c = text[i];
+                if (c >= 0x30 && c <= 0x7E) return i + 1;
+                if (c < 0x20 || c > 0x2F) return i;
+            }
+            return to;
+        }
+        return c >= 0x30 && c <= 0x7E ? i : esc + 1;
+    }
+
+    /**
+     * Returns the end of the escape sequence starting at the given ESC byte.
+     * <p>
+     * Bytes of multi-byte UTF-8 characters are never part of a CSI sequence, so they
+     * end it and are kept.
+     *
+     * @param bytes the bytes being scanned
+     * @param esc the index of the ESC
+     * @param to the end of the input
+     * @return the index just past the sequence
+     */
+    public static int sequenceEnd(byte[] bytes, int esc, int to) {
+        int i = esc + 1;
+        if (i == to) return to;
+
+        int c = bytes[i++] & 0xFF;
+        if (c == '[') {
+            for (; i < to; i++) {
+                c = bytes[i] & 0xFF;
+                if (c >= 0x40 && c <= 0x7E) return i + 1;
+                if (c < 0x20 || c > 0x3F) return i;
+            }
+            return to;
+        }
+        if (isStringIntroducer(c)) {
+            for (; i < to; i++) {
+                c = bytes[i];
+                if (c == BEL) return i + 1;
+                if (c == ESC) return i + 1 < to && bytes[i + 1] == '\\' ? i + 2 : i;
+            }
+            return to;
+        }
+        if (c >= 0x20 && c <= 0x2F) {
+            for (; i < to; i++) {
+                c = bytes[i] & 0xFF;
+                if (c >= 0x30 && c <= 0x7E) return i + 1;
+                if (c < 0x20 || c > 0x2F) return i;
+            }
+            return to;
+        }
+        return c >= 0x30 && c <= 0x7E ? i : esc + 1;
+    }
+
+    private static boolean isStringIntroducer(int c) {
+        return c == ']' || c == 'P' || c == 'X' || c == '^' || c == '_';
+    }
+}
@@ -0,0 +1,158 @@
+package io.github.bitmeshi.stylr.internal;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Internal lookup of the number of terminal columns a code point occupies.
+ * <p>
+ * Widths follow the usual {@code wcwidth} conventions:
+ * <ul>
+ *   <li>0 for control chars, combining and enclosing marks, format chars such as the
+ *       zero-width joiner, variation selectors, Hangul medial and final jamo and emoji
+ *       skin tone modifiers</li>
+ *   <li>2 for East Asian Wide and Fullwidth chars (CJK ideographs, kana, Hangul
+ *       syllables, fullwidth forms) and emoji with default emoji presentation</li>
+ *   <li>1 for everything else</li>
+ * </ul>
+ * <p>
+ * The widths are computed once into a two-level table: the high bits of a code point
+ * select a 256-entry block and the low bits an entry in it. Identical blocks are
+ * stored once, so the whole table takes a few kilobytes and a lookup is two array loads.
+ * <p>
+ * This class is part of the internal API and should not be used directly
+ * by library consumers.
+ *
+ * @since 1.0
+ */
+public final class CharWidth {
+    private static final int BLOCK_BITS = 8;
+    private static final int BLOCK_SIZE = 1 << BLOCK_BITS;
+    private static final int BLOCK_MASK = BLOCK_SIZE - 1;
+
+    /** Code points above this limit are unassigned, private use or tags and are looked up directly. */
+    private static final int TABLE_LIMIT = 0x40000;
+
+    /** East Asian Wide and Fullwidth ranges and emoji presentation ranges, as inclusive pairs. */
+    private static final int[] WIDE = {
+            0x1100, 0x115F, 0x231A, 0x231B, 0x2329, 0x232A, 0x23E9, 0x23EC, 0x23F0, 0x23F0,
+            0x23F3, 0x23F3, 0x25FD, 0x25FE, 0x2614, 0x2615, 0x2648, 0x2653, 0x267F, 0x267F,
+            0x2693, 0x2693, 0x26A1, 0x26A1, 0x26AA, 0x26AB, 0x26BD, 0x26BE, 0x26C4, 0x26C5,
+            0x26CE, 0x26CE, 0x26D4, 0x26D4, 0x26EA, 0x26EA, 0x26F2, 0x26F3, 0x26F5, 0x26F5,
+            0x26FA, 0x26FA, 0x26FD, 0x26FD, 0x2705, 0x2705, 0x270A, 0x270B, 0x2728, 0x2728,
+            0x274C, 0x274C, 0x274E, 0x274E, 0x2753, 0x2755, 0x2757, 0x2757, 0x2795, 0x2797,
+            0x27B0, 0x27B0, 0x27BF, 0x27BF, 0x2B1B, 0x2B1C, 0x2B50, 0x2B50, 0x2B55, 0x2B55,
+            0x2E80, 0x2E99, 0x2E9B, 0x2EF3, 0x2F00, 0x2FD5, 0x2FF0, 0x2FFF, 0x3000, 0x303E,
+            0x3041, 0x3096, 0x3099, 0x30FF, 0x3105, 0x312F, 0x3131, 0x318E, 0x3190, 0x31E3,
+            0x31F0, 0x321E, 0x3220, 0x3247, 0x3250, 0x4DBF, 0x4E00, 0xA48C, 0xA490, 0xA4C6,
+            0xA960, 0xA97C, 0xAC00, 0xD7A3, 0xF900, 0xFAFF, 0xFE10, 0xFE19, 0xFE30, 0xFE52,
+            0xFE54, 0xFE66, 0xFE68, 0xFE6B, 0xFF01, 0xFF60, 0xFFE0, 0xFFE6,
+            0x16FE0, 0x16FE4, 0x16FF0, 0x16FF1, 0x17000, 0x187F7, 0x18800, 0x18CD5, 0x18D00, 0x18D08,
+            0x1AFF0, 0x1AFFE, 0x1B000, 0x1B122, 0x1B132, 0x1B132, 0x1B150, 0x1B152, 0x1B155, 0x1B155,
+            0x1B164, 0x1B167, 0x1B170, 0x1B2FB, 0x1F004, 0x1F004, 0x1F0CF, 0x1F0CF, 0x1F18E, 0x1F18E,
+            0x1F191, 0x1F19A, 0x1F200, 0x1F202, 0x1F210, 0x1F23B, 0x1F240, 0x1F248, 0x1F250, 0x1F251,
+            0x1F260, 0x1F265, 0x1F300, 0x1F320, 0x1F32D, 0x1F335, 0x1F337, 0x1F37C, 0x1F37E, 0x1F393,
+            0x1F3A0, 0x1F3CA, 0x1F3CF, 0x1F3D3, 0x1F3E0, 0x1F3F0, 0x1F3F4, 0x1F3F4, 0x1F3F8, 0x1F43E,
+            0x1F440, 0x1F440, 0x1F442, 0x1F4FC, 0x1F4FF, 0x1F53D, 0x1F54B, 0x1F54E, 0x1F550, 0x1F567,
+            0x1F57A, 0x1F57A, 0x1F595, 0x1F596, 0x1F5A4, 0x1F5A4, 0x1F5FB, 0x1F64F, 0x1F680, 0x1F6C5,
+            0x1F6CC, 0x1F6CC, 0x1F6D0, 0x1F6D2, 0x1F6D5, 0x1F6D7, 0x1F6DC, 0x1F6DF, 0x1F6EB, 0x1F6EC,
+            0x1F6F4, 0x1F6FC, 0x1F7E0, 0x1F7EB, 0x1F7F0, 0x1F7F0, 0x1F90C, 0x1F93A, 0x1F93C, 0x1F945,
+            0x1F947, 0x1F9FF, 0x1FA70, 0x1FA7C, 0x1FA80, 0x1FA88, 0x1FA90, 0x1FABD, 0x1FABF, 0x1FAC5,
+            0x1FACE, 0x1FADB, 0x1FAE0, 0x1FAE8, 0x1FAF0, 0x1FAF8, 0x20000, 0x2FFFD, 0x30000, 0x3FFFD
+    };
+
+    /** Zero-width ranges that are not covered by the general category check, as inclusive pairs. */
+    private static final int[] ZERO = {
+            0x1160, 0x11FF, 0x200B, 0x200B, 0xD7B0, 0xD7FF, 0x1F3FB, 0x1F3FF
+    };
+
+    /** Block index for each 256-code-point block below {@link #TABLE_LIMIT}. */
+    private static final char[] BLOCK_INDEX;
+
+    /** The distinct blocks, concatenated; each entry is a width. */
+    private static final byte[] BLOCKS;
+
+    static {
+        byte[] widths = new byte[TABLE_LIMIT];
+        Arrays.fill(widths, (byte) 1);
+        fill(widths, WIDE, (byte) 2);
+        // Marks inside wide ranges, such as the kana voicing marks U+3099 and U+309A, stay zero width
+        for (int cp = 0; cp < TABLE_LIMIT; cp++) {
+            if (isZeroWidth(cp)) widths[cp] = 0;
+        }
+        fill(widths, ZERO, (byte) 0);
+        widths[0x00AD] = 1; // Soft hyphen is shown as a hyphen when it is displayed at all
+
+        int blockCount = TABLE_LIMIT >>> BLOCK_BITS;
+        BLOCK_INDEX = new char[blockCount];
+        byte[] blocks = new byte[blockCount * BLOCK_SIZE];
+        Map<Block, Character> seen = new HashMap<>();
+
+        for (int b = 0; b < blockCount; b++) {
+            Block block = new Block(Arrays.copyOfRange(widths, b << BLOCK_BITS, (b + 1) << BLOCK_BITS));
+            Character index = seen.get(block);
+            if (index == null) {
+                index = (char) seen.size();
+                seen.put(block, index);
+                System.arraycopy(block.widths, 0, blocks, index << BLOCK_BITS, BLOCK_SIZE);
+            }
+            BLOCK_INDEX[b] = index;
+        }
+        BLOCKS = Arrays.copyOf(blocks, seen.size() << BLOCK_BITS);
+    }
+
+    private CharWidth() {
+        throw new IllegalStateException("Utility class cannot be instantiated");
+    }
+
+    /**
+     * Returns the number of columns a code point occupies in a terminal.
+     *
+     * @param codePoint the code point
+     * @return 0, 1 or 2
+     */
+    public static int of(int codePoint) {
+        if (codePoint < TABLE_LIMIT) {
+            return BLOCKS[BLOCK_INDEX[codePoint >>> BLOCK_BITS] << BLOCK_BITS | codePoint & BLOCK_MASK];
+        }
+        return isZeroWidth(codePoint) ? 0 : 1;
+    }
+
+    /**
+     * Returns the number of distinct 256-entry blocks stored in the table.
+     *
+     * @return the distinct block count
+     */
+    static int blockCount() {
+        return BLOCKS.length >>> BLOCK_BITS;
+    }
+
+    private static boolean isZeroWidth(int cp) {
+        if (cp < 0x20 || (cp >= 0x7F && cp < 0xA0)) return true;
+
+        int type = Character.getType(cp);
+        return type == Character.NON_SPACING_MARK
+                || type == Character.ENCLOSING_MARK
+                || type == Character.FORMAT;
+    }
+
+    private static void fill(byte[] widths, int[] ranges, byte width) {
+        for (int i = 0; i < ranges.length; i += 2) {
+            Arrays.fill(widths, ranges[i], ranges[i + 1] + 1, width);
+        }
+    }
+
+    /** A block of widths with value-based equality, used to find duplicates. */
+    private record Block(byte[] widths) {
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof Block other && Arrays.equals(widths, other.widths);
+        }
+
+        @Override
+        public int hashCode() {
+            return Arrays.hashCode(widths);
+        }
+    }
+}
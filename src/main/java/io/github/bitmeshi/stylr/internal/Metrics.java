@@ -0,0 +1,159 @@
+package io.github.bitmeshi.stylr.internal;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Internal counters of the work done by the library.
+ * <p>
+ * Counters are updated on every styling call, so they are only kept when the
+ * {@value #PROPERTY} system property is {@code true}. The flag is a constant read once at
+ * startup; when it is off, the JIT removes the counting code entirely and the calls cost
+ * nothing. Counters are {@link LongAdder}s, so updates from many threads do not contend.
+ * <p>
+ * Lengths are counted in chars. Escape sequences are ASCII, so their char count is also
+ * their size in bytes in any ASCII-compatible encoding.
+ * <p>
+ * This class is part of the internal API and should not be used directly
+ * by library consumers.
+ *
+ * @since 1.0
+ */
+public final class Metrics {
+    /** Name of the system property that turns counting on. */
+    public static final String PROPERTY = "stylr.metrics";
+
+    /** Whether counters are updated. */
+    public static final boolean ENABLED = Boolean.parseBoolean(System.getProperty(PROPERTY, "false").trim());
+
+    private static final LongAdder STYLES_BUILT = new LongAdder();
+    private static final LongAdder RENDERS = new LongAdder();
+    private static final LongAdder ESCAPE_CHARS = new LongAdder();
+    private static final LongAdder TEXT_CHARS = new LongAdder();
+    private static final LongAdder STRIPPED_CHARS = new LongAdder();
+    private static final LongAdder MARKUP_COMPILES = new LongAdder();
+    private static final LongAdder SINK_FLUSHES = new LongAdder();
+
+    private Metrics() {
+        throw new IllegalStateException("Utility class cannot be instantiated");
+    }
+
+    /**
+     * Counts a style returned by a builder.
+     */
+    public static void styleBuilt() {
+        if (ENABLED) STYLES_BUILT.increment();
+    }
+
+    /**
+     * Counts one piece of styled output.
+     *
+     * @param escapeChars the number of escape sequence chars written
+     * @param textChars the number of text chars written
+     */
+    public static void rendered(int escapeChars, int textChars) {
+        if (ENABLED) {
+            RENDERS.increment();
+            ESCAPE_CHARS.add(escapeChars);
+            TEXT_CHARS.add(textChars);
+        }
+    }
+
+    /**
+     * Counts escape sequence chars removed from a text.
+     *
+     * @param chars the number of chars removed
+     */
+    public static void stripped(int chars) {
+        if (ENABLED) STRIPPED_CHARS.add(chars);
+    }
+
+    /**
+     * Counts a compiled markup string.
+     */
+    public static void markupCompiled() {
+        if (ENABLED) MARKUP_COMPILES.increment();
+    }
+
+    /**
+     * Counts a buffer written out by a styled stream.
+     */
+    public static void sinkFlushed() {
+        if (ENABLED) SINK_FLUSHES.increment();
+    }
+
+    /**
+     * Returns the number of styles returned by builders.
+     *
+     * @return the count since startup or the last reset
+     */
+    public static long stylesBuilt() {
+        return STYLES_BUILT.sum();
+    }
+
+    /**
+     * Returns the number of pieces of styled output.
+     *
+     * @return the count since startup or the last reset
+     */
+    public static long renders() {
+        return RENDERS.sum();
+    }
+
+    /**
+     * Returns the number of escape sequence chars written.
+     *
+     * @return the count since startup or the last reset
+     */
+    public static long escapeChars() {
+        return ESCAPE_CHARS.sum();
+    }
+
+    /**
+     * Returns the number of text chars written with styles.
+     *
+     * @return the count since startup or the last reset
+     */
+    public static long textChars() {
+        return TEXT_CHARS.sum();
+    }
+
+    /**
+     * Returns the number of escape sequence chars removed by stripping.
+     *
+     * @return the count since startup or the last reset
+     */
+    public static long strippedChars() {
+        return STRIPPED_CHARS.sum();
+    }
+
+    /**
+     * Returns the number of compiled markup strings.
+     *
+     * @return the count since startup or the last reset
+     */
+    public static long markupCompiles() {
+        return MARKUP_COMPILES.sum();
+    }
+
+    /**
+     * Returns the number of buffers written out by styled streams.
+     *
+     * @return the count since startup or the last reset
+     */
+    public static long sinkFlushes() {
+        return SINK_FLUSHES.sum();
+    }
+
+    /**
+     * Sets all counters back to zero.
+     */
+    public static void reset() {
+        STYLES_BUILT.reset();
+        RENDERS.reset();
+        ESCAPE_CHARS.reset();
+        TEXT_CHARS.reset();
+        STRIPPED_CHARS.reset();
+        MARKUP_COMPILES.reset();
+        SINK_FLUSHES.reset();
+    }
+}
@@ -0,0 +1,127 @@
+package io.github.bitmeshi.stylr.internal;
+
+import io.github.bitmeshi.stylr.OutputPolicy;
+
+import java.io.Console;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.util.Locale;
+
+/**
+ * Holds the process-wide decision whether styled output is produced.
+ * <p>
+ * The decision is made once, when this class is initialized, and stored in the
+ * {@code static final} field {@link #ENABLED}. The JIT treats such a field as a
+ * constant, so a disabled check on a hot path folds away entirely.
+ * <p>
+ * The inputs are, in order of precedence:
+ * <ol>
+ *   <li>the {@value #PROPERTY} system property: {@code always}, {@code never} or {@code auto}</li>
+ *   <li>the {@code FORCE_COLOR} environment variable: styling is on if it is set and not empty</li>
+ *   <li>the {@code NO_COLOR} environment variable: styling is off if it is set and not empty</li>
+ *   <li>whether the JVM is attached to an interactive console, see {@link System#console()}</li>
+ * </ol>
+ * <p>
+ * Since JDK 22, {@code System.console()} returns a console even when the standard streams
+ * are redirected, so on those runtimes the console must also report {@code isTerminal()}.
+ * That method is looked up reflectively, since the library also runs on older JDKs where a
+ * non-null console is enough.
+ * <p>
+ * This class is part of the internal API and should not be used directly
+ * by library consumers.
+ *
+ * @since 1.0
+ */
+public final class OutputGate {
+    /** Name of the system property that overrides the detected policy. */
+    public static final String PROPERTY = "stylr.output";
+
+    /** {@code Console.isTerminal()}, or null on runtimes older than JDK 22. */
+    private static final MethodHandle IS_TERMINAL = findIsTerminal();
+
+    /** Whether styled output is produced by default. */
+    public static final boolean ENABLED = decide(
+            System.getProperty(PROPERTY),
+            System.getenv("FORCE_COLOR"),
+            System.getenv("NO_COLOR"),
+            consoleAttached()
+    );
+
+    private OutputGate() {
+        throw new IllegalStateException("Utility class cannot be instantiated");
+    }
+
+    /**
+     * Decides whether styling is enabled from the given inputs.
+     * <p>
+     * Unrecognized property values are treated like {@code auto}.
+     *
+     * @param property the value of the {@value #PROPERTY} system property, or null
+     * @param forceColor the value of {@code FORCE_COLOR}, or null
+     * @param noColor the value of {@code NO_COLOR}, or null
+     * @param console whether an interactive console is attached
+     * @return true if styled output should be produced
+     */
+    public static boolean decide(String property, String forceColor, String noColor, boolean console) {
+        if (property != null) {
+            switch (property.trim().toLowerCase(Locale.ROOT)) {
+                case "always":
+                    return true;
+                case "never":
+                    return false;
+                default:
+                    break;
+            }
+        }
+
+        if (forceColor != null && !forceColor.isEmpty()) return true;
+        if (noColor != null && !noColor.isEmpty()) return false;
+        return console;
+    }
+
+    /**
+     * Decides whether an interactive console is attached from what the runtime reports.
+     *
+     * @param console whether {@link System#console()} returned a console
+     * @param terminal the console's {@code isTerminal()}, or null if the runtime lacks it
+     * @return true if the console is interactive
+     */
+    static boolean interactive(boolean console, Boolean terminal) {
+        return console && (terminal == null || terminal);
+    }
+
+    private static boolean consoleAttached() {
+        Console console = System.console();
+        if (console == null) return false;
+        return interactive(true, isTerminal(console));
+    }
+
+    private static Boolean isTerminal(Console console) {
+        if (IS_TERMINAL == null) return null;
+        try {
+            return (boolean) IS_TERMINAL.invokeExact(console);
+        } catch (Throwable e) {
+            return Boolean.FALSE;
+        }
+    }
+
+    private static MethodHandle findIsTerminal() {
+        try {
+            return MethodHandles.publicLookup()
+                    .findVirtual(Console.class, "isTerminal", MethodType.methodType(boolean.class));
+        } catch (NoSuchMethodException | IllegalAccessException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Resolves a policy to a decision.
+     *
+     * @param policy the policy to resolve
+     * @return true if styled output should be produced under the policy
+     */
+    public static boolean isEnabled(OutputPolicy policy) {
+        return policy == OutputPolicy.ALWAYS || policy == OutputPolicy.AUTO && ENABLED;
+    }
+}
@@ -0,0 +1,192 @@
+package io.github.bitmeshi.stylr.internal;
+
+import io.github.bitmeshi.stylr.internal.jfr.CacheMissEvent;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.UnaryOperator;
+
+/**
+ * Internal bounded LRU cache from input text to rendered text.
+ * <p>
+ * The cache is split into independently locked segments selected by the text's hash,
+ * so concurrent callers only contend when they hit the same segment and there is no
+ * global lock. Each segment is an access-ordered {@link LinkedHashMap} and evicts its
+ * least recently used entries once it exceeds its share of either bound:
+ * <ul>
+ *   <li>the maximum number of entries</li>
+ *   <li>the maximum total number of chars held by rendered values</li>
+ * </ul>
+ * A value larger than a segment's char budget is returned but never cached.
+ * <p>
+ * This class is part of the internal API and should not be used directly
+ * by library consumers.
+ *
+ * @since 1.0
+ */
+public final class RenderCache {
+    private static final int MAX_SEGMENTS = 16;
+    private static final int MIN_SEGMENT_CHARS = 256;
+
+    private final Segment[] segments;
+    private final int segmentMask;
+    private final UnaryOperator<String> renderer;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    /**
+     * Creates a cache with the given bounds.
+     *
+     * @param maxEntries the maximum number of cached entries, at least 1
+     * @param maxChars the maximum total length of cached values, at least 1
+     * @param renderer the function computing a value on a miss
+     * @throws IllegalArgumentException if a bound is not positive
+     */
+    public RenderCache(int maxEntries, long maxChars, UnaryOperator<String> renderer) {
+        if (maxEntries < 1) throw new IllegalArgumentException("maxEntries must be positive");
+        if (maxChars < 1) throw new IllegalArgumentException("maxChars must be positive");
+
+        // Small caches get fewer segments so that per-segment bounds stay meaningful
+        int count = Math.min(MAX_SEGMENTS, Integer.highestOneBit(maxEntries));
+        while (count > 1 && maxChars / count < MIN_SEGMENT_CHARS) count >>= 1;
+        this.segments = new Segment[count];
+        this.segmentMask = count - 1;
+        this.renderer = renderer;
+
+        for (int i = 0; i < count; i++) {
+            int entries = maxEntries / count + (i < maxEntries % count ? 1 : 0);
+            long chars = Math.max(1, maxChars / count);
+            segments[i] = new Segment(entries, chars);
+        }
+    }
+
+    /**
+     * Returns the cached value for the text, rendering and caching it on a miss.
+     *
+     * @param text the input text
+     * @return the rendered value; the same instance for repeated hits
+     */
+    public String get(String text) {
+        int h = text.hashCode();
+        Segment segment = segments[(h ^ h >>> 16) & segmentMask];
+
+        String value;
+        synchronized (segment) {
+            value = segment.map.get(text);
+        }
+        if (value != null) {
+            hits.increment();
+            return value;
+        }
+
+        misses.increment();
+        CacheMissEvent event = new CacheMissEvent();
+        event.begin();
+        String rendered = renderer.apply(text);
+
+        if (event.shouldCommit()) {
+            event.cache = "render";
+            event.keyLength = text.length();
+            event.commit();
+        }
+        if (rendered.length() > segment.maxChars) return rendered;
+
+        synchronized (segment) {
+            // Another thread may have rendered the same text meanwhile; keep the first value
+            String existing = segment.map.putIfAbsent(text, rendered);
+            if (existing != null) return existing;
+
+            segment.chars += rendered.length();
+            evictions.add(segment.trim());
+        }
+        return rendered;
+    }
+
+    /**
+     * Removes every entry. Counters are not reset.
+     */
+    public void clear() {
+        for (Segment segment : segments) {
+            synchronized (segment) {
+                segment.map.clear();
+                segment.chars = 0;
+            }
+        }
+    }
+
+    /**
+     * Returns the number of lookups answered from the cache.
+     *
+     * @return the hit count
+     */
+    public long hits() {
+        return hits.sum();
+    }
+
+    /**
+     * Returns the number of lookups that had to render a value.
+     *
+     * @return the miss count
+     */
+    public long misses() {
+        return misses.sum();
+    }
+
+    /**
+     * Returns the number of entries removed to respect the bounds.
+     *
+     * @return the eviction count
+     */
+    public long evictions() {
+        return evictions.sum();
+    }
+
+    /**
+     * Returns the current number of cached entries.
+     *
+     * @return the entry count
+     */
+    public int size() {
+        int size = 0;
+        for (Segment segment : segments) {
+            synchronized (segment) {
+                size += segment.map.size();
+            }
+        }
+        return size;
+    }
+
+    private static final class Segment {
+        private final LinkedHashMap<String, String> map = new LinkedHashMap<>(16, 0.75f, true);
+        private final int maxEntries;
+        private final long maxChars;
+        private long chars;
+
+        private Segment(int maxEntries, long maxChars) {
+            this.maxEntries = maxEntries;
+            this.maxChars = maxChars;
+        }
+
+        /**
+         * Evicts least recently used entries until both bounds hold.
+         *
+         * @return the number of evicted entries
+         */
+        private int trim() {
+            int evicted = 0;
+            Iterator<Map.Entry<String, String>> eldest = map.entrySet().iterator();
+
+            while ((map.size() > maxEntries || chars > maxChars) && eldest.hasNext()) {
+                chars -= eldest.next().getValue().length();
+                eldest.remove();
+                evicted++;
+            }
+
+            return evicted;
+        }
+    }
+}
@@ -0,0 +1,382 @@
+package io.github.bitmeshi.stylr.internal;
+
+import io.github.bitmeshi.stylr.internal.color.BasicColorCodes;
+import io.github.bitmeshi.stylr.internal.color.IndexedColorCodes;
+import io.github.bitmeshi.stylr.internal.color.PackedColor;
+
+/**
+ * Internal single-pass encoder for SGR (Select Graphic Rendition) escape sequences.
+ * <p>
+ * Writes the complete {@code \u001b[<codes>m} sequence for a {@link StyleConfig}
+ * directly into a caller-supplied buffer. Numeric parameters are emitted from a
+ * precomputed digit table, so encoding into a {@code char[]} or {@code byte[]}
+ * does not allocate.
+ * <p>
+ * Besides full sequences, the encoder can emit the minimal transition between two
+ * configurations: only colors and attributes that change are written, and removed
+ * attributes are switched off with targeted resets ({@code 22}, {@code 23}, {@code 24},
+ * {@code 25}, {@code 27}, {@code 28}, {@code 39}, {@code 49}) rather than a full
+ * {@code 0} reset followed by the whole new style.
+ * <p>
+ * Callers must provide at least {@link #MAX_LENGTH} free slots starting at the
+ * given offset.
+ * <p>
+ * This class is part of the internal API and should not be used directly
+ * by library consumers.
+ *
+ * @since 1.0
+ */
+public final class SgrEncoder {
+    /**
+     * Upper bound on the length of a sequence produced by this encoder.
+     */
+    public static final int MAX_LENGTH = 96;
+
+    private static final char ESC = '\u001b';
+
+    /**
+     * Decimal digits of 0-255, four entries per value: the digit count followed
+     * by up to three ASCII digits.
+     */
+    private static final byte[] DIGITS = new byte[256 * 4];
+
+    /**
+     * Targeted reset codes, in emission order. Bit {@code i} of a plan selects {@code RESETS[i]}.
+     */
+    private static final int[] RESETS = {22, 23, 24, 25, 27, 28, 39, 49};
+    private static final int RESET_BOLD_DIM = 1;
+    private static final int RESET_ITALIC = 1 << 1;
+    private static final int RESET_UNDERLINED = 1 << 2;
+    private static final int RESET_BLINK = 1 << 3;
+    private static final int RESET_REVERSE = 1 << 4;
+    private static final int RESET_HIDE = 1 << 5;
+    private static final int RESET_COLOR = 1 << 6;
+    private static final int RESET_BG_COLOR = 1 << 7;
+
+    // A plan describes what to write: targeted resets in bits 0-7, flags in bits 8-10
+    // and the attributes to switch on in bits 16-23.
+    private static final int FULL_RESET = 1 << 8;
+    private static final int WRITE_COLOR = 1 << 9;
+    private static final int WRITE_BG_COLOR = 1 << 10;
+    private static final int ATTRIBUTE_SHIFT = 16;
+
+    private static final int BOLD_DIM = StyleConfig.BOLD | StyleConfig.DIM;
+    private static final int BLINK = StyleConfig.SLOW_BLINK | StyleConfig.RAPID_BLINK;
+
+    static {
+        for (int value = 0; value < 256; value++) {
+            String digits = Integer.toString(value);
+            int base = value * 4;
+            DIGITS[base] = (byte) digits.length();
+            for (int i = 0; i < digits.length(); i++) {
+                DIGITS[base + 1 + i] = (byte) digits.charAt(i);
+            }
+        }
+    }
+
+    private SgrEncoder() {
+        throw new IllegalStateException("Utility class cannot be instantiated");
+    }
+
+    /**
+     * Encodes the SGR sequence for the given configuration into a char array.
+     *
+     * @param config the style configuration to encode
+     * @param dst the destination buffer
+     * @param offset the index at which to start writing
+     * @return the index just past the last written char; equal to {@code offset}
+     *         if no styling is configured
+     */
+    public static int encode(StyleConfig config, char[] dst, int offset) {
+        return write(plan(config), config, dst, offset);
+    }
+
+    /**
+     * Encodes the SGR sequence for the given configuration into a byte array
+     * as US-ASCII (and therefore also UTF-8).
+     *
+     * @param config the style configuration to encode
+     * @param dst the destination buffer
+     * @param offset the index at which to start writing
+     * @return the index just past the last written byte; equal to {@code offset}
+     *         if no styling is configured
+     */
+    public static int encode(StyleConfig config, byte[] dst, int offset) {
+        return write(plan(config), config, dst, offset);
+    }
+
+    /**
+     * Encodes the SGR sequence for the given configuration onto a StringBuilder.
+     * <p>
+     * Does not allocate unless the builder has to grow.
+     *
+     * @param config the style configuration to encode
+     * @param dst the destination builder
+     * @return the destination builder
+     */
+    public static StringBuilder encode(StyleConfig config, StringBuilder dst) {
+        return write(plan(config), config, dst);
+    }
+
+    /**
+     * Encodes the minimal SGR sequence that changes the terminal state from one
+     * configuration to another, into a char array.
+     *
+     * @param from the configuration currently in effect
+     * @param to the configuration to switch to
+     * @param dst the destination buffer
+     * @param offset the index at which to start writing
+     * @return the index just past the last written char; equal to {@code offset}
+     *         if both configurations are equal
+     */
+    public static int encodeTransition(StyleConfig from, StyleConfig to, char[] dst, int offset) {
+        return write(transitionPlan(from, to), to, dst, offset);
+    }
+
+    /**
+     * Encodes the minimal SGR sequence that changes the terminal state from one
+     * configuration to another, into a byte array as US-ASCII.
+     *
+     * @param from the configuration currently in effect
+     * @param to the configuration to switch to
+     * @param dst the destination buffer
+     * @param offset the index at which to start writing
+     * @return the index just past the last written byte; equal to {@code offset}
+     *         if both configurations are equal
+     */
+    public static int encodeTransition(StyleConfig from, StyleConfig to, byte[] dst, int offset) {
+        return write(transitionPlan(from, to), to, dst, offset);
+    }
+
+    /**
+     * Encodes the minimal SGR sequence that changes the terminal state from one
+     * configuration to another, onto a StringBuilder.
+     *
+     * @param from the configuration currently in effect
+     * @param to the configuration to switch to
+     * @param dst the destination builder
+     * @return the destination builder
+     */
+    public static StringBuilder encodeTransition(StyleConfig from, StyleConfig to, StringBuilder dst) {
+        return write(transitionPlan(from, to), to, dst);
+    }
+
+    private static int plan(StyleConfig config) {
+        int plan = config.attributes() << ATTRIBUTE_SHIFT;
+        if (config.color() != PackedColor.NONE) plan |= WRITE_COLOR;
+        if (config.bgColor() != PackedColor.NONE) plan |= WRITE_BG_COLOR;
+        return plan;
+    }
+
+    private static int transitionPlan(StyleConfig from, StyleConfig to) {
+        if (to.isEmpty()) return from.isEmpty() ? 0 : FULL_RESET;
+
+        int removed = from.attributes() & ~to.attributes();
+        int added = to.attributes() & ~from.attributes();
+        int resets = 0;
+
+        // 22 and 25 each switch off two attributes; re-enable the one that should stay on
+        if ((removed & BOLD_DIM) != 0) {
+            resets |= RESET_BOLD_DIM;
+            added |= to.attributes() & BOLD_DIM;
+        }
+        if ((removed & BLINK) != 0) {
+            resets |= RESET_BLINK;
+            added |= to.attributes() & BLINK;
+        }
+        if ((removed & StyleConfig.ITALIC) != 0) resets |= RESET_ITALIC;
+        if ((removed & StyleConfig.UNDERLINED) != 0) resets |= RESET_UNDERLINED;
+        if ((removed & StyleConfig.REVERSE) != 0) resets |= RESET_REVERSE;
+        if ((removed & StyleConfig.HIDE) != 0) resets |= RESET_HIDE;
+
+        int plan = resets | added << ATTRIBUTE_SHIFT;
+
+        if (to.color() != from.color()) {
+            plan |= to.color() == PackedColor.NONE ? RESET_COLOR : WRITE_COLOR;
+        }
+        if (to.bgColor() != from.bgColor()) {
+            plan |= to.bgColor() == PackedColor.NONE ? RESET_BG_COLOR : WRITE_BG_COLOR;
+        }
+
+        return plan;
+    }
+
+    private static int write(int plan, StyleConfig to, char[] dst, int offset) {
+        if (plan == 0) return offset;
+
+        int first = offset + 2;
+        int pos = first;
+
+        if ((plan & FULL_RESET) != 0) pos = writeParam(0, dst, pos, first);
+        for (int resets = plan & 0xFF; resets != 0; resets &= resets - 1) {
+            pos = writeParam(RESETS[Integer.numberOfTrailingZeros(resets)], dst, pos, first);
+        }
+        if ((plan & WRITE_COLOR) != 0) pos = writeColor(to.color(), false, dst, pos, first);
+        if ((plan & WRITE_BG_COLOR) != 0) pos = writeColor(to.bgColor(), true, dst, pos, first);
+        for (int attributes = plan >>> ATTRIBUTE_SHIFT; attributes != 0; attributes &= attributes - 1) {
+            pos = writeParam(Integer.numberOfTrailingZeros(attributes) + 1, dst, pos, first);
+        }
+
+        dst[offset] = ESC;
+        dst[offset + 1] = '[';
+        dst[pos++] = 'm';
+        return pos;
+    }
+
+    private static int write(int plan, StyleConfig to, byte[] dst, int offset) {
+        if (plan == 0) return offset;
+
+        int first = offset + 2;
+        int pos = first;
+
+        if ((plan & FULL_RESET) != 0) pos = writeParam(0, dst, pos, first);
+        for (int resets = plan & 0xFF; resets != 0; resets &= resets - 1) {
+            pos = writeParam(RESETS[Integer.numberOfTrailingZeros(resets)], dst, pos, first);
+        }
+        if ((plan & WRITE_COLOR) != 0) pos = writeColor(to.color(), false, dst, pos, first);
+        if ((plan & WRITE_BG_COLOR) != 0) pos = writeColor(to.bgColor(), true, dst, pos, first);
+        for (int attributes = plan >>> ATTRIBUTE_SHIFT; attributes != 0; attributes &= attributes - 1) {
+            pos = writeParam(Integer.numberOfTrailingZeros(attributes) + 1, dst, pos, first);
+        }
+
+        dst[offset] = ESC;
+        dst[offset + 1] = '[';
+        dst[pos++] = 'm';
+        return pos;
+    }
+
+    private static StringBuilder write(int plan, StyleConfig to, StringBuilder dst) {
+        if (plan == 0) return dst;
+
+        int start = dst.length();
+        dst.setLength(start + MAX_LENGTH);
+
+        int first = start + 2;
+        int pos = first;
+
+        if ((plan & FULL_RESET) != 0) pos = writeParam(0, dst, pos, first);
+        for (int resets = plan & 0xFF; resets != 0; resets &= resets - 1) {
+            pos = writeParam(RESETS[Integer.numberOfTrailingZeros(resets)], dst, pos, first);
+        }
+        if ((plan & WRITE_COLOR) != 0) pos = writeColor(to.color(), false, dst, pos, first);
+        if ((plan & WRITE_BG_COLOR) != 0) pos = writeColor(to.bgColor(), true, dst, pos, first);
+        for (int attributes = plan >>> ATTRIBUTE_SHIFT; attributes != 0; attributes &= attributes - 1) {
+            pos = writeParam(Integer.numberOfTrailingZeros(attributes) + 1, dst, pos, first);
+        }
+
+        dst.setCharAt(start, ESC);
+        dst.setCharAt(start + 1, '[');
+        dst.setCharAt(pos++, 'm');
+        dst.setLength(pos);
+        return dst;
+    }
+
+    private static int writeColor(int color, boolean isBackground, char[] dst, int pos, int first) {
+        switch (PackedColor.kind(color)) {
+            case PackedColor.KIND_BASIC:
+                return writeParam(BasicColorCodes.code(PackedColor.value(color), isBackground), dst, pos, first);
+            case PackedColor.KIND_RGB:
+                pos = writeParam(isBackground ? 48 : 38, dst, pos, first);
+                pos = writeParam(2, dst, pos, first);
+                pos = writeParam(PackedColor.red(color), dst, pos, first);
+                pos = writeParam(PackedColor.green(color), dst, pos, first);
+                return writeParam(PackedColor.blue(color), dst, pos, first);
+            case PackedColor.KIND_INDEXED:
+                return writeCode(IndexedColorCodes.codeBytes(PackedColor.value(color), isBackground), dst, pos, first);
+            default:
+                return pos;
+        }
+    }
+
+    private static int writeColor(int color, boolean isBackground, byte[] dst, int pos, int first) {
+        switch (PackedColor.kind(color)) {
+            case PackedColor.KIND_BASIC:
+                return writeParam(BasicColorCodes.code(PackedColor.value(color), isBackground), dst, pos, first);
+            case PackedColor.KIND_RGB:
+                pos = writeParam(isBackground ? 48 : 38, dst, pos, first);
+                pos = writeParam(2, dst, pos, first);
+                pos = writeParam(PackedColor.red(color), dst, pos, first);
+                pos = writeParam(PackedColor.green(color), dst, pos, first);
+                return writeParam(PackedColor.blue(color), dst, pos, first);
+            case PackedColor.KIND_INDEXED:
+                return writeCode(IndexedColorCodes.codeBytes(PackedColor.value(color), isBackground), dst, pos, first);
+            default:
+                return pos;
+        }
+    }
+
+    private static int writeColor(int color, boolean isBackground, StringBuilder dst, int pos, int first) {
+        switch (PackedColor.kind(color)) {
+            case PackedColor.KIND_BASIC:
+                return writeParam(BasicColorCodes.code(PackedColor.value(color), isBackground), dst, pos, first);
+            case PackedColor.KIND_RGB:
+                pos = writeParam(isBackground ? 48 : 38, dst, pos, first);
+                pos = writeParam(2, dst, pos, first);
+                pos = writeParam(PackedColor.red(color), dst, pos, first);
+                pos = writeParam(PackedColor.green(color), dst, pos, first);
+                return writeParam(PackedColor.blue(color), dst, pos, first);
+            case PackedColor.KIND_INDEXED:
+                return writeCode(IndexedColorCodes.codeBytes(PackedColor.value(color), isBackground), dst, pos, first);
+            default:
+                return pos;
+        }
+    }
+
+    /**
+     * Writes a numeric parameter (0-255), preceded by a separator unless it is the first one.
+     */
+    private static int writeParam(int value, char[] dst, int pos, int first) {
+        if (pos != first) dst[pos++] = ';';
+        int base = value << 2;
+        int length = DIGITS[base];
+        for (int i = 1; i <= length; i++) {
+            dst[pos++] = (char) DIGITS[base + i];
+        }
+        return pos;
+    }
+
+    private static int writeParam(int value, byte[] dst, int pos, int first) {
+        if (pos != first) dst[pos++] = ';';
+        int base = value << 2;
+        int length = DIGITS[base];
+        for (int i = 1; i <= length; i++) {
+            dst[pos++] = DIGITS[base + i];
+        }
+        return pos;
+    }
+
+    private static int writeParam(int value, StringBuilder dst, int pos, int first) {
+        if (pos != first) dst.setCharAt(pos++, ';');
+        int base = value << 2;
+        int length = DIGITS[base];
+        for (int i = 1; i <= length; i++) {
+            dst.setCharAt(pos++, (char) DIGITS[base + i]);
+        }
+        return pos;
+    }
+
+    /**
+     * Writes precomputed parameters, preceded by a separator unless they are the first ones.
+     */
+    private static int writeCode(byte[] code, char[] dst, int pos, int first) {
+        if (pos != first) dst[pos++] = ';';
+        for (byte b : code) {
+            dst[pos++] = (char) b;
+        }
+        return pos;
+    }
+
+    private static int writeCode(byte[] code, byte[] dst, int pos, int first) {
+        if (pos != first) dst[pos++] = ';';
+        System.arraycopy(code, 0, dst, pos, code.length);
+        return pos + code.length;
+    }
+
+    private static int writeCode(byte[] code, StringBuilder dst, int pos, int first) {
+        if (pos != first) dst.setCharAt(pos++, ';');
+        for (byte b : code) {
+            dst.setCharAt(pos++, (char) b);
+        }
+        return pos;
+    }
+}
@@ -0,0 +1,234 @@
+package io.github.bitmeshi.stylr.internal;
+
+import io.github.bitmeshi.stylr.internal.color.PackedColor;
+
+/**
+ * Internal mutable SGR state that decodes "Select Graphic Rendition" parameters.
+ * <p>
+ * The state holds the same packed colors and attribute bits as {@link StyleConfig}
+ * and applies SGR parameter lists to them the way a terminal does: {@code 0} resets,
+ * attribute codes set or clear single flags, and {@code 30}-{@code 49} and
+ * {@code 90}-{@code 107} select colors. Extended colors are accepted in both the
+ * semicolon form ({@code 38;2;r;g;b}, {@code 38;5;n}) and the colon form
+ * ({@code 38:2::r:g:b}, {@code 38:5:n}). Unknown codes are ignored.
+ * <p>
+ * This class is part of the internal API and should not be used directly
+ * by library consumers.
+ *
+ * @since 1.0
+ */
+public final class SgrState {
+    private static final int BLINK = StyleConfig.SLOW_BLINK | StyleConfig.RAPID_BLINK;
+    private static final int MAX_PARAMS = 32;
+    private static final int MAX_PARAM_VALUE = 0xFFFF;
+
+    private int color = PackedColor.NONE;
+    private int bgColor = PackedColor.NONE;
+    private int attributes;
+    private int[] params;
+
+    /**
+     * Applies an SGR parameter list.
+     * <p>
+     * Bit {@code i} of {@code colonMask} is set if parameter {@code i} was separated from
+     * the previous one by a colon, which makes it a sub-parameter. An empty list is
+     * treated as {@code 0}.
+     *
+     * @param params the parameter values; missing values are 0
+     * @param count the number of parameters
+     * @param colonMask the sub-parameter flags of the first 32 parameters
+     */
+    public void apply(int[] params, int count, int colonMask) {
+        if (count == 0) {
+            reset();
+            return;
+        }
+
+        int i = 0;
+        while (i < count) {
+            int code = params[i];
+            int group = groupEnd(i, count, colonMask);
+
+            if (code == 38 || code == 48) {
+                int extended;
+                if (group > i + 1) {
+                    extended = extendedColor(params, i + 1, group, true);
+                } else {
+                    group = Math.min(count, i + 1 + extendedLength(params, i + 1, count));
+                    extended = extendedColor(params, i + 1, group, false);
+                }
+                if (extended != PackedColor.NONE) {
+                    if (code == 38) color = extended;
+                    else bgColor = extended;
+                }
+            } else if (code == 4 && group > i + 1) {
+                // 4:0 turns underline off, 4:1 to 4:5 select an underline shape
+                setAttribute(StyleConfig.UNDERLINED, params[i + 1] != 0);
+            } else {
+                applyCode(code);
+            }
+
+            i = group;
+        }
+    }
+
+    /**
+     * Applies an escape sequence if it is an SGR sequence.
+     * <p>
+     * The range must hold one complete sequence as delimited by
+     * {@link AnsiScanner#sequenceEnd(CharSequence, int, int)}. Other sequences are ignored.
+     *
+     * @param text the text holding the sequence
+     * @param start the index of the ESC
+     * @param end the index just past the sequence
+     * @return true if the sequence was an SGR sequence and has been applied
+     */
+    public boolean applySequence(CharSequence text, int start, int end) {
+        if (end - start < 3 || text.charAt(start + 1) != '[' || text.charAt(end - 1) != 'm') return false;
+
+        if (params == null) params = new int[MAX_PARAMS];
+        int count = 0;
+        int colonMask = 0;
+
+        for (int i = start + 2; i < end - 1; i++) {
+            char c = text.charAt(i);
+            if (count == 0) {
+                count = 1;
+                params[0] = 0;
+            }
+
+            if (c >= '0' && c <= '9') {
+                if (count <= MAX_PARAMS) {
+                    params[count - 1] = Math.min(MAX_PARAM_VALUE, params[count - 1] * 10 + (c - '0'));
+                }
+            } else if (c == ';' || c == ':') {
+                if (count < MAX_PARAMS) {
+                    params[count] = 0;
+                    if (c == ':') colonMask |= 1 << count;
+                }
+                count++;
+            } else {
+                // Private markers and intermediates make it a different function
+                return false;
+            }
+        }
+
+        apply(params, Math.min(count, MAX_PARAMS), colonMask);
+        return true;
+    }
+
+    /**
+     * Returns whether no color and no attribute is in effect.
+     *
+     * @return true if the state is the default state
+     */
+    public boolean isEmpty() {
+        return color == PackedColor.NONE && bgColor == PackedColor.NONE && attributes == 0;
+    }
+
+    /**
+     * Returns the current state as a style configuration.
+     *
+     * @return the configuration in effect
+     */
+    public StyleConfig toConfig() {
+        if (isEmpty()) return StyleConfig.EMPTY;
+        return new StyleConfig(color, bgColor, attributes);
+    }
+
+    /**
+     * Returns the current state in the {@linkplain StyleConfig#packed() packed form} of its configuration.
+     * <p>
+     * Unlike {@link #toConfig()}, this does not allocate.
+     *
+     * @return the packed configuration in effect
+     */
+    public long packed() {
+        return StyleConfig.pack(color, bgColor, attributes);
+    }
+
+    /**
+     * Returns to the default state with no colors and no attributes.
+     */
+    public void reset() {
+        color = PackedColor.NONE;
+        bgColor = PackedColor.NONE;
+        attributes = 0;
+    }
+
+    private void applyCode(int code) {
+        switch (code) {
+            case 0 -> reset();
+            case 1 -> attributes |= StyleConfig.BOLD;
+            case 2 -> attributes |= StyleConfig.DIM;
+            case 3 -> attributes |= StyleConfig.ITALIC;
+            case 4, 21 -> attributes |= StyleConfig.UNDERLINED;
+            case 5 -> attributes |= StyleConfig.SLOW_BLINK;
+            case 6 -> attributes |= StyleConfig.RAPID_BLINK;
+            case 7 -> attributes |= StyleConfig.REVERSE;
+            case 8 -> attributes |= StyleConfig.HIDE;
+            case 22 -> attributes &= ~(StyleConfig.BOLD | StyleConfig.DIM);
+            case 23 -> attributes &= ~StyleConfig.ITALIC;
+            case 24 -> attributes &= ~StyleConfig.UNDERLINED;
+            case 25 -> attributes &= ~BLINK;
+            case 27 -> attributes &= ~StyleConfig.REVERSE;
+            case 28 -> attributes &= ~StyleConfig.HIDE;
+            case 39 -> color = PackedColor.NONE;
+            case 49 -> bgColor = PackedColor.NONE;
+            default -> {
+                if (code >= 30 && code <= 37) color = PackedColor.basic(code - 30);
+                else if (code >= 40 && code <= 47) bgColor = PackedColor.basic(code - 40);
+                else if (code >= 90 && code <= 97) color = PackedColor.basic(code - 90 + 8);
+                else if (code >= 100 && code <= 107) bgColor = PackedColor.basic(code - 100 + 8);
+            }
+        }
+    }
+
+    private void setAttribute(int attribute, boolean on) {
+        attributes = on ? attributes | attribute : attributes & ~attribute;
+    }
+
+    /** Returns the number of semicolon-separated parameters that belong to a 38 or 48 code. */
+    private static int extendedLength(int[] params, int from, int count) {
+        if (from >= count) return 0;
+        return switch (params[from]) {
+            case 2 -> 4;
+            case 5 -> 2;
+            default -> 1;
+        };
+    }
+
+    /**
+     * Decodes the parameters of an extended color, or returns {@link PackedColor#NONE}
+     * if they are incomplete or out of range.
+     */
+    private static int extendedColor(int[] params, int from, int to, boolean colon) {
+        if (from >= to) return PackedColor.NONE;
+
+        int mode = params[from];
+        int length = to - from;
+
+        if (mode == 5 && length >= 2) {
+            int index = params[from + 1];
+            return index <= 255 ? PackedColor.indexed(index) : PackedColor.NONE;
+        }
+        if (mode == 2 && length >= 4) {
+            // The colon form may carry a color space id before the components
+            int first = colon && length >= 5 ? from + 2 : from + 1;
+            int r = params[first];
+            int g = params[first + 1];
+            int b = params[first + 2];
+            return r <= 255 && g <= 255 && b <= 255 ? PackedColor.rgb(r, g, b) : PackedColor.NONE;
+        }
+        return PackedColor.NONE;
+    }
+
+    /** Returns the index after the parameter at {@code i} and its colon sub-parameters. */
+    private static int groupEnd(int i, int count, int colonMask) {
+        int end = i + 1;
+        while (end < count && end < Integer.SIZE && (colonMask >>> end & 1) != 0) {
+            end++;
+        }
+        return end;
+    }
+}
@@ -0,0 +1,147 @@
+package io.github.bitmeshi.stylr.internal;
+
+import io.github.bitmeshi.stylr.Style;
+import io.github.bitmeshi.stylr.internal.jfr.CacheMissEvent;
+
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Internal intern table that maps style configurations to shared {@link Style} instances.
+ * <p>
+ * Configurations are keyed by their {@linkplain StyleConfig#packed() packed form}.
+ * The table uses open addressing over an {@link AtomicReferenceArray}: lookups are
+ * plain volatile reads and new entries are published with a single compare-and-set,
+ * so no lock is ever taken.
+ * <p>
+ * The table has a fixed capacity, which keeps memory bounded when a program generates
+ * many distinct colors (for example gradients). When a key cannot be placed within a
+ * few probes, it replaces the entry in its home slot and the eviction is counted.
+ * <p>
+ * This class is part of the internal API and should not be used directly
+ * by library consumers.
+ *
+ * @since 1.0
+ */
+public final class StyleCache {
+    private static final int CAPACITY = 4096;
+    private static final int MASK = CAPACITY - 1;
+    private static final int MAX_PROBES = 16;
+
+    private static final AtomicReferenceArray<Entry> TABLE = new AtomicReferenceArray<>(CAPACITY);
+    private static final LongAdder HITS = new LongAdder();
+    private static final LongAdder MISSES = new LongAdder();
+    private static final LongAdder EVICTIONS = new LongAdder();
+
+    private record Entry(long key, Style style) {
+    }
+
+    private StyleCache() {
+        throw new IllegalStateException("Utility class cannot be instantiated");
+    }
+
+    /**
+     * Returns the shared {@link Style} for the given configuration, creating it on first use.
+     *
+     * @param config the style configuration
+     * @return a style with a precomputed ANSI prefix for the configuration
+     */
+    public static Style intern(StyleConfig config) {
+        return intern(config.packed(), config);
+    }
+
+    /**
+     * Returns the shared {@link Style} for the given configuration fields, creating it on first use.
+     * <p>
+     * Unlike {@link #intern(StyleConfig)}, a lookup that hits the table does not allocate;
+     * the configuration is only created on a miss.
+     *
+     * @param color the packed foreground color
+     * @param bgColor the packed background color
+     * @param attributes the bit set of text attributes
+     * @return a style with a precomputed ANSI prefix for the configuration
+     */
+    public static Style intern(int color, int bgColor, int attributes) {
+        return intern(StyleConfig.pack(color, bgColor, attributes), null);
+    }
+
+    /** Looks up a packed key; {@code config} is the unpacked key if the caller has it, or null. */
+    private static Style intern(long key, StyleConfig config) {
+        int index = hash(key);
+        Entry created = null;
+
+        for (int probe = 0; probe < MAX_PROBES; probe++) {
+            int slot = (index + probe) & MASK;
+            Entry entry = TABLE.get(slot);
+
+            if (entry == null) {
+                if (created == null) {
+                    MISSES.increment();
+                    created = newEntry(key, config);
+                }
+                if (TABLE.compareAndSet(slot, null, created)) return created.style;
+
+                // Another thread claimed the slot first, possibly for the same key
+                entry = TABLE.get(slot);
+            }
+
+            if (entry.key == key) {
+                if (created == null) HITS.increment();
+                return entry.style;
+            }
+        }
+
+        if (created == null) {
+            MISSES.increment();
+            created = newEntry(key, config);
+        }
+
+        TABLE.set(index & MASK, created);
+        EVICTIONS.increment();
+        return created.style;
+    }
+
+    /**
+     * Returns the number of lookups answered from the table.
+     *
+     * @return the hit count since startup
+     */
+    public static long hits() {
+        return HITS.sum();
+    }
+
+    /**
+     * Returns the number of lookups that had to encode a new style.
+     *
+     * @return the miss count since startup
+     */
+    public static long misses() {
+        return MISSES.sum();
+    }
+
+    /**
+     * Returns the number of entries replaced because their probe sequence was full.
+     *
+     * @return the eviction count since startup
+     */
+    public static long evictions() {
+        return EVICTIONS.sum();
+    }
+
+    private static Entry newEntry(long key, StyleConfig config) {
+        CacheMissEvent event = new CacheMissEvent();
+        event.begin();
+        Entry entry = new Entry(key, StyleFactory.create(config != null ? config : StyleConfig.unpack(key)));
+
+        if (event.shouldCommit()) {
+            event.cache = "style";
+            event.commit();
+        }
+        return entry;
+    }
+
+    private static int hash(long key) {
+        long h = key * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ h >>> 32);
+    }
+}
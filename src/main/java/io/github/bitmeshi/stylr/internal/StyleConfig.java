@@ -1,6 +1,9 @@
 package io.github.bitmeshi.stylr.internal;
 
 import io.github.bitmeshi.stylr.BasicColor;
+import io.github.bitmeshi.stylr.ColorLevel;
+import io.github.bitmeshi.stylr.internal.color.ColorQuantizer;
+import io.github.bitmeshi.stylr.internal.color.PackedColor;
 import io.github.bitmeshi.stylr.internal.color.Rgb;
 
 /**
@@ -10,34 +13,182 @@ import io.github.bitmeshi.stylr.internal.color.Rgb;
  * including colors (basic and RGB), background colors, and text attributes.
  * It is used internally to pass styling information to the ANSI code generator.
  * <p>
+ * Colors are stored in the {@link PackedColor} representation and attributes as a
+ * bit set of the {@code BOLD}..{@code HIDE} flags, so a configuration holds no
+ * object references. Every configuration also has a canonical packed form,
+ * see {@link #packed()}, which makes it a cheap key for interning.
+ * <p>
  * This class is part of the internal API and should not be used directly
  * by library consumers.
  *
- * @param basicColor the basic foreground color, or null if not set
- * @param bgBasicColor the basic background color, or null if not set
- * @param rgbColor the RGB foreground color, or null if not set
- * @param bgRgbColor the RGB background color, or null if not set
- * @param isBold true to apply bold text attribute
- * @param isDim true to apply dim (faint) text attribute
- * @param isItalic true to apply italic text attribute
- * @param isUnderlined true to apply underlined text attribute
- * @param isSlowBlink true to apply slow blink text attribute
- * @param isRapidBlink true to apply rapid blink text attribute
- * @param isReverse true to apply reverse attribute (inverts foreground and background colors)
- * @param isHide true to apply hidden text attribute
+ * @param color the packed foreground color, or {@link PackedColor#NONE} if not set
+ * @param bgColor the packed background color, or {@link PackedColor#NONE} if not set
+ * @param attributes the bit set of text attributes
  * @since 1.0
  */
-public record StyleConfig(
-        BasicColor basicColor,
-        BasicColor bgBasicColor,
-        Rgb rgbColor,
-        Rgb bgRgbColor,
-        boolean isBold,
-        boolean isDim,
-        boolean isItalic,
-        boolean isUnderlined,
-        boolean isSlowBlink,
-        boolean isRapidBlink,
-        boolean isReverse,
-        boolean isHide) {
+public record StyleConfig(int color, int bgColor, int attributes) {
+    /** Bold text attribute (SGR 1). */
+    public static final int BOLD = 1;
+    /** Dim (faint) text attribute (SGR 2). */
+    public static final int DIM = 1 << 1;
+    /** Italic text attribute (SGR 3). */
+    public static final int ITALIC = 1 << 2;
+    /** Underlined text attribute (SGR 4). */
+    public static final int UNDERLINED = 1 << 3;
+    /** Slow blink text attribute (SGR 5). */
+    public static final int SLOW_BLINK = 1 << 4;
+    /** Rapid blink text attribute (SGR 6). */
+    public static final int RAPID_BLINK = 1 << 5;
+    /** Reverse attribute, inverting foreground and background colors (SGR 7). */
+    public static final int REVERSE = 1 << 6;
+    /** Hidden text attribute (SGR 8). */
+    public static final int HIDE = 1 << 7;
+
+    /** The configuration with no colors and no attributes. */
+    public static final StyleConfig EMPTY = new StyleConfig(PackedColor.NONE, PackedColor.NONE, 0);
+
+    private static final int COLOR_BITS = 26;
+    private static final long COLOR_MASK = (1L << COLOR_BITS) - 1;
+    private static final int ATTRIBUTE_SHIFT = 52;
+
+    /**
+     * Creates a configuration from individual color objects and attribute flags.
+     * <p>
+     * An RGB color takes precedence over a basic color for the same layer.
+     *
+     * @param basicColor the basic foreground color, or null if not set
+     * @param bgBasicColor the basic background color, or null if not set
+     * @param rgbColor the RGB foreground color, or null if not set
+     * @param bgRgbColor the RGB background color, or null if not set
+     * @param isBold true to apply bold text attribute
+     * @param isDim true to apply dim (faint) text attribute
+     * @param isItalic true to apply italic text attribute
+     * @param isUnderlined true to apply underlined text attribute
+     * @param isSlowBlink true to apply slow blink text attribute
+     * @param isRapidBlink true to apply rapid blink text attribute
+     * @param isReverse true to apply reverse attribute (inverts foreground and background colors)
+     * @param isHide true to apply hidden text attribute
+     */
+    public StyleConfig(
+            BasicColor basicColor,
+            BasicColor bgBasicColor,
+            Rgb rgbColor,
+            Rgb bgRgbColor,
+            boolean isBold,
+            boolean isDim,
+            boolean isItalic,
+            boolean isUnderlined,
+            boolean isSlowBlink,
+            boolean isRapidBlink,
+            boolean isReverse,
+            boolean isHide) {
+        this(
+                rgbColor != null ? PackedColor.of(rgbColor) : PackedColor.of(basicColor),
+                bgRgbColor != null ? PackedColor.of(bgRgbColor) : PackedColor.of(bgBasicColor),
+                (isBold ? BOLD : 0)
+                        | (isDim ? DIM : 0)
+                        | (isItalic ? ITALIC : 0)
+                        | (isUnderlined ? UNDERLINED : 0)
+                        | (isSlowBlink ? SLOW_BLINK : 0)
+                        | (isRapidBlink ? RAPID_BLINK : 0)
+                        | (isReverse ? REVERSE : 0)
+                        | (isHide ? HIDE : 0)
+        );
+    }
+
+    /**
+     * Returns whether no color and no attribute is configured.
+     *
+     * @return true if this configuration produces no ANSI codes
+     */
+    public boolean isEmpty() {
+        return color == PackedColor.NONE && bgColor == PackedColor.NONE && attributes == 0;
+    }
+
+    /**
+     * Returns whether the given attribute flag is set.
+     *
+     * @param attribute one of the attribute constants, e.g. {@link #BOLD}
+     * @return true if the attribute is set
+     */
+    public boolean has(int attribute) {
+        return (attributes & attribute) != 0;
+    }
+
+    /**
+     * Returns this configuration with another one layered on top.
+     * <p>
+     * Colors set in {@code other} replace the colors of this configuration, and the
+     * attributes of both are combined. This is how nested styles are resolved.
+     *
+     * @param other the configuration to layer on top
+     * @return the combined configuration
+     */
+    public StyleConfig overlay(StyleConfig other) {
+        return new StyleConfig(
+                other.color != PackedColor.NONE ? other.color : color,
+                other.bgColor != PackedColor.NONE ? other.bgColor : bgColor,
+                attributes | other.attributes
+        );
+    }
+
+    /**
+     * Returns this configuration with its colors downsampled to the given level.
+     *
+     * @param level the color level of the output
+     * @return this configuration if no color needs downsampling, otherwise the downsampled copy
+     */
+    public StyleConfig withColorLevel(ColorLevel level) {
+        if (level == ColorLevel.TRUECOLOR) return this;
+
+        int downsampledColor = ColorQuantizer.downsample(color, level);
+        int downsampledBgColor = ColorQuantizer.downsample(bgColor, level);
+        if (downsampledColor == color && downsampledBgColor == bgColor) return this;
+
+        return new StyleConfig(downsampledColor, downsampledBgColor, attributes);
+    }
+
+    /**
+     * Returns the canonical packed encoding of this configuration.
+     * <p>
+     * Layout, from the least significant bit:
+     * <ul>
+     *   <li>bits 0-25: packed foreground color</li>
+     *   <li>bits 26-51: packed background color</li>
+     *   <li>bits 52-59: attributes</li>
+     * </ul>
+     *
+     * @return the packed configuration
+     */
+    public long packed() {
+        return pack(color, bgColor, attributes);
+    }
+
+    /**
+     * Returns the packed encoding of a configuration without creating it.
+     *
+     * @param color the packed foreground color
+     * @param bgColor the packed background color
+     * @param attributes the bit set of text attributes
+     * @return the same value as {@link #packed()} of the equivalent configuration
+     */
+    public static long pack(int color, int bgColor, int attributes) {
+        return (color & COLOR_MASK)
+                | (bgColor & COLOR_MASK) << COLOR_BITS
+                | (long) (attributes & 0xFF) << ATTRIBUTE_SHIFT;
+    }
+
+    /**
+     * Reconstructs a configuration from its packed encoding.
+     *
+     * @param packed a value returned by {@link #packed()}
+     * @return the equivalent configuration
+     */
+    public static StyleConfig unpack(long packed) {
+        return new StyleConfig(
+                (int) (packed & COLOR_MASK),
+                (int) (packed >>> COLOR_BITS & COLOR_MASK),
+                (int) (packed >>> ATTRIBUTE_SHIFT) & 0xFF
+        );
+    }
 }
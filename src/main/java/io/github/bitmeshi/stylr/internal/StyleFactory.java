@@ -0,0 +1,74 @@
+package io.github.bitmeshi.stylr.internal;
+
+import io.github.bitmeshi.stylr.Style;
+
+import java.util.Objects;
+import java.util.function.Function;
+
+/**
+ * Internal access to the package-private {@link Style} constructor that takes a configuration.
+ * <p>
+ * {@link StyleConfig} is not exported, so that constructor cannot be public. This class is
+ * a shared secret in the manner of the JDK's own {@code SharedSecrets}, not an extension
+ * point: only the {@code Style} class initializer may register the constructor, and the
+ * internal {@link StyleCache} creates its styles through {@link #create(StyleConfig)}, which
+ * initializes {@code Style} first so that the registration has always happened.
+ * <p>
+ * This class is part of the internal API and should not be used directly
+ * by library consumers.
+ *
+ * @since 1.0
+ */
+public final class StyleFactory {
+    private static final StackWalker WALKER = StackWalker.getInstance(StackWalker.Option.RETAIN_CLASS_REFERENCE);
+
+    private static volatile Function<StyleConfig, Style> constructor;
+
+    private StyleFactory() {
+        throw new IllegalStateException("Utility class cannot be instantiated");
+    }
+
+    /**
+     * Registers the style constructor. Called once by the {@link Style} class initializer.
+     *
+     * @param styleConstructor the constructor, must not be null
+     * @throws IllegalStateException if the caller is not {@code Style} or a constructor is already registered
+     */
+    public static void register(Function<StyleConfig, Style> styleConstructor) {
+        Objects.requireNonNull(styleConstructor, "Style constructor cannot be null");
+        if (WALKER.getCallerClass() != Style.class) {
+            throw new IllegalStateException("Only Style can register the style constructor");
+        }
+        if (constructor != null) {
+            throw new IllegalStateException("Style constructor is already registered");
+        }
+        constructor = styleConstructor;
+    }
+
+    /**
+     * Creates a new style for a configuration, with its ANSI prefix precomputed.
+     *
+     * @param config the style configuration, must not be null
+     * @return a new style
+     * @throws NullPointerException if config is null
+     */
+    public static Style create(StyleConfig config) {
+        Function<StyleConfig, Style> styleConstructor = constructor;
+        if (styleConstructor == null) {
+            initialize(Style.class);
+            styleConstructor = constructor;
+            if (styleConstructor == null) {
+                throw new IllegalStateException("Style constructor is not registered");
+            }
+        }
+        return styleConstructor.apply(config);
+    }
+
+    private static void initialize(Class<?> type) {
+        try {
+            Class.forName(type.getName(), true, type.getClassLoader());
+        } catch (ClassNotFoundException e) {
+            throw new IllegalStateException("Cannot initialize " + type.getName(), e);
+        }
+    }
+}
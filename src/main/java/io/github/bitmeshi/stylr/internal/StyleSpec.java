@@ -0,0 +1,147 @@
+package io.github.bitmeshi.stylr.internal;
+
+import io.github.bitmeshi.stylr.BasicColor;
+import io.github.bitmeshi.stylr.internal.color.PackedColor;
+import io.github.bitmeshi.stylr.internal.color.Rgb;
+
+import java.util.Locale;
+
+/**
+ * Internal parser for textual style specifications such as {@code "bold red on #202020"}.
+ * <p>
+ * A specification is a whitespace-separated list of words, matched case-insensitively:
+ * <ul>
+ *   <li>attributes: {@code bold}, {@code dim}, {@code italic}, {@code underline},
+ *       {@code blink}, {@code rapid_blink}, {@code reverse} and {@code hidden}</li>
+ *   <li>colors: a {@link BasicColor} name such as {@code red} or {@code bright_cyan}
+ *       ({@code -} may be used instead of {@code _}), a hex color such as {@code #888}
+ *       or {@code #FF8000}, {@code rgb(r,g,b)} or a 256-color palette index {@code color(n)}</li>
+ *   <li>{@code on}, which makes the following color the background color</li>
+ * </ul>
+ * <p>
+ * This class is part of the internal API and should not be used directly
+ * by library consumers.
+ *
+ * @since 1.0
+ */
+public final class StyleSpec {
+    private StyleSpec() {
+        throw new IllegalStateException("Utility class cannot be instantiated");
+    }
+
+    /**
+     * Parses a style specification.
+     *
+     * @param spec the specification, must not be null
+     * @return the configuration it describes
+     * @throws IllegalArgumentException if a word is not a known attribute or color
+     */
+    public static StyleConfig parse(String spec) {
+        int color = PackedColor.NONE;
+        int bgColor = PackedColor.NONE;
+        int attributes = 0;
+        boolean background = false;
+
+        int length = spec.length();
+        int i = 0;
+        while (i < length) {
+            if (Character.isWhitespace(spec.charAt(i))) {
+                i++;
+                continue;
+            }
+
+            int end = wordEnd(spec, i);
+            String word = spec.substring(i, end).toLowerCase(Locale.ROOT);
+            i = end;
+
+            if (word.equals("on")) {
+                if (background) throw new IllegalArgumentException("Expected a color after 'on' in style: " + spec);
+                background = true;
+                continue;
+            }
+
+            int attribute = attribute(word);
+            if (attribute != 0 && !background) {
+                attributes |= attribute;
+                continue;
+            }
+
+            int parsed = color(word, spec);
+            if (background) {
+                bgColor = parsed;
+                background = false;
+            } else {
+                color = parsed;
+            }
+        }
+
+        if (background) throw new IllegalArgumentException("Expected a color after 'on' in style: " + spec);
+        return new StyleConfig(color, bgColor, attributes);
+    }
+
+    /** Returns the end of the word at {@code start}; parentheses may contain whitespace. */
+    private static int wordEnd(String spec, int start) {
+        int depth = 0;
+        int i = start;
+
+        for (; i < spec.length(); i++) {
+            char c = spec.charAt(i);
+            if (c == '(') depth++;
+            else if (c == ')') depth--;
+            else if (depth <= 0 && Character.isWhitespace(c)) break;
+        }
+        return i;
+    }
+
+    private static int attribute(String word) {
+        return switch (word) {
+            case "bold" -> StyleConfig.BOLD;
+            case "dim" -> StyleConfig.DIM;
+            case "italic" -> StyleConfig.ITALIC;
+            case "underline", "underlined" -> StyleConfig.UNDERLINED;
+            case "blink", "slow_blink" -> StyleConfig.SLOW_BLINK;
+            case "rapid_blink" -> StyleConfig.RAPID_BLINK;
+            case "reverse" -> StyleConfig.REVERSE;
+            case "hide", "hidden" -> StyleConfig.HIDE;
+            default -> 0;
+        };
+    }
+
+    private static int color(String word, String spec) {
+        if (word.startsWith("#")) {
+            long rgb = Rgb.tryParseHex(word);
+            if (rgb >= 0) return PackedColor.rgb((int) rgb & 0xFFFFFF);
+        } else if (word.startsWith("rgb(") && word.endsWith(")")) {
+            String[] parts = word.substring(4, word.length() - 1).split(",");
+            if (parts.length == 3) {
+                int r = component(parts[0]);
+                int g = component(parts[1]);
+                int b = component(parts[2]);
+                if (r >= 0 && g >= 0 && b >= 0) return PackedColor.rgb(r, g, b);
+            }
+        } else if (word.startsWith("color(") && word.endsWith(")")) {
+            int index = component(word.substring(6, word.length() - 1));
+            if (index >= 0) return PackedColor.indexed(index);
+        } else {
+            for (BasicColor basic : BasicColor.values()) {
+                if (basic.name().equalsIgnoreCase(word.replace('-', '_'))) return PackedColor.basic(basic);
+            }
+        }
+
+        throw new IllegalArgumentException("Unknown style '" + word + "' in: " + spec);
+    }
+
+    /** Parses a number between 0 and 255, or returns -1. */
+    private static int component(String text) {
+        String trimmed = text.trim();
+        if (trimmed.isEmpty() || trimmed.length() > 3) return -1;
+
+        int value = 0;
+        for (int i = 0; i < trimmed.length(); i++) {
+            char c = trimmed.charAt(i);
+            if (c < '0' || c > '9') return -1;
+            value = value * 10 + (c - '0');
+        }
+        return value <= 255 ? value : -1;
+    }
+}
@@ -0,0 +1,136 @@
+package io.github.bitmeshi.stylr.internal;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Internal allocation-free UTF-8 encoder for {@link CharSequence} input.
+ * <p>
+ * Unlike {@link java.nio.charset.CharsetEncoder}, these methods keep no state and
+ * create no intermediate buffers, so they can be used on hot write paths.
+ * Unpaired surrogates are encoded as {@code '?'}, matching {@link String#getBytes}.
+ * <p>
+ * This class is part of the internal API and should not be used directly
+ * by library consumers.
+ *
+ * @since 1.0
+ */
+public final class Utf8 {
+    private Utf8() {
+        throw new IllegalStateException("Utility class cannot be instantiated");
+    }
+
+    /**
+     * Returns the number of bytes needed to encode a range of chars as UTF-8.
+     *
+     * @param text the chars to measure
+     * @param start the index of the first char
+     * @param end the index after the last char
+     * @return the encoded length in bytes
+     */
+    public static int encodedLength(CharSequence text, int start, int end) {
+        int length = end - start;
+
+        for (int i = start; i < end; i++) {
+            char c = text.charAt(i);
+            if (c < 0x80) continue;
+
+            if (c < 0x800) {
+                length += 1;
+            } else if (Character.isHighSurrogate(c) && i + 1 < end && Character.isLowSurrogate(text.charAt(i + 1))) {
+                length += 2;
+                i++;
+            } else if (!Character.isSurrogate(c)) {
+                length += 2;
+            }
+        }
+
+        return length;
+    }
+
+    /**
+     * Encodes a range of chars as UTF-8 into a byte array.
+     * <p>
+     * The caller must ensure there is room for {@link #encodedLength} bytes.
+     *
+     * @param text the chars to encode
+     * @param start the index of the first char
+     * @param end the index after the last char
+     * @param dst the destination array
+     * @param offset the index at which to start writing
+     * @return the index just past the last written byte
+     */
+    public static int encode(CharSequence text, int start, int end, byte[] dst, int offset) {
+        int pos = offset;
+
+        for (int i = start; i < end; i++) {
+            char c = text.charAt(i);
+
+            if (c < 0x80) {
+                dst[pos++] = (byte) c;
+            } else if (c < 0x800) {
+                dst[pos++] = (byte) (0xC0 | c >> 6);
+                dst[pos++] = (byte) (0x80 | c & 0x3F);
+            } else if (Character.isSurrogate(c)) {
+                if (Character.isHighSurrogate(c) && i + 1 < end && Character.isLowSurrogate(text.charAt(i + 1))) {
+                    int codePoint = Character.toCodePoint(c, text.charAt(++i));
+                    dst[pos++] = (byte) (0xF0 | codePoint >> 18);
+                    dst[pos++] = (byte) (0x80 | codePoint >> 12 & 0x3F);
+                    dst[pos++] = (byte) (0x80 | codePoint >> 6 & 0x3F);
+                    dst[pos++] = (byte) (0x80 | codePoint & 0x3F);
+                } else {
+                    dst[pos++] = '?';
+                }
+            } else {
+                dst[pos++] = (byte) (0xE0 | c >> 12);
+                dst[pos++] = (byte) (0x80 | c >> 6 & 0x3F);
+                dst[pos++] = (byte) (0x80 | c & 0x3F);
+            }
+        }
+
+        return pos;
+    }
+
+    /**
+     * Encodes a range of chars as UTF-8 into a byte buffer.
+     * <p>
+     * The caller must ensure there are {@link #encodedLength} bytes remaining.
+     *
+     * @param text the chars to encode
+     * @param start the index of the first char
+     * @param end the index after the last char
+     * @param dst the destination buffer, advanced past the written bytes
+     */
+    public static void encode(CharSequence text, int start, int end, ByteBuffer dst) {
+        if (dst.hasArray()) {
+            int offset = dst.arrayOffset() + dst.position();
+            int pos = encode(text, start, end, dst.array(), offset);
+            dst.position(dst.position() + pos - offset);
+            return;
+        }
+
+        for (int i = start; i < end; i++) {
+            char c = text.charAt(i);
+
+            if (c < 0x80) {
+                dst.put((byte) c);
+            } else if (c < 0x800) {
+                dst.put((byte) (0xC0 | c >> 6));
+                dst.put((byte) (0x80 | c & 0x3F));
+            } else if (Character.isSurrogate(c)) {
+                if (Character.isHighSurrogate(c) && i + 1 < end && Character.isLowSurrogate(text.charAt(i + 1))) {
+                    int codePoint = Character.toCodePoint(c, text.charAt(++i));
+                    dst.put((byte) (0xF0 | codePoint >> 18));
+                    dst.put((byte) (0x80 | codePoint >> 12 & 0x3F));
+                    dst.put((byte) (0x80 | codePoint >> 6 & 0x3F));
+                    dst.put((byte) (0x80 | codePoint & 0x3F));
+                } else {
+                    dst.put((byte) '?');
+                }
+            } else {
+                dst.put((byte) (0xE0 | c >> 12));
+                dst.put((byte) (0x80 | c >> 6 & 0x3F));
+                dst.put((byte) (0x80 | c & 0x3F));
+            }
+        }
+    }
+}
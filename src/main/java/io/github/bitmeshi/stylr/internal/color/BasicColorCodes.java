@@ -0,0 +1,86 @@
+package io.github.bitmeshi.stylr.internal.color;
+
+import io.github.bitmeshi.stylr.BasicColor;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Precomputed ANSI codes for every {@link BasicColor}, indexed by ordinal.
+ * <p>
+ * The tables are filled once at class initialization from
+ * {@link BasicColor#getAnsiCode(boolean)}, so encoders can emit basic colors
+ * with a single array load instead of calling into the enum or formatting numbers.
+ * <p>
+ * This class is part of the internal API and should not be used directly
+ * by library consumers.
+ *
+ * @since 1.0
+ */
+public final class BasicColorCodes {
+    private static final BasicColor[] COLORS = BasicColor.values();
+
+    private static final int[] FOREGROUND = new int[COLORS.length];
+    private static final int[] BACKGROUND = new int[COLORS.length];
+    private static final byte[][] FOREGROUND_BYTES = new byte[COLORS.length][];
+    private static final byte[][] BACKGROUND_BYTES = new byte[COLORS.length][];
+
+    static {
+        for (BasicColor color : COLORS) {
+            int ordinal = color.ordinal();
+            String foreground = color.getAnsiCode(false);
+            String background = color.getAnsiCode(true);
+
+            FOREGROUND[ordinal] = Integer.parseInt(foreground);
+            BACKGROUND[ordinal] = Integer.parseInt(background);
+            FOREGROUND_BYTES[ordinal] = foreground.getBytes(StandardCharsets.UTF_8);
+            BACKGROUND_BYTES[ordinal] = background.getBytes(StandardCharsets.UTF_8);
+        }
+    }
+
+    private BasicColorCodes() {
+        throw new IllegalStateException("Utility class cannot be instantiated");
+    }
+
+    /**
+     * Returns the number of basic colors.
+     *
+     * @return the size of the ordinal index space
+     */
+    public static int count() {
+        return COLORS.length;
+    }
+
+    /**
+     * Returns the basic color with the given ordinal.
+     *
+     * @param ordinal the ordinal of the color
+     * @return the corresponding {@link BasicColor}
+     */
+    public static BasicColor color(int ordinal) {
+        return COLORS[ordinal];
+    }
+
+    /**
+     * Returns the numeric SGR code for the basic color with the given ordinal.
+     *
+     * @param ordinal the ordinal of the color
+     * @param isBackground if true, returns the background code; otherwise, foreground
+     * @return the SGR code (30-37, 40-47, 90-97 or 100-107)
+     */
+    public static int code(int ordinal, boolean isBackground) {
+        return isBackground ? BACKGROUND[ordinal] : FOREGROUND[ordinal];
+    }
+
+    /**
+     * Returns the UTF-8 bytes of the SGR code for the basic color with the given ordinal.
+     * <p>
+     * The returned array is shared and must not be modified.
+     *
+     * @param ordinal the ordinal of the color
+     * @param isBackground if true, returns the background code; otherwise, foreground
+     * @return the code as UTF-8 bytes
+     */
+    public static byte[] codeBytes(int ordinal, boolean isBackground) {
+        return isBackground ? BACKGROUND_BYTES[ordinal] : FOREGROUND_BYTES[ordinal];
+    }
+}
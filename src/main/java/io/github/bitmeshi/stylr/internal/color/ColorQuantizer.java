@@ -0,0 +1,175 @@
+package io.github.bitmeshi.stylr.internal.color;
+
+import io.github.bitmeshi.stylr.ColorLevel;
+
+/**
+ * Maps packed colors to the nearest color available at a lower {@link ColorLevel}.
+ * <p>
+ * Two quantization tables with one entry per 15-bit color (5 bits per channel) are
+ * computed once at class initialization: one holding the nearest xterm 256-color
+ * palette index and one holding the nearest basic color ordinal. Downsampling an RGB
+ * color therefore costs a shift and a single array load. Nearness is the squared
+ * Euclidean distance in RGB space, measured from the center of each 15-bit cell.
+ * <p>
+ * Only the 6x6x6 color cube and the gray ramp (indices 16-255) are used as 256-color
+ * targets, because terminals let users redefine the first 16 palette entries.
+ * The basic colors are matched against the default xterm palette.
+ * <p>
+ * This class is part of the internal API and should not be used directly
+ * by library consumers.
+ *
+ * @since 1.0
+ */
+public final class ColorQuantizer {
+    /** Channel levels of the 6x6x6 color cube (indices 16-231). */
+    private static final int[] CUBE_LEVELS = {0, 95, 135, 175, 215, 255};
+
+    /** Default xterm RGB values of the 16 basic colors, in {@link io.github.bitmeshi.stylr.BasicColor} order. */
+    private static final int[] BASIC_PALETTE = {
+            0x000000, 0xCD0000, 0x00CD00, 0xCDCD00, 0x0000EE, 0xCD00CD, 0x00CDCD, 0xE5E5E5,
+            0x7F7F7F, 0xFF0000, 0x00FF00, 0xFFFF00, 0x5C5CFF, 0xFF00FF, 0x00FFFF, 0xFFFFFF
+    };
+
+    private static final int TABLE_SIZE = 1 << 15;
+    private static final byte[] TO_INDEXED = new byte[TABLE_SIZE];
+    private static final byte[] TO_BASIC = new byte[TABLE_SIZE];
+
+    /** Nearest cube level for each channel value. */
+    private static final byte[] NEAREST_LEVEL = new byte[256];
+
+    static {
+        for (int value = 0; value < 256; value++) {
+            int best = 0;
+            for (int level = 1; level < CUBE_LEVELS.length; level++) {
+                if (Math.abs(CUBE_LEVELS[level] - value) < Math.abs(CUBE_LEVELS[best] - value)) best = level;
+            }
+            NEAREST_LEVEL[value] = (byte) best;
+        }
+
+        for (int key = 0; key < TABLE_SIZE; key++) {
+            int r = (key >>> 10 & 0x1F) << 3 | 4;
+            int g = (key >>> 5 & 0x1F) << 3 | 4;
+            int b = (key & 0x1F) << 3 | 4;
+
+            TO_INDEXED[key] = (byte) nearestIndexed(r, g, b);
+            TO_BASIC[key] = (byte) nearestBasic(r, g, b);
+        }
+    }
+
+    private ColorQuantizer() {
+        throw new IllegalStateException("Utility class cannot be instantiated");
+    }
+
+    /**
+     * Downsamples a packed color to the given level.
+     * <p>
+     * Colors the level can already show are returned unchanged.
+     *
+     * @param color the packed color
+     * @param level the target color level
+     * @return the packed color to emit, or {@link PackedColor#NONE} at {@link ColorLevel#NONE}
+     */
+    public static int downsample(int color, ColorLevel level) {
+        int kind = PackedColor.kind(color);
+
+        switch (level) {
+            case TRUECOLOR:
+                return color;
+            case ANSI_256:
+                return kind == PackedColor.KIND_RGB ? PackedColor.indexed(toIndexed(PackedColor.value(color))) : color;
+            case ANSI_16:
+                if (kind == PackedColor.KIND_RGB) {
+                    return PackedColor.basic(toBasic(PackedColor.value(color)));
+                }
+                if (kind == PackedColor.KIND_INDEXED) {
+                    int index = PackedColor.value(color);
+                    return PackedColor.basic(index < 16 ? index : toBasic(indexedToRgb(index)));
+                }
+                return color;
+            default:
+                return PackedColor.NONE;
+        }
+    }
+
+    /**
+     * Returns the nearest xterm 256-color palette index for a 24-bit color.
+     *
+     * @param rgb24 the color as {@code 0xRRGGBB}
+     * @return a palette index between 16 and 255
+     */
+    public static int toIndexed(int rgb24) {
+        return TO_INDEXED[key(rgb24)] & 0xFF;
+    }
+
+    /**
+     * Returns the nearest basic color for a 24-bit color.
+     *
+     * @param rgb24 the color as {@code 0xRRGGBB}
+     * @return the ordinal of the nearest {@link io.github.bitmeshi.stylr.BasicColor}
+     */
+    public static int toBasic(int rgb24) {
+        return TO_BASIC[key(rgb24)];
+    }
+
+    /**
+     * Returns the RGB value of an xterm 256-color palette index, using the
+     * default xterm colors for indices 0-15.
+     *
+     * @param index the palette index (0-255)
+     * @return the color as {@code 0xRRGGBB}
+     */
+    public static int indexedToRgb(int index) {
+        if (index < 16) return BASIC_PALETTE[index];
+
+        if (index < 232) {
+            int cube = index - 16;
+            return CUBE_LEVELS[cube / 36] << 16 | CUBE_LEVELS[cube / 6 % 6] << 8 | CUBE_LEVELS[cube % 6];
+        }
+
+        int gray = 8 + (index - 232) * 10;
+        return gray << 16 | gray << 8 | gray;
+    }
+
+    private static int key(int rgb24) {
+        return (rgb24 >>> 9 & 0x7C00) | (rgb24 >>> 6 & 0x3E0) | (rgb24 >>> 3 & 0x1F);
+    }
+
+    private static int nearestIndexed(int r, int g, int b) {
+        // Squared distance is separable, so the nearest cube entry is the nearest level per channel
+        int cube = 16 + 36 * NEAREST_LEVEL[r] + 6 * NEAREST_LEVEL[g] + NEAREST_LEVEL[b];
+        int best = cube;
+        int bestDistance = distance(indexedToRgb(cube), r, g, b);
+
+        for (int index = 232; index < 256; index++) {
+            int d = distance(indexedToRgb(index), r, g, b);
+            if (d < bestDistance) {
+                best = index;
+                bestDistance = d;
+            }
+        }
+
+        return best;
+    }
+
+    private static int nearestBasic(int r, int g, int b) {
+        int best = 0;
+        int bestDistance = Integer.MAX_VALUE;
+
+        for (int ordinal = 0; ordinal < BASIC_PALETTE.length; ordinal++) {
+            int d = distance(BASIC_PALETTE[ordinal], r, g, b);
+            if (d < bestDistance) {
+                best = ordinal;
+                bestDistance = d;
+            }
+        }
+
+        return best;
+    }
+
+    private static int distance(int rgb24, int r, int g, int b) {
+        int dr = (rgb24 >>> 16 & 0xFF) - r;
+        int dg = (rgb24 >>> 8 & 0xFF) - g;
+        int db = (rgb24 & 0xFF) - b;
+        return dr * dr + dg * dg + db * db;
+    }
+}
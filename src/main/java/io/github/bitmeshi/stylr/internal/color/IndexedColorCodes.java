@@ -0,0 +1,62 @@
+package io.github.bitmeshi.stylr.internal.color;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Precomputed SGR parameters for every entry of the xterm 256-color palette.
+ * <p>
+ * The complete {@code 38;5;n} and {@code 48;5;n} parameter strings and their bytes are
+ * built once at class initialization, so encoders can emit a palette color by copying
+ * a shared array instead of formatting three numbers.
+ * <p>
+ * This class is part of the internal API and should not be used directly
+ * by library consumers.
+ *
+ * @since 1.0
+ */
+public final class IndexedColorCodes {
+    /** Number of entries in the palette. */
+    public static final int COUNT = 256;
+
+    private static final String[] FOREGROUND = new String[COUNT];
+    private static final String[] BACKGROUND = new String[COUNT];
+    private static final byte[][] FOREGROUND_BYTES = new byte[COUNT][];
+    private static final byte[][] BACKGROUND_BYTES = new byte[COUNT][];
+
+    static {
+        for (int index = 0; index < COUNT; index++) {
+            FOREGROUND[index] = "38;5;" + index;
+            BACKGROUND[index] = "48;5;" + index;
+            FOREGROUND_BYTES[index] = FOREGROUND[index].getBytes(StandardCharsets.US_ASCII);
+            BACKGROUND_BYTES[index] = BACKGROUND[index].getBytes(StandardCharsets.US_ASCII);
+        }
+    }
+
+    private IndexedColorCodes() {
+        throw new IllegalStateException("Utility class cannot be instantiated");
+    }
+
+    /**
+     * Returns the SGR parameters for the palette entry with the given index.
+     *
+     * @param index the palette index (0-255)
+     * @param isBackground if true, returns the background parameters; otherwise, foreground
+     * @return the parameters, e.g. {@code "38;5;208"}
+     */
+    public static String code(int index, boolean isBackground) {
+        return isBackground ? BACKGROUND[index] : FOREGROUND[index];
+    }
+
+    /**
+     * Returns the US-ASCII bytes of the SGR parameters for the palette entry with the given index.
+     * <p>
+     * The returned array is shared and must not be modified.
+     *
+     * @param index the palette index (0-255)
+     * @param isBackground if true, returns the background parameters; otherwise, foreground
+     * @return the parameters as bytes
+     */
+    public static byte[] codeBytes(int index, boolean isBackground) {
+        return isBackground ? BACKGROUND_BYTES[index] : FOREGROUND_BYTES[index];
+    }
+}
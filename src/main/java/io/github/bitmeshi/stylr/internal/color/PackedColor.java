@@ -0,0 +1,176 @@
+package io.github.bitmeshi.stylr.internal.color;
+
+import io.github.bitmeshi.stylr.BasicColor;
+
+/**
+ * Helpers for the packed {@code int} color representation used throughout the internals.
+ * <p>
+ * A packed color stores a 2-bit kind in bits 24-25 and a 24-bit value below it:
+ * <ul>
+ *   <li>{@link #KIND_NONE}: no color; the whole int is {@link #NONE}</li>
+ *   <li>{@link #KIND_BASIC}: the value is a {@link BasicColor} ordinal</li>
+ *   <li>{@link #KIND_RGB}: the value is {@code 0xRRGGBB}</li>
+ *   <li>{@link #KIND_INDEXED}: the value is an xterm 256-color palette index</li>
+ * </ul>
+ * Using primitives instead of {@link Rgb} records lets builders and encoders handle
+ * colors without allocating.
+ * <p>
+ * This class is part of the internal API and should not be used directly
+ * by library consumers.
+ *
+ * @since 1.0
+ */
+public final class PackedColor {
+    /** Kind of the packed value when no color is set. */
+    public static final int KIND_NONE = 0;
+    /** Kind of a packed {@link BasicColor}. */
+    public static final int KIND_BASIC = 1;
+    /** Kind of a packed 24-bit RGB color. */
+    public static final int KIND_RGB = 2;
+    /** Kind of a packed xterm 256-color palette index. */
+    public static final int KIND_INDEXED = 3;
+
+    /** The packed representation of "no color". */
+    public static final int NONE = 0;
+
+    private static final int KIND_SHIFT = 24;
+    private static final int VALUE_MASK = 0xFFFFFF;
+
+    private PackedColor() {
+        throw new IllegalStateException("Utility class cannot be instantiated");
+    }
+
+    /**
+     * Packs a basic color.
+     *
+     * @param color the basic color
+     * @return the packed color
+     */
+    public static int basic(BasicColor color) {
+        return KIND_BASIC << KIND_SHIFT | color.ordinal();
+    }
+
+    /**
+     * Packs a basic color given by its ordinal.
+     *
+     * @param ordinal the {@link BasicColor} ordinal
+     * @return the packed color
+     */
+    public static int basic(int ordinal) {
+        return KIND_BASIC << KIND_SHIFT | ordinal;
+    }
+
+    /**
+     * Packs a 24-bit RGB color.
+     *
+     * @param rgb24 the color as {@code 0xRRGGBB}
+     * @return the packed color
+     * @throws IllegalArgumentException if the value is outside 0x000000-0xFFFFFF
+     */
+    public static int rgb(int rgb24) {
+        if ((rgb24 & ~VALUE_MASK) != 0) {
+            throw new IllegalArgumentException("RGB value must be between 0x000000 and 0xFFFFFF");
+        }
+        return KIND_RGB << KIND_SHIFT | rgb24;
+    }
+
+    /**
+     * Packs an RGB color from its components.
+     *
+     * @param r the red component (0-255)
+     * @param g the green component (0-255)
+     * @param b the blue component (0-255)
+     * @return the packed color
+     * @throws IllegalArgumentException if any component is outside the range 0-255
+     */
+    public static int rgb(int r, int g, int b) {
+        if ((r | g | b) >>> 8 != 0) {
+            throw new IllegalArgumentException("RGB values must be between 0 and 255");
+        }
+        return KIND_RGB << KIND_SHIFT | r << 16 | g << 8 | b;
+    }
+
+    /**
+     * Packs an xterm 256-color palette index.
+     *
+     * @param index the palette index (0-255)
+     * @return the packed color
+     * @throws IllegalArgumentException if the index is outside the range 0-255
+     */
+    public static int indexed(int index) {
+        if (index >>> 8 != 0) {
+            throw new IllegalArgumentException("Color index must be between 0 and 255");
+        }
+        return KIND_INDEXED << KIND_SHIFT | index;
+    }
+
+    /**
+     * Packs an {@link Rgb} record, or returns {@link #NONE} for null.
+     *
+     * @param rgb the color, may be null
+     * @return the packed color
+     */
+    public static int of(Rgb rgb) {
+        return rgb == null ? NONE : rgb(rgb.r(), rgb.g(), rgb.b());
+    }
+
+    /**
+     * Packs a {@link BasicColor}, or returns {@link #NONE} for null.
+     *
+     * @param color the color, may be null
+     * @return the packed color
+     */
+    public static int of(BasicColor color) {
+        return color == null ? NONE : basic(color);
+    }
+
+    /**
+     * Returns the kind of a packed color.
+     *
+     * @param color the packed color
+     * @return one of the {@code KIND_*} constants
+     */
+    public static int kind(int color) {
+        return color >>> KIND_SHIFT;
+    }
+
+    /**
+     * Returns the 24-bit value of a packed color.
+     *
+     * @param color the packed color
+     * @return the basic color ordinal, {@code 0xRRGGBB} or palette index, depending on the kind
+     */
+    public static int value(int color) {
+        return color & VALUE_MASK;
+    }
+
+    /**
+     * Returns the red component of a packed RGB color.
+     *
+     * @param color the packed color
+     * @return the red component (0-255)
+     */
+    public static int red(int color) {
+        return color >>> 16 & 0xFF;
+    }
+
+    /**
+     * Returns the green component of a packed RGB color.
+     *
+     * @param color the packed color
+     * @return the green component (0-255)
+     */
+    public static int green(int color) {
+        return color >>> 8 & 0xFF;
+    }
+
+    /**
+     * Returns the blue component of a packed RGB color.
+     *
+     * @param color the packed color
+     * @return the blue component (0-255)
+     */
+    public static int blue(int color) {
+        return color & 0xFF;
+    }
+}
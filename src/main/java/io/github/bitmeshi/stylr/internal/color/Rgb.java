@@ -22,13 +22,31 @@ public record Rgb(int r, int g, int b) {
         }
     }
 
+    /**
+     * Value of each ASCII char as a hexadecimal digit, or -1 if it is not one.
+     */
+    private static final byte[] NIBBLES = new byte[128];
+
+    static {
+        java.util.Arrays.fill(NIBBLES, (byte) -1);
+        for (int i = 0; i < 10; i++) NIBBLES['0' + i] = (byte) i;
+        for (int i = 0; i < 6; i++) {
+            NIBBLES['a' + i] = (byte) (10 + i);
+            NIBBLES['A' + i] = (byte) (10 + i);
+        }
+    }
+
+    private static final long INVALID_FORMAT = -1;
+    private static final long INVALID_VALUE = -2;
+
     /**
      * Creates an RGB color from a hexadecimal color string.
      * <p>
-     * Supports both 3-digit and 6-digit hexadecimal formats:
+     * Supports the following formats, each with or without the leading {@code #}:
      * <ul>
      *   <li>3-digit: {@code #RGB} (each digit is doubled, e.g., #F00 = #FF0000)</li>
      *   <li>6-digit: {@code #RRGGBB}</li>
+     *   <li>8-digit: {@code #RRGGBBAA} (the alpha channel is parsed but terminals ignore it)</li>
      * </ul>
      *
      * @param hex the hexadecimal color string (e.g., "#FF0000" or "#F00")
@@ -36,36 +54,84 @@ public record Rgb(int r, int g, int b) {
      * @throws IllegalArgumentException if the format is invalid or contains non-hex characters
      */
     public static Rgb fromHex(String hex) throws IllegalArgumentException {
-        if (!hex.startsWith("#") || (hex.length() != 4 && hex.length() != 7)) {
+        int argb = parseHex(hex);
+        return new Rgb(argb >>> 16 & 0xFF, argb >>> 8 & 0xFF, argb & 0xFF);
+    }
+
+    /**
+     * Parses a hexadecimal color into a packed {@code 0xAARRGGBB} int.
+     * <p>
+     * Accepts the same formats as {@link #fromHex(String)}. Colors without an alpha
+     * component are fully opaque ({@code AA = 0xFF}). This method does not allocate
+     * unless it throws.
+     *
+     * @param hex the hexadecimal color, must not be null
+     * @return the packed color
+     * @throws NullPointerException if hex is null
+     * @throws IllegalArgumentException if the format is invalid or contains non-hex characters
+     */
+    public static int parseHex(CharSequence hex) {
+        long result = parse(hex);
+
+        if (result == INVALID_FORMAT) {
             throw new IllegalArgumentException("Invalid hexadecimal color format, expected #RGB or #RRGGBB. Got: " + hex);
         }
-
-        // Validate that all characters after # are valid hexadecimal characters (0-9, a-f, A-F)
-        String hexPart = hex.substring(1);
-        if (!hexPart.matches("[0-9a-fA-F]+")) {
+        if (result == INVALID_VALUE) {
             throw new IllegalArgumentException("Invalid hexadecimal color value: " + hex);
         }
 
-        if (hex.length() == 4) {
-            char red = hex.charAt(1);
-            char green = hex.charAt(2);
-            char blue = hex.charAt(3);
+        return (int) result;
+    }
+
+    /**
+     * Parses a hexadecimal color without throwing on invalid input.
+     * <p>
+     * Accepts the same formats as {@link #fromHex(String)}. Intended for validation
+     * paths where invalid input is expected and exceptions would be too costly.
+     *
+     * @param hex the hexadecimal color, must not be null
+     * @return the packed {@code 0xAARRGGBB} color as a non-negative long, or a negative
+     *         value if the input is not a valid hexadecimal color
+     * @throws NullPointerException if hex is null
+     */
+    public static long tryParseHex(CharSequence hex) {
+        long result = parse(hex);
+        return result < 0 ? -1 : result;
+    }
+
+    /**
+     * Parses the digits of a hexadecimal color.
+     *
+     * @return the color as an unsigned {@code 0xAARRGGBB} value, or {@link #INVALID_FORMAT}
+     *         or {@link #INVALID_VALUE}
+     */
+    private static long parse(CharSequence hex) {
+        int length = hex.length();
+        int start = length > 0 && hex.charAt(0) == '#' ? 1 : 0;
+        int digits = length - start;
 
-            int r = Integer.parseInt("" + red + red, 16);
-            int g = Integer.parseInt("" + green + green, 16);
-            int b = Integer.parseInt("" + blue + blue, 16);
+        if (digits != 3 && digits != 6 && digits != 8) return INVALID_FORMAT;
 
-            return new Rgb(r, g, b);
+        int value = 0;
+        for (int i = start; i < length; i++) {
+            char c = hex.charAt(i);
+            int nibble = c < 128 ? NIBBLES[c] : -1;
+            if (nibble < 0) return INVALID_VALUE;
+            value = value << 4 | nibble;
         }
 
-        String red = hex.substring(1, 3);
-        String green = hex.substring(3, 5);
-        String blue = hex.substring(5, 7);
+        if (digits == 3) {
+            int r = value >>> 8 & 0xF;
+            int g = value >>> 4 & 0xF;
+            int b = value & 0xF;
+            return 0xFF000000L | (r * 0x11) << 16 | (g * 0x11) << 8 | b * 0x11;
+        }
 
-        int r = Integer.parseInt(red, 16);
-        int g = Integer.parseInt(green, 16);
-        int b = Integer.parseInt(blue, 16);
+        if (digits == 6) {
+            return 0xFF000000L | value;
+        }
 
-        return new Rgb(r, g, b);
+        // RRGGBBAA -> AARRGGBB
+        return (value & 0xFFL) << 24 | value >>> 8;
     }
 }
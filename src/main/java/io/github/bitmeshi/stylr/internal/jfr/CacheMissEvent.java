@@ -0,0 +1,40 @@
+package io.github.bitmeshi.stylr.internal.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * JDK Flight Recorder event for a cache lookup that had to compute its value.
+ * <p>
+ * The duration of the event is the time spent encoding or rendering the missing value.
+ * Disabled by default; enable it with {@code jfr configure} or a recording setting for
+ * {@value #NAME}.
+ * <p>
+ * This class is part of the internal API and should not be used directly
+ * by library consumers.
+ *
+ * @since 1.0
+ */
+@Name(CacheMissEvent.NAME)
+@Label("Stylr Cache Miss")
+@Category("Stylr")
+@Description("A style or render cache lookup that had to compute its value")
+@Enabled(false)
+@StackTrace(false)
+public final class CacheMissEvent extends Event {
+    /** The event name used in recordings. */
+    public static final String NAME = "io.github.bitmeshi.stylr.CacheMiss";
+
+    /** The cache that missed: {@code "style"} or {@code "render"}. */
+    @Label("Cache")
+    public String cache;
+
+    /** The length of the rendered key, or 0 for the style cache. */
+    @Label("Key Length")
+    public int keyLength;
+}
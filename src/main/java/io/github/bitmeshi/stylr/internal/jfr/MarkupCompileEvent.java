@@ -0,0 +1,39 @@
+package io.github.bitmeshi.stylr.internal.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * JDK Flight Recorder event for parsing a markup string.
+ * <p>
+ * The duration of the event is the time spent parsing and encoding. Disabled by default;
+ * enable it with {@code jfr configure} or a recording setting for {@value #NAME}.
+ * <p>
+ * This class is part of the internal API and should not be used directly
+ * by library consumers.
+ *
+ * @since 1.0
+ */
+@Name(MarkupCompileEvent.NAME)
+@Label("Stylr Markup Compile")
+@Category("Stylr")
+@Description("Parsing and encoding a markup string")
+@Enabled(false)
+@StackTrace(false)
+public final class MarkupCompileEvent extends Event {
+    /** The event name used in recordings. */
+    public static final String NAME = "io.github.bitmeshi.stylr.MarkupCompile";
+
+    /** The length of the markup source. */
+    @Label("Markup Length")
+    public int markupLength;
+
+    /** The number of styled segments the markup compiled to. */
+    @Label("Segments")
+    public int segments;
+}
@@ -0,0 +1,39 @@
+package io.github.bitmeshi.stylr.internal.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * JDK Flight Recorder event for a styled stream writing its buffer to the underlying sink.
+ * <p>
+ * The duration of the event is the time spent in the underlying write. Disabled by
+ * default; enable it with {@code jfr configure} or a recording setting for {@value #NAME}.
+ * <p>
+ * This class is part of the internal API and should not be used directly
+ * by library consumers.
+ *
+ * @since 1.0
+ */
+@Name(SinkFlushEvent.NAME)
+@Label("Stylr Sink Flush")
+@Category("Stylr")
+@Description("A styled writer or print stream writing its buffer to the underlying sink")
+@Enabled(false)
+@StackTrace(false)
+public final class SinkFlushEvent extends Event {
+    /** The event name used in recordings. */
+    public static final String NAME = "io.github.bitmeshi.stylr.SinkFlush";
+
+    /** The stream class, {@code "StyledWriter"} or {@code "StyledPrintStream"}. */
+    @Label("Sink")
+    public String sink;
+
+    /** The number of chars or bytes written. */
+    @Label("Length")
+    public int length;
+}
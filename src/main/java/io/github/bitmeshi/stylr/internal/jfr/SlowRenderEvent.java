@@ -0,0 +1,40 @@
+package io.github.bitmeshi.stylr.internal.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.Threshold;
+
+/**
+ * JDK Flight Recorder event for a whole-text operation that took longer than its threshold.
+ * <p>
+ * Emitted by wrapping and by rendering markup at a reduced color level. The default
+ * threshold is 1 ms. Disabled by default; enable it with {@code jfr configure} or a
+ * recording setting for {@value #NAME}.
+ * <p>
+ * This class is part of the internal API and should not be used directly
+ * by library consumers.
+ *
+ * @since 1.0
+ */
+@Name(SlowRenderEvent.NAME)
+@Label("Stylr Slow Render")
+@Category("Stylr")
+@Description("A wrap or markup render that took longer than the threshold")
+@Enabled(false)
+@Threshold("1 ms")
+public final class SlowRenderEvent extends Event {
+    /** The event name used in recordings. */
+    public static final String NAME = "io.github.bitmeshi.stylr.SlowRender";
+
+    /** The operation, such as {@code "Wrapper.wrap"}. */
+    @Label("Operation")
+    public String operation;
+
+    /** The number of chars produced, or -1 if they were streamed to an output. */
+    @Label("Output Length")
+    public long outputLength;
+}
@@ -1,4 +1,8 @@
 module io.github.bitmeshi.stylr {
+    requires transitive java.management;
+    requires jdk.jfr;
+
     exports io.github.bitmeshi.stylr;
     exports io.github.bitmeshi.stylr.builder;
-}
\ No newline at end of file
+    exports io.github.bitmeshi.stylr.internal.jfr to jdk.jfr;
+}
@@ -0,0 +1,149 @@
+package io.github.bitmeshi.stylr;
+
+import org.junit.jupiter.api.extension.ExtensionContext;
+import org.junit.jupiter.api.extension.ParameterContext;
+import org.junit.jupiter.api.extension.ParameterResolver;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+/**
+ * A JUnit extension that measures the heap bytes an operation allocates.
+ * <p>
+ * Tests register it with {@code @ExtendWith(AllocationMeter.class)} and take an
+ * {@code AllocationMeter} parameter. The meter runs the operation until it is warmed up,
+ * then reads the allocation counter of the current thread around a batch of runs with
+ * {@link com.sun.management.ThreadMXBean#getCurrentThreadAllocatedBytes()}. Other
+ * threads, such as the JIT compiler, do not count. A batch is measured several times and
+ * the smallest result is kept, because noise can only add bytes.
+ * <p>
+ * Results are exact for the JVM running the tests, so budgets are expressed with
+ * {@link #stringBytes(int)} rather than as fixed numbers that depend on object layout.
+ * Tests are skipped on JVMs that cannot count allocations per thread.
+ *
+ * <h2>Usage Example</h2>
+ * <pre>{@code
+ * @Test
+ * @ExtendWith(AllocationMeter.class)
+ * void applyAllocatesOneString(AllocationMeter meter) {
+ *     meter.assertAllocates(meter.stringBytes(13), () -> style.apply("Hello"));
+ * }
+ * }</pre>
+ */
+public final class AllocationMeter implements ParameterResolver {
+    private static final int WARMUP_RUNS = 20_000;
+    private static final int MEASURED_RUNS = 10_000;
+    private static final int TRIALS = 3;
+
+    private static final com.sun.management.ThreadMXBean THREADS = threadBean();
+
+    /** Keeps results reachable so that the measured work cannot be dropped. */
+    private static volatile Object sink;
+
+    /**
+     * An operation to measure; its result is kept alive and may be any value.
+     */
+    @FunctionalInterface
+    public interface Operation {
+        /**
+         * Runs the operation once.
+         *
+         * @return the result of the operation
+         * @throws Exception if the operation fails
+         */
+        Object run() throws Exception;
+    }
+
+    @Override
+    public boolean supportsParameter(ParameterContext parameterContext, ExtensionContext extensionContext) {
+        return parameterContext.getParameter().getType() == AllocationMeter.class;
+    }
+
+    @Override
+    public Object resolveParameter(ParameterContext parameterContext, ExtensionContext extensionContext) {
+        assumeTrue(THREADS != null, "Per-thread allocation counting is not supported by this JVM");
+        return this;
+    }
+
+    /**
+     * Returns the bytes allocated by one run of an operation, after warming it up.
+     *
+     * @param operation the operation to measure
+     * @return the allocated bytes per run, rounded down
+     */
+    public long bytesPerRun(Operation operation) {
+        return batchBytes(operation) / MEASURED_RUNS;
+    }
+
+    /**
+     * Asserts that one run of an operation allocates exactly the given number of bytes.
+     *
+     * @param expectedBytes the expected bytes per run
+     * @param operation the operation to measure
+     */
+    public void assertAllocates(long expectedBytes, Operation operation) {
+        assertEquals(expectedBytes, bytesPerRun(operation), "Allocated bytes per run");
+    }
+
+    /**
+     * Asserts that an operation does not allocate a single byte in a whole batch of runs.
+     *
+     * @param operation the operation to measure
+     */
+    public void assertAllocatesNothing(Operation operation) {
+        assertEquals(0, batchBytes(operation), "Allocated bytes in " + MEASURED_RUNS + " runs");
+    }
+
+    /**
+     * Returns the size of a string of Latin-1 chars, including its backing array.
+     * <p>
+     * The size is measured on the running JVM, so it reflects its object layout.
+     *
+     * @param length the length of the string
+     * @return the bytes allocated for one such string
+     */
+    public long stringBytes(int length) {
+        char[] chars = new char[length];
+        Arrays.fill(chars, 'x');
+        return bytesPerRun(() -> new String(chars));
+    }
+
+    /** Returns the least bytes allocated by a batch of runs, without the cost of reading the counter. */
+    private static long batchBytes(Operation operation) {
+        try {
+            for (int i = 0; i < WARMUP_RUNS; i++) {
+                sink = operation.run();
+            }
+
+            long least = Long.MAX_VALUE;
+            for (int trial = 0; trial < TRIALS; trial++) {
+                long overhead = THREADS.getCurrentThreadAllocatedBytes();
+                overhead = THREADS.getCurrentThreadAllocatedBytes() - overhead;
+
+                long before = THREADS.getCurrentThreadAllocatedBytes();
+                for (int i = 0; i < MEASURED_RUNS; i++) {
+                    sink = operation.run();
+                }
+                least = Math.min(least, THREADS.getCurrentThreadAllocatedBytes() - before - overhead);
+            }
+            return least;
+        } catch (Exception e) {
+            throw new AssertionError("Measured operation failed", e);
+        } finally {
+            sink = null;
+        }
+    }
+
+    private static com.sun.management.ThreadMXBean threadBean() {
+        ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+        if (!(bean instanceof com.sun.management.ThreadMXBean threads) || !threads.isThreadAllocatedMemorySupported()) {
+            return null;
+        }
+        threads.setThreadAllocatedMemoryEnabled(true);
+        return threads;
+    }
+}
@@ -0,0 +1,222 @@
+package io.github.bitmeshi.stylr;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AnsiTest {
+    private static final String STYLED = "\u001b[1;31mError:\u001b[0m disk \u001b[38;2;255;128;0mfull\u001b[0m";
+
+    @Test
+    @DisplayName("Test strip removes SGR sequences")
+    void stripSgr() {
+        assertEquals("Error: disk full", Ansi.strip(STYLED));
+        assertEquals("Hello", Ansi.strip(Stylr.of("Hello").color(BasicColor.RED).bold().render()));
+    }
+
+    @Test
+    @DisplayName("Test strip returns the same instance without escapes")
+    void stripPlainReturnsSameInstance() {
+        String plain = "plain text";
+        StringBuilder builder = new StringBuilder("plain");
+        char[] chars = plain.toCharArray();
+        byte[] bytes = plain.getBytes(StandardCharsets.UTF_8);
+        ByteBuffer buffer = ByteBuffer.wrap(bytes);
+
+        assertSame(plain, Ansi.strip(plain));
+        assertSame(builder, Ansi.strip((CharSequence) builder));
+        assertSame(chars, Ansi.strip(chars));
+        assertSame(bytes, Ansi.strip(bytes));
+        assertSame(buffer, Ansi.strip(buffer));
+    }
+
+    @Test
+    @DisplayName("Test strip removes other CSI, OSC and escape sequences")
+    void stripOtherSequences() {
+        assertEquals("ab", Ansi.strip("a\u001b[2Kb"));
+        assertEquals("ab", Ansi.strip("a\u001b[?25lb"));
+        assertEquals("link", Ansi.strip("\u001b]8;;https://example.com\u0007link\u001b]8;;\u0007"));
+        assertEquals("title", Ansi.strip("\u001b]0;window\u001b\\title"));
+        assertEquals("ab", Ansi.strip("a\u001b(Bb"));
+        assertEquals("ab", Ansi.strip("a\u001b7b"));
+        assertEquals("ab", Ansi.strip("a\u001bPdata\u001b\\b"));
+    }
+
+    @Test
+    @DisplayName("Test strip handles malformed and truncated sequences")
+    void stripMalformed() {
+        assertEquals("a", Ansi.strip("a\u001b"));
+        assertEquals("a", Ansi.strip("a\u001b[31"));
+        assertEquals("a", Ansi.strip("a\u001b]0;unterminated"));
+        assertEquals("aé", Ansi.strip("a\u001b[3é"));
+        assertEquals("a\nb", Ansi.strip("a\u001b\nb"));
+        assertEquals("ab", Ansi.strip("a\u001b[3\u001b[0mb"));
+    }
+
+    @Test
+    @DisplayName("Test strip into caller buffers")
+    void stripIntoBuffers() {
+        char[] chars = new char[STYLED.length() + 2];
+        int end = Ansi.strip(STYLED, 0, STYLED.length(), chars, 2);
+        assertEquals("Error: disk full", new String(chars, 2, end - 2));
+
+        StringBuilder sb = Ansi.strip(new StringBuilder(STYLED), new StringBuilder("> "));
+        assertEquals("> Error: disk full", sb.toString());
+
+        end = Ansi.strip(STYLED, 7, 22, chars, 0);
+        assertEquals("Error: disk", new String(chars, 0, end));
+    }
+
+    @Test
+    @DisplayName("Test strip char arrays in place")
+    void stripCharsInPlace() {
+        char[] chars = ("xx" + STYLED).toCharArray();
+        int end = Ansi.strip(chars, 2, chars.length - 2, chars, 0);
+        assertEquals("Error: disk full", new String(chars, 0, end));
+        assertArrayEquals("Error: disk full".toCharArray(), Ansi.strip(STYLED.toCharArray()));
+    }
+
+    @Test
+    @DisplayName("Test strip UTF-8 bytes")
+    void stripBytes() {
+        String text = "\u001b[32m✓ héllo 世界\u001b[0m 😀 \u001b]0;tïtle\u0007done";
+        byte[] bytes = text.getBytes(StandardCharsets.UTF_8);
+
+        assertEquals("✓ héllo 世界 😀 done", new String(Ansi.strip(bytes), StandardCharsets.UTF_8));
+
+        int end = Ansi.strip(bytes, 0, bytes.length, bytes, 0);
+        assertEquals("✓ héllo 世界 😀 done", new String(bytes, 0, end, StandardCharsets.UTF_8));
+    }
+
+    @Test
+    @DisplayName("Test strip finds escapes at every position of long byte input")
+    void stripBytesAtEveryPosition() {
+        for (int i = 0; i < 40; i++) {
+            String text = "a".repeat(i) + "\u001b[1m" + "b".repeat(40 - i);
+            byte[] bytes = text.getBytes(StandardCharsets.US_ASCII);
+            assertEquals("a".repeat(i) + "b".repeat(40 - i), new String(Ansi.strip(bytes), StandardCharsets.US_ASCII));
+        }
+    }
+
+    @Test
+    @DisplayName("Test strip byte buffers")
+    void stripByteBuffers() {
+        byte[] bytes = STYLED.getBytes(StandardCharsets.UTF_8);
+
+        ByteBuffer heap = ByteBuffer.wrap(bytes);
+        ByteBuffer stripped = Ansi.strip(heap);
+        assertEquals(0, heap.position());
+        assertEquals("Error: disk full", StandardCharsets.UTF_8.decode(stripped).toString());
+
+        ByteBuffer direct = ByteBuffer.allocateDirect(bytes.length).put(bytes).flip();
+        ByteBuffer dst = ByteBuffer.allocate(bytes.length);
+        Ansi.strip(direct, dst);
+        assertFalse(direct.hasRemaining());
+        assertEquals("Error: disk full", StandardCharsets.UTF_8.decode(dst.flip()).toString());
+
+        assertThrows(BufferOverflowException.class,
+                () -> Ansi.strip(ByteBuffer.wrap(bytes), ByteBuffer.allocate(bytes.length - 1)));
+    }
+
+    @Test
+    @DisplayName("Test display width ignores escape sequences")
+    void displayWidthIgnoresEscapes() {
+        assertEquals(16, Ansi.displayWidth(STYLED));
+        assertEquals(0, Ansi.displayWidth(""));
+        assertEquals(4, Ansi.displayWidth("\u001b]8;;https://example.com\u0007link\u001b]8;;\u0007"));
+        assertEquals(6, Ansi.displayWidth(STYLED, 7, 17));
+        assertEquals(2, Ansi.displayWidth("\u304B\u3099"));
+    }
+
+    @Test
+    @DisplayName("Test display width of wide and zero-width chars")
+    void displayWidthUnicode() {
+        assertEquals(4, Ansi.displayWidth("中文"));
+        assertEquals(4, Ansi.displayWidth("\u001b[1m日本\u001b[0m"));
+        assertEquals(1, Ansi.displayWidth("e\u0301"));
+        assertEquals(2, Ansi.displayWidth("😀"));
+        assertEquals(2, Ansi.displayWidth("👍🏽"));
+        assertEquals(2, Ansi.displayWidth("👨\u200D👩\u200D👧"));
+        assertEquals(3, Ansi.displayWidth("a\tb\nc"));
+    }
+
+    @Test
+    @DisplayName("Test truncate keeps styling and closes it at the cut")
+    void truncate() {
+        String red = "\u001b[31m";
+        String reset = "\u001b[0m";
+        String styled = red + "Hello World" + reset;
+
+        assertSame(styled, Ansi.truncate(styled, 11, "…"));
+        assertEquals(red + "Hello…" + reset, Ansi.truncate(styled, 6, "…"));
+        assertEquals(red + "Hel" + reset, Ansi.truncate(styled, 3, ""));
+        assertEquals(red + "…" + reset, Ansi.truncate(styled, 1, "…"));
+        assertEquals("", Ansi.truncate(styled, 0, "…"));
+        assertEquals("..", Ansi.truncate("abcdef", 2, "..."));
+    }
+
+    @Test
+    @DisplayName("Test truncate never splits wide chars")
+    void truncateWideChars() {
+        assertEquals("中…", Ansi.truncate("中文字", 4, "…"));
+        assertEquals("中", Ansi.truncate("中文字", 3, ""));
+        assertEquals("e\u0301", Ansi.truncate("e\u0301xyz", 1, ""));
+    }
+
+    @Test
+    @DisplayName("Test truncate measures ASCII after a joiner like displayWidth")
+    void truncateAfterJoiner() {
+        assertEquals("a\u200db", Ansi.truncate("a\u200dbcd", 2, ""));
+        assertEquals("a\u200db", Ansi.visibleSubstring("a\u200dbcd", 0, 2));
+
+        String[] inputs = {"a\u200dbcd", "\u200d\u200dxy", "\ud83d\udc68\u200d\ud83d\udc69\u200dz", "\u001b[1mx\u200d\u001b[0myz", "\u4e2d\u200d\u6587a"};
+        for (String text : inputs) {
+            for (int n = 0; n <= 5; n++) {
+                assertTrue(Ansi.displayWidth(Ansi.truncate(text, n, "")) <= n, text + " at " + n);
+                assertTrue(Ansi.displayWidth(Ansi.truncate(text, n, "\u2026")) <= n, text + " at " + n);
+                assertTrue(Ansi.displayWidth(Ansi.visibleSubstring(text, 0, n)) <= n, text + " at " + n);
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("Test padding styled text by display width")
+    void pad() {
+        String styled = "\u001b[1m中\u001b[0m";
+
+        assertEquals(styled + "   ", Ansi.padRight(styled, 5));
+        assertEquals("   " + styled, Ansi.padLeft(styled, 5));
+        assertEquals(" " + styled + "  ", Ansi.center(styled, 5));
+        assertSame(styled, Ansi.padRight(styled, 2));
+        assertSame(styled, Ansi.center(styled, 1));
+    }
+
+    @Test
+    @DisplayName("Test visible substring re-emits the active style")
+    void visibleSubstring() {
+        String styled = "ab\u001b[1;31mcd\u001b[0mef";
+
+        assertSame(styled, Ansi.visibleSubstring(styled, 0, 6));
+        assertEquals("\u001b[31;1md\u001b[0mef", Ansi.visibleSubstring(styled, 3, 6));
+        assertEquals("\u001b[31;1mc\u001b[0m", Ansi.visibleSubstring(styled, 2, 3));
+        assertEquals("b\u001b[1;31mc\u001b[0m", Ansi.visibleSubstring(styled, 1, 3));
+        assertEquals("ab", Ansi.visibleSubstring(styled, 0, 2));
+        assertEquals("", Ansi.visibleSubstring(styled, 6, 10));
+        assertEquals("文", Ansi.visibleSubstring("中文字", 1, 5));
+        assertThrows(IllegalArgumentException.class, () -> Ansi.visibleSubstring(styled, 3, 2));
+    }
+
+    @Test
+    @DisplayName("Test null arguments throw exception")
+    void nullArguments() {
+        assertThrows(NullPointerException.class, () -> Ansi.strip((String) null));
+        assertThrows(NullPointerException.class, () -> Ansi.strip((byte[]) null));
+        assertThrows(NullPointerException.class, () -> Ansi.strip("a", null));
+        assertThrows(NullPointerException.class, () -> Ansi.displayWidth(null));
+    }
+}
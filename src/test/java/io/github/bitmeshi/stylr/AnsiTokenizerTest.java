@@ -0,0 +1,201 @@
+package io.github.bitmeshi.stylr;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AnsiTokenizerTest {
+    /** Records events as strings, merging adjacent text runs. */
+    private static final class Recorder implements AnsiTokenizer.Handler {
+        private final List<String> events = new ArrayList<>();
+        private final StringBuilder text = new StringBuilder();
+
+        @Override
+        public void text(char[] chars, int offset, int length) {
+            text.append(chars, offset, length);
+        }
+
+        @Override
+        public void style(Style style) {
+            add("style:" + style.apply("x"));
+        }
+
+        @Override
+        public void csi(CharSequence intermediates, int[] params, int count, char finalChar) {
+            add("csi:" + intermediates + Arrays.toString(Arrays.copyOf(params, count)) + finalChar);
+        }
+
+        @Override
+        public void osc(CharSequence data) {
+            add("osc:" + data);
+        }
+
+        @Override
+        public void escape(CharSequence intermediates, char finalChar) {
+            add("esc:" + intermediates + finalChar);
+        }
+
+        private void add(String event) {
+            flushText();
+            events.add(event);
+        }
+
+        List<String> events() {
+            flushText();
+            return events;
+        }
+
+        private void flushText() {
+            if (text.length() > 0) {
+                events.add("text:" + text);
+                text.setLength(0);
+            }
+        }
+    }
+
+    private static final String INPUT = "a\u001b[1;31mb\u001b[0m\u001b[2J\u001b[?25l"
+            + "\u001b]8;;https://example.com\u0007link\u001b]0;title\u001b\\\u001b(Bé😀\u001b[38;2;255;128;0mc";
+
+    private static final List<String> EXPECTED = List.of(
+            "text:a",
+            "style:\u001b[31;1mx\u001b[0m",
+            "text:b",
+            "style:x\u001b[0m",
+            "csi:[2]J",
+            "csi:?[25]l",
+            "osc:8;;https://example.com",
+            "text:link",
+            "osc:0;title",
+            "esc:(B",
+            "text:é😀",
+            "style:\u001b[38;2;255;128;0mx\u001b[0m",
+            "text:c"
+    );
+
+    private static List<String> tokenize(String input) throws IOException {
+        Recorder recorder = new Recorder();
+        AnsiTokenizer tokenizer = new AnsiTokenizer(recorder);
+        tokenizer.feed(input);
+        tokenizer.finish();
+        return recorder.events();
+    }
+
+    @Test
+    @DisplayName("Test tokenizing text and escape sequences")
+    void tokenize() throws IOException {
+        assertEquals(EXPECTED, tokenize(INPUT));
+    }
+
+    @Test
+    @DisplayName("Test sequences split at every char boundary")
+    void splitChars() throws IOException {
+        char[] chars = INPUT.toCharArray();
+
+        for (int split = 0; split <= chars.length; split++) {
+            Recorder recorder = new Recorder();
+            AnsiTokenizer tokenizer = new AnsiTokenizer(recorder);
+            tokenizer.feed(chars, 0, split);
+            tokenizer.feed(chars, split, chars.length - split);
+            tokenizer.finish();
+            assertEquals(EXPECTED, recorder.events(), "split at " + split);
+        }
+    }
+
+    @Test
+    @DisplayName("Test UTF-8 bytes fed one at a time")
+    void singleBytes() throws IOException {
+        byte[] bytes = INPUT.getBytes(StandardCharsets.UTF_8);
+        Recorder recorder = new Recorder();
+        AnsiTokenizer tokenizer = new AnsiTokenizer(recorder);
+
+        for (int i = 0; i < bytes.length; i++) {
+            tokenizer.feed(bytes, i, 1);
+        }
+        tokenizer.finish();
+
+        assertEquals(EXPECTED, recorder.events());
+    }
+
+    @Test
+    @DisplayName("Test malformed UTF-8 is replaced")
+    void malformedUtf8() throws IOException {
+        Recorder recorder = new Recorder();
+        AnsiTokenizer tokenizer = new AnsiTokenizer(recorder);
+        tokenizer.feed(new byte[] {'a', (byte) 0xC3, 'b', (byte) 0xFF, (byte) 0xE2, (byte) 0x9C}, 0, 6);
+        tokenizer.finish();
+
+        assertEquals(List.of("text:a�b��"), recorder.events());
+    }
+
+    @Test
+    @DisplayName("Test malformed sequences keep their text")
+    void malformedSequences() throws IOException {
+        assertEquals(List.of("text:a\nb"), tokenize("a\u001b\nb"));
+        assertEquals(List.of("text:aé"), tokenize("a\u001b[3é"));
+        assertEquals(List.of("text:a", "style:\u001b[1mx\u001b[0m"), tokenize("a\u001b[3\u001b[1m"));
+        assertEquals(List.of("text:a"), tokenize("a\u001b[31"));
+    }
+
+    @Test
+    @DisplayName("Test tokenizer tracks the current style")
+    void currentStyle() throws IOException {
+        AnsiTokenizer tokenizer = new AnsiTokenizer((chars, offset, length) -> {
+        });
+
+        tokenizer.feed("\u001b[1m\u001b[32m");
+        assertEquals(Stylr.style().bold().color(BasicColor.GREEN).build().apply("x"),
+                tokenizer.currentStyle().apply("x"));
+
+        tokenizer.feed("\u001b[22m");
+        assertEquals(Stylr.style().color(BasicColor.GREEN).build().apply("x"), tokenizer.currentStyle().apply("x"));
+
+        tokenizer.reset();
+        assertEquals(Stylr.style().build().apply("x"), tokenizer.currentStyle().apply("x"));
+    }
+
+    @Test
+    @DisplayName("Test decoded styles are reused and kept out of the shared style cache")
+    void decodedStylesNotInterned() throws IOException {
+        AnsiTokenizer tokenizer = new AnsiTokenizer((chars, offset, length) -> {
+        });
+        CacheStats before = Stylr.styleCacheStats();
+
+        for (int i = 0; i < 256; i++) {
+            tokenizer.feed("\u001b[38;2;" + i + ";0;255mx");
+        }
+        CacheStats after = Stylr.styleCacheStats();
+        assertEquals(before.requests(), after.requests());
+
+        tokenizer.feed("\u001b[1;31m");
+        Style bold = tokenizer.currentStyle();
+        tokenizer.feed("\u001b[0m\u001b[31;1m");
+        assertSame(bold, tokenizer.currentStyle());
+    }
+
+    @Test
+    @DisplayName("Test long OSC strings and parameter lists are bounded")
+    void boundedSequences() throws IOException {
+        String longTitle = "t".repeat(AnsiTokenizer.MAX_STRING_LENGTH + 100);
+        List<String> events = tokenize("\u001b]0;" + longTitle + "\u0007");
+        assertEquals(1, events.size());
+        assertEquals(4 + AnsiTokenizer.MAX_STRING_LENGTH, events.get(0).length());
+
+        String manyParams = "1;".repeat(AnsiTokenizer.MAX_PARAMS + 10) + "1";
+        events = tokenize("\u001b[" + manyParams + "H");
+        assertEquals(1, events.size());
+        assertTrue(events.get(0).endsWith("1]H"));
+    }
+
+    @Test
+    @DisplayName("Test null handler throws exception")
+    void nullHandler() {
+        assertThrows(NullPointerException.class, () -> new AnsiTokenizer(null));
+    }
+}
@@ -5,6 +5,7 @@ import org.junit.jupiter.api.Test;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
 
 class BasicColorTest {
 
@@ -71,4 +72,13 @@ class BasicColorTest {
         assertNotNull(BasicColor.valueOf("BLACK"));
         assertNotNull(BasicColor.valueOf("BRIGHT_WHITE"));
     }
-}
\ No newline at end of file
+
+    @Test
+    @DisplayName("Test ANSI codes are precomputed")
+    void testAnsiCodesArePrecomputed() {
+        for (BasicColor color : BasicColor.values()) {
+            assertSame(color.getAnsiCode(false), color.getAnsiCode(false));
+            assertSame(color.getAnsiCode(true), color.getAnsiCode(true));
+        }
+    }
+}
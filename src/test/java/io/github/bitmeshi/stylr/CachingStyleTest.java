@@ -0,0 +1,53 @@
+package io.github.bitmeshi.stylr;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CachingStyleTest {
+    @Test
+    @DisplayName("Test caching view matches apply")
+    void matchesApply() {
+        Style style = new Style("\u001b[32m");
+        CachingStyle view = style.cachingView(16);
+
+        assertEquals(style.apply("[ OK ]"), view.apply("[ OK ]"));
+        assertEquals("", view.apply(""));
+        assertSame(style, view.style());
+    }
+
+    @Test
+    @DisplayName("Test caching view returns same instance on hit")
+    void sameInstanceOnHit() {
+        CachingStyle view = new Style("\u001b[33m").cachingView(16);
+
+        String first = view.apply("WARN");
+        assertSame(first, view.apply("WARN"));
+
+        CacheStats stats = view.stats();
+        assertEquals(1, stats.hits());
+        assertEquals(1, stats.misses());
+        assertEquals(0.5, stats.hitRate());
+    }
+
+    @Test
+    @DisplayName("Test caching view respects the char bound")
+    void respectsCharBound() {
+        CachingStyle view = new Style("\u001b[31m").cachingView(100, 20);
+
+        view.apply("ERROR");
+        view.apply("FATAL");
+
+        assertEquals(1, view.size());
+        assertEquals(1, view.stats().evictions());
+    }
+
+    @Test
+    @DisplayName("Test caching view with null text throws exception")
+    void nullTextThrowsException() {
+        CachingStyle view = new Style("\u001b[31m").cachingView(4);
+        assertThrows(NullPointerException.class, () -> view.apply(null));
+        assertThrows(IllegalArgumentException.class, () -> new Style("").cachingView(0));
+    }
+}
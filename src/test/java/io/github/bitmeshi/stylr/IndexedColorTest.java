@@ -0,0 +1,58 @@
+package io.github.bitmeshi.stylr;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class IndexedColorTest {
+    @Test
+    @DisplayName("Test palette instances are shared")
+    void instancesAreShared() {
+        for (int index = 0; index < 256; index++) {
+            IndexedColor color = IndexedColor.of(index);
+            assertSame(color, IndexedColor.of(index));
+            assertEquals(index, color.index());
+        }
+    }
+
+    @Test
+    @DisplayName("Test ANSI codes")
+    void ansiCodes() {
+        IndexedColor color = IndexedColor.of(208);
+        assertEquals("38;5;208", color.getAnsiCode(false));
+        assertEquals("48;5;208", color.getAnsiCode(true));
+        assertSame(color.getAnsiCode(false), color.getAnsiCode(false));
+        assertEquals("38;5;0", IndexedColor.of(0).getAnsiCode(false));
+    }
+
+    @Test
+    @DisplayName("Test conversion to RGB")
+    void toRgb() {
+        assertEquals(0xFF8700, IndexedColor.of(208).toRgb());
+        assertEquals(0x000000, IndexedColor.of(16).toRgb());
+        assertEquals(0xEEEEEE, IndexedColor.of(255).toRgb());
+        assertEquals(0xFF0000, IndexedColor.of(BasicColor.BRIGHT_RED.ordinal()).toRgb());
+    }
+
+    @Test
+    @DisplayName("Test nearest palette color")
+    void nearest() {
+        assertSame(IndexedColor.of(196), IndexedColor.nearest(0xFF0000));
+        assertSame(IndexedColor.of(208), IndexedColor.nearest(IndexedColor.of(208).toRgb()));
+    }
+
+    @Test
+    @DisplayName("Test out of range values throw exception")
+    void outOfRange() {
+        assertThrows(IllegalArgumentException.class, () -> IndexedColor.of(256));
+        assertThrows(IllegalArgumentException.class, () -> IndexedColor.of(-1));
+        assertThrows(IllegalArgumentException.class, () -> IndexedColor.nearest(0x1000000));
+    }
+
+    @Test
+    @DisplayName("Test toString")
+    void testToString() {
+        assertEquals("IndexedColor[42]", IndexedColor.of(42).toString());
+    }
+}
@@ -0,0 +1,76 @@
+package io.github.bitmeshi.stylr;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MarkupTest {
+    @Test
+    @DisplayName("Test markup renders like the equivalent style")
+    void renderMatchesStyle() {
+        Style error = Stylr.style().color(BasicColor.RED).bold().build();
+
+        assertEquals(error.apply("Error") + " at " + Stylr.style().color("#888").build().apply("Main.java"),
+                Markup.compile("[bold red]Error[/] at [#888]Main.java[/]").render());
+        assertEquals("plain", Markup.compile("plain").render());
+    }
+
+    @Test
+    @DisplayName("Test nested tags use minimal transitions")
+    void nestedTags() {
+        Markup markup = Markup.compile("[bold]a[red]b[/]c[/]d");
+
+        assertEquals("\u001b[1ma\u001b[31mb\u001b[39mc\u001b[0md", markup.render());
+        assertEquals("abcd", markup.plainText());
+    }
+
+    @Test
+    @DisplayName("Test background colors and color forms")
+    void colorForms() {
+        assertEquals(Stylr.style().color(BasicColor.WHITE).bgColor(BasicColor.BLUE).build().apply("x"),
+                Markup.compile("[white on blue]x").render());
+        assertEquals(Stylr.style().color(255, 128, 0).build().apply("x"), Markup.compile("[rgb(255, 128, 0)]x[/]").render());
+        assertEquals(Stylr.style().color(IndexedColor.of(208)).build().apply("x"), Markup.compile("[color(208)]x[/]").render());
+        assertEquals(Stylr.style().color(BasicColor.BRIGHT_CYAN).underlined().build().apply("x"),
+                Markup.compile("[Bright-Cyan UNDERLINE]x[/]").render());
+    }
+
+    @Test
+    @DisplayName("Test closing tags by name and escaped brackets")
+    void closingAndEscaping() {
+        assertEquals(Markup.compile("[bold]a[/]").render(), Markup.compile("[bold]a[/bold]").render());
+        assertEquals("[x] y]", Markup.compile("[[x] y]").render());
+        assertEquals("", Markup.compile("[bold][/]").render());
+    }
+
+    @Test
+    @DisplayName("Test render with a lower color level")
+    void colorLevel() {
+        Markup markup = Markup.compile("[#FF8000]x[/]");
+
+        assertEquals("\u001b[38;5;208mx\u001b[0m", markup.render(ColorLevel.ANSI_256));
+        assertEquals("\u001b[33mx\u001b[0m", markup.render(ColorLevel.ANSI_16));
+        assertSame(markup.render(), markup.render(ColorLevel.TRUECOLOR));
+    }
+
+    @Test
+    @DisplayName("Test cached rendering returns the same instance")
+    void cachedRender() {
+        String first = Markup.render("[italic]cached[/] text");
+
+        assertEquals(Markup.compile("[italic]cached[/] text").render(), first);
+        assertSame(first, Markup.render("[italic]cached[/] text"));
+    }
+
+    @Test
+    @DisplayName("Test invalid markup throws exception")
+    void invalidMarkup() {
+        assertThrows(IllegalArgumentException.class, () -> Markup.compile("[bold"));
+        assertThrows(IllegalArgumentException.class, () -> Markup.compile("[sparkly]x"));
+        assertThrows(IllegalArgumentException.class, () -> Markup.compile("x[/]"));
+        assertThrows(IllegalArgumentException.class, () -> Markup.compile("[bold]x[/red]"));
+        assertThrows(IllegalArgumentException.class, () -> Markup.compile("[red on]x"));
+        assertThrows(NullPointerException.class, () -> Markup.compile(null));
+    }
+}
@@ -2,6 +2,20 @@ package io.github.bitmeshi.stylr;
 
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.StringWriter;
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -131,5 +145,207 @@ class StyleTest {
         String result = style.apply("Test123!@#$%^&*()");
         assertEquals("\u001b[37mTest123!@#$%^&*()\u001b[0m", result);
     }
-}
 
+    @Test
+    @DisplayName("Test Style appendTo StringBuilder")
+    void appendToStringBuilder() {
+        Style style = new Style("\u001b[31m");
+        StringBuilder sb = new StringBuilder("[");
+        style.appendTo(sb, "ERROR").append("]");
+        assertEquals("[\u001b[31mERROR\u001b[0m]", sb.toString());
+    }
+
+    @Test
+    @DisplayName("Test Style appendTo with a slice")
+    void appendToSlice() throws IOException {
+        Style style = new Style("\u001b[32m");
+        StringBuilder sb = style.appendTo(new StringBuilder(), "status: OK!", 8, 10);
+        assertEquals("\u001b[32mOK\u001b[0m", sb.toString());
+
+        StringWriter writer = style.appendTo(new StringWriter(), new StringBuilder("status: OK!"), 8, 10);
+        assertEquals("\u001b[32mOK\u001b[0m", writer.toString());
+    }
+
+    @Test
+    @DisplayName("Test Style appendTo with empty text appends nothing")
+    void appendToEmpty() throws IOException {
+        Style style = new Style("\u001b[31m");
+        assertEquals("x", style.appendTo(new StringBuilder("x"), "").toString());
+        assertEquals("x", style.appendTo(new StringBuilder("x"), "abc", 1, 1).toString());
+        assertEquals("", style.appendTo(new StringWriter(), "abc", 2, 2).toString());
+    }
+
+    @Test
+    @DisplayName("Test Style appendTo rejects invalid arguments")
+    void appendToInvalidArguments() {
+        Style style = new Style("\u001b[31m");
+        assertThrows(NullPointerException.class, () -> style.appendTo(new StringBuilder(), null));
+        assertThrows(NullPointerException.class, () -> style.appendTo(null, "text"));
+        assertThrows(IndexOutOfBoundsException.class, () -> style.appendTo(new StringBuilder(), "text", 2, 5));
+        assertThrows(IndexOutOfBoundsException.class, () -> style.appendTo(new StringWriter(), "text", 3, 2));
+    }
+
+    @Test
+    @DisplayName("Test Style writeTo Writer")
+    void writeToWriter() throws IOException {
+        Style style = new Style("\u001b[34;1m");
+        StringWriter writer = new StringWriter();
+
+        style.writeTo(writer, "Hello");
+        style.writeTo(writer, new StringBuilder("World"));
+        style.writeTo(writer, "--chars--".toCharArray(), 2, 5);
+        style.writeTo(writer, "");
+
+        assertEquals("\u001b[34;1mHello\u001b[0m\u001b[34;1mWorld\u001b[0m\u001b[34;1mchars\u001b[0m",
+                writer.toString());
+    }
+
+    @Test
+    @DisplayName("Test Style writeTo ByteBuffer encodes UTF-8")
+    void writeToByteBuffer() {
+        Style style = new Style("\u001b[33m");
+        String text = "caf\u00e9 \u4e16\u754c \ud83c\udf0d";
+
+        for (ByteBuffer buffer : new ByteBuffer[]{ByteBuffer.allocate(64), ByteBuffer.allocateDirect(64)}) {
+            style.writeTo(buffer, text);
+            buffer.flip();
+            byte[] bytes = new byte[buffer.remaining()];
+            buffer.get(bytes);
+            assertEquals(style.apply(text), new String(bytes, StandardCharsets.UTF_8));
+        }
+    }
+
+    @Test
+    @DisplayName("Test Style writeTo ByteBuffer writes nothing when it does not fit")
+    void writeToByteBufferOverflow() {
+        Style style = new Style("\u001b[33m");
+        ByteBuffer buffer = ByteBuffer.allocate(10);
+
+        assertThrows(BufferOverflowException.class, () -> style.writeTo(buffer, "Hello"));
+        assertEquals(0, buffer.position());
+
+        style.writeTo(buffer, "");
+        assertEquals(0, buffer.position());
+    }
+
+    @Test
+    @DisplayName("Test Style writeTo OutputStream wraps UTF-8 payload")
+    void writeToOutputStream() throws IOException {
+        Style style = new Style("\u001b[1m");
+        byte[] payload = "xx\u00fcber yy".getBytes(StandardCharsets.UTF_8);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        style.writeTo(out, payload, 2, payload.length - 5);
+        style.writeTo(out, payload, 0, 0);
+
+        assertEquals("\u001b[1m\u00fcber\u001b[0m", out.toString(StandardCharsets.UTF_8));
+        assertThrows(IndexOutOfBoundsException.class, () -> style.writeTo(out, payload, 5, payload.length));
+    }
+
+    @Test
+    @DisplayName("Test downsampling a style to lower color levels")
+    void withColorLevel() {
+        Style orange = Stylr.style().color("#FF8000").bgColor(BasicColor.BLUE).bold().build();
+
+        assertSame(orange, orange.withColorLevel(ColorLevel.TRUECOLOR));
+        assertEquals("\u001b[38;5;208;44;1mx\u001b[0m", orange.withColorLevel(ColorLevel.ANSI_256).apply("x"));
+        assertEquals("\u001b[33;44;1mx\u001b[0m", orange.withColorLevel(ColorLevel.ANSI_16).apply("x"));
+        assertEquals("\u001b[1mx\u001b[0m", orange.withColorLevel(ColorLevel.NONE).apply("x"));
+        assertSame(orange.withColorLevel(ColorLevel.ANSI_256), orange.withColorLevel(ColorLevel.ANSI_256));
+    }
+
+    @Test
+    @DisplayName("Test downsampling keeps styles without RGB colors")
+    void withColorLevelUnchanged() {
+        Style basic = Stylr.style().color(BasicColor.RED).build();
+        Style raw = new Style("\u001b[38;2;1;2;3m");
+
+        assertSame(basic, basic.withColorLevel(ColorLevel.ANSI_16));
+        assertSame(raw, raw.withColorLevel(ColorLevel.NONE));
+        assertThrows(NullPointerException.class, () -> basic.withColorLevel(null));
+    }
+
+    @Test
+    @DisplayName("Test apply allocates only the result string")
+    @ExtendWith(AllocationMeter.class)
+    void applyAllocation(AllocationMeter meter) {
+        Style style = Stylr.style().color(BasicColor.RED).bold().build();
+        String text = "Hello";
+        StringBuilder sb = new StringBuilder(64);
+        ByteBuffer buffer = ByteBuffer.allocate(64);
+
+        meter.assertAllocates(meter.stringBytes(style.apply(text).length()), () -> style.apply(text));
+        meter.assertAllocatesNothing(() -> style.apply(""));
+        meter.assertAllocatesNothing(() -> style.appendTo(sb.delete(0, sb.length()), text));
+        meter.assertAllocatesNothing(() -> style.writeTo(buffer.clear(), text));
+    }
+
+    @Test
+    @DisplayName("Test applyAll styles every element into the output array")
+    void applyAll() {
+        Style style = new Style("\u001b[32m");
+        String[] in = {"a", "", "ccc"};
+        String[] out = new String[3];
+
+        assertSame(out, style.applyAll(in, out));
+        assertArrayEquals(new String[]{style.apply("a"), "", style.apply("ccc")}, out);
+
+        assertSame(in, style.applyAll(in, in));
+        assertArrayEquals(out, in);
+        assertEquals(0, style.applyAll(new String[0], new String[0]).length);
+    }
+
+    @Test
+    @DisplayName("Test parallelApplyAll matches applyAll below and above the threshold")
+    void parallelApplyAll() {
+        Style style = new Style("\u001b[1m");
+        for (int size : new int[]{3, StyleBatch.PARALLEL_THRESHOLD * 4 + 1}) {
+            String[] in = IntStream.range(0, size).mapToObj(Integer::toString).toArray(String[]::new);
+
+            String[] expected = style.applyAll(in, new String[size]);
+            assertArrayEquals(expected, style.parallelApplyAll(in, new String[size]));
+        }
+    }
+
+    @Test
+    @DisplayName("Test applyTo returns an unmodifiable list of styled texts")
+    void applyTo() {
+        Style style = new Style("\u001b[4m");
+        List<String> texts = new ArrayList<>(List.of("x", "y"));
+
+        List<String> styled = style.applyTo(texts);
+        assertEquals(List.of(style.apply("x"), style.apply("y")), styled);
+        assertEquals(List.of("x", "y"), texts);
+        assertThrows(UnsupportedOperationException.class, () -> styled.add("z"));
+        assertEquals(List.of(), style.applyTo(List.of()));
+    }
+
+    @Test
+    @DisplayName("Test joining matches mapping to apply and joining")
+    void joining() {
+        Style style = new Style("\u001b[35m");
+        List<String> texts = List.of("one", "", "three", "four");
+
+        String expected = texts.stream().map(style::apply).collect(Collectors.joining(", "));
+        assertEquals(expected, texts.stream().collect(style.joining(", ")));
+        assertEquals(expected, texts.parallelStream().collect(style.joining(", ")));
+        assertEquals(style.apply("solo"), Stream.of(new StringBuilder("solo")).collect(style.joining("-")));
+        assertEquals("", Stream.<String>empty().collect(style.joining("-")));
+    }
+
+    @Test
+    @DisplayName("Test bulk methods reject invalid arguments")
+    void bulkInvalidArguments() {
+        Style style = new Style("\u001b[31m");
+
+        assertThrows(IllegalArgumentException.class, () -> style.applyAll(new String[2], new String[1]));
+        assertThrows(IllegalArgumentException.class, () -> style.parallelApplyAll(new String[1], new String[2]));
+        assertThrows(NullPointerException.class, () -> style.applyAll(null, new String[0]));
+        assertThrows(NullPointerException.class, () -> style.applyAll(new String[0], null));
+        assertThrows(NullPointerException.class, () -> style.applyAll(new String[1], new String[1]));
+        assertThrows(NullPointerException.class, () -> style.applyTo(null));
+        assertThrows(NullPointerException.class, () -> style.applyTo(Arrays.asList("a", null)));
+        assertThrows(NullPointerException.class, () -> style.joining(null));
+        assertThrows(NullPointerException.class, () -> Stream.of("a", null).collect(style.joining(",")));
+    }
+}
@@ -0,0 +1,114 @@
+package io.github.bitmeshi.stylr;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class StyledLineTest {
+    private final Style red = Stylr.style().color(BasicColor.RED).build();
+    private final Style redBold = Stylr.style().color(BasicColor.RED).bold().build();
+    private final Style blue = Stylr.style().color(BasicColor.BLUE).build();
+
+    @Test
+    @DisplayName("Test empty line renders empty string")
+    void emptyLine() {
+        assertEquals("", Stylr.line().render());
+        assertEquals("", Stylr.line().append(red, "").append("").render());
+    }
+
+    @Test
+    @DisplayName("Test plain segments produce no escape codes")
+    void plainSegments() {
+        assertEquals("Hello World", Stylr.line().append("Hello").append(" World").render());
+    }
+
+    @Test
+    @DisplayName("Test single segment matches apply")
+    void singleSegment() {
+        assertEquals(red.apply("Error"), Stylr.line().append(red, "Error").render());
+    }
+
+    @Test
+    @DisplayName("Test adjacent segments with same style are merged")
+    void mergesSameStyle() {
+        String line = Stylr.line().append(red, "a").append(red, "b").append(red, "c").render();
+        assertEquals("\u001b[31mabc\u001b[0m", line);
+    }
+
+    @Test
+    @DisplayName("Test consecutive segments only emit deltas")
+    void emitsDeltas() {
+        String line = Stylr.line()
+                .append(red, "a")
+                .append(redBold, "b")
+                .append(blue, "c")
+                .render();
+        assertEquals("\u001b[31ma\u001b[1mb\u001b[22;34mc\u001b[0m", line);
+    }
+
+    @Test
+    @DisplayName("Test unstyled segment between styled segments resets once")
+    void plainBetweenStyled() {
+        String line = Stylr.line()
+                .append(red, "a")
+                .append(" | ")
+                .append(blue, "b")
+                .render();
+        assertEquals("\u001b[31ma\u001b[0m | \u001b[34mb\u001b[0m", line);
+    }
+
+    @Test
+    @DisplayName("Test raw prefix styles are fully reset")
+    void rawPrefixStyles() {
+        Style raw = new Style("\u001b[35m");
+        String line = Stylr.line()
+                .append(raw, "a")
+                .append(raw, "b")
+                .append(red, "c")
+                .render();
+        assertEquals("\u001b[35mab\u001b[0m\u001b[31mc\u001b[0m", line);
+    }
+
+    @Test
+    @DisplayName("Test render can be called repeatedly while appending")
+    void renderIsRepeatable() {
+        StyledLine line = Stylr.line().append(red, "a");
+        assertEquals("\u001b[31ma\u001b[0m", line.render());
+
+        line.append(red, "b");
+        assertEquals("\u001b[31mab\u001b[0m", line.render());
+        assertEquals("> \u001b[31mab\u001b[0m", line.appendTo(new StringBuilder("> ")).toString());
+        assertEquals(line.render(), line.toString());
+    }
+
+    @Test
+    @DisplayName("Test null arguments throw exception")
+    void nullArguments() {
+        StyledLine line = Stylr.line();
+        assertThrows(NullPointerException.class, () -> line.append(null, "a"));
+        assertThrows(NullPointerException.class, () -> line.append(red, null));
+        assertThrows(NullPointerException.class, () -> line.append(null));
+    }
+
+    @Test
+    @DisplayName("Test line downsamples colors to its color level")
+    void downsamplesColors() {
+        Style gradientA = Stylr.style().color(255, 0, 0).build();
+        Style gradientB = Stylr.style().color(250, 5, 5).build();
+
+        String line = Stylr.line(ColorLevel.ANSI_256).append(gradientA, "a").append(gradientB, "b").render();
+        assertEquals("\u001b[38;5;196mab\u001b[0m", line);
+    }
+
+    @Test
+    @DisplayName("Test line with NEVER policy writes plain text")
+    void neverPolicy() {
+        String line = new StyledLine(ColorLevel.TRUECOLOR, OutputPolicy.NEVER)
+                .append(red, "a")
+                .append(" | ")
+                .append(new Style("\u001b[35m"), "b")
+                .render();
+        assertEquals("a | b", line);
+    }
+}
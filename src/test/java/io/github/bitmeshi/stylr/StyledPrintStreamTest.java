@@ -0,0 +1,188 @@
+package io.github.bitmeshi.stylr;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class StyledPrintStreamTest {
+    private final Style red = Stylr.style().color(BasicColor.RED).build();
+    private final Style redOnBlue = Stylr.style().color(BasicColor.RED).bgColor(BasicColor.BLUE).build();
+
+    @Test
+    @DisplayName("Test styled writes only emit deltas")
+    void emitsDeltas() {
+        ByteArrayOutputStream target = new ByteArrayOutputStream();
+        try (StyledPrintStream out = new StyledPrintStream(target)) {
+            out.append(red, "a").append(redOnBlue, "b").append(redOnBlue, "c").append(red, "d");
+        }
+        assertEquals("\u001b[31ma\u001b[44mbc\u001b[49md\u001b[0m", text(target));
+    }
+
+    @Test
+    @DisplayName("Test inherited print methods are written as plain text")
+    void inheritedPrintMethods() {
+        ByteArrayOutputStream target = new ByteArrayOutputStream();
+        try (StyledPrintStream out = new StyledPrintStream(target)) {
+            out.print(red, "n=");
+            out.print(42);
+            out.printf(" %s", "ok");
+            out.print(red, "!");
+        }
+        assertEquals("\u001b[31mn=\u001b[0m42 ok\u001b[31m!\u001b[0m", text(target));
+    }
+
+    @Test
+    @DisplayName("Test println resets before the line separator")
+    void printlnResetsBeforeNewline() {
+        ByteArrayOutputStream target = new ByteArrayOutputStream();
+        StyledPrintStream out = new StyledPrintStream(target);
+
+        out.println(redOnBlue, "line");
+        assertEquals("\u001b[31;44mline\u001b[0m" + System.lineSeparator(), text(target));
+    }
+
+    @Test
+    @DisplayName("Test non-ASCII text is encoded as UTF-8")
+    void encodesUtf8() {
+        String text = "héllo 世界 😀".repeat(20);
+        ByteArrayOutputStream target = new ByteArrayOutputStream();
+        try (StyledPrintStream out = new StyledPrintStream(target, 64, true)) {
+            out.append(red, text);
+            out.print(text);
+        }
+        assertEquals("\u001b[31m" + text + "\u001b[0m" + text, text(target));
+    }
+
+    @Test
+    @DisplayName("Test each line is written with a single call")
+    void oneWritePerLine() {
+        CountingStream target = new CountingStream();
+        StyledPrintStream out = new StyledPrintStream(target);
+
+        for (int i = 0; i < 50; i++) {
+            out.append(red, "x");
+            out.print(" ");
+        }
+        assertEquals(0, target.writes);
+
+        out.print('\n');
+        assertEquals(1, target.writes);
+        assertEquals(1, target.flushes);
+    }
+
+    @Test
+    @DisplayName("Test large byte writes bypass the buffer")
+    void largeWritesBypassBuffer() {
+        CountingStream target = new CountingStream();
+        StyledPrintStream out = new StyledPrintStream(target, 128, false);
+
+        byte[] bytes = "y".repeat(500).getBytes(StandardCharsets.US_ASCII);
+        out.append(red, "x");
+        out.write(bytes, 0, bytes.length);
+        out.flush();
+
+        assertEquals(2, target.writes);
+        assertEquals("\u001b[31mx\u001b[0m" + "y".repeat(500), target.bytes.toString(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    @DisplayName("Test stream with NEVER policy writes plain text")
+    void neverPolicy() {
+        ByteArrayOutputStream target = new ByteArrayOutputStream();
+        try (StyledPrintStream out = new StyledPrintStream(target, OutputPolicy.NEVER)) {
+            out.print(red, "a");
+            out.println(redOnBlue, "b");
+        }
+        assertEquals("ab" + System.lineSeparator(), text(target));
+    }
+
+    @Test
+    @DisplayName("Test write errors set the error flag")
+    void errorsSetFlag() {
+        StyledPrintStream out = new StyledPrintStream(new OutputStream() {
+            @Override
+            public void write(int b) throws IOException {
+                throw new IOException("boom");
+            }
+        });
+
+        out.println(red, "x");
+        assertTrue(out.checkError());
+    }
+
+    @Test
+    @DisplayName("Test clean close does not set the error flag")
+    void cleanClose() {
+        AtomicBoolean closed = new AtomicBoolean();
+        StyledPrintStream out = new StyledPrintStream(new ByteArrayOutputStream() {
+            @Override
+            public void close() {
+                closed.set(true);
+            }
+        });
+        out.append(red, "a");
+        out.close();
+
+        assertTrue(closed.get());
+        assertFalse(out.checkError());
+    }
+
+    @Test
+    @DisplayName("Test closed stream sets the error flag")
+    void closedStream() {
+        ByteArrayOutputStream target = new ByteArrayOutputStream();
+        StyledPrintStream out = new StyledPrintStream(target);
+        out.append(red, "a");
+        out.close();
+        out.close();
+        out.print("b");
+
+        assertEquals("\u001b[31ma\u001b[0m", text(target));
+        assertTrue(out.checkError());
+    }
+
+    @Test
+    @DisplayName("Test invalid arguments throw exception")
+    void invalidArguments() {
+        assertThrows(NullPointerException.class, () -> new StyledPrintStream(null));
+        assertThrows(IllegalArgumentException.class, () -> new StyledPrintStream(new ByteArrayOutputStream(), -1, true));
+
+        StyledPrintStream out = new StyledPrintStream(new ByteArrayOutputStream());
+        assertThrows(NullPointerException.class, () -> out.append(null, "a"));
+        assertThrows(NullPointerException.class, () -> out.append(red, null));
+    }
+
+    private static String text(ByteArrayOutputStream out) {
+        return out.toString(StandardCharsets.UTF_8);
+    }
+
+    private static final class CountingStream extends OutputStream {
+        private final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        private int writes;
+        private int flushes;
+
+        @Override
+        public void write(int b) {
+            writes++;
+            bytes.write(b);
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+            writes++;
+            bytes.write(b, off, len);
+        }
+
+        @Override
+        public void flush() {
+            flushes++;
+        }
+    }
+}
@@ -0,0 +1,93 @@
+package io.github.bitmeshi.stylr;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class StyledTemplateTest {
+    private static final Style RED = Stylr.style().color(BasicColor.RED).bold().build();
+    private static final Style DIM = Stylr.style().dim().build();
+
+    @Test
+    @DisplayName("Test named slots render like the equivalent styles")
+    void namedSlots() {
+        StyledTemplate template = StyledTemplate.compile("{level} {logger}: {msg}", Map.of("level", RED, "logger", DIM));
+
+        assertEquals(3, template.argumentCount());
+        assertEquals(RED.apply("ERROR") + " " + DIM.apply("db.Pool") + ": refused",
+                template.render("ERROR", "db.Pool", "refused"));
+    }
+
+    @Test
+    @DisplayName("Test anonymous, indexed and repeated slots")
+    void slotKinds() {
+        assertEquals("a-b", StyledTemplate.compile("{}-{}").render("a", "b"));
+        assertEquals("b a b", StyledTemplate.compile("{1} {0} {1}").render("a", "b"));
+        assertEquals("x=1, x again=1", StyledTemplate.compile("x={x}, x again={x}").render(1));
+        assertEquals(RED.apply("7"), StyledTemplate.compile("{0}", Map.of("0", RED)).render(7));
+        assertEquals("a b a", StyledTemplate.compile("{x} {} {x}").render("a", "b"));
+    }
+
+    @Test
+    @DisplayName("Test escaped braces and literal-only patterns")
+    void escapedBraces() {
+        StyledTemplate template = StyledTemplate.compile("{{{}}}");
+
+        assertEquals(1, template.argumentCount());
+        assertEquals("{x}", template.render("x"));
+        assertEquals("plain", StyledTemplate.compile("plain").render());
+        assertEquals("", StyledTemplate.compile("").render());
+    }
+
+    @Test
+    @DisplayName("Test empty and null values")
+    void emptyAndNullValues() {
+        StyledTemplate template = StyledTemplate.compile("[{v}]", Map.of("v", RED));
+
+        assertEquals("[]", template.render(""));
+        assertEquals("[" + RED.apply("null") + "]", template.render((Object) null));
+    }
+
+    @Test
+    @DisplayName("Test rendering with a map of values")
+    void renderMap() {
+        StyledTemplate template = StyledTemplate.compile("{a} {} {b}", Map.of("b", DIM));
+
+        assertEquals("1 2 " + DIM.apply("3"), template.render(Map.of("a", 1, "1", 2, "b", 3)));
+        assertEquals("1 null " + DIM.apply("null"), template.render(Map.of("a", 1)));
+    }
+
+    @Test
+    @DisplayName("Test appending to builders and writers")
+    void appendTo() throws IOException {
+        StyledTemplate template = StyledTemplate.compile("{level}: {}", Map.of("level", RED));
+        String expected = template.render("WARN", "slow");
+
+        StringBuilder sb = new StringBuilder(">");
+        assertSame(sb, template.appendTo(sb, "WARN", "slow"));
+        assertEquals(">" + expected, sb.toString());
+
+        StringWriter writer = new StringWriter();
+        template.appendTo(writer, "WARN", "slow");
+        assertEquals(expected, writer.toString());
+    }
+
+    @Test
+    @DisplayName("Test invalid patterns and arguments")
+    void invalid() {
+        assertThrows(IllegalArgumentException.class, () -> StyledTemplate.compile("{open"));
+        assertThrows(IllegalArgumentException.class, () -> StyledTemplate.compile("close}"));
+        assertThrows(IllegalArgumentException.class, () -> StyledTemplate.compile("{}{}").render("one"));
+        assertThrows(IllegalArgumentException.class, () -> StyledTemplate.compile("{0} {}"));
+        assertThrows(IllegalArgumentException.class, () -> StyledTemplate.compile("{} {0}"));
+        assertThrows(IllegalArgumentException.class, () -> StyledTemplate.compile("{name} {0}"));
+        assertThrows(NullPointerException.class, () -> StyledTemplate.compile(null));
+        assertThrows(NullPointerException.class, () -> StyledTemplate.compile("{}", null));
+        assertThrows(NullPointerException.class, () -> StyledTemplate.compile("{}").appendTo(null, "x"));
+    }
+}
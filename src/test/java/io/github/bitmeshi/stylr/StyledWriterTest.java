@@ -0,0 +1,171 @@
+package io.github.bitmeshi.stylr;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.io.Writer;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class StyledWriterTest {
+    private final Style red = Stylr.style().color(BasicColor.RED).build();
+    private final Style redBold = Stylr.style().color(BasicColor.RED).bold().build();
+
+    @Test
+    @DisplayName("Test consecutive fragments with same style share one prefix")
+    void sameStyleSharesPrefix() throws IOException {
+        StringWriter target = new StringWriter();
+        try (StyledWriter out = new StyledWriter(target)) {
+            out.append(red, "a").append(red, "b").append(red, "c");
+        }
+        assertEquals("\u001b[31mabc\u001b[0m", target.toString());
+    }
+
+    @Test
+    @DisplayName("Test style changes only emit deltas")
+    void emitsDeltas() throws IOException {
+        StringWriter target = new StringWriter();
+        try (StyledWriter out = new StyledWriter(target)) {
+            out.append(red, "a").append(redBold, "b").append(red, "c");
+        }
+        assertEquals("\u001b[31ma\u001b[1mb\u001b[22mc\u001b[0m", target.toString());
+    }
+
+    @Test
+    @DisplayName("Test plain writes return to the default style")
+    void plainWritesReset() throws IOException {
+        StringWriter target = new StringWriter();
+        try (StyledWriter out = new StyledWriter(target)) {
+            out.append(red, "a");
+            out.write(" plain ");
+            out.write('x');
+            out.write(new char[]{'y', 'z'});
+            out.append(red, "b");
+        }
+        assertEquals("\u001b[31ma\u001b[0m plain xyz\u001b[31mb\u001b[0m", target.toString());
+    }
+
+    @Test
+    @DisplayName("Test raw prefix styles are fully reset")
+    void rawPrefixStyles() throws IOException {
+        Style raw = new Style("\u001b[35m");
+        StringWriter target = new StringWriter();
+        try (StyledWriter out = new StyledWriter(target)) {
+            out.append(raw, "a").append(raw, "b").append(red, "c");
+        }
+        assertEquals("\u001b[35mab\u001b[0m\u001b[31mc\u001b[0m", target.toString());
+    }
+
+    @Test
+    @DisplayName("Test output is buffered until newline")
+    void flushesOnNewline() throws IOException {
+        CountingWriter target = new CountingWriter();
+        StyledWriter out = new StyledWriter(target);
+
+        out.append(red, "a").append(redBold, "b");
+        out.write(" c");
+        assertEquals(0, target.writes);
+
+        out.write("\n");
+        assertEquals(1, target.writes);
+        assertEquals(1, target.flushes);
+        assertEquals("\u001b[31ma\u001b[1mb\u001b[0m c\n", target.toString());
+    }
+
+    @Test
+    @DisplayName("Test output is written when the buffer fills")
+    void flushesWhenFull() throws IOException {
+        CountingWriter target = new CountingWriter();
+        StyledWriter out = new StyledWriter(target, 128, false);
+
+        String text = "x".repeat(300);
+        out.append(red, text);
+        out.write("\n");
+        assertEquals(0, target.flushes);
+        assertTrue(target.writes >= 2);
+
+        out.close();
+        assertEquals("\u001b[31m" + text + "\u001b[0m\n", target.toString());
+    }
+
+    @Test
+    @DisplayName("Test colors are downsampled to the writer's color level")
+    void downsamplesColors() throws IOException {
+        Style orange = Stylr.style().color("#FF8000").build();
+        StringWriter target = new StringWriter();
+        try (StyledWriter out = new StyledWriter(target, 256, true, ColorLevel.ANSI_16)) {
+            out.append(orange, "a").append(red, "b");
+        }
+        assertEquals("\u001b[33ma\u001b[31mb\u001b[0m", target.toString());
+    }
+
+    @Test
+    @DisplayName("Test writer with NEVER policy writes plain text")
+    void neverPolicy() throws IOException {
+        StringWriter target = new StringWriter();
+        try (StyledWriter out = new StyledWriter(target, OutputPolicy.NEVER)) {
+            out.append(red, "a").append(redBold, "b");
+            out.write(" c");
+            out.resetStyle();
+        }
+        assertEquals("ab c", target.toString());
+    }
+
+    @Test
+    @DisplayName("Test reset style and close")
+    void resetAndClose() throws IOException {
+        StringWriter target = new StringWriter();
+        StyledWriter out = new StyledWriter(target);
+
+        out.append(red, "a");
+        out.resetStyle();
+        out.resetStyle();
+        out.close();
+        out.close();
+
+        assertEquals("\u001b[31ma\u001b[0m", target.toString());
+        assertThrows(IOException.class, () -> out.write("x"));
+        assertThrows(IOException.class, () -> out.append(red, "x"));
+    }
+
+    @Test
+    @DisplayName("Test invalid arguments throw exception")
+    void invalidArguments() {
+        assertThrows(NullPointerException.class, () -> new StyledWriter(null));
+        assertThrows(IllegalArgumentException.class, () -> new StyledWriter(new StringWriter(), 0, true));
+        assertThrows(NullPointerException.class, () -> new StyledWriter(new StringWriter(), null));
+
+        StyledWriter out = new StyledWriter(new StringWriter());
+        assertThrows(NullPointerException.class, () -> out.append(null, "a"));
+        assertThrows(NullPointerException.class, () -> out.append(red, null));
+        assertThrows(IndexOutOfBoundsException.class, () -> out.write("abc", 2, 5));
+    }
+
+    private static final class CountingWriter extends Writer {
+        private final StringBuilder sb = new StringBuilder();
+        private int writes;
+        private int flushes;
+
+        @Override
+        public void write(char[] cbuf, int off, int len) {
+            writes++;
+            sb.append(cbuf, off, len);
+        }
+
+        @Override
+        public void flush() {
+            flushes++;
+        }
+
+        @Override
+        public void close() {
+        }
+
+        @Override
+        public String toString() {
+            return sb.toString();
+        }
+    }
+}
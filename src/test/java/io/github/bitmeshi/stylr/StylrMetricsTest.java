@@ -0,0 +1,130 @@
+package io.github.bitmeshi.stylr;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.io.IOException;
+import java.io.StringWriter;
+import java.lang.management.ManagementFactory;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class StylrMetricsTest {
+    private final StylrMetrics metrics = Stylr.metrics();
+
+    @BeforeEach
+    void reset() {
+        metrics.reset();
+    }
+
+    @Test
+    @DisplayName("Test counting is enabled by the system property")
+    void countingEnabled() {
+        assertTrue(metrics.isCountingEnabled());
+        assertSame(metrics, Stylr.metrics());
+    }
+
+    @Test
+    @DisplayName("Test renders count escape and text chars")
+    void renders() {
+        Style style = Stylr.style().color(BasicColor.RED).build();
+        String styled = style.apply("Hello");
+
+        assertEquals(1, metrics.getStylesBuilt());
+        assertEquals(1, metrics.getRenders());
+        assertEquals(5, metrics.getTextChars());
+        assertEquals(styled.length() - 5, metrics.getEscapeChars());
+        assertEquals((double) (styled.length() - 5) / styled.length(), metrics.getEscapeOverhead(), 1e-9);
+
+        style.apply("");
+        assertEquals(1, metrics.getRenders());
+    }
+
+    @Test
+    @DisplayName("Test templates and markup count renders")
+    void templatesAndMarkup() {
+        StyledTemplate.compile("{a}: {b}", java.util.Map.of("a", Stylr.style().bold().build())).render("x", "y");
+        Markup markup = Markup.compile("[bold]a[/] b");
+        markup.render();
+
+        assertEquals(1, metrics.getMarkupCompiles());
+        assertEquals(2, metrics.getRenders());
+        assertEquals("x: y".length() + "a b".length(), metrics.getTextChars());
+    }
+
+    @Test
+    @DisplayName("Test cached markup and caching styles count every render")
+    void cachedRenders() {
+        String source = "[italic]cached " + System.nanoTime() + "[/] markup";
+        String rendered = Markup.render(source);
+        Markup.render(source);
+        int textChars = Ansi.strip(rendered).length();
+
+        assertEquals(2, metrics.getRenders());
+        assertEquals(2L * textChars, metrics.getTextChars());
+        assertEquals(2L * (rendered.length() - textChars), metrics.getEscapeChars());
+
+        metrics.reset();
+        CachingStyle label = Stylr.style().color(BasicColor.GREEN).build().cachingView(8);
+        String ok = label.apply("OK");
+        label.apply("OK");
+
+        assertEquals(2, metrics.getRenders());
+        assertEquals(4, metrics.getTextChars());
+        assertEquals(2L * (ok.length() - 2), metrics.getEscapeChars());
+    }
+
+    @Test
+    @DisplayName("Test stripping counts removed chars")
+    void stripped() {
+        Ansi.strip("\u001b[1mbold\u001b[0m");
+        Ansi.strip("plain");
+        Ansi.strip("\u001b[31mx".toCharArray());
+
+        assertEquals(4 + 4 + 5, metrics.getStrippedChars());
+    }
+
+    @Test
+    @DisplayName("Test styled streams count flushes")
+    void sinkFlushes() throws IOException {
+        try (StyledWriter out = new StyledWriter(new StringWriter())) {
+            out.write("one\n");
+            out.write("two");
+            out.flush();
+            out.flush();
+        }
+
+        assertEquals(2, metrics.getSinkFlushes());
+    }
+
+    @Test
+    @DisplayName("Test reset clears the counters but not the caches")
+    void resetCounters() {
+        Stylr.style().italic().build().apply("x");
+        long hits = metrics.getStyleCacheHits() + metrics.getStyleCacheMisses();
+
+        metrics.reset();
+        assertEquals(0, metrics.getRenders());
+        assertEquals(0, metrics.getEscapeOverhead());
+        assertEquals(hits, metrics.getStyleCacheHits() + metrics.getStyleCacheMisses());
+    }
+
+    @Test
+    @DisplayName("Test metrics are readable over JMX")
+    void jmx() throws Exception {
+        ObjectName name = Stylr.registerMetrics();
+        assertEquals(name, Stylr.registerMetrics());
+        assertEquals(StylrMetrics.OBJECT_NAME, name.toString());
+
+        Markup.render("[bold]jmx-" + System.nanoTime());
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+
+        assertEquals(Boolean.TRUE, server.getAttribute(name, "CountingEnabled"));
+        assertEquals(metrics.getRenders(), server.getAttribute(name, "Renders"));
+        assertTrue((Long) server.getAttribute(name, "MarkupCacheMisses") >= 1);
+        assertTrue((Double) server.getAttribute(name, "StyleCacheHitRate") >= 0.0);
+    }
+}
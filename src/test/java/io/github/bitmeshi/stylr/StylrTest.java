@@ -1,5 +1,6 @@
 package io.github.bitmeshi.stylr;
 
+import io.github.bitmeshi.stylr.builder.ReusableStyler;
 import io.github.bitmeshi.stylr.builder.StyleDefinitionBuilder;
 import io.github.bitmeshi.stylr.builder.TextStyler;
 import org.junit.jupiter.api.DisplayName;
@@ -84,6 +85,14 @@ class StylrTest {
         assertNotNull(builder);
     }
 
+    @Test
+    @DisplayName("Test Stylr.reusable() creates independent ReusableStyler instances")
+    void createReusableStyler() {
+        ReusableStyler first = Stylr.reusable();
+        assertNotNull(first);
+        assertNotSame(first, Stylr.reusable());
+    }
+
     @Test
     @DisplayName("Test Stylr.style() creates reusable Style")
     void createReusableStyle() {
@@ -129,4 +138,27 @@ class StylrTest {
         assertEquals("\u001b[32mText2\u001b[0m", result2);
         assertEquals("\u001b[32mText3\u001b[0m", result3);
     }
+
+    @Test
+    @DisplayName("Test style cache stats count repeated renders as hits")
+    void styleCacheStatsCountHits() {
+        Stylr.of("warm").color(BasicColor.YELLOW).underlined().render();
+
+        CacheStats before = Stylr.styleCacheStats();
+        Stylr.of("again").color(BasicColor.YELLOW).underlined().render();
+        CacheStats after = Stylr.styleCacheStats();
+
+        assertTrue(after.hits() > before.hits());
+        assertTrue(after.evictions() >= before.evictions());
+        assertTrue(after.hitRate() > 0.0 && after.hitRate() <= 1.0);
+    }
+
+    @Test
+    @DisplayName("Test styling is enabled by the stylr.output system property")
+    void stylingEnabled() {
+        assertEquals("always", System.getProperty("stylr.output"));
+        assertTrue(Stylr.isStylingEnabled());
+        assertTrue(OutputPolicy.ALWAYS.isEnabled());
+        assertFalse(OutputPolicy.NEVER.isEnabled());
+    }
 }
@@ -0,0 +1,91 @@
+package io.github.bitmeshi.stylr;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class WrapperTest {
+    private static final String RED = "\u001b[31m";
+    private static final String RESET = "\u001b[0m";
+
+    @Test
+    @DisplayName("Test greedy word wrapping")
+    void wrapWords() {
+        Wrapper wrapper = new Wrapper(10);
+
+        assertEquals("the quick\nbrown fox\njumps over\nthe lazy\ndog", wrapper.wrap("the quick brown fox jumps over the lazy dog"));
+        assertEquals("short", wrapper.wrap("short"));
+        assertEquals("", wrapper.wrap(""));
+    }
+
+    @Test
+    @DisplayName("Test newlines and blank lines are kept")
+    void keepNewlines() {
+        Wrapper wrapper = new Wrapper(10);
+
+        assertEquals("one\n\ntwo\n", wrapper.wrap("one\n\ntwo\n"));
+        assertEquals("a\nb", wrapper.wrap("a\r\nb"));
+        assertEquals("  indented\ntext", wrapper.wrap("  indented text"));
+    }
+
+    @Test
+    @DisplayName("Test long words are broken at the line width")
+    void breakLongWords() {
+        Wrapper wrapper = new Wrapper(4);
+
+        assertEquals("a\nabcd\nefgh\nij b", wrapper.wrap("a abcdefghij b"));
+        assertEquals("中文\n字", wrapper.wrap("中文字"));
+        assertEquals("中\n文", new Wrapper(3).wrap("中文"));
+    }
+
+    @Test
+    @DisplayName("Test style is closed and reopened at line breaks")
+    void carryStyle() {
+        Wrapper wrapper = new Wrapper(5);
+        String styled = RED + "aaa bbb" + RESET + " ccc";
+
+        assertEquals(RED + "aaa" + RESET + "\n" + RED + "bbb" + RESET + "\nccc", wrapper.wrap(styled));
+        assertEquals(Ansi.strip(wrapper.wrap(styled)).replace('\n', ' '), Ansi.strip(styled));
+    }
+
+    @Test
+    @DisplayName("Test wrapping from a reader and from chunks")
+    void streaming() throws IOException {
+        Wrapper wrapper = new Wrapper(12);
+        String text = (RED + "lorem ipsum " + RESET + "dolor sit amet 中文 ").repeat(2000);
+        String expected = wrapper.wrap(text);
+
+        StringBuilder fromReader = new StringBuilder();
+        wrapper.wrap(new StringReader(text), fromReader);
+        assertEquals(expected, fromReader.toString());
+
+        List<String> chunks = new ArrayList<>();
+        for (int i = 0; i < text.length(); i += 7) {
+            chunks.add(text.substring(i, Math.min(text.length(), i + 7)));
+        }
+        StringBuilder fromChunks = new StringBuilder();
+        wrapper.wrap(chunks.iterator(), fromChunks);
+        assertEquals(expected, fromChunks.toString());
+
+        StringBuilder splitPair = new StringBuilder();
+        wrapper.wrap(List.of("ab\uD83D", "\uDE00cd").iterator(), splitPair);
+        assertEquals("ab😀cd", splitPair.toString());
+
+        for (String line : expected.split("\n")) {
+            assertTrue(Ansi.displayWidth(line) <= 12, line);
+        }
+    }
+
+    @Test
+    @DisplayName("Test invalid width throws exception")
+    void invalidWidth() {
+        assertThrows(IllegalArgumentException.class, () -> new Wrapper(0));
+        assertThrows(NullPointerException.class, () -> new Wrapper(5).wrap((String) null));
+    }
+}
@@ -0,0 +1,86 @@
+package io.github.bitmeshi.stylr.builder;
+
+import io.github.bitmeshi.stylr.AllocationMeter;
+import io.github.bitmeshi.stylr.BasicColor;
+import io.github.bitmeshi.stylr.Style;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+
+import java.io.IOException;
+import java.io.StringWriter;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ReusableStylerTest {
+    @Test
+    @DisplayName("Test rendering matches TextStyler")
+    void matchesTextStyler() {
+        ReusableStyler styler = new ReusableStyler();
+
+        assertEquals(new TextStyler("Hello").color(BasicColor.RED).bold().render(),
+                styler.text("Hello").color(BasicColor.RED).bold().render());
+        assertEquals(new TextStyler("Hi").bgColor("#336699").italic().render(),
+                styler.reset().text("Hi").bgColor("#336699").italic().render());
+        assertEquals("", styler.reset().render());
+    }
+
+    @Test
+    @DisplayName("Test reset clears colors, attributes and text")
+    void reset() {
+        ReusableStyler styler = new ReusableStyler().text("x").color(BasicColor.RED).bgColor(BasicColor.BLUE).underlined();
+
+        styler.reset().text("plain");
+        assertEquals(new TextStyler("plain").render(), styler.render());
+        assertEquals(new StyleDefinitionBuilder().build(), styler.style());
+    }
+
+    @Test
+    @DisplayName("Test style is reused while the configuration is unchanged")
+    void styleReused() {
+        ReusableStyler styler = new ReusableStyler();
+        Style first = styler.color(BasicColor.GREEN).bold().style();
+
+        assertSame(first, styler.reset().color(BasicColor.GREEN).bold().style());
+        assertNotEquals(first, styler.reset().color(BasicColor.GREEN).style());
+        assertSame(new StyleDefinitionBuilder().color(BasicColor.GREEN).build(), styler.style());
+    }
+
+    @Test
+    @DisplayName("Test rendering into builders and writers")
+    void renderTo() throws IOException {
+        ReusableStyler styler = new ReusableStyler().color(BasicColor.YELLOW);
+        String a = new TextStyler("a").color(BasicColor.YELLOW).render();
+        String b = new TextStyler("b").color(BasicColor.YELLOW).render();
+
+        StringBuilder sb = new StringBuilder();
+        assertSame(sb, styler.text("a").renderTo(sb));
+        styler.text("b").renderTo(sb);
+        assertEquals(a + b, sb.toString());
+
+        StringWriter writer = new StringWriter();
+        assertSame(writer, styler.renderTo(writer));
+        assertEquals(b, writer.toString());
+    }
+
+    @Test
+    @DisplayName("Test null arguments")
+    void nulls() {
+        ReusableStyler styler = new ReusableStyler().text("x");
+
+        assertThrows(NullPointerException.class, () -> styler.text(null));
+        assertThrows(NullPointerException.class, () -> styler.renderTo((StringBuilder) null));
+        assertThrows(NullPointerException.class, () -> styler.renderTo((StringWriter) null));
+    }
+
+    @Test
+    @ExtendWith(AllocationMeter.class)
+    @DisplayName("Test reset, configure and render into a builder allocates nothing")
+    void renderToAllocation(AllocationMeter meter) {
+        ReusableStyler styler = new ReusableStyler();
+        StringBuilder sb = new StringBuilder(64);
+
+        meter.assertAllocatesNothing(() ->
+                styler.reset().text("cell").color(BasicColor.RED).bold().renderTo(sb.delete(0, sb.length())));
+    }
+}
@@ -1,6 +1,7 @@
 package io.github.bitmeshi.stylr.builder;
 
 import io.github.bitmeshi.stylr.BasicColor;
+import io.github.bitmeshi.stylr.IndexedColor;
 import io.github.bitmeshi.stylr.Style;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
@@ -250,6 +251,7 @@ class StyleDefinitionBuilderTest {
         StyleDefinitionBuilder builder = new StyleDefinitionBuilder();
         assertThrows(NullPointerException.class, () -> builder.color((BasicColor) null));
         assertThrows(NullPointerException.class, () -> builder.color((String) null));
+        assertThrows(NullPointerException.class, () -> builder.color((IndexedColor) null));
     }
 
     @Test
@@ -258,6 +260,7 @@ class StyleDefinitionBuilderTest {
         StyleDefinitionBuilder builder = new StyleDefinitionBuilder();
         assertThrows(NullPointerException.class, () -> builder.bgColor((BasicColor) null));
         assertThrows(NullPointerException.class, () -> builder.bgColor((String) null));
+        assertThrows(NullPointerException.class, () -> builder.bgColor((IndexedColor) null));
     }
 
     @Test
@@ -281,13 +284,13 @@ class StyleDefinitionBuilderTest {
     void invalidHexValuesThrowException() {
         StyleDefinitionBuilder builder = new StyleDefinitionBuilder();
 
-        assertThrows(IllegalArgumentException.class, () -> builder.color("FF0000"));  // Missing #
+        assertThrows(IllegalArgumentException.class, () -> builder.color("FF00"));    // Wrong length without #
         assertThrows(IllegalArgumentException.class, () -> builder.color("#FFFF"));   // Wrong length
         assertThrows(IllegalArgumentException.class, () -> builder.color("#GG0000")); // Invalid hex chars
         assertThrows(IllegalArgumentException.class, () -> builder.color("#2 3432")); // Contains space
         assertThrows(IllegalArgumentException.class, () -> builder.color("#1-32-1")); // Contains dash
 
-        assertThrows(IllegalArgumentException.class, () -> builder.bgColor("00FF00")); // Missing #
+        assertThrows(IllegalArgumentException.class, () -> builder.bgColor("00FF0"));  // Wrong length without #
         assertThrows(IllegalArgumentException.class, () -> builder.bgColor("#FFFF"));  // Wrong length
     }
 
@@ -366,5 +369,49 @@ class StyleDefinitionBuilderTest {
         String result = style.apply("Complex");
         assertEquals("\u001b[38;2;120;80;200;48;2;255;240;100;1;3;4;7mComplex\u001b[0m", result);
     }
-}
 
+    @Test
+    @DisplayName("Test building the same configuration returns a shared Style")
+    void buildReturnsSharedStyle() {
+        Style first = new StyleDefinitionBuilder().color(BasicColor.CYAN).italic().build();
+        Style second = new StyleDefinitionBuilder().italic().color(BasicColor.CYAN).build();
+        Style other = new StyleDefinitionBuilder().color(BasicColor.CYAN).build();
+
+        assertSame(first, second);
+        assertNotSame(first, other);
+    }
+
+    @Test
+    @DisplayName("Test packed 24-bit RGB colors")
+    void packedRgbColors() {
+        Style style = new StyleDefinitionBuilder()
+                .color(0x0080FF)
+                .bgColor(0xFFFFFF)
+                .build();
+        assertEquals("\u001b[38;2;0;128;255;48;2;255;255;255mX\u001b[0m", style.apply("X"));
+        assertSame(style, new StyleDefinitionBuilder().color("#0080FF").bgColor(255, 255, 255).build());
+    }
+
+    @Test
+    @DisplayName("Test 256-color palette colors")
+    void buildWithIndexedColors() {
+        Style style = new StyleDefinitionBuilder()
+                .color(IndexedColor.of(208))
+                .bgColor(IndexedColor.of(17))
+                .bold()
+                .build();
+        assertEquals("\u001b[38;5;208;48;5;17;1mHello\u001b[0m", style.apply("Hello"));
+    }
+
+    @Test
+    @DisplayName("Test palette colors override other colors")
+    void indexedOverridesOtherColors() {
+        Style style = new StyleDefinitionBuilder()
+                .color("#FF0000")
+                .color(IndexedColor.of(0))
+                .bgColor(IndexedColor.of(255))
+                .bgColor(BasicColor.WHITE)
+                .build();
+        assertEquals("\u001b[38;5;0;47mHello\u001b[0m", style.apply("Hello"));
+    }
+}
@@ -1,8 +1,14 @@
 package io.github.bitmeshi.stylr.builder;
 
+import io.github.bitmeshi.stylr.AllocationMeter;
 import io.github.bitmeshi.stylr.BasicColor;
+import io.github.bitmeshi.stylr.IndexedColor;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+
+import java.io.IOException;
+import java.io.StringWriter;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -170,6 +176,16 @@ class TextStylerTest {
         assertSame(builder, builder.bgColor(0, 255, 0));
     }
 
+    @Test
+    @DisplayName("Test text with 256-color palette colors")
+    void textWithIndexedColors() {
+        String result = new TextStyler("Hello")
+                .color(IndexedColor.of(46))
+                .bgColor(IndexedColor.of(232))
+                .render();
+        assertEquals("\u001b[38;5;46;48;5;232mHello\u001b[0m", result);
+    }
+
     @Test
     @DisplayName("Test null color (basic color) throws exception")
     void nullColorBasicThrowsException() {
@@ -438,12 +454,12 @@ class TextStylerTest {
         TextStyler builder = new TextStyler("Hello");
 
         // Invalid format
-        assertThrows(IllegalArgumentException.class, () -> builder.color("FF0000"));  // Missing #
+        assertThrows(IllegalArgumentException.class, () -> builder.color("FF00"));    // Wrong length without #
         assertThrows(IllegalArgumentException.class, () -> builder.color("#FFFF"));   // Wrong length
         assertThrows(IllegalArgumentException.class, () -> builder.color("#GG0000")); // Invalid hex chars
 
         // Background colors
-        assertThrows(IllegalArgumentException.class, () -> builder.bgColor("00FF00")); // Missing #
+        assertThrows(IllegalArgumentException.class, () -> builder.bgColor("00FF0"));  // Wrong length without #
         assertThrows(IllegalArgumentException.class, () -> builder.bgColor("#FFFF"));  // Wrong length
     }
 
@@ -492,4 +508,58 @@ class TextStylerTest {
                 .render();
         assertEquals("\u001b[38;2;120;80;200;48;2;255;240;100;1;3;4;7mComplex\u001b[0m", result);
     }
+
+    @Test
+    @DisplayName("Test appendTo and writeTo match render")
+    void appendToMatchesRender() throws IOException {
+        TextStyler styler = new TextStyler("Hello")
+                .color(BasicColor.RED)
+                .bold();
+        String expected = styler.render();
+
+        assertEquals("> " + expected, styler.appendTo(new StringBuilder("> ")).toString());
+        assertEquals(expected, styler.appendTo(new StringWriter()).toString());
+
+        StringWriter writer = new StringWriter();
+        styler.writeTo(writer);
+        assertEquals(expected, writer.toString());
+    }
+
+    @Test
+    @DisplayName("Test appendTo with empty text appends nothing")
+    void appendToEmptyText() {
+        StringBuilder sb = new TextStyler("").color(BasicColor.RED).appendTo(new StringBuilder());
+        assertEquals("", sb.toString());
+    }
+
+    @Test
+    @DisplayName("Test packed 24-bit RGB colors")
+    void packedRgbColors() {
+        String result = new TextStyler("Hello")
+                .color(0xFF8000)
+                .bgColor(0x000000)
+                .render();
+        assertEquals("\u001b[38;2;255;128;0;48;2;0;0;0mHello\u001b[0m", result);
+        assertEquals(new TextStyler("Hello").color(255, 128, 0).render(),
+                new TextStyler("Hello").color(0xFF8000).render());
+    }
+
+    @Test
+    @DisplayName("Test packed 24-bit RGB out of range throws exception")
+    void packedRgbOutOfRange() {
+        TextStyler builder = new TextStyler("Hello");
+        assertThrows(IllegalArgumentException.class, () -> builder.color(0x1000000));
+        assertThrows(IllegalArgumentException.class, () -> builder.bgColor(-1));
+    }
+
+    @Test
+    @DisplayName("Test render allocates only the result string")
+    @ExtendWith(AllocationMeter.class)
+    void renderAllocation(AllocationMeter meter) {
+        TextStyler styler = new TextStyler("Hello").color(BasicColor.RED).bold();
+        StringBuilder sb = new StringBuilder(64);
+
+        meter.assertAllocates(meter.stringBytes(styler.render().length()), styler::render);
+        meter.assertAllocatesNothing(() -> styler.appendTo(sb.delete(0, sb.length())));
+    }
 }
@@ -1,10 +1,13 @@
 package io.github.bitmeshi.stylr.internal;
 
+import io.github.bitmeshi.stylr.AllocationMeter;
 import io.github.bitmeshi.stylr.BasicColor;
 import io.github.bitmeshi.stylr.builder.TextStyler;
+import io.github.bitmeshi.stylr.internal.color.PackedColor;
 import io.github.bitmeshi.stylr.internal.color.Rgb;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertTrue;
@@ -418,4 +421,16 @@ class AnsiCodeGeneratorTest {
         String ansiCode = AnsiCodeGenerator.getAnsiPrefix(config);
         assertEquals("\u001b[38;2;255;255;255;48;2;0;0;0;1;2;3;4;5;6;7;8m", ansiCode);
     }
-}
\ No newline at end of file
+
+    @Test
+    @DisplayName("Test prefix allocates one scratch buffer and the result string")
+    @ExtendWith(AllocationMeter.class)
+    void prefixAllocation(AllocationMeter meter) {
+        StyleConfig config = new StyleConfig(PackedColor.rgb(255, 128, 0), PackedColor.NONE, StyleConfig.BOLD);
+        long buffer = meter.bytesPerRun(() -> new byte[SgrEncoder.MAX_LENGTH]);
+        long result = meter.stringBytes(AnsiCodeGenerator.getAnsiPrefix(config).length());
+
+        meter.assertAllocates(buffer + result, () -> AnsiCodeGenerator.getAnsiPrefix(config));
+        meter.assertAllocatesNothing(() -> AnsiCodeGenerator.getAnsiPrefix(StyleConfig.EMPTY));
+    }
+}
@@ -0,0 +1,59 @@
+package io.github.bitmeshi.stylr.internal;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AnsiScannerTest {
+    @Test
+    @DisplayName("Test finding ESC in bytes matches a scalar search")
+    void indexOfEscapeBytes() {
+        byte[] bytes = new byte[37];
+        for (int i = 0; i < bytes.length; i++) {
+            bytes[i] = (byte) (0x1A + i % 3 == 0x1B ? 0x1C : 0x1A + i % 3);
+        }
+        assertEquals(-1, AnsiScanner.indexOfEscape(bytes, 0, bytes.length));
+
+        for (int esc = 0; esc < bytes.length; esc++) {
+            byte[] copy = bytes.clone();
+            copy[esc] = 0x1B;
+            if (esc + 1 < copy.length) copy[esc + 1] = 0x1B;
+            for (int from = 0; from <= esc; from++) {
+                assertEquals(esc, AnsiScanner.indexOfEscape(copy, from, copy.length));
+            }
+            assertEquals(-1, AnsiScanner.indexOfEscape(copy, 0, esc));
+        }
+    }
+
+    @Test
+    @DisplayName("Test finding ESC in chars")
+    void indexOfEscapeChars() {
+        String text = "abc\u001bdef";
+        assertEquals(3, AnsiScanner.indexOfEscape(text, 0, text.length()));
+        assertEquals(-1, AnsiScanner.indexOfEscape(text, 4, text.length()));
+        assertEquals(-1, AnsiScanner.indexOfEscape(text, 0, 3));
+        assertEquals(3, AnsiScanner.indexOfEscape(new StringBuilder(text), 0, text.length()));
+        assertEquals(3, AnsiScanner.indexOfEscape(text.toCharArray(), 0, text.length()));
+    }
+
+    @Test
+    @DisplayName("Test sequence ends agree for all input types")
+    void sequenceEnds() {
+        String[] inputs = {
+                "\u001b[0m", "\u001b[38;5;208mx", "\u001b]8;;url\u0007x", "\u001b]0;t\u001b\\x",
+                "\u001b(Bx", "\u001bcx", "\u001b", "\u001b[1", "\u001b[1é", "\u001b\u0001"
+        };
+        int[] ends = {4, 11, 9, 7, 3, 2, 1, 3, 3, 1};
+
+        for (int i = 0; i < inputs.length; i++) {
+            String input = inputs[i];
+            byte[] bytes = input.getBytes(StandardCharsets.UTF_8);
+            assertEquals(ends[i], AnsiScanner.sequenceEnd(input, 0, input.length()), input);
+            assertEquals(ends[i], AnsiScanner.sequenceEnd(input.toCharArray(), 0, input.length()), input);
+            assertEquals(ends[i], AnsiScanner.sequenceEnd(bytes, 0, bytes.length), input);
+        }
+    }
+}
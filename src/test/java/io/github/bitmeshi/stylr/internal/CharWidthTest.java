@@ -0,0 +1,62 @@
+package io.github.bitmeshi.stylr.internal;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CharWidthTest {
+    @Test
+    @DisplayName("Test ASCII and Latin widths")
+    void narrow() {
+        assertEquals(1, CharWidth.of('a'));
+        assertEquals(1, CharWidth.of('é'));
+        assertEquals(1, CharWidth.of('→'));
+        assertEquals(1, CharWidth.of(0x00AD));
+        assertEquals(0, CharWidth.of('\n'));
+        assertEquals(0, CharWidth.of(0x9B));
+    }
+
+    @Test
+    @DisplayName("Test wide CJK, Hangul and emoji widths")
+    void wide() {
+        assertEquals(2, CharWidth.of('中'));
+        assertEquals(2, CharWidth.of('あ'));
+        assertEquals(2, CharWidth.of('한'));
+        assertEquals(2, CharWidth.of('Ａ'));
+        assertEquals(2, CharWidth.of(0x1F600));
+        assertEquals(2, CharWidth.of(0x1F680));
+        assertEquals(2, CharWidth.of(0x20000));
+    }
+
+    @Test
+    @DisplayName("Test zero-width marks and format chars")
+    void zeroWidth() {
+        assertEquals(0, CharWidth.of(0x0301));
+        assertEquals(0, CharWidth.of(0x200B));
+        assertEquals(0, CharWidth.of(0x200D));
+        assertEquals(0, CharWidth.of(0xFE0F));
+        assertEquals(0, CharWidth.of(0x1160));
+        assertEquals(0, CharWidth.of(0x1F3FB));
+        assertEquals(0, CharWidth.of(0xE0100));
+    }
+
+    @Test
+    @DisplayName("Test combining marks inside wide ranges are zero width")
+    void marksInWideRanges() {
+        assertEquals(0, CharWidth.of(0x3099));
+        assertEquals(0, CharWidth.of(0x309A));
+        assertEquals(0, CharWidth.of(0x302A));
+        assertEquals(0, CharWidth.of(0x302D));
+        assertEquals(2, CharWidth.of(0x309B));
+        assertEquals(2, CharWidth.of(0x3029));
+    }
+
+    @Test
+    @DisplayName("Test supplementary planes and shared table blocks")
+    void supplementaryPlanes() {
+        assertEquals(1, CharWidth.of(0x10FFFF));
+        assertEquals(1, CharWidth.of(0xF0000));
+        assertTrue(CharWidth.blockCount() < 256, "duplicate blocks should be shared");
+    }
+}
@@ -0,0 +1,55 @@
+package io.github.bitmeshi.stylr.internal;
+
+import io.github.bitmeshi.stylr.OutputPolicy;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class OutputGateTest {
+    @Test
+    @DisplayName("Test console decides when nothing is configured")
+    void consoleDecides() {
+        assertTrue(OutputGate.decide(null, null, null, true));
+        assertFalse(OutputGate.decide(null, null, null, false));
+        assertFalse(OutputGate.decide("auto", null, null, false));
+        assertTrue(OutputGate.decide("unknown", null, null, true));
+    }
+
+    @Test
+    @DisplayName("Test system property overrides everything")
+    void propertyOverrides() {
+        assertTrue(OutputGate.decide("always", null, "1", false));
+        assertTrue(OutputGate.decide(" ALWAYS ", null, null, false));
+        assertFalse(OutputGate.decide("never", "1", null, true));
+        assertFalse(OutputGate.decide("Never", null, null, true));
+    }
+
+    @Test
+    @DisplayName("Test FORCE_COLOR and NO_COLOR environment variables")
+    void environmentVariables() {
+        assertTrue(OutputGate.decide(null, "1", null, false));
+        assertTrue(OutputGate.decide(null, "1", "1", false));
+        assertFalse(OutputGate.decide(null, null, "1", true));
+        assertTrue(OutputGate.decide(null, "", "", true));
+        assertFalse(OutputGate.decide(null, "", "", false));
+    }
+
+    @Test
+    @DisplayName("Test redirected consoles are not interactive")
+    void redirectedConsole() {
+        assertFalse(OutputGate.decide(null, null, null, OutputGate.interactive(true, false)));
+        assertTrue(OutputGate.decide(null, null, null, OutputGate.interactive(true, true)));
+        assertTrue(OutputGate.decide(null, null, null, OutputGate.interactive(true, null)));
+        assertFalse(OutputGate.decide(null, null, null, OutputGate.interactive(false, null)));
+        assertTrue(OutputGate.decide(null, "1", null, OutputGate.interactive(true, false)));
+    }
+
+    @Test
+    @DisplayName("Test policies resolve against the global decision")
+    void resolvePolicies() {
+        assertTrue(OutputGate.isEnabled(OutputPolicy.ALWAYS));
+        assertFalse(OutputGate.isEnabled(OutputPolicy.NEVER));
+        assertEquals(OutputGate.ENABLED, OutputGate.isEnabled(OutputPolicy.AUTO));
+    }
+}
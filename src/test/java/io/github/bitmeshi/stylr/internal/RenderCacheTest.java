@@ -0,0 +1,98 @@
+package io.github.bitmeshi.stylr.internal;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RenderCacheTest {
+    @Test
+    @DisplayName("Test hit returns the same instance")
+    void hitReturnsSameInstance() {
+        AtomicInteger renders = new AtomicInteger();
+        RenderCache cache = new RenderCache(8, 1_000, text -> {
+            renders.incrementAndGet();
+            return "<" + text + ">";
+        });
+
+        String first = cache.get("OK");
+        String second = cache.get("OK");
+
+        assertEquals("<OK>", first);
+        assertSame(first, second);
+        assertEquals(1, renders.get());
+        assertEquals(1, cache.hits());
+        assertEquals(1, cache.misses());
+    }
+
+    @Test
+    @DisplayName("Test entry bound evicts least recently used")
+    void entryBoundEvictsLeastRecentlyUsed() {
+        RenderCache cache = new RenderCache(1, 1_000, text -> "<" + text + ">");
+
+        String a = cache.get("a");
+        cache.get("b");
+
+        assertEquals(1, cache.size());
+        assertEquals(1, cache.evictions());
+        assertNotSame(a, cache.get("a"));
+    }
+
+    @Test
+    @DisplayName("Test char bound evicts entries")
+    void charBoundEvicts() {
+        RenderCache cache = new RenderCache(1, 10, text -> text);
+
+        cache.get("12345");
+        cache.get("67890");
+        assertEquals(1, cache.size());
+
+        cache.get("abcde");
+        assertEquals(1, cache.size());
+        assertEquals(2, cache.evictions());
+    }
+
+    @Test
+    @DisplayName("Test values larger than the char bound are not cached")
+    void oversizedValuesNotCached() {
+        RenderCache cache = new RenderCache(4, 3, text -> text);
+
+        assertEquals("long text", cache.get("long text"));
+        assertEquals(0, cache.size());
+        assertEquals(0, cache.evictions());
+    }
+
+    @Test
+    @DisplayName("Test size never exceeds the entry bound under concurrency")
+    void concurrentBound() {
+        RenderCache cache = new RenderCache(32, 100_000, text -> "[" + text + "]");
+
+        IntStream.range(0, 20_000).parallel().forEach(i -> {
+            String text = "label-" + (i % 200);
+            assertEquals("[" + text + "]", cache.get(text));
+        });
+
+        assertTrue(cache.size() <= 32);
+        assertEquals(20_000, cache.hits() + cache.misses());
+    }
+
+    @Test
+    @DisplayName("Test clear removes entries")
+    void clearRemovesEntries() {
+        RenderCache cache = new RenderCache(8, 100, text -> text + "!");
+        cache.get("a");
+        cache.get("b");
+        cache.clear();
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    @DisplayName("Test invalid bounds throw exception")
+    void invalidBounds() {
+        assertThrows(IllegalArgumentException.class, () -> new RenderCache(0, 10, text -> text));
+        assertThrows(IllegalArgumentException.class, () -> new RenderCache(10, 0, text -> text));
+    }
+}
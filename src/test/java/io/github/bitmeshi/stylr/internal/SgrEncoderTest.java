@@ -0,0 +1,202 @@
+package io.github.bitmeshi.stylr.internal;
+
+import io.github.bitmeshi.stylr.AllocationMeter;
+import io.github.bitmeshi.stylr.BasicColor;
+import io.github.bitmeshi.stylr.internal.color.PackedColor;
+import io.github.bitmeshi.stylr.internal.color.Rgb;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SgrEncoderTest {
+    private static final StyleConfig FULL = new StyleConfig(
+            null, null,
+            new Rgb(255, 128, 0), new Rgb(0, 10, 200),
+            true, true,
+            true, true,
+            true, true,
+            true, true
+    );
+
+    private static final StyleConfig BASIC = new StyleConfig(
+            BasicColor.BRIGHT_RED, BasicColor.BLUE,
+            null, null,
+            true, false,
+            false, false,
+            false, false,
+            false, false
+    );
+
+    private static final String FULL_SEQUENCE = "\u001b[38;2;255;128;0;48;2;0;10;200;1;2;3;4;5;6;7;8m";
+
+    @Test
+    @DisplayName("Test encode into char array")
+    void encodeIntoCharArray() {
+        char[] buffer = new char[SgrEncoder.MAX_LENGTH + 3];
+        int end = SgrEncoder.encode(FULL, buffer, 3);
+        assertEquals(FULL_SEQUENCE, new String(buffer, 3, end - 3));
+    }
+
+    @Test
+    @DisplayName("Test encode into byte array")
+    void encodeIntoByteArray() {
+        byte[] buffer = new byte[SgrEncoder.MAX_LENGTH];
+        int end = SgrEncoder.encode(FULL, buffer, 0);
+        assertEquals(FULL_SEQUENCE, new String(buffer, 0, end, StandardCharsets.US_ASCII));
+    }
+
+    @Test
+    @DisplayName("Test encode appends to StringBuilder")
+    void encodeIntoStringBuilder() {
+        StringBuilder sb = new StringBuilder("x");
+        SgrEncoder.encode(FULL, sb);
+        assertEquals("x" + FULL_SEQUENCE, sb.toString());
+    }
+
+    @Test
+    @DisplayName("Test encode with basic colors")
+    void encodeBasicColors() {
+        StyleConfig config = new StyleConfig(
+                BasicColor.BRIGHT_RED, BasicColor.BRIGHT_WHITE,
+                null, null,
+                false, false,
+                false, true,
+                false, false,
+                false, false
+        );
+        char[] buffer = new char[SgrEncoder.MAX_LENGTH];
+        int end = SgrEncoder.encode(config, buffer, 0);
+        assertEquals("\u001b[91;107;4m", new String(buffer, 0, end));
+    }
+
+    @Test
+    @DisplayName("Test encode with palette colors")
+    void encodeIndexedColors() {
+        StyleConfig config = new StyleConfig(PackedColor.indexed(208), PackedColor.indexed(17), 0);
+        assertEquals("\u001b[38;5;208;48;5;17m", SgrEncoder.encode(config, new StringBuilder()).toString());
+    }
+
+    @Test
+    @DisplayName("Test encode with no styling writes nothing")
+    void encodeEmpty() {
+        StyleConfig config = new StyleConfig(
+                null, null,
+                null, null,
+                false, false,
+                false, false,
+                false, false,
+                false, false
+        );
+        char[] chars = new char[SgrEncoder.MAX_LENGTH];
+        byte[] bytes = new byte[SgrEncoder.MAX_LENGTH];
+        StringBuilder sb = new StringBuilder("abc");
+
+        assertEquals(5, SgrEncoder.encode(config, chars, 5));
+        assertEquals(0, SgrEncoder.encode(config, bytes, 0));
+        assertEquals("abc", SgrEncoder.encode(config, sb).toString());
+    }
+
+    @Test
+    @DisplayName("Test encode does not allocate after warm-up")
+    @ExtendWith(AllocationMeter.class)
+    void encodeDoesNotAllocate(AllocationMeter meter) {
+        char[] chars = new char[SgrEncoder.MAX_LENGTH];
+        byte[] bytes = new byte[SgrEncoder.MAX_LENGTH];
+        StringBuilder sb = new StringBuilder(SgrEncoder.MAX_LENGTH);
+
+        meter.assertAllocatesNothing(() -> {
+            SgrEncoder.encode(FULL, chars, 0);
+            SgrEncoder.encode(FULL, bytes, 0);
+            SgrEncoder.encode(FULL, sb).setLength(0);
+            SgrEncoder.encode(BASIC, chars, 0);
+            SgrEncoder.encode(BASIC, bytes, 0);
+            SgrEncoder.encode(BASIC, sb).setLength(0);
+            return sb;
+        });
+        meter.assertAllocatesNothing(() -> SgrEncoder.encodeTransition(BASIC, FULL, chars, 0));
+    }
+
+    @Test
+    @DisplayName("Test transition between equal configurations writes nothing")
+    void transitionEqual() {
+        StringBuilder sb = new StringBuilder();
+        SgrEncoder.encodeTransition(BASIC, BASIC, sb);
+        SgrEncoder.encodeTransition(StyleConfig.EMPTY, StyleConfig.EMPTY, sb);
+        assertEquals("", sb.toString());
+    }
+
+    @Test
+    @DisplayName("Test transition from empty writes the full sequence")
+    void transitionFromEmpty() {
+        assertEquals(FULL_SEQUENCE, transition(StyleConfig.EMPTY, FULL));
+    }
+
+    @Test
+    @DisplayName("Test transition to empty writes a full reset")
+    void transitionToEmpty() {
+        assertEquals("\u001b[0m", transition(FULL, StyleConfig.EMPTY));
+    }
+
+    @Test
+    @DisplayName("Test transition only writes changed colors")
+    void transitionChangedColors() {
+        StyleConfig red = config(PackedColor.basic(BasicColor.RED), PackedColor.NONE, StyleConfig.BOLD);
+        StyleConfig blue = config(PackedColor.basic(BasicColor.BLUE), PackedColor.NONE, StyleConfig.BOLD);
+        StyleConfig blueOnWhite = config(PackedColor.basic(BasicColor.BLUE), PackedColor.rgb(0xFFFFFF), StyleConfig.BOLD);
+
+        assertEquals("\u001b[34m", transition(red, blue));
+        assertEquals("\u001b[48;2;255;255;255m", transition(blue, blueOnWhite));
+        assertEquals("\u001b[49m", transition(blueOnWhite, blue));
+        assertEquals("\u001b[39m", transition(blue, config(PackedColor.NONE, PackedColor.NONE, StyleConfig.BOLD)));
+    }
+
+    @Test
+    @DisplayName("Test transition uses targeted attribute resets")
+    void transitionTargetedResets() {
+        int all = 0xFF;
+        StyleConfig none = config(PackedColor.basic(BasicColor.RED), PackedColor.NONE, 0);
+        StyleConfig full = config(PackedColor.basic(BasicColor.RED), PackedColor.NONE, all);
+
+        assertEquals("\u001b[22;23;24;25;27;28m", transition(full, none));
+        assertEquals("\u001b[3m", transition(none, config(PackedColor.basic(BasicColor.RED), PackedColor.NONE, StyleConfig.ITALIC)));
+    }
+
+    @Test
+    @DisplayName("Test transition re-enables attributes cleared by shared resets")
+    void transitionSharedResets() {
+        StyleConfig boldDim = config(PackedColor.NONE, PackedColor.basic(BasicColor.BLACK), StyleConfig.BOLD | StyleConfig.DIM);
+        StyleConfig dim = config(PackedColor.NONE, PackedColor.basic(BasicColor.BLACK), StyleConfig.DIM);
+        StyleConfig bothBlinks = config(PackedColor.NONE, PackedColor.basic(BasicColor.BLACK), StyleConfig.SLOW_BLINK | StyleConfig.RAPID_BLINK);
+        StyleConfig rapidBlink = config(PackedColor.NONE, PackedColor.basic(BasicColor.BLACK), StyleConfig.RAPID_BLINK);
+
+        assertEquals("\u001b[22;2m", transition(boldDim, dim));
+        assertEquals("\u001b[25;6m", transition(bothBlinks, rapidBlink));
+    }
+
+    @Test
+    @DisplayName("Test transition into byte and char arrays")
+    void transitionIntoArrays() {
+        char[] chars = new char[SgrEncoder.MAX_LENGTH];
+        byte[] bytes = new byte[SgrEncoder.MAX_LENGTH];
+
+        int charEnd = SgrEncoder.encodeTransition(FULL, BASIC, chars, 0);
+        int byteEnd = SgrEncoder.encodeTransition(FULL, BASIC, bytes, 0);
+
+        String expected = transition(FULL, BASIC);
+        assertEquals(expected, new String(chars, 0, charEnd));
+        assertEquals(expected, new String(bytes, 0, byteEnd, StandardCharsets.US_ASCII));
+        assertEquals("\u001b[22;23;24;25;27;28;91;44;1m", expected);
+    }
+
+    private static StyleConfig config(int color, int bgColor, int attributes) {
+        return new StyleConfig(color, bgColor, attributes);
+    }
+
+    private static String transition(StyleConfig from, StyleConfig to) {
+        return SgrEncoder.encodeTransition(from, to, new StringBuilder()).toString();
+    }
+}
@@ -0,0 +1,107 @@
+package io.github.bitmeshi.stylr.internal;
+
+import io.github.bitmeshi.stylr.BasicColor;
+import io.github.bitmeshi.stylr.internal.color.PackedColor;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SgrStateTest {
+    private static StyleConfig apply(SgrState state, int colonMask, int... params) {
+        state.apply(params, params.length, colonMask);
+        return state.toConfig();
+    }
+
+    @Test
+    @DisplayName("Test attributes are set and cleared")
+    void attributes() {
+        SgrState state = new SgrState();
+
+        StyleConfig config = apply(state, 0, 1, 3, 4, 7);
+        assertEquals(StyleConfig.BOLD | StyleConfig.ITALIC | StyleConfig.UNDERLINED | StyleConfig.REVERSE,
+                config.attributes());
+
+        config = apply(state, 0, 22, 24);
+        assertEquals(StyleConfig.ITALIC | StyleConfig.REVERSE, config.attributes());
+
+        assertSame(StyleConfig.EMPTY, apply(state, 0));
+    }
+
+    @Test
+    @DisplayName("Test basic and bright colors")
+    void basicColors() {
+        SgrState state = new SgrState();
+
+        StyleConfig config = apply(state, 0, 31, 104);
+        assertEquals(PackedColor.basic(BasicColor.RED), config.color());
+        assertEquals(PackedColor.basic(BasicColor.BRIGHT_BLUE), config.bgColor());
+
+        config = apply(state, 0, 39);
+        assertEquals(PackedColor.NONE, config.color());
+        assertEquals(PackedColor.basic(BasicColor.BRIGHT_BLUE), config.bgColor());
+    }
+
+    @Test
+    @DisplayName("Test extended colors in semicolon and colon form")
+    void extendedColors() {
+        SgrState state = new SgrState();
+
+        StyleConfig config = apply(state, 0, 38, 2, 255, 128, 0, 48, 5, 208, 1);
+        assertEquals(PackedColor.rgb(255, 128, 0), config.color());
+        assertEquals(PackedColor.indexed(208), config.bgColor());
+        assertTrue(config.has(StyleConfig.BOLD));
+
+        // 38:2::10:20:30;48:5:17
+        config = apply(state, 0b110111110, 38, 2, 0, 10, 20, 30, 48, 5, 17);
+        assertEquals(PackedColor.rgb(10, 20, 30), config.color());
+        assertEquals(PackedColor.indexed(17), config.bgColor());
+    }
+
+    @Test
+    @DisplayName("Test colon sub-parameters of underline")
+    void underlineSubParameters() {
+        SgrState state = new SgrState();
+
+        assertTrue(apply(state, 0b10, 4, 3).has(StyleConfig.UNDERLINED));
+        assertFalse(apply(state, 0b10, 4, 0).has(StyleConfig.UNDERLINED));
+    }
+
+    @Test
+    @DisplayName("Test invalid extended colors are ignored")
+    void invalidExtendedColors() {
+        SgrState state = new SgrState();
+
+        assertEquals(PackedColor.NONE, apply(state, 0, 38, 5, 300).color());
+        assertEquals(PackedColor.NONE, apply(state, 0, 38, 2, 1).color());
+        assertEquals(PackedColor.basic(BasicColor.RED), apply(state, 0, 38, 9, 31).color());
+    }
+
+    @Test
+    @DisplayName("Test applying SGR sequences from text")
+    void applySequence() {
+        SgrState state = new SgrState();
+        String text = "\u001b[1;38:5:208m\u001b[2J\u001b[?1m\u001b[m";
+
+        assertTrue(state.applySequence(text, 0, 13));
+        assertTrue(state.toConfig().has(StyleConfig.BOLD));
+        assertEquals(PackedColor.indexed(208), state.toConfig().color());
+
+        assertFalse(state.applySequence(text, 13, 17));
+        assertFalse(state.applySequence(text, 17, 22));
+        assertFalse(state.isEmpty());
+
+        assertTrue(state.applySequence(text, 22, 25));
+        assertTrue(state.isEmpty());
+    }
+
+    @Test
+    @DisplayName("Test packed form matches the configuration")
+    void packed() {
+        SgrState state = new SgrState();
+        assertEquals(StyleConfig.EMPTY.packed(), state.packed());
+
+        StyleConfig config = apply(state, 0, 1, 38, 2, 10, 20, 30, 44);
+        assertEquals(config.packed(), state.packed());
+    }
+}
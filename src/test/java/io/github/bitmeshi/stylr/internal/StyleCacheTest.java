@@ -0,0 +1,121 @@
+package io.github.bitmeshi.stylr.internal;
+
+import io.github.bitmeshi.stylr.AllocationMeter;
+import io.github.bitmeshi.stylr.BasicColor;
+import io.github.bitmeshi.stylr.Style;
+import io.github.bitmeshi.stylr.internal.color.PackedColor;
+import io.github.bitmeshi.stylr.internal.color.Rgb;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.Set;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class StyleCacheTest {
+    @Test
+    @DisplayName("Test equal configurations intern to the same Style")
+    void internReturnsSameInstance() {
+        StyleConfig first = new StyleConfig(
+                BasicColor.MAGENTA, null,
+                null, null,
+                true, false,
+                false, true,
+                false, false,
+                false, false
+        );
+        StyleConfig second = new StyleConfig(
+                BasicColor.MAGENTA, null,
+                null, null,
+                true, false,
+                false, true,
+                false, false,
+                false, false
+        );
+
+        Style style = StyleCache.intern(first);
+        assertSame(style, StyleCache.intern(second));
+        assertEquals("\u001b[35;1;4mHi\u001b[0m", style.apply("Hi"));
+    }
+
+    @Test
+    @DisplayName("Test repeated lookups count as hits")
+    void repeatedLookupsAreHits() {
+        StyleConfig config = new StyleConfig(
+                null, null,
+                new Rgb(12, 34, 56), null,
+                false, false,
+                false, false,
+                false, false,
+                true, false
+        );
+        StyleCache.intern(config);
+
+        long hits = StyleCache.hits();
+        StyleCache.intern(config);
+        StyleCache.intern(config);
+
+        assertTrue(StyleCache.hits() >= hits + 2);
+    }
+
+    @Test
+    @DisplayName("Test concurrent interning yields one instance per configuration")
+    void concurrentIntern() {
+        StyleConfig config = new StyleConfig(
+                null, null,
+                new Rgb(98, 76, 54), new Rgb(32, 10, 0),
+                false, true,
+                false, false,
+                false, false,
+                false, false
+        );
+        Set<Style> seen = ConcurrentHashMap.newKeySet();
+
+        IntStream.range(0, 1_000).parallel().forEach(i -> seen.add(StyleCache.intern(config)));
+
+        assertEquals(1, seen.size());
+    }
+
+    @Test
+    @DisplayName("Test styles beyond the table capacity evict older entries")
+    void overflowEvicts() {
+        long evictions = StyleCache.evictions();
+
+        for (int i = 0; i < 10_000; i++) {
+            StyleConfig config = new StyleConfig(
+                    null, null,
+                    new Rgb(i >>> 8 & 0xFF, i & 0xFF, 7), null,
+                    false, false,
+                    false, false,
+                    false, false,
+                    false, false
+            );
+            String expected = "\u001b[38;2;" + (i >>> 8 & 0xFF) + ";" + (i & 0xFF) + ";7mx\u001b[0m";
+            assertEquals(expected, StyleCache.intern(config).apply("x"));
+        }
+
+        assertTrue(StyleCache.evictions() > evictions);
+    }
+
+    @Test
+    @DisplayName("Test interning by fields matches interning by configuration")
+    void internFields() {
+        StyleConfig config = new StyleConfig(PackedColor.rgb(9, 8, 7), PackedColor.basic(4), StyleConfig.ITALIC);
+        Style style = StyleCache.intern(config.color(), config.bgColor(), config.attributes());
+
+        assertEquals(StyleFactory.create(config).apply("x"), style.apply("x"));
+        assertSame(style, StyleCache.intern(config));
+    }
+
+    @Test
+    @DisplayName("Test interning by fields does not allocate on a hit")
+    @ExtendWith(AllocationMeter.class)
+    void internFieldsAllocation(AllocationMeter meter) {
+        int color = PackedColor.rgb(1, 2, 3);
+
+        meter.assertAllocatesNothing(() -> StyleCache.intern(color, PackedColor.NONE, StyleConfig.BOLD));
+    }
+}
@@ -0,0 +1,103 @@
+package io.github.bitmeshi.stylr.internal;
+
+import io.github.bitmeshi.stylr.BasicColor;
+import io.github.bitmeshi.stylr.internal.color.Rgb;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class StyleConfigTest {
+    @Test
+    @DisplayName("Test empty configuration packs to zero")
+    void emptyPacksToZero() {
+        StyleConfig config = new StyleConfig(
+                null, null,
+                null, null,
+                false, false,
+                false, false,
+                false, false,
+                false, false
+        );
+        assertEquals(0L, config.packed());
+    }
+
+    @Test
+    @DisplayName("Test packed form round trips")
+    void packedRoundTrip() {
+        StyleConfig basic = new StyleConfig(
+                BasicColor.BRIGHT_CYAN, BasicColor.BLACK,
+                null, null,
+                true, false,
+                true, false,
+                false, true,
+                false, true
+        );
+        StyleConfig rgb = new StyleConfig(
+                null, null,
+                new Rgb(255, 0, 128), new Rgb(1, 2, 3),
+                false, true,
+                false, true,
+                true, false,
+                true, false
+        );
+
+        assertEquals(basic, StyleConfig.unpack(basic.packed()));
+        assertEquals(rgb, StyleConfig.unpack(rgb.packed()));
+    }
+
+    @Test
+    @DisplayName("Test distinct configurations pack to distinct keys")
+    void distinctKeys() {
+        StyleConfig red = new StyleConfig(
+                BasicColor.RED, null,
+                null, null,
+                false, false,
+                false, false,
+                false, false,
+                false, false
+        );
+        StyleConfig redBackground = new StyleConfig(
+                null, BasicColor.RED,
+                null, null,
+                false, false,
+                false, false,
+                false, false,
+                false, false
+        );
+        StyleConfig black = new StyleConfig(
+                null, null,
+                new Rgb(0, 0, 0), null,
+                false, false,
+                false, false,
+                false, false,
+                false, false
+        );
+
+        assertNotEquals(red.packed(), redBackground.packed());
+        assertNotEquals(red.packed(), black.packed());
+        assertNotEquals(0L, black.packed());
+    }
+
+    @Test
+    @DisplayName("Test RGB color takes precedence over basic color in packed form")
+    void rgbTakesPrecedence() {
+        StyleConfig both = new StyleConfig(
+                BasicColor.RED, null,
+                new Rgb(10, 20, 30), null,
+                false, false,
+                false, false,
+                false, false,
+                false, false
+        );
+        StyleConfig rgbOnly = new StyleConfig(
+                null, null,
+                new Rgb(10, 20, 30), null,
+                false, false,
+                false, false,
+                false, false,
+                false, false
+        );
+        assertEquals(rgbOnly.packed(), both.packed());
+    }
+}
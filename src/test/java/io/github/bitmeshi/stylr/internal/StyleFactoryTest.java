@@ -0,0 +1,40 @@
+package io.github.bitmeshi.stylr.internal;
+
+import io.github.bitmeshi.stylr.BasicColor;
+import io.github.bitmeshi.stylr.Stylr;
+import io.github.bitmeshi.stylr.internal.color.PackedColor;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class StyleFactoryTest {
+    @Test
+    @DisplayName("Test created styles match built styles")
+    void create() {
+        StyleConfig config = new StyleConfig(PackedColor.basic(1), PackedColor.NONE, StyleConfig.BOLD);
+
+        assertEquals(Stylr.style().color(BasicColor.RED).bold().build().apply("x"),
+                StyleFactory.create(config).apply("x"));
+        assertNotSame(StyleFactory.create(config), StyleFactory.create(config));
+        assertThrows(NullPointerException.class, () -> StyleFactory.create(null));
+    }
+
+    @Test
+    @DisplayName("Test the constructor cannot be registered twice")
+    void registerOnce() {
+        StyleFactory.create(StyleConfig.EMPTY);
+
+        assertThrows(IllegalStateException.class, () -> StyleFactory.register(config -> null));
+    }
+
+    @Test
+    @DisplayName("Test only Style can register the constructor")
+    void registerOnlyFromStyle() {
+        IllegalStateException e = assertThrows(IllegalStateException.class,
+                () -> StyleFactory.register(config -> null));
+
+        assertEquals("Only Style can register the style constructor", e.getMessage());
+        assertNotNull(StyleFactory.create(StyleConfig.EMPTY));
+    }
+}
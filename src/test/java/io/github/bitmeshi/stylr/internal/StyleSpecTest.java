@@ -0,0 +1,49 @@
+package io.github.bitmeshi.stylr.internal;
+
+import io.github.bitmeshi.stylr.BasicColor;
+import io.github.bitmeshi.stylr.internal.color.PackedColor;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class StyleSpecTest {
+    @Test
+    @DisplayName("Test parsing attributes and colors")
+    void parse() {
+        StyleConfig config = StyleSpec.parse("  bold italic red on #202020 ");
+
+        assertEquals(StyleConfig.BOLD | StyleConfig.ITALIC, config.attributes());
+        assertEquals(PackedColor.basic(BasicColor.RED), config.color());
+        assertEquals(PackedColor.rgb(0x202020), config.bgColor());
+        assertTrue(StyleSpec.parse("").isEmpty());
+    }
+
+    @Test
+    @DisplayName("Test parsing rgb and palette colors")
+    void parseFunctions() {
+        assertEquals(PackedColor.rgb(1, 2, 3), StyleSpec.parse("rgb( 1, 2 ,3 )").color());
+        assertEquals(PackedColor.indexed(17), StyleSpec.parse("on color(17)").bgColor());
+    }
+
+    @Test
+    @DisplayName("Test invalid specifications throw exception")
+    void invalid() {
+        assertThrows(IllegalArgumentException.class, () -> StyleSpec.parse("purple"));
+        assertThrows(IllegalArgumentException.class, () -> StyleSpec.parse("rgb(1,2)"));
+        assertThrows(IllegalArgumentException.class, () -> StyleSpec.parse("color(256)"));
+        assertThrows(IllegalArgumentException.class, () -> StyleSpec.parse("#12345"));
+        assertThrows(IllegalArgumentException.class, () -> StyleSpec.parse("on"));
+    }
+
+    @Test
+    @DisplayName("Test overlaying configurations")
+    void overlay() {
+        StyleConfig outer = StyleSpec.parse("bold red on blue");
+        StyleConfig inner = outer.overlay(StyleSpec.parse("italic green"));
+
+        assertEquals(PackedColor.basic(BasicColor.GREEN), inner.color());
+        assertEquals(PackedColor.basic(BasicColor.BLUE), inner.bgColor());
+        assertEquals(StyleConfig.BOLD | StyleConfig.ITALIC, inner.attributes());
+    }
+}
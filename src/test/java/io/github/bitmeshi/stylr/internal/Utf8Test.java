@@ -0,0 +1,66 @@
+package io.github.bitmeshi.stylr.internal;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class Utf8Test {
+    private static final String[] SAMPLES = {
+            "",
+            "plain ascii",
+            "café",
+            "世界",
+            "emoji 🌍 and 👍",
+            "lone \ud800 surrogate",
+            "trailing \udc00",
+            "ends with high \ud83c"
+    };
+
+    @Test
+    @DisplayName("Test encoded length matches String.getBytes")
+    void encodedLengthMatchesJdk() {
+        for (String sample : SAMPLES) {
+            assertEquals(sample.getBytes(StandardCharsets.UTF_8).length,
+                    Utf8.encodedLength(sample, 0, sample.length()), sample);
+        }
+    }
+
+    @Test
+    @DisplayName("Test encoding into arrays and buffers matches String.getBytes")
+    void encodeMatchesJdk() {
+        for (String sample : SAMPLES) {
+            byte[] expected = sample.getBytes(StandardCharsets.UTF_8);
+
+            byte[] array = new byte[expected.length + 2];
+            int end = Utf8.encode(sample, 0, sample.length(), array, 2);
+            assertArrayEquals(expected, Arrays.copyOfRange(array, 2, end), sample);
+
+            ByteBuffer direct = ByteBuffer.allocateDirect(expected.length);
+            Utf8.encode(sample, 0, sample.length(), direct);
+            assertEquals(expected.length, direct.position());
+            byte[] fromDirect = new byte[expected.length];
+            direct.flip().get(fromDirect);
+            assertArrayEquals(expected, fromDirect, sample);
+
+            ByteBuffer heap = ByteBuffer.allocate(expected.length + 1).position(1);
+            Utf8.encode(sample, 0, sample.length(), heap);
+            assertEquals(expected.length + 1, heap.position());
+        }
+    }
+
+    @Test
+    @DisplayName("Test encoding a range")
+    void encodeRange() {
+        String text = "abécd";
+        assertEquals(3, Utf8.encodedLength(text, 1, 3));
+
+        byte[] dst = new byte[3];
+        Utf8.encode(text, 1, 3, dst, 0);
+        assertEquals("bé", new String(dst, StandardCharsets.UTF_8));
+    }
+}
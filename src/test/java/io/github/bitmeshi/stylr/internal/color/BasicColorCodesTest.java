@@ -0,0 +1,35 @@
+package io.github.bitmeshi.stylr.internal.color;
+
+import io.github.bitmeshi.stylr.BasicColor;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BasicColorCodesTest {
+    @Test
+    @DisplayName("Test codes by ordinal match BasicColor")
+    void codesMatchBasicColor() {
+        assertEquals(BasicColor.values().length, BasicColorCodes.count());
+
+        for (BasicColor color : BasicColor.values()) {
+            int ordinal = color.ordinal();
+            assertSame(color, BasicColorCodes.color(ordinal));
+            assertEquals(color.getAnsiCode(false), Integer.toString(BasicColorCodes.code(ordinal, false)));
+            assertEquals(color.getAnsiCode(true), Integer.toString(BasicColorCodes.code(ordinal, true)));
+            assertEquals(color.getAnsiCode(false),
+                    new String(BasicColorCodes.codeBytes(ordinal, false), StandardCharsets.UTF_8));
+            assertEquals(color.getAnsiCode(true),
+                    new String(BasicColorCodes.codeBytes(ordinal, true), StandardCharsets.UTF_8));
+        }
+    }
+
+    @Test
+    @DisplayName("Test bright background codes use three digits")
+    void brightBackgroundCodes() {
+        assertEquals(100, BasicColorCodes.code(BasicColor.BRIGHT_BLACK.ordinal(), true));
+        assertEquals(107, BasicColorCodes.code(BasicColor.BRIGHT_WHITE.ordinal(), true));
+    }
+}
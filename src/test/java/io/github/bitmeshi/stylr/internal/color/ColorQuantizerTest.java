@@ -0,0 +1,99 @@
+package io.github.bitmeshi.stylr.internal.color;
+
+import io.github.bitmeshi.stylr.BasicColor;
+import io.github.bitmeshi.stylr.ColorLevel;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ColorQuantizerTest {
+    @Test
+    @DisplayName("Test palette RGB values")
+    void paletteRgb() {
+        assertEquals(0x000000, ColorQuantizer.indexedToRgb(16));
+        assertEquals(0xFFFFFF, ColorQuantizer.indexedToRgb(231));
+        assertEquals(0xFF8700, ColorQuantizer.indexedToRgb(208));
+        assertEquals(0x080808, ColorQuantizer.indexedToRgb(232));
+        assertEquals(0xEEEEEE, ColorQuantizer.indexedToRgb(255));
+        assertEquals(0xFF0000, ColorQuantizer.indexedToRgb(BasicColor.BRIGHT_RED.ordinal()));
+    }
+
+    @Test
+    @DisplayName("Test color cube entries map to themselves")
+    void cubeColorsRoundTrip() {
+        for (int index = 16; index < 232; index++) {
+            assertEquals(index, ColorQuantizer.toIndexed(ColorQuantizer.indexedToRgb(index)), "index " + index);
+        }
+    }
+
+    @Test
+    @DisplayName("Test mapping RGB to the 256-color palette")
+    void toIndexed() {
+        assertEquals(196, ColorQuantizer.toIndexed(0xFF0000));
+        assertEquals(208, ColorQuantizer.toIndexed(0xFF8000));
+        assertEquals(16, ColorQuantizer.toIndexed(0x000000));
+        assertEquals(231, ColorQuantizer.toIndexed(0xFFFFFF));
+        assertEquals(243, ColorQuantizer.toIndexed(0x767676));
+    }
+
+    @Test
+    @DisplayName("Test mapping RGB to basic colors")
+    void toBasic() {
+        assertEquals(BasicColor.BRIGHT_RED.ordinal(), ColorQuantizer.toBasic(0xFF0000));
+        assertEquals(BasicColor.RED.ordinal(), ColorQuantizer.toBasic(0xC00000));
+        assertEquals(BasicColor.BLACK.ordinal(), ColorQuantizer.toBasic(0x101010));
+        assertEquals(BasicColor.BRIGHT_WHITE.ordinal(), ColorQuantizer.toBasic(0xFAFAFA));
+        assertEquals(BasicColor.BRIGHT_BLACK.ordinal(), ColorQuantizer.toBasic(0x808080));
+        assertEquals(BasicColor.BLUE.ordinal(), ColorQuantizer.toBasic(0x0000E0));
+        assertEquals(BasicColor.YELLOW.ordinal(), ColorQuantizer.toBasic(0xFF8000));
+    }
+
+    @Test
+    @DisplayName("Test table lookups match a brute force search")
+    void matchesBruteForce() {
+        for (int rgb = 0; rgb < 0x1000000; rgb += 0x010305) {
+            int key = rgb & 0xF8F8F8 | 0x040404;
+            assertEquals(bruteForceIndexed(key), ColorQuantizer.toIndexed(rgb), Integer.toHexString(rgb));
+        }
+    }
+
+    @Test
+    @DisplayName("Test downsampling packed colors")
+    void downsample() {
+        int rgb = PackedColor.rgb(0xFF0000);
+        int indexed = PackedColor.indexed(196);
+        int lowIndex = PackedColor.indexed(4);
+        int basic = PackedColor.basic(BasicColor.GREEN);
+
+        assertEquals(rgb, ColorQuantizer.downsample(rgb, ColorLevel.TRUECOLOR));
+        assertEquals(indexed, ColorQuantizer.downsample(rgb, ColorLevel.ANSI_256));
+        assertEquals(PackedColor.basic(BasicColor.BRIGHT_RED), ColorQuantizer.downsample(rgb, ColorLevel.ANSI_16));
+        assertEquals(PackedColor.NONE, ColorQuantizer.downsample(rgb, ColorLevel.NONE));
+
+        assertEquals(indexed, ColorQuantizer.downsample(indexed, ColorLevel.ANSI_256));
+        assertEquals(PackedColor.basic(BasicColor.BRIGHT_RED), ColorQuantizer.downsample(indexed, ColorLevel.ANSI_16));
+        assertEquals(PackedColor.basic(BasicColor.BLUE), ColorQuantizer.downsample(lowIndex, ColorLevel.ANSI_16));
+
+        assertEquals(basic, ColorQuantizer.downsample(basic, ColorLevel.ANSI_16));
+        assertEquals(PackedColor.NONE, ColorQuantizer.downsample(basic, ColorLevel.NONE));
+        assertEquals(PackedColor.NONE, ColorQuantizer.downsample(PackedColor.NONE, ColorLevel.ANSI_16));
+    }
+
+    private static int bruteForceIndexed(int rgb) {
+        int best = -1;
+        int bestDistance = Integer.MAX_VALUE;
+        for (int index = 16; index < 256; index++) {
+            int candidate = ColorQuantizer.indexedToRgb(index);
+            int dr = (candidate >>> 16) - (rgb >>> 16 & 0xFF);
+            int dg = (candidate >>> 8 & 0xFF) - (rgb >>> 8 & 0xFF);
+            int db = (candidate & 0xFF) - (rgb & 0xFF);
+            int d = dr * dr + dg * dg + db * db;
+            if (d < bestDistance) {
+                best = index;
+                bestDistance = d;
+            }
+        }
+        return best;
+    }
+}
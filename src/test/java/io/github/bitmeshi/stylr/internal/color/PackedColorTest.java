@@ -0,0 +1,62 @@
+package io.github.bitmeshi.stylr.internal.color;
+
+import io.github.bitmeshi.stylr.BasicColor;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PackedColorTest {
+    @Test
+    @DisplayName("Test packing basic colors")
+    void packBasic() {
+        int packed = PackedColor.basic(BasicColor.BRIGHT_GREEN);
+        assertEquals(PackedColor.KIND_BASIC, PackedColor.kind(packed));
+        assertEquals(BasicColor.BRIGHT_GREEN.ordinal(), PackedColor.value(packed));
+        assertEquals(packed, PackedColor.of(BasicColor.BRIGHT_GREEN));
+    }
+
+    @Test
+    @DisplayName("Test packing RGB colors")
+    void packRgb() {
+        int packed = PackedColor.rgb(0x12, 0x34, 0x56);
+        assertEquals(PackedColor.KIND_RGB, PackedColor.kind(packed));
+        assertEquals(0x123456, PackedColor.value(packed));
+        assertEquals(0x12, PackedColor.red(packed));
+        assertEquals(0x34, PackedColor.green(packed));
+        assertEquals(0x56, PackedColor.blue(packed));
+        assertEquals(packed, PackedColor.rgb(0x123456));
+        assertEquals(packed, PackedColor.of(new Rgb(0x12, 0x34, 0x56)));
+    }
+
+    @Test
+    @DisplayName("Test packing palette indices")
+    void packIndexed() {
+        int packed = PackedColor.indexed(208);
+        assertEquals(PackedColor.KIND_INDEXED, PackedColor.kind(packed));
+        assertEquals(208, PackedColor.value(packed));
+        assertEquals(PackedColor.basic(BasicColor.RED), PackedColor.basic(BasicColor.RED.ordinal()));
+        assertNotEquals(PackedColor.NONE, PackedColor.indexed(0));
+    }
+
+    @Test
+    @DisplayName("Test black is distinct from no color")
+    void blackIsNotNone() {
+        assertNotEquals(PackedColor.NONE, PackedColor.rgb(0));
+        assertNotEquals(PackedColor.NONE, PackedColor.basic(BasicColor.BLACK));
+        assertEquals(PackedColor.KIND_NONE, PackedColor.kind(PackedColor.NONE));
+        assertEquals(PackedColor.NONE, PackedColor.of((Rgb) null));
+        assertEquals(PackedColor.NONE, PackedColor.of((BasicColor) null));
+    }
+
+    @Test
+    @DisplayName("Test out of range values throw exception")
+    void outOfRange() {
+        assertThrows(IllegalArgumentException.class, () -> PackedColor.rgb(0x1000000));
+        assertThrows(IllegalArgumentException.class, () -> PackedColor.rgb(-1));
+        assertThrows(IllegalArgumentException.class, () -> PackedColor.rgb(256, 0, 0));
+        assertThrows(IllegalArgumentException.class, () -> PackedColor.rgb(0, -1, 0));
+        assertThrows(IllegalArgumentException.class, () -> PackedColor.indexed(256));
+        assertThrows(IllegalArgumentException.class, () -> PackedColor.indexed(-1));
+    }
+}
@@ -118,15 +118,17 @@ class RgbTest {
     @Test
     @DisplayName("Test fromHex throws exception for invalid format")
     void testFromHexInvalidFormat() {
-        // Missing # prefix
-        assertThrows(IllegalArgumentException.class, () -> Rgb.fromHex("FF0000"));
-        assertThrows(IllegalArgumentException.class, () -> Rgb.fromHex("ABC"));
+        // Wrong length without # prefix
+        assertThrows(IllegalArgumentException.class, () -> Rgb.fromHex("FF00"));
+        assertThrows(IllegalArgumentException.class, () -> Rgb.fromHex("FFFFFFF"));
+        assertThrows(IllegalArgumentException.class, () -> Rgb.fromHex("##FFF"));
 
         // Wrong length
         assertThrows(IllegalArgumentException.class, () -> Rgb.fromHex("#FF"));
         assertThrows(IllegalArgumentException.class, () -> Rgb.fromHex("#FFFF"));
         assertThrows(IllegalArgumentException.class, () -> Rgb.fromHex("#FFFFF"));
         assertThrows(IllegalArgumentException.class, () -> Rgb.fromHex("#FFFFFFF"));
+        assertThrows(IllegalArgumentException.class, () -> Rgb.fromHex("#FFFFFFFFF"));
 
         // Empty string
         assertThrows(IllegalArgumentException.class, () -> Rgb.fromHex(""));
@@ -155,9 +157,9 @@ class RgbTest {
     @DisplayName("Test fromHex exception messages")
     void testFromHexExceptionMessages() {
         IllegalArgumentException exception1 = assertThrows(IllegalArgumentException.class,
-            () -> Rgb.fromHex("FF0000"));
+            () -> Rgb.fromHex("FF00"));
         assertTrue(exception1.getMessage().contains("Invalid hexadecimal color format"));
-        assertTrue(exception1.getMessage().contains("FF0000"));
+        assertTrue(exception1.getMessage().contains("FF00"));
 
         IllegalArgumentException exception2 = assertThrows(IllegalArgumentException.class,
             () -> Rgb.fromHex("#GGGGGG"));
@@ -192,4 +194,44 @@ class RgbTest {
         assertThrows(IllegalArgumentException.class, () -> Rgb.fromHex("#12+456"));
         assertThrows(IllegalArgumentException.class, () -> Rgb.fromHex("#FF*00A"));
     }
+
+    @Test
+    @DisplayName("Test fromHex without # prefix")
+    void testFromHexWithoutHash() {
+        assertEquals(new Rgb(255, 0, 0), Rgb.fromHex("FF0000"));
+        assertEquals(new Rgb(170, 187, 204), Rgb.fromHex("ABC"));
+        assertEquals(new Rgb(18, 52, 86), Rgb.fromHex("12345678"));
+    }
+
+    @Test
+    @DisplayName("Test fromHex with 8-digit format (#RRGGBBAA) ignores alpha")
+    void testFromHexWithAlpha() {
+        assertEquals(new Rgb(255, 128, 64), Rgb.fromHex("#FF804000"));
+        assertEquals(new Rgb(255, 128, 64), Rgb.fromHex("#ff8040ff"));
+    }
+
+    @Test
+    @DisplayName("Test parseHex returns packed AARRGGBB")
+    void testParseHexPacked() {
+        assertEquals(0xFFFF8040, Rgb.parseHex("#FF8040"));
+        assertEquals(0xFFAABBCC, Rgb.parseHex("abc"));
+        assertEquals(0x80123456, Rgb.parseHex("#12345680"));
+        assertEquals(0xFFFFFFFF, Rgb.parseHex(new StringBuilder("#FFFFFFFF")));
+        assertEquals(0xFF000000, Rgb.parseHex("000"));
+    }
+
+    @Test
+    @DisplayName("Test tryParseHex does not throw on invalid input")
+    void testTryParseHex() {
+        assertEquals(0xFFFF8040L, Rgb.tryParseHex("#FF8040"));
+        assertEquals(0xFFFFFFFFL, Rgb.tryParseHex("#FFFFFFFF"));
+        assertEquals(0x00000000L, Rgb.tryParseHex("#00000000"));
+
+        assertTrue(Rgb.tryParseHex("") < 0);
+        assertTrue(Rgb.tryParseHex("#") < 0);
+        assertTrue(Rgb.tryParseHex("#FFFF") < 0);
+        assertTrue(Rgb.tryParseHex("#GGGGGG") < 0);
+        assertTrue(Rgb.tryParseHex("#12 456") < 0);
+        assertTrue(Rgb.tryParseHex("#12345\u0661") < 0);
+    }
 }
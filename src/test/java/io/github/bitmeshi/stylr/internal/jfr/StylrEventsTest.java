@@ -0,0 +1,68 @@
+package io.github.bitmeshi.stylr.internal.jfr;
+
+import io.github.bitmeshi.stylr.Markup;
+import io.github.bitmeshi.stylr.StyledWriter;
+import io.github.bitmeshi.stylr.Stylr;
+import jdk.jfr.EventType;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class StylrEventsTest {
+    @Test
+    @DisplayName("Test events are disabled by default")
+    void disabledByDefault() {
+        for (Class<? extends jdk.jfr.Event> type : List.of(
+                CacheMissEvent.class, SlowRenderEvent.class, SinkFlushEvent.class, MarkupCompileEvent.class)) {
+            assertFalse(EventType.getEventType(type).isEnabled(), type.getSimpleName());
+        }
+    }
+
+    @Test
+    @DisplayName("Test enabled events are recorded")
+    void recorded(@TempDir Path dir) throws IOException {
+        Path file = dir.resolve("stylr.jfr");
+
+        try (Recording recording = new Recording()) {
+            recording.enable(CacheMissEvent.NAME);
+            recording.enable(MarkupCompileEvent.NAME);
+            recording.enable(SinkFlushEvent.NAME);
+            recording.enable(SlowRenderEvent.NAME).withThreshold(Duration.ZERO);
+            recording.start();
+
+            Stylr.style().color(17, 34, (int) (System.nanoTime() & 0xFF)).underlined().dim().build();
+            Markup.compile("[bold]a[/] [red]b[/]");
+            try (StyledWriter out = new StyledWriter(new StringWriter())) {
+                out.write("line\n");
+            }
+            new io.github.bitmeshi.stylr.Wrapper(10).wrap("some words to wrap");
+
+            recording.stop();
+            recording.dump(file);
+        }
+
+        Map<String, List<RecordedEvent>> events = RecordingFile.readAllEvents(file).stream()
+                .collect(Collectors.groupingBy(event -> event.getEventType().getName()));
+
+        RecordedEvent compile = events.get(MarkupCompileEvent.NAME).get(0);
+        assertEquals(20, compile.getInt("markupLength"));
+        assertEquals(3, compile.getInt("segments"));
+
+        assertTrue(events.get(CacheMissEvent.NAME).stream().anyMatch(event -> "style".equals(event.getString("cache"))));
+        assertEquals("StyledWriter", events.get(SinkFlushEvent.NAME).get(0).getString("sink"));
+        assertEquals("Wrapper.wrap", events.get(SlowRenderEvent.NAME).get(0).getString("operation"));
+    }
+}